@@ -7,11 +7,13 @@
 package org.mule.runtime.core.api;
 
 import static java.lang.String.format;
+import static org.apache.commons.io.FileUtils.copyFile;
 import static org.hamcrest.Matchers.arrayContainingInAnyOrder;
 import static org.hamcrest.Matchers.arrayWithSize;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
@@ -43,7 +45,9 @@ import javax.net.ssl.SSLSocketFactory;
 
 import io.qameta.allure.Description;
 import io.qameta.allure.Issue;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 public class TlsConfigurationTestCase extends AbstractMuleTestCase {
 
@@ -51,6 +55,9 @@ public class TlsConfigurationTestCase extends AbstractMuleTestCase {
   private static final String SUPPORTED_PROTOCOL = "TLSv1.1";
   private static final String TEST_SECURITY_MODEL = "test";
 
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
   @Test
   public void testEmptyConfiguration() throws Exception {
     TlsConfiguration configuration = new TlsConfiguration(DEFAULT_KEYSTORE);
@@ -140,6 +147,60 @@ public class TlsConfigurationTestCase extends AbstractMuleTestCase {
     assertTrue("socket is useless", socketFactory.getSupportedCipherSuites().length > 0);
   }
 
+  @Test
+  public void sslContextSharedBetweenEquivalentConfigurations() throws Exception {
+    TlsConfiguration configuration = createClientConfiguration("clientKeystore");
+    TlsConfiguration equivalentConfiguration = createClientConfiguration("clientKeystore");
+    TlsConfiguration otherConfiguration = createClientConfiguration("serverKeystore");
+
+    assertThat(configuration.getSslContext(), sameInstance(configuration.getSslContext()));
+    assertThat(equivalentConfiguration.getSslContext(), sameInstance(configuration.getSslContext()));
+    assertThat(otherConfiguration.getSslContext(), not(sameInstance(configuration.getSslContext())));
+  }
+
+  @Test
+  public void sslContextRecreatedWhenKeyStoreModified() throws Exception {
+    File keyStoreFile = temporaryFolder.newFile("rotatedKeystore");
+    copyFile(newFile(createClientConfiguration("clientKeystore").getKeyStore()), keyStoreFile, false);
+
+    TlsConfiguration configuration = createClientConfiguration(keyStoreFile.getAbsolutePath());
+    SSLContext sslContext = configuration.getSslContext();
+    long lastModified = keyStoreFile.lastModified();
+
+    copyFile(newFile(createClientConfiguration("serverKeystore").getKeyStore()), keyStoreFile, false);
+    keyStoreFile.setLastModified(lastModified + 2000);
+
+    assertThat(configuration.getSslContext(), not(sameInstance(sslContext)));
+  }
+
+  @Test
+  public void sslContextRecreatedWhenKeyStoreCreatedAgain() throws Exception {
+    File keyStoreFile = temporaryFolder.newFile("rotatedKeystore");
+    copyFile(newFile(createClientConfiguration("clientKeystore").getKeyStore()), keyStoreFile, false);
+
+    TlsConfiguration configuration = createClientConfiguration(keyStoreFile.getAbsolutePath());
+    SSLContext sslContext = configuration.getSslContext();
+    long lastModified = keyStoreFile.lastModified();
+
+    // While the store is being replaced, the previously loaded one is used
+    assertTrue(keyStoreFile.delete());
+    assertThat(configuration.getSslContext(), sameInstance(sslContext));
+
+    copyFile(newFile(createClientConfiguration("serverKeystore").getKeyStore()), keyStoreFile, false);
+    keyStoreFile.setLastModified(lastModified + 2000);
+
+    assertThat(configuration.getSslContext(), not(sameInstance(sslContext)));
+  }
+
+  private TlsConfiguration createClientConfiguration(String keyStore) throws Exception {
+    TlsConfiguration configuration = new TlsConfiguration(DEFAULT_KEYSTORE);
+    configuration.setKeyPassword("mulepassword");
+    configuration.setKeyStorePassword("mulepassword");
+    configuration.setKeyStore(keyStore);
+    configuration.initialise(false, JSSE_NAMESPACE);
+    return configuration;
+  }
+
   @Test
   public void testTlsConfigurationUsingPKCS12KeystoreWithMultipleKeys() throws Exception {
     TlsConfiguration configuration = new TlsConfiguration(DEFAULT_KEYSTORE);
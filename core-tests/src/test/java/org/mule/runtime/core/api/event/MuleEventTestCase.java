@@ -7,6 +7,7 @@
 package org.mule.runtime.core.api.event;
 
 import static java.util.Collections.singletonMap;
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.Matchers.sameInstance;
 import static org.hamcrest.core.IsNot.not;
@@ -138,6 +139,30 @@ public class MuleEventTestCase extends AbstractMuleContextTestCase {
     assertArrayEquals((byte[]) testEvent.getMessage().getPayload().getValue(), payload.toString().getBytes());
   }
 
+  @Test
+  public void variablesSerialization() throws Exception {
+    CoreEvent event = getEventBuilder()
+        .message(of("whatever"))
+        .addVariable("foo", "bar")
+        .addVariable("baz", "qux")
+        .build();
+    event = CoreEvent.builder(event).removeVariable("baz").addVariable("Other", "value").build();
+
+    currentMuleContext.set(muleContext);
+    byte[] serializedEvent = muleContext.getObjectSerializer().getExternalProtocol().serialize(event);
+    CoreEvent deserialized = muleContext.getObjectSerializer().getExternalProtocol().deserialize(serializedEvent);
+
+    Map<String, TypedValue<?>> variables = deserialized.getVariables();
+    assertThat(variables.getClass().getName(), not(containsString("Persistent")));
+    assertThat(variables.size(), is(2));
+    assertEquals("bar", variables.get("FOO").getValue());
+    assertEquals("value", variables.get("other").getValue());
+
+    CoreEvent updated = CoreEvent.builder(deserialized).addVariable("foo", "bar2").build();
+    assertEquals("bar2", updated.getVariables().get("foo").getValue());
+    assertEquals("bar", deserialized.getVariables().get("foo").getValue());
+  }
+
   private void createAndRegisterTransformersEndpointBuilderService() throws Exception {
     Transformer trans1 = new TestEventTransformer();
     trans1.setName("OptimusPrime");
@@ -0,0 +1,391 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.api.config.PoolingProfile.DEFAULT_MAX_POOL_WAIT;
+import static org.mule.runtime.api.config.PoolingProfile.INITIALISE_NONE;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_FAIL;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_GROW;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_WAIT;
+
+import org.mule.runtime.api.config.PoolingProfile;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.pool.PoolableObjectFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+public class ConcurrentConnectionPoolTestCase extends AbstractMuleTestCase {
+
+  private static final int MAX_ACTIVE = 4;
+
+  private PoolableObjectFactory<Object> factory;
+  private ConcurrentConnectionPool<Object> pool;
+
+  @Before
+  public void before() throws Exception {
+    factory = mock(PoolableObjectFactory.class);
+    when(factory.makeObject()).thenAnswer(inv -> new Object());
+  }
+
+  @After
+  public void after() {
+    if (pool != null) {
+      pool.close();
+    }
+  }
+
+  @Test
+  public void sameThreadReusesReturnedConnection() throws Exception {
+    pool = createPool(WHEN_EXHAUSTED_WAIT);
+
+    Object connection = pool.borrowObject();
+    pool.returnObject(connection);
+
+    for (int i = 0; i < 10; i++) {
+      Object borrowed = pool.borrowObject();
+      assertThat(borrowed, is(sameInstance(connection)));
+      pool.returnObject(borrowed);
+    }
+
+    verify(factory, times(1)).makeObject();
+    assertThat(pool.getNumIdle(), is(1));
+    assertThat(pool.getNumActive(), is(0));
+  }
+
+  @Test
+  public void borrowedConnectionsAreNotShared() throws Exception {
+    pool = createPool(WHEN_EXHAUSTED_WAIT);
+
+    Object connection1 = pool.borrowObject();
+    Object connection2 = pool.borrowObject();
+    assertThat(connection1, is(not(sameInstance(connection2))));
+    assertThat(pool.getNumActive(), is(2));
+  }
+
+  @Test
+  public void exhaustedFail() throws Exception {
+    pool = createPool(WHEN_EXHAUSTED_FAIL);
+    List<Object> borrowed = borrowAll();
+
+    try {
+      pool.borrowObject();
+      fail("Was expecting the pool to be exhausted");
+    } catch (NoSuchElementException e) {
+      // expected
+    }
+
+    pool.returnObject(borrowed.get(0));
+    assertThat(pool.borrowObject(), is(sameInstance(borrowed.get(0))));
+  }
+
+  @Test
+  public void exhaustedWaitTimesOut() throws Exception {
+    PoolingProfile poolingProfile = new PoolingProfile(1, 1, 100, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE);
+    pool = new ConcurrentConnectionPool<>(factory, poolingProfile, null);
+    pool.borrowObject();
+
+    try {
+      pool.borrowObject();
+      fail("Was expecting the pool to be exhausted");
+    } catch (NoSuchElementException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void exhaustedWaitGetsReturnedConnection() throws Exception {
+    pool = createPool(WHEN_EXHAUSTED_WAIT);
+    List<Object> borrowed = borrowAll();
+
+    ExecutorService executor = newFixedThreadPool(1);
+    try {
+      CountDownLatch borrowing = new CountDownLatch(1);
+      Future<Object> waiting = executor.submit(() -> {
+        borrowing.countDown();
+        return pool.borrowObject();
+      });
+
+      borrowing.await();
+      pool.returnObject(borrowed.get(0));
+      assertThat(waiting.get(5, SECONDS), is(sameInstance(borrowed.get(0))));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void exhaustedGrow() throws Exception {
+    pool = createPool(WHEN_EXHAUSTED_GROW);
+    borrowAll();
+
+    pool.borrowObject();
+    assertThat(pool.getNumActive(), is(MAX_ACTIVE + 1));
+  }
+
+  @Test
+  public void connectionsOverMaxIdleAreDestroyed() throws Exception {
+    PoolingProfile poolingProfile = new PoolingProfile(MAX_ACTIVE, 1, DEFAULT_MAX_POOL_WAIT, WHEN_EXHAUSTED_WAIT,
+                                                       INITIALISE_NONE);
+    pool = new ConcurrentConnectionPool<>(factory, poolingProfile, null);
+    List<Object> borrowed = borrowAll();
+
+    for (Object connection : borrowed) {
+      pool.returnObject(connection);
+    }
+
+    assertThat(pool.getNumIdle(), is(1));
+    verify(factory, times(MAX_ACTIVE - 1)).destroyObject(any());
+  }
+
+  @Test
+  public void invalidate() throws Exception {
+    pool = createPool(WHEN_EXHAUSTED_FAIL);
+    List<Object> borrowed = borrowAll();
+
+    pool.invalidateObject(borrowed.get(0));
+    verify(factory).destroyObject(borrowed.get(0));
+
+    Object connection = pool.borrowObject();
+    assertThat(connection, is(not(sameInstance(borrowed.get(0)))));
+    verify(factory, times(MAX_ACTIVE + 1)).makeObject();
+  }
+
+  @Test
+  public void setFactoryDestroysIdleConnectionsWithPreviousFactory() throws Exception {
+    pool = createPool(WHEN_EXHAUSTED_WAIT);
+    Object connection = pool.borrowObject();
+    pool.returnObject(connection);
+
+    PoolableObjectFactory<Object> newFactory = mock(PoolableObjectFactory.class);
+    Object newConnection = new Object();
+    when(newFactory.makeObject()).thenReturn(newConnection);
+    pool.setFactory(newFactory);
+
+    verify(factory).destroyObject(connection);
+    assertThat(pool.getNumIdle(), is(0));
+    assertThat(pool.borrowObject(), is(sameInstance(newConnection)));
+    verify(newFactory, never()).destroyObject(any());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void setFactoryWithConnectionsInUse() throws Exception {
+    pool = createPool(WHEN_EXHAUSTED_WAIT);
+    pool.borrowObject();
+
+    pool.setFactory(mock(PoolableObjectFactory.class));
+  }
+
+  @Test
+  public void closeDestroysIdleConnections() throws Exception {
+    pool = createPool(WHEN_EXHAUSTED_WAIT);
+    List<Object> borrowed = borrowAll();
+    pool.returnObject(borrowed.get(0));
+
+    pool.close();
+    verify(factory).destroyObject(borrowed.get(0));
+    verify(factory, never()).destroyObject(borrowed.get(1));
+
+    pool.returnObject(borrowed.get(1));
+    verify(factory).destroyObject(borrowed.get(1));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void borrowFromClosedPool() throws Exception {
+    pool = createPool(WHEN_EXHAUSTED_WAIT);
+    pool.close();
+    pool.borrowObject();
+  }
+
+  @Test
+  public void evictIdleConnections() throws Exception {
+    PoolingProfile poolingProfile = new PoolingProfile(MAX_ACTIVE, MAX_ACTIVE, DEFAULT_MAX_POOL_WAIT, WHEN_EXHAUSTED_WAIT,
+                                                       INITIALISE_NONE);
+    poolingProfile.setMinEvictionMillis(1);
+    pool = new ConcurrentConnectionPool<>(factory, poolingProfile, null);
+
+    Object idle = pool.borrowObject();
+    Object active = pool.borrowObject();
+    pool.returnObject(idle);
+
+    Thread.sleep(10);
+    pool.evict();
+
+    verify(factory).destroyObject(idle);
+    verify(factory, never()).destroyObject(active);
+    assertThat(pool.getNumIdle(), is(0));
+  }
+
+  @Test
+  public void evictionDoesNotValidateConnections() throws Exception {
+    PoolingProfile poolingProfile = new PoolingProfile(MAX_ACTIVE, MAX_ACTIVE, DEFAULT_MAX_POOL_WAIT, WHEN_EXHAUSTED_WAIT,
+                                                       INITIALISE_NONE);
+    poolingProfile.setMinEvictionMillis(60000);
+    pool = new ConcurrentConnectionPool<>(factory, poolingProfile, null);
+    Object connection = pool.borrowObject();
+    pool.returnObject(connection);
+
+    pool.evict();
+
+    verify(factory, never()).validateObject(any());
+    verify(factory, never()).destroyObject(any());
+    assertThat(pool.borrowObject(), is(sameInstance(connection)));
+  }
+
+  @Test
+  public void closeDoesNotStopSharedEvictionScheduler() throws Exception {
+    Scheduler evictionScheduler = mock(Scheduler.class);
+    ScheduledFuture<?> evictionTask = mock(ScheduledFuture.class);
+    doReturn(evictionTask).when(evictionScheduler).scheduleWithFixedDelay(any(), anyLong(), anyLong(), any());
+
+    PoolingProfile poolingProfile = new PoolingProfile(MAX_ACTIVE, MAX_ACTIVE, DEFAULT_MAX_POOL_WAIT, WHEN_EXHAUSTED_WAIT,
+                                                       INITIALISE_NONE);
+    poolingProfile.setMinEvictionMillis(1);
+    poolingProfile.setEvictionCheckIntervalMillis(1);
+    pool = new ConcurrentConnectionPool<>(factory, poolingProfile, evictionScheduler);
+    pool.close();
+
+    verify(evictionTask).cancel(false);
+    verify(evictionScheduler, never()).stop();
+  }
+
+  @Test
+  public void concurrentReturnsOfTheSameConnection() throws Exception {
+    pool = createPool(WHEN_EXHAUSTED_WAIT);
+
+    ExecutorService executor = newFixedThreadPool(2);
+    try {
+      for (int i = 0; i < 100; i++) {
+        Object connection = pool.borrowObject();
+        CountDownLatch latch = new CountDownLatch(1);
+        List<Future<Boolean>> returns = new ArrayList<>();
+        for (int j = 0; j < 2; j++) {
+          returns.add(executor.submit(() -> {
+            latch.await();
+            try {
+              pool.returnObject(connection);
+              return true;
+            } catch (IllegalStateException e) {
+              return false;
+            }
+          }));
+        }
+        latch.countDown();
+
+        int returned = 0;
+        for (Future<Boolean> result : returns) {
+          if (result.get(5, SECONDS)) {
+            returned++;
+          }
+        }
+        assertThat(returned, is(1));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(pool.getNumActive(), is(0));
+    assertThat(pool.getNumIdle(), is(lessThanOrEqualTo(MAX_ACTIVE)));
+  }
+
+  @Test
+  public void metrics() throws Exception {
+    pool = createPool(WHEN_EXHAUSTED_FAIL);
+    List<Object> borrowed = borrowAll();
+    pool.returnObject(borrowed.get(0));
+    pool.invalidateObject(borrowed.get(1));
+
+    ConnectionPoolMetrics metrics = pool.getMetrics();
+    assertThat(metrics.getBorrowsCount(), is((long) MAX_ACTIVE));
+    assertThat(metrics.getCreatedCount(), is((long) MAX_ACTIVE));
+    assertThat(metrics.getDestroyedCount(), is(1L));
+    assertThat(metrics.getActiveCount(), is(MAX_ACTIVE - 2));
+    assertThat(metrics.getIdleCount(), is(1));
+
+    long histogramCount = 0;
+    for (long count : metrics.getBorrowWaitHistogram()) {
+      histogramCount += count;
+    }
+    assertThat(histogramCount, is((long) MAX_ACTIVE));
+  }
+
+  @Test
+  public void concurrentBorrowers() throws Exception {
+    pool = createPool(WHEN_EXHAUSTED_WAIT);
+    final AtomicInteger inUse = new AtomicInteger();
+    final AtomicInteger maxInUse = new AtomicInteger();
+
+    ExecutorService executor = newFixedThreadPool(MAX_ACTIVE * 2);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < MAX_ACTIVE * 2; i++) {
+        futures.add(executor.submit(() -> {
+          for (int j = 0; j < 1000; j++) {
+            Object connection = pool.borrowObject();
+            maxInUse.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+            inUse.decrementAndGet();
+            pool.returnObject(connection);
+          }
+          return null;
+        }));
+      }
+
+      for (Future<?> future : futures) {
+        future.get(10, SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(maxInUse.get(), is(lessThanOrEqualTo(MAX_ACTIVE)));
+    assertThat(pool.getNumActive(), is(0));
+    assertThat(pool.getNumIdle(), is(lessThanOrEqualTo(MAX_ACTIVE)));
+  }
+
+  private ConcurrentConnectionPool<Object> createPool(int exhaustedAction) {
+    PoolingProfile poolingProfile = new PoolingProfile(MAX_ACTIVE, MAX_ACTIVE, DEFAULT_MAX_POOL_WAIT, exhaustedAction,
+                                                       INITIALISE_NONE);
+    return new ConcurrentConnectionPool<>(factory, poolingProfile, null);
+  }
+
+  private List<Object> borrowAll() throws Exception {
+    List<Object> borrowed = new ArrayList<>();
+    for (int i = 0; i < MAX_ACTIVE; i++) {
+      borrowed.add(pool.borrowObject());
+    }
+    return borrowed;
+  }
+}
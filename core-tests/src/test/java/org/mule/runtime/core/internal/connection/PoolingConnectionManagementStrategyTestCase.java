@@ -154,7 +154,9 @@ public class PoolingConnectionManagementStrategyTestCase extends AbstractMuleCon
   }
 
   private void initStrategy() {
-    strategy = new PoolingConnectionManagementStrategy<>(connectionProvider, poolingProfile, poolingListener, muleContext);
+    strategy = new PoolingConnectionManagementStrategy<>(connectionProvider, poolingProfile, poolingListener,
+                                                         () -> muleContext.getSchedulerService().ioScheduler(),
+                                                         muleContext);
   }
 
   private <T> void verifyThat(Assertion<T> assertion) throws Exception {
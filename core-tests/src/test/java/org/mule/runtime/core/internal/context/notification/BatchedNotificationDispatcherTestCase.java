@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.context.notification;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.internal.context.notification.BatchedNotificationDispatcher.HIGH_FREQUENCY_NOTIFICATIONS_KEY;
+import static org.mule.runtime.core.internal.context.notification.BatchedNotificationDispatcher.MAX_BATCH_SIZE;
+import static org.mule.runtime.core.internal.context.notification.BatchedNotificationDispatcher.OverflowPolicy.BLOCK;
+import static org.mule.runtime.core.internal.context.notification.BatchedNotificationDispatcher.OverflowPolicy.DROP;
+
+import org.mule.runtime.api.component.Component;
+import org.mule.runtime.api.notification.MessageProcessorNotification;
+import org.mule.runtime.api.notification.Notification;
+import org.mule.runtime.api.notification.NotificationListener;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+public class BatchedNotificationDispatcherTestCase extends AbstractMuleTestCase {
+
+  private static final int BUFFER_SIZE = 8;
+
+  private final List<Runnable> liteTasks = new ArrayList<>();
+  private final List<Runnable> ioTasks = new ArrayList<>();
+  private final List<Notification> received = new ArrayList<>();
+
+  private Scheduler liteScheduler;
+  private Scheduler ioScheduler;
+  private NotificationListener listener;
+
+  @Before
+  public void before() {
+    liteScheduler = mockScheduler(liteTasks);
+    ioScheduler = mockScheduler(ioTasks);
+
+    listener = mock(NotificationListener.class);
+    when(listener.isBlocking()).thenReturn(false);
+    recordNotifications(listener);
+  }
+
+  @Test
+  public void notificationsDeliveredInOrderInASingleTask() {
+    BatchedNotificationDispatcher dispatcher = new BatchedNotificationDispatcher(liteScheduler, ioScheduler, BUFFER_SIZE, DROP);
+    Notification n1 = mock(Notification.class);
+    Notification n2 = mock(Notification.class);
+    Notification n3 = mock(Notification.class);
+
+    dispatcher.dispatch(listener, n1);
+    dispatcher.dispatch(listener, n2);
+    dispatcher.dispatch(listener, n3);
+
+    assertThat(liteTasks, hasSize(1));
+    assertThat(dispatcher.getPendingCount(), is(3L));
+
+    runTasks(liteTasks);
+    assertThat(received, contains(n1, n2, n3));
+    assertThat(dispatcher.getQueuedCount(), is(3L));
+    assertThat(dispatcher.getPendingCount(), is(0L));
+    assertThat(dispatcher.getDroppedCount(), is(0L));
+  }
+
+  @Test
+  public void blockingListenerNotifiedOnIoScheduler() {
+    BatchedNotificationDispatcher dispatcher = new BatchedNotificationDispatcher(liteScheduler, ioScheduler, BUFFER_SIZE, DROP);
+    when(listener.isBlocking()).thenReturn(true);
+
+    dispatcher.dispatch(listener, mock(Notification.class));
+
+    assertThat(liteTasks, is(empty()));
+    assertThat(ioTasks, hasSize(1));
+  }
+
+  @Test
+  public void dropWhenBufferFull() {
+    BatchedNotificationDispatcher dispatcher = new BatchedNotificationDispatcher(liteScheduler, ioScheduler, BUFFER_SIZE, DROP);
+
+    for (int i = 0; i < BUFFER_SIZE + 2; ++i) {
+      dispatcher.dispatch(listener, mock(Notification.class));
+    }
+
+    assertThat(dispatcher.getQueuedCount(), is((long) BUFFER_SIZE));
+    assertThat(dispatcher.getDroppedCount(), is(2L));
+
+    runTasks(liteTasks);
+    assertThat(received, hasSize(BUFFER_SIZE));
+  }
+
+  @Test
+  public void newTaskScheduledAfterDrain() {
+    BatchedNotificationDispatcher dispatcher = new BatchedNotificationDispatcher(liteScheduler, ioScheduler, BUFFER_SIZE, BLOCK);
+
+    dispatcher.dispatch(listener, mock(Notification.class));
+    runTasks(liteTasks);
+    dispatcher.dispatch(listener, mock(Notification.class));
+    runTasks(liteTasks);
+
+    assertThat(received, hasSize(2));
+  }
+
+  @Test
+  public void blockPolicyDropsWhenThreadCannotBlock() {
+    BatchedNotificationDispatcher dispatcher =
+        new BatchedNotificationDispatcher(liteScheduler, ioScheduler, BUFFER_SIZE, BLOCK, () -> false);
+
+    for (int i = 0; i < BUFFER_SIZE + 2; ++i) {
+      dispatcher.dispatch(listener, mock(Notification.class));
+    }
+
+    assertThat(dispatcher.getQueuedCount(), is((long) BUFFER_SIZE));
+    assertThat(dispatcher.getDroppedCount(), is(2L));
+  }
+
+  @Test
+  public void largeBacklogDrainedInSeveralBatches() {
+    int notifications = MAX_BATCH_SIZE + 10;
+    BatchedNotificationDispatcher dispatcher = new BatchedNotificationDispatcher(liteScheduler, ioScheduler, notifications, DROP);
+
+    for (int i = 0; i < notifications; ++i) {
+      dispatcher.dispatch(listener, mock(Notification.class));
+    }
+
+    assertThat(liteTasks, hasSize(1));
+    liteTasks.remove(0).run();
+    assertThat(received, hasSize(MAX_BATCH_SIZE));
+    assertThat(liteTasks, hasSize(1));
+
+    runTasks(liteTasks);
+    assertThat(received, hasSize(notifications));
+  }
+
+  @Test
+  public void failingListenerDoesNotStopBatch() {
+    BatchedNotificationDispatcher dispatcher = new BatchedNotificationDispatcher(liteScheduler, ioScheduler, BUFFER_SIZE, DROP);
+    Notification failing = mock(Notification.class);
+    Notification other = mock(Notification.class);
+    doThrow(new IllegalStateException("expected")).when(listener).onNotification(failing);
+
+    dispatcher.dispatch(listener, failing);
+    dispatcher.dispatch(listener, other);
+    runTasks(liteTasks);
+
+    assertThat(received, contains(other));
+  }
+
+  @Test
+  public void rejectedDrainDropsPending() {
+    BatchedNotificationDispatcher dispatcher = new BatchedNotificationDispatcher(liteScheduler, ioScheduler, BUFFER_SIZE, DROP);
+    when(liteScheduler.submit(any(Runnable.class))).thenThrow(new RejectedExecutionException());
+
+    dispatcher.dispatch(listener, mock(Notification.class));
+
+    assertThat(dispatcher.getDroppedCount(), is(1L));
+    assertThat(dispatcher.getPendingCount(), is(0L));
+  }
+
+  @Test
+  public void latestNotificationPerKeyDeliveredInBatch() {
+    Map<Notification, Object> keys = new HashMap<>();
+    BatchedNotificationDispatcher dispatcher =
+        new BatchedNotificationDispatcher(liteScheduler, ioScheduler, BUFFER_SIZE, DROP, () -> true, keys::get);
+    Notification a1 = mock(Notification.class);
+    Notification b1 = mock(Notification.class);
+    Notification other = mock(Notification.class);
+    Notification a2 = mock(Notification.class);
+    keys.put(a1, "a");
+    keys.put(a2, "a");
+    keys.put(b1, "b");
+
+    dispatcher.dispatch(listener, a1);
+    dispatcher.dispatch(listener, b1);
+    dispatcher.dispatch(listener, other);
+    dispatcher.dispatch(listener, a2);
+    runTasks(liteTasks);
+
+    assertThat(received, contains(b1, other, a2));
+    assertThat(dispatcher.getQueuedCount(), is(4L));
+    assertThat(dispatcher.getCoalescedCount(), is(1L));
+    assertThat(dispatcher.getDroppedCount(), is(0L));
+  }
+
+  @Test
+  public void notificationsOfDifferentBatchesNotCoalesced() {
+    BatchedNotificationDispatcher dispatcher =
+        new BatchedNotificationDispatcher(liteScheduler, ioScheduler, BUFFER_SIZE, DROP, () -> true, n -> "same");
+    Notification n1 = mock(Notification.class);
+    Notification n2 = mock(Notification.class);
+
+    dispatcher.dispatch(listener, n1);
+    runTasks(liteTasks);
+    dispatcher.dispatch(listener, n2);
+    runTasks(liteTasks);
+
+    assertThat(received, contains(n1, n2));
+    assertThat(dispatcher.getCoalescedCount(), is(0L));
+  }
+
+  @Test
+  public void messageProcessorNotificationsCoalescedPerComponent() {
+    BatchedNotificationDispatcher dispatcher =
+        new BatchedNotificationDispatcher(liteScheduler, ioScheduler, BUFFER_SIZE, DROP, () -> true,
+                                          HIGH_FREQUENCY_NOTIFICATIONS_KEY);
+    Component component = mock(Component.class);
+    Component otherComponent = mock(Component.class);
+    MessageProcessorNotification first = processorNotification(component);
+    MessageProcessorNotification fromOther = processorNotification(otherComponent);
+    MessageProcessorNotification second = processorNotification(component);
+    Notification notCoalesced = mock(Notification.class);
+
+    dispatcher.dispatch(listener, first);
+    dispatcher.dispatch(listener, fromOther);
+    dispatcher.dispatch(listener, notCoalesced);
+    dispatcher.dispatch(listener, second);
+    runTasks(liteTasks);
+
+    assertThat(received, contains(fromOther, notCoalesced, second));
+  }
+
+  @Test
+  public void removedListenerNotNotified() {
+    BatchedNotificationDispatcher dispatcher = new BatchedNotificationDispatcher(liteScheduler, ioScheduler, BUFFER_SIZE, DROP);
+
+    dispatcher.dispatch(listener, mock(Notification.class));
+    dispatcher.removeListener(listener);
+    runTasks(liteTasks);
+
+    verify(listener, never()).onNotification(any());
+    assertThat(dispatcher.getDroppedCount(), is(1L));
+  }
+
+  private MessageProcessorNotification processorNotification(Component component) {
+    MessageProcessorNotification notification = mock(MessageProcessorNotification.class);
+    when(notification.getComponent()).thenReturn(component);
+    return notification;
+  }
+
+  private Scheduler mockScheduler(List<Runnable> tasks) {
+    Scheduler scheduler = mock(Scheduler.class);
+    when(scheduler.submit(any(Runnable.class))).thenAnswer(inv -> {
+      tasks.add(inv.getArgument(0));
+      return null;
+    });
+    return scheduler;
+  }
+
+  private void recordNotifications(NotificationListener listener) {
+    doAnswer(inv -> {
+      received.add(inv.getArgument(0));
+      return null;
+    }).when(listener).onNotification(any());
+  }
+
+  private void runTasks(List<Runnable> tasks) {
+    while (!tasks.isEmpty()) {
+      tasks.remove(0).run();
+    }
+  }
+}
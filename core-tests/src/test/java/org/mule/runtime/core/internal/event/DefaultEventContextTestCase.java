@@ -538,6 +538,38 @@ public class DefaultEventContextTestCase extends AbstractMuleContextTestCase {
     assertThat(parent.isTerminated(), is(true));
   }
 
+  @Test
+  @Description("Parent EventContext only completes once all child contexts are complete, regardless of the order in which they complete, even when they complete concurrently.")
+  public void manyChildrenCompletedConcurrently() throws Exception {
+    List<BaseEventContext> children = new ArrayList<>();
+    for (int i = 0; i < 100; ++i) {
+      children.add(child(parent, empty()));
+    }
+
+    parent.success(testEvent());
+    assertParent(is(testEvent()), is(nullValue()), false, false);
+
+    Scheduler scheduler = muleContext.getSchedulerService().cpuLightScheduler();
+    try {
+      for (int i = children.size() - 1; i > 0; --i) {
+        BaseEventContext child = children.get(i);
+        scheduler.submit(() -> child.success());
+      }
+      new PollingProber().check(new JUnitLambdaProbe(() -> {
+        for (int i = 1; i < children.size(); ++i) {
+          assertThat(children.get(i).isTerminated(), is(true));
+        }
+        return true;
+      }));
+    } finally {
+      scheduler.stop();
+    }
+    assertParent(is(testEvent()), is(nullValue()), false, false);
+
+    children.get(0).success();
+    assertParent(is(testEvent()), is(nullValue()), true, true);
+  }
+
   @Test
   @Description("EventContext response publisher completes with value of result but the completion publisher only completes once the external publisher completes.")
   public void externalCompletionSuccess() throws Exception {
@@ -624,6 +656,24 @@ public class DefaultEventContextTestCase extends AbstractMuleContextTestCase {
     assertParent(is(testEvent()), is(nullValue()), true, true);
   }
 
+  @Test
+  @Description("When a child event context is de-serialized, its completion doesn't count for the children of the de-serialized copy of its parent.")
+  public void deserializedChildDoesNotCompleteChildrenOfDeserializedParent() throws Exception {
+    child = addChild(parent);
+
+    byte[] bytes = muleContext.getObjectSerializer().getExternalProtocol().serialize(child);
+    BaseEventContext deserializedChild = muleContext.getObjectSerializer().getExternalProtocol().deserialize(bytes);
+    BaseEventContext deserializedParent = deserializedChild.getParentContext().get();
+    deserializedChild.success(testEvent());
+
+    BaseEventContext newChild = child(deserializedParent, empty());
+    deserializedParent.success(testEvent());
+    assertThat(deserializedParent.isComplete(), is(false));
+
+    newChild.success(testEvent());
+    assertThat(deserializedParent.isComplete(), is(true));
+  }
+
   @Test
   @Description("Verify that a location produces connector and source data.")
   public void componentData() throws Exception {
@@ -6,6 +6,8 @@
  */
 package org.mule.runtime.core.internal.management.stats;
 
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 
@@ -13,6 +15,12 @@ import org.mule.runtime.core.api.management.stats.ComponentStatistics;
 import org.mule.tck.junit4.AbstractMuleTestCase;
 import org.mule.tck.junit4.rule.SystemProperty;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.commons.lang3.SerializationUtils;
 import org.junit.Rule;
 import org.junit.Test;
 
@@ -150,4 +158,67 @@ public class ComponentStatisticsTestCase extends AbstractMuleTestCase {
     stats.addExecutionBranchTime(true, 100L, 100L);
     assertValues(stats, 2L, 200L, 100L, 100L, 100L);
   }
+
+  @Test
+  public void executionTimePercentiles() {
+    ComponentStatistics stats = new ComponentStatistics();
+    for (long i = 1; i <= 10; i++) {
+      stats.addExecutionTime(i);
+    }
+    assertThat(stats.getExecutionTimeP50(), equalTo(5L));
+    assertThat(stats.getExecutionTimeP99(), equalTo(10L));
+    assertThat(stats.getExecutionTimePercentile(100), equalTo(10L));
+
+    stats.clear();
+    assertThat(stats.getExecutionTimeP50(), equalTo(0L));
+  }
+
+  @Test
+  public void branchExecutionTimePercentiles() {
+    ComponentStatistics stats = new ComponentStatistics();
+    stats.addCompleteExecutionTime(2L);
+    assertThat(stats.getExecutionTimePercentile(100), equalTo(0L));
+
+    stats.addExecutionBranchTime(true, 1L, 1L);
+    stats.addExecutionBranchTime(false, 1L, 2L);
+    stats.addCompleteExecutionTime(2L);
+    assertThat(stats.getExecutionTimePercentile(100), equalTo(2L));
+  }
+
+  @Test
+  public void serializable() {
+    ComponentStatistics stats = new ComponentStatistics();
+    stats.addExecutionTime(100L);
+    stats.addExecutionTime(20L);
+
+    ComponentStatistics copy = SerializationUtils.clone(stats);
+    assertValues(copy, 2L, 120L, 60L, 100L, 20L);
+    assertThat(copy.getExecutionTimePercentile(100), equalTo(stats.getExecutionTimePercentile(100)));
+
+    copy.addExecutionTime(10L);
+    assertValues(copy, 3L, 130L, 43L, 100L, 10L);
+  }
+
+  @Test
+  public void concurrentExecutionTimes() throws Exception {
+    ComponentStatistics stats = new ComponentStatistics();
+    ExecutorService executor = newFixedThreadPool(4);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        futures.add(executor.submit(() -> {
+          for (int j = 0; j < 10000; j++) {
+            stats.addExecutionTime(2L);
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get(10, SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertValues(stats, 40000L, 80000L, 2L, 2L, 2L);
+  }
 }
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.management.stats;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Test;
+
+@SmallTest
+public class DefaultFlowConstructStatisticsTestCase extends AbstractMuleTestCase {
+
+  @Test
+  public void processingTimePercentiles() {
+    DefaultFlowConstructStatistics stats = new DefaultFlowConstructStatistics("flow", "test");
+    for (long i = 1; i <= 10; i++) {
+      stats.addFlowExecutionBranchTime(i, i);
+      stats.addCompleteFlowExecutionTime(i);
+    }
+    assertThat(stats.getProcessingTimeP50(), equalTo(5L));
+    assertThat(stats.getProcessingTimePercentile(100), equalTo(10L));
+
+    stats.clear();
+    assertThat(stats.getProcessingTimeP50(), equalTo(0L));
+  }
+
+  @Test
+  public void completeTimeNotRecordedBeforeFirstBranch() {
+    DefaultFlowConstructStatistics stats = new DefaultFlowConstructStatistics("flow", "test");
+    stats.addCompleteFlowExecutionTime(2L);
+    assertThat(stats.getProcessingTimePercentile(100), equalTo(0L));
+
+    stats.addFlowExecutionBranchTime(2L, 2L);
+    stats.addCompleteFlowExecutionTime(2L);
+    assertThat(stats.getProcessingTimePercentile(100), equalTo(2L));
+  }
+
+  @Test
+  public void serializable() {
+    DefaultFlowConstructStatistics stats = new DefaultFlowConstructStatistics("flow", "test");
+    stats.addFlowExecutionBranchTime(3L, 3L);
+    stats.addCompleteFlowExecutionTime(3L);
+
+    DefaultFlowConstructStatistics copy = SerializationUtils.clone(stats);
+    assertThat(copy.getProcessedEvents(), equalTo(1L));
+    assertThat(copy.getMinProcessingTime(), equalTo(3L));
+    assertThat(copy.getMaxProcessingTime(), equalTo(3L));
+    assertThat(copy.getProcessingTimePercentile(100), equalTo(3L));
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.management.stats;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Test;
+
+@SmallTest
+public class LatencyHistogramTestCase extends AbstractMuleTestCase {
+
+  @Test
+  public void empty() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    assertThat(histogram.getTotalCount(), equalTo(0L));
+    assertThat(histogram.getValueAtPercentile(50), equalTo(0L));
+  }
+
+  @Test
+  public void smallValuesAreExact() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long i = 1; i <= 10; i++) {
+      histogram.record(i);
+    }
+
+    assertThat(histogram.getTotalCount(), equalTo(10L));
+    assertThat(histogram.getValueAtPercentile(50), equalTo(5L));
+    assertThat(histogram.getValueAtPercentile(100), equalTo(10L));
+    assertThat(histogram.getValueAtPercentile(0), equalTo(1L));
+  }
+
+  @Test
+  public void percentilesWithinPrecision() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long i = 1; i <= 100000; i++) {
+      histogram.record(i);
+    }
+
+    assertWithinPrecision(histogram.getValueAtPercentile(50), 50000);
+    assertWithinPrecision(histogram.getValueAtPercentile(99), 99000);
+    assertWithinPrecision(histogram.getValueAtPercentile(99.9), 99900);
+  }
+
+  @Test
+  public void outOfRangeValues() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(-5);
+    histogram.record(Long.MAX_VALUE);
+
+    assertThat(histogram.getValueAtPercentile(50), equalTo(0L));
+    assertThat(histogram.getValueAtPercentile(100), equalTo((1L << 41) - 1));
+  }
+
+  @Test
+  public void addAndReset() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    LatencyHistogram other = new LatencyHistogram();
+    histogram.record(1);
+    other.record(3);
+    other.record(3);
+
+    histogram.add(other);
+    assertThat(histogram.getTotalCount(), equalTo(3L));
+    assertThat(histogram.getValueAtPercentile(50), equalTo(3L));
+
+    histogram.reset();
+    assertThat(histogram.getTotalCount(), equalTo(0L));
+    assertThat(other.getTotalCount(), equalTo(2L));
+  }
+
+  private void assertWithinPrecision(long value, long expected) {
+    assertThat(value, allOf(greaterThanOrEqualTo(expected), lessThanOrEqualTo(expected + expected / 16)));
+  }
+}
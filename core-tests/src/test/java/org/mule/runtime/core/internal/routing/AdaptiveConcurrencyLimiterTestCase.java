@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+@SmallTest
+public class AdaptiveConcurrencyLimiterTestCase extends AbstractMuleTestCase {
+
+  private static final long LATENCY = MILLISECONDS.toNanos(10);
+
+  private final AtomicInteger started = new AtomicInteger();
+
+  @Test
+  public void initialLimitWithinBounds() {
+    assertThat(new AdaptiveConcurrencyLimiter(2, 4, 1).getLimit(), is(2));
+    assertThat(new AdaptiveConcurrencyLimiter(2, 4, 8).getLimit(), is(4));
+    assertThat(new AdaptiveConcurrencyLimiter(2, 4, 3).getLimit(), is(3));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void maxLowerThanMin() {
+    new AdaptiveConcurrencyLimiter(4, 2, 2);
+  }
+
+  @Test
+  public void routesWaitForLimit() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1);
+
+    limiter.acquire(started::incrementAndGet);
+    limiter.acquire(started::incrementAndGet);
+    assertThat(started.get(), is(1));
+    assertThat(limiter.getInFlight(), is(1));
+    assertThat(limiter.getWaiting(), is(1));
+
+    limiter.release(LATENCY, false);
+    assertThat(started.get(), is(2));
+    assertThat(limiter.getInFlight(), is(1));
+    assertThat(limiter.getWaiting(), is(0));
+  }
+
+  @Test
+  public void cancelledRouteNotStarted() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1);
+    Runnable waiting = started::incrementAndGet;
+
+    limiter.acquire(started::incrementAndGet);
+    limiter.acquire(waiting);
+    assertThat(limiter.cancel(waiting), is(true));
+    limiter.release();
+
+    assertThat(started.get(), is(1));
+    assertThat(limiter.getInFlight(), is(0));
+  }
+
+  @Test
+  public void limitIncreasesWhileFullyUsed() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 10, 2);
+
+    for (int i = 0; i < 20; ++i) {
+      limiter.acquire(started::incrementAndGet);
+      limiter.acquire(started::incrementAndGet);
+      limiter.release(LATENCY, false);
+      limiter.release(LATENCY, false);
+      while (limiter.getInFlight() > 0) {
+        limiter.release(LATENCY, false);
+      }
+    }
+
+    assertThat(limiter.getLimit(), is(greaterThan(2)));
+  }
+
+  @Test
+  public void limitNotIncreasedWhenNotUsed() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 10, 4);
+
+    for (int i = 0; i < 50; ++i) {
+      limiter.acquire(started::incrementAndGet);
+      limiter.release(LATENCY, false);
+    }
+
+    assertThat(limiter.getLimit(), is(4));
+  }
+
+  @Test
+  public void limitDecreasesOnFailures() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 10, 10);
+
+    for (int i = 0; i < 5; ++i) {
+      limiter.acquire(started::incrementAndGet);
+      limiter.release(LATENCY, true);
+    }
+    assertThat(limiter.getLimit(), is(lessThan(10)));
+    assertThat(limiter.getFailedRoutes(), is(5L));
+    assertThat(limiter.getCompletedRoutes(), is(5L));
+
+    for (int i = 0; i < 100; ++i) {
+      limiter.acquire(started::incrementAndGet);
+      limiter.release(LATENCY, true);
+    }
+    assertThat(limiter.getLimit(), is(2));
+  }
+
+  @Test
+  public void limitDecreasesWhenLatencyGrows() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 10, 10);
+
+    limiter.acquire(started::incrementAndGet);
+    limiter.release(LATENCY, false);
+    assertThat(limiter.getLimit(), is(10));
+
+    for (int i = 0; i < 20; ++i) {
+      limiter.acquire(started::incrementAndGet);
+      limiter.release(LATENCY * 10, false);
+    }
+
+    assertThat(limiter.getLimit(), is(lessThan(10)));
+    assertThat(limiter.getAverageLatency(), is(greaterThan(LATENCY * 2)));
+    assertThat(limiter.getRouteLatencyPercentile(50), is(greaterThan(50L)));
+  }
+}
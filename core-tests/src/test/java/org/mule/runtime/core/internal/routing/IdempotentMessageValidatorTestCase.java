@@ -228,5 +228,28 @@ public class IdempotentMessageValidatorTestCase extends AbstractMuleContextTestC
     assertThat(idempotent.getObjectStore(), is(notNullValue()));
   }
 
+  @Test
+  public void bloomFilterSkipsStoreForNewIds() throws Exception {
+    idempotent.setIdExpression("#[payload]");
+    idempotent.setBloomFilter(true);
+    idempotent.getObjectStore().store("stored", "0");
+    idempotent.initialise();
+    idempotent.start();
+
+    final BaseEventContext context = mock(BaseEventContext.class);
+    when(context.getCorrelationId()).thenReturn("1");
+    idempotent.process(CoreEvent.builder(context).message(of("new")).build());
+    assertThat(idempotent.getSeenIdsFilter().getNegatives(), is(1L));
+    assertThat(idempotent.getObjectStore().contains("new"), is(true));
+
+    expected.expect(ValidationException.class);
+    try {
+      idempotent.process(CoreEvent.builder(context).message(of("stored")).build());
+    } finally {
+      assertThat(idempotent.getSeenIdsFilter().getPositives(), is(1L));
+      assertThat(idempotent.getSeenIdsFilter().getFalsePositives(), is(0L));
+    }
+  }
+
 
 }
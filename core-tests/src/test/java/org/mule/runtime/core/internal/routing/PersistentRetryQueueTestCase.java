@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.store.ObjectStore;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.api.store.SimpleMemoryObjectStore;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.internal.routing.PersistentRetryQueue.PendingRetry;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+public class PersistentRetryQueueTestCase extends AbstractMuleContextTestCase {
+
+  private final ObjectStore<PendingRetry> store = new SimpleMemoryObjectStore<>();
+  private final Scheduler scheduler = mock(Scheduler.class);
+  private final Scheduler redeliveryScheduler = mock(Scheduler.class);
+  private final List<Runnable> redeliveries = new ArrayList<>();
+  private final List<Runnable> scheduled = new ArrayList<>();
+  private final List<CoreEvent> redelivered = new ArrayList<>();
+
+  @Before
+  public void before() {
+    doAnswer(inv -> {
+      scheduled.add(inv.getArgument(0));
+      return null;
+    }).when(scheduler).schedule(any(Runnable.class), anyLong(), any());
+    doAnswer(inv -> {
+      redeliveries.add(inv.getArgument(0));
+      return null;
+    }).when(redeliveryScheduler).execute(any(Runnable.class));
+  }
+
+  @Test
+  public void messageAndVariablesStoredWhileWaiting() throws Exception {
+    PersistentRetryQueue queue = new PersistentRetryQueue(store, scheduler, redeliveryScheduler);
+    CoreEvent event = CoreEvent.builder(testEvent()).addVariable("var", "value").build();
+
+    queue.schedule(event, 100, 2, redelivered::add, (e, t) -> fail(t.getMessage()));
+    verify(scheduler).schedule(any(Runnable.class), eq(100L), eq(MILLISECONDS));
+    assertThat(store.contains(event.getContext().getId()), is(true));
+    assertThat(queue.size(), is(1));
+
+    scheduled.get(0).run();
+    assertThat(redelivered, hasSize(0));
+    redeliveries.get(0).run();
+    assertThat(store.contains(event.getContext().getId()), is(false));
+    assertThat(queue.size(), is(0));
+    assertThat(redelivered, hasSize(1));
+
+    CoreEvent retry = redelivered.get(0);
+    assertThat(retry.getContext(), is(event.getContext()));
+    assertThat(retry.getMessage().getPayload().getValue(), is(event.getMessage().getPayload().getValue()));
+    assertThat(retry.getVariables().get("var").getValue(), is("value"));
+  }
+
+  @Test
+  public void recoverEntriesOfPreviousExecution() throws Exception {
+    CoreEvent event = CoreEvent.builder(testEvent()).addVariable("var", "value").build();
+    new PersistentRetryQueue(store, scheduler, redeliveryScheduler)
+        .schedule(event, 100, 3, redelivered::add, (e, t) -> fail(t.getMessage()));
+    scheduled.clear();
+
+    PersistentRetryQueue queue = new PersistentRetryQueue(store, scheduler, redeliveryScheduler);
+    List<PendingRetry> recovered = new ArrayList<>();
+    assertThat(queue.recover((key, pending) -> recovered.add(pending)), is(1));
+    assertThat(queue.recover((key, pending) -> recovered.add(pending)), is(0));
+
+    scheduled.get(0).run();
+    redeliveries.get(0).run();
+    assertThat(recovered, hasSize(1));
+    assertThat(store.contains(event.getContext().getId()), is(false));
+    assertThat(redelivered, hasSize(0));
+
+    assertThat(recovered.get(0).getRetriesLeft(), is(3));
+    CoreEvent retry = recovered.get(0).toEvent(event.getContext());
+    assertThat(retry.getVariables().get("var").getValue(), is("value"));
+    assertThat(retry.getError().orElse(null), is(nullValue()));
+  }
+
+  @Test
+  public void failureToRetrieveRoutedToEvent() throws Exception {
+    PersistentRetryQueue queue = new PersistentRetryQueue(store, scheduler, redeliveryScheduler);
+    CoreEvent event = testEvent();
+    List<Throwable> failures = new ArrayList<>();
+
+    queue.schedule(event, 100, 2, redelivered::add, (skeleton, failure) -> {
+      assertThat(skeleton.getContext(), is(event.getContext()));
+      failures.add(failure);
+    });
+    store.remove(event.getContext().getId());
+
+    scheduled.get(0).run();
+    redeliveries.get(0).run();
+    assertThat(redelivered, hasSize(0));
+    assertThat(failures, hasSize(1));
+    assertThat(failures.get(0), instanceOf(ObjectStoreException.class));
+    assertThat(queue.size(), is(0));
+  }
+}
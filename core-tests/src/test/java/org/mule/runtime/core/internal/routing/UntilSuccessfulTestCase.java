@@ -6,6 +6,8 @@
  */
 package org.mule.runtime.core.internal.routing;
 
+import static java.lang.System.currentTimeMillis;
+import static java.lang.Thread.sleep;
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
@@ -19,6 +21,7 @@ import static org.hamcrest.collection.IsMapContaining.hasKey;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -34,6 +37,8 @@ import static org.mule.tck.processor.ContextPropagationChecker.assertContextProp
 import static org.mule.tck.util.MuleContextUtils.eventBuilder;
 
 import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.store.ObjectStore;
+import org.mule.runtime.api.store.ObjectStoreSettings;
 import org.mule.runtime.core.api.construct.Flow;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.expression.ExpressionRuntimeException;
@@ -44,9 +49,12 @@ import org.mule.runtime.core.api.retry.policy.RetryPolicyExhaustedException;
 import org.mule.runtime.core.api.transaction.Transaction;
 import org.mule.runtime.core.internal.exception.MessagingException;
 import org.mule.runtime.core.internal.message.InternalEvent;
+import org.mule.runtime.core.internal.routing.PersistentRetryQueue.PendingRetry;
 import org.mule.runtime.core.internal.rx.FluxSinkRecorder;
 import org.mule.runtime.core.privileged.processor.InternalProcessor;
 import org.mule.tck.junit4.AbstractMuleContextTestCase;
+import org.mule.tck.probe.JUnitLambdaProbe;
+import org.mule.tck.probe.PollingProber;
 import org.mule.tck.processor.ContextPropagationChecker;
 
 import java.io.ByteArrayInputStream;
@@ -403,6 +411,25 @@ public class UntilSuccessfulTestCase extends AbstractMuleContextTestCase {
     verify(completableConsumer).run();
   }
 
+  @Test
+  public void recoveredRetryResumesWithRetriesLeft() throws Exception {
+    assumeThat(tx, is(false));
+    targetMessageProcessor.setNumberOfFailuresToSimulate(Integer.MAX_VALUE);
+    untilSuccessful.setPersistent(true);
+    untilSuccessful.initialise();
+
+    ObjectStore<PendingRetry> store = muleContext.getObjectStoreManager()
+        .getOrCreateObjectStore(untilSuccessful.getLocation().getLocation() + "." + UntilSuccessful.class.getName(),
+                                ObjectStoreSettings.builder().persistent(true).build());
+    store.store("previousExecution", new PendingRetry(testEvent(), currentTimeMillis(), 1));
+    untilSuccessful.start();
+
+    // The stored retry and the one it had left, instead of starting over with maxRetries
+    new PollingProber(RECEIVE_TIMEOUT, 10).check(new JUnitLambdaProbe(() -> targetMessageProcessor.getEventCount() == 2));
+    sleep(3 * Long.parseLong(MILLIS_BETWEEN_RETRIES));
+    assertThat(targetMessageProcessor.getEventCount(), is(2));
+  }
+
   protected void assertNoRetryContextAfterScopeExecutions(int expectedExecutions) throws MuleException {
     final CoreEvent testEvent = eventBuilder(muleContext).message(of("queso")).build();
     try {
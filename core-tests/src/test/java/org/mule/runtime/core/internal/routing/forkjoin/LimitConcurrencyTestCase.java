@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing.forkjoin;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mule.runtime.core.api.event.CoreEvent.builder;
+import static org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair.of;
+import static org.mule.runtime.core.internal.routing.forkjoin.AbstractForkJoinStrategyFactory.limitConcurrency;
+import static reactor.core.publisher.Mono.from;
+import static reactor.core.publisher.Mono.just;
+
+import org.mule.runtime.api.message.Error;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.internal.routing.AdaptiveConcurrencyLimiter;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair;
+import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChain;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.function.Function;
+
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+
+@SmallTest
+public class LimitConcurrencyTestCase extends AbstractMuleContextTestCase {
+
+  private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 4, 2);
+
+  @Test
+  public void successfulRoute() throws Exception {
+    route(testEvent(), Function.identity());
+
+    assertThat(limiter.getCompletedRoutes(), is(1L));
+    assertThat(limiter.getFailedRoutes(), is(0L));
+  }
+
+  @Test
+  public void errorRaisedByRouteCountsAsFailure() throws Exception {
+    route(testEvent(), event -> builder(event).error(mock(Error.class)).build());
+
+    assertThat(limiter.getCompletedRoutes(), is(1L));
+    assertThat(limiter.getFailedRoutes(), is(1L));
+  }
+
+  @Test
+  public void errorOfOriginalEventNotCountedAsFailure() throws Exception {
+    CoreEvent eventWithError = builder(testEvent()).error(mock(Error.class)).build();
+    route(eventWithError, Function.identity());
+
+    assertThat(limiter.getCompletedRoutes(), is(1L));
+    assertThat(limiter.getFailedRoutes(), is(0L));
+  }
+
+  @Test
+  public void routeReplacingOriginalErrorCountsAsFailure() throws Exception {
+    CoreEvent eventWithError = builder(testEvent()).error(mock(Error.class)).build();
+    route(eventWithError, event -> builder(event).error(mock(Error.class)).build());
+
+    assertThat(limiter.getFailedRoutes(), is(1L));
+  }
+
+  private void route(CoreEvent event, Function<CoreEvent, CoreEvent> routeResult) {
+    Function<RoutingPair, Publisher<? extends CoreEvent>> routeProcessor = pair -> just(routeResult.apply(pair.getEvent()));
+    from(limitConcurrency(routeProcessor, limiter).apply(of(event, mock(MessageProcessorChain.class)))).block();
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing.forkjoin;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.api.message.Message.of;
+
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.streaming.object.CursorIterator;
+import org.mule.runtime.api.streaming.object.CursorIteratorProvider;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+
+@SmallTest
+public class RouteResultSpoolTestCase extends AbstractMuleContextTestCase {
+
+  private static final int MAX_IN_MEMORY = 2;
+
+  private RouteResultSpool createSpool() {
+    return new RouteResultSpool(muleContext.getObjectSerializer().getInternalProtocol(), MAX_IN_MEMORY);
+  }
+
+  @Test
+  public void inMemoryOnly() {
+    RouteResultSpool spool = createSpool();
+    Message first = of("first");
+    Message second = of("second");
+    spool.add(first);
+    spool.add(second);
+
+    assertThat(spool.getSpoolFile(), is(nullValue()));
+    assertThat(spool.size(), is(2));
+    assertThat(spool.get(0), is(sameInstance(first)));
+    assertThat(spool.get(1), is(sameInstance(second)));
+  }
+
+  @Test
+  public void spilledToFileKeepsOrder() {
+    RouteResultSpool spool = createSpool();
+    for (int i = 0; i < 10; ++i) {
+      spool.add(of(i));
+    }
+
+    File spoolFile = spool.getSpoolFile();
+    assertThat(spoolFile, is(notNullValue()));
+    assertThat(spoolFile.exists(), is(true));
+
+    assertThat(spool.size(), is(10));
+    for (int i = 0; i < 10; ++i) {
+      assertThat(spool.get(i).getPayload().getValue(), is(i));
+    }
+    spool.close();
+  }
+
+  @Test
+  public void spilledResultsCanBeReadRepeatedly() {
+    RouteResultSpool spool = createSpool();
+    for (int i = 0; i < 10; ++i) {
+      spool.add(of(i));
+    }
+
+    assertThat(spool.get(7).getPayload().getValue(), is(7));
+    assertThat(spool.get(3).getPayload().getValue(), is(3));
+    assertThat(spool.get(7).getPayload().getValue(), is(7));
+    assertThat(spool.get(0).getPayload().getValue(), is(0));
+    spool.close();
+  }
+
+  @Test
+  public void unserializableResultKeptInMemory() {
+    RouteResultSpool spool = createSpool();
+    Object notSerializable = new Object();
+    spool.add(of(0));
+    spool.add(of(1));
+    spool.add(of(2));
+    spool.add(of(notSerializable));
+    spool.add(of(4));
+
+    assertThat(spool.get(0).getPayload().getValue(), is(0));
+    assertThat(spool.get(1).getPayload().getValue(), is(1));
+    assertThat(spool.get(2).getPayload().getValue(), is(2));
+    assertThat(spool.get(3).getPayload().getValue(), is(sameInstance(notSerializable)));
+    assertThat(spool.get(4).getPayload().getValue(), is(4));
+    spool.close();
+  }
+
+  @Test
+  public void closeDeletesFile() {
+    RouteResultSpool spool = createSpool();
+    for (int i = 0; i < 5; ++i) {
+      spool.add(of(i));
+    }
+    File spoolFile = spool.getSpoolFile();
+
+    spool.get(3);
+    spool.close();
+
+    assertThat(spoolFile.exists(), is(false));
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void getOutOfRange() {
+    RouteResultSpool spool = createSpool();
+    spool.add(of(0));
+    spool.get(1);
+  }
+
+  @Test
+  public void cursorsReadFromSpool() throws IOException {
+    RouteResultSpool spool = createSpool();
+    for (int i = 0; i < 5; ++i) {
+      spool.add(of(i));
+    }
+    File spoolFile = spool.getSpoolFile();
+    CursorIteratorProvider provider = new RouteResultSpoolCursorIteratorProvider(spool, null);
+
+    try (CursorIterator<Message> first = provider.openCursor(); CursorIterator<Message> second = provider.openCursor()) {
+      assertThat(first.getSize(), is(5));
+      for (int i = 0; i < 5; ++i) {
+        assertThat(first.next().getPayload().getValue(), is(i));
+      }
+      assertThat(first.hasNext(), is(false));
+
+      second.seek(3);
+      assertThat(second.next().getPayload().getValue(), is(3));
+      first.seek(0);
+      assertThat(first.next().getPayload().getValue(), is(0));
+    }
+
+    provider.releaseResources();
+    assertThat(spoolFile.exists(), is(false));
+  }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing.forkjoin;
+
+import static java.lang.Integer.MAX_VALUE;
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.api.message.Message.of;
+import static org.mule.runtime.api.metadata.DataType.CURSOR_ITERATOR_PROVIDER;
+import static org.mule.runtime.core.api.event.CoreEvent.builder;
+import static org.mule.runtime.core.api.exception.Errors.ComponentIdentifiers.Handleable.TIMEOUT;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
+import static org.mule.runtime.core.api.rx.Exceptions.rxExceptionToMuleException;
+import static org.mule.runtime.core.privileged.processor.MessageProcessors.newChain;
+import static org.mule.test.allure.AllureConstants.ForkJoinStrategiesFeature.FORK_JOIN_STRATEGIES;
+import static reactor.core.publisher.Flux.fromIterable;
+import static reactor.core.publisher.Mono.from;
+
+import org.mule.runtime.api.event.EventContext;
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.streaming.CursorProvider;
+import org.mule.runtime.api.streaming.object.CursorIterator;
+import org.mule.runtime.api.streaming.object.CursorIteratorProvider;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.processor.Processor;
+import org.mule.runtime.core.api.processor.ReactiveProcessor;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.api.streaming.StreamingManager;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair;
+import org.mule.runtime.core.privileged.processor.InternalProcessor;
+import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChain;
+import org.mule.runtime.core.privileged.routing.CompositeRoutingException;
+import org.mule.runtime.core.privileged.routing.RoutingResult;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+
+@SmallTest
+@Feature(FORK_JOIN_STRATEGIES)
+public class StreamingCollectListForkJoinStrategyTestCase extends AbstractMuleContextTestCase {
+
+  private static final int MAX_IN_MEMORY_RESULTS = 2;
+
+  private ProcessingStrategy processingStrategy;
+  private StreamingManager streamingManager;
+  private Scheduler scheduler;
+
+  @Before
+  public void setup() {
+    processingStrategy = mock(ProcessingStrategy.class);
+    when(processingStrategy.onPipeline(any(ReactiveProcessor.class)))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+    streamingManager = mock(StreamingManager.class);
+    when(streamingManager.manage(any(CursorProvider.class), any(EventContext.class)))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+    scheduler = muleContext.getSchedulerService().ioScheduler();
+  }
+
+  @After
+  public void tearDown() {
+    scheduler.stop();
+  }
+
+  @Test
+  @Description("The results are collected into a managed cursor iterator provider which yields them in the order of the routes.")
+  public void resultsInCursorInRouteOrder() throws Throwable {
+    CoreEvent original = testEvent();
+    List<RoutingPair> pairs = new ArrayList<>();
+    for (int i = 0; i < 5; ++i) {
+      pairs.add(createRoutingPair(of(i)));
+    }
+
+    CoreEvent result = invokeStrategyBlocking(createStrategy(), original, pairs);
+
+    assertThat(result.getMessage().getPayload().getDataType(), is(CURSOR_ITERATOR_PROVIDER));
+    assertThat(result.getMessage().getPayload().getValue(), instanceOf(CursorIteratorProvider.class));
+    CursorIteratorProvider provider = (CursorIteratorProvider) result.getMessage().getPayload().getValue();
+    verify(streamingManager).manage(provider, original.getContext());
+
+    try {
+      // results beyond MAX_IN_MEMORY_RESULTS are read back from the spool file, cursors may be opened more than once
+      assertThat(readPayloads(provider), contains(0, 1, 2, 3, 4));
+      assertThat(readPayloads(provider), contains(0, 1, 2, 3, 4));
+    } finally {
+      provider.close();
+      provider.releaseResources();
+    }
+  }
+
+  @Test
+  @Description("Errors are thrown via CompositeRoutingException with RoutingResult containing the failures along with the successful results.")
+  public void errorsKeepSuccessfulResults() throws Throwable {
+    RuntimeException exception = new IllegalStateException();
+    List<RoutingPair> pairs = asList(createRoutingPair(of(0)),
+                                     createRoutingPair((InternalTestProcessor) event -> {
+                                       throw exception;
+                                     }),
+                                     createRoutingPair(of(2)),
+                                     createRoutingPair(of(3)),
+                                     createRoutingPair(of(4)));
+
+    try {
+      invokeStrategyBlocking(createStrategy(), testEvent(), pairs);
+      fail("Expected a CompositeRoutingException");
+    } catch (CompositeRoutingException e) {
+      RoutingResult routingResult = (RoutingResult) e.getErrorMessage().getPayload().getValue();
+      assertThat(routingResult.getFailures().keySet(), contains("1"));
+      assertThat(routingResult.getFailures().get("1").getCause(), is(exception));
+      assertThat(routingResult.getResults().keySet(), contains("0", "2", "3", "4"));
+      assertThat(routingResult.getResults().get("0").getPayload().getValue(), is(0));
+      assertThat(routingResult.getResults().get("2").getPayload().getValue(), is(2));
+      assertThat(routingResult.getResults().get("3").getPayload().getValue(), is(3));
+      assertThat(routingResult.getResults().get("4").getPayload().getValue(), is(4));
+    }
+  }
+
+  @Test
+  @Description("When there are no routes the result is an empty cursor iterator provider.")
+  public void noRoutes() throws Throwable {
+    CoreEvent result = invokeStrategyBlocking(createStrategy(), testEvent(), new ArrayList<>());
+
+    CursorIteratorProvider provider = (CursorIteratorProvider) result.getMessage().getPayload().getValue();
+    try {
+      assertThat(readPayloads(provider), hasSize(0));
+    } finally {
+      provider.close();
+      provider.releaseResources();
+    }
+  }
+
+  private ForkJoinStrategy createStrategy() {
+    return new StreamingCollectListForkJoinStrategyFactory(streamingManager, muleContext.getObjectSerializer(),
+                                                           MAX_IN_MEMORY_RESULTS)
+                                                               .createForkJoinStrategy(processingStrategy, MAX_VALUE, true,
+                                                                                       MAX_VALUE, scheduler,
+                                                                                       muleContext.getErrorTypeRepository()
+                                                                                           .getErrorType(TIMEOUT).get());
+  }
+
+  private List<Object> readPayloads(CursorIteratorProvider provider) throws Exception {
+    List<Object> payloads = new ArrayList<>();
+    try (CursorIterator<Message> cursor = provider.openCursor()) {
+      while (cursor.hasNext()) {
+        payloads.add(cursor.next().getPayload().getValue());
+      }
+    }
+    return payloads;
+  }
+
+  private CoreEvent invokeStrategyBlocking(ForkJoinStrategy strategy, CoreEvent original, List<RoutingPair> routingPairs)
+      throws Throwable {
+    try {
+      return from(strategy.forkJoin(original, fromIterable(routingPairs))).block();
+    } catch (Throwable throwable) {
+      throw rxExceptionToMuleException(throwable);
+    }
+  }
+
+  private RoutingPair createRoutingPair(Message result) throws MuleException {
+    return createRoutingPair((InternalTestProcessor) event -> builder(event).message(result).build());
+  }
+
+  private RoutingPair createRoutingPair(Processor processor) throws MuleException {
+    MessageProcessorChain chain = newChain(Optional.empty(), processor);
+    initialiseIfNeeded(chain, muleContext);
+    return RoutingPair.of(testEvent(), chain);
+  }
+
+  @FunctionalInterface
+  private interface InternalTestProcessor extends Processor, InternalProcessor {
+
+  }
+}
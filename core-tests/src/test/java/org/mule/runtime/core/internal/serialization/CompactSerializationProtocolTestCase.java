@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.serialization;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mule.runtime.api.metadata.MediaType.APPLICATION_JSON;
+import static org.mule.tck.util.MuleContextUtils.eventBuilder;
+
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.api.serialization.SerializationException;
+import org.mule.runtime.api.streaming.bytes.CursorStreamProvider;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.tck.core.internal.serialization.AbstractSerializerProtocolContractTestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class CompactSerializationProtocolTestCase extends AbstractSerializerProtocolContractTestCase {
+
+  private CompactSerializationProtocol compactProtocol;
+
+  @Override
+  protected void doSetUp() throws Exception {
+    compactProtocol = new CompactSerializationProtocol();
+    compactProtocol.setMuleContext(muleContext);
+    serializationProtocol = compactProtocol;
+  }
+
+  @Test(expected = SerializationException.class)
+  public void notSerializable() throws Exception {
+    serializationProtocol.serialize(new Object());
+  }
+
+  @Test
+  public void simpleValues() throws Exception {
+    assertRoundTrip("Hello 世界");
+    assertRoundTrip(-42);
+    assertRoundTrip(Integer.MIN_VALUE);
+    assertRoundTrip(Long.MAX_VALUE);
+    assertRoundTrip(-1L);
+    assertRoundTrip(true);
+    assertRoundTrip(3.14d);
+  }
+
+  @Test
+  public void bytes() throws Exception {
+    byte[] bytes = {1, 2, 3, -1};
+    byte[] read = serializationProtocol.deserialize(serializationProtocol.serialize(bytes));
+    assertThat(read, equalTo(bytes));
+  }
+
+  @Test
+  public void collections() throws Exception {
+    List<Object> list = new ArrayList<>(asList("a", 1, null, 2L));
+    Map<String, Object> map = new HashMap<>();
+    map.put("list", list);
+    map.put("value", "b");
+    Map<String, Object> linkedMap = new LinkedHashMap<>(map);
+
+    assertRoundTrip(list);
+    assertRoundTrip(map);
+    Object read = serializationProtocol.deserialize(serializationProtocol.serialize(linkedMap));
+    assertThat(read, instanceOf(LinkedHashMap.class));
+    assertThat(read, equalTo(linkedMap));
+  }
+
+  @Test
+  public void sharedReferences() throws Exception {
+    List<Object> shared = new ArrayList<>(asList("a", "b"));
+    byte[] bytes = {1, 2};
+    TypedValue<byte[]> typedValue = new TypedValue<>(bytes, DataType.BYTE_ARRAY);
+    List<Object> list = new ArrayList<>(asList(shared, shared, bytes, typedValue, typedValue));
+
+    List<Object> read = serializationProtocol.deserialize(serializationProtocol.serialize(list));
+    assertThat(read.get(0), equalTo(shared));
+    assertThat(read.get(1), sameInstance(read.get(0)));
+    assertThat(read.get(3), sameInstance(read.get(4)));
+    assertThat(((TypedValue<?>) read.get(3)).getValue(), sameInstance(read.get(2)));
+  }
+
+  @Test
+  public void cyclicCollections() throws Exception {
+    List<Object> list = new ArrayList<>();
+    Map<String, Object> map = new LinkedHashMap<>();
+    list.add(map);
+    map.put("list", list);
+    map.put("self", map);
+
+    List<Object> read = serializationProtocol.deserialize(serializationProtocol.serialize(list));
+    Map<String, Object> readMap = (Map<String, Object>) read.get(0);
+    assertThat(readMap.get("list"), sameInstance(read));
+    assertThat(readMap.get("self"), sameInstance(readMap));
+  }
+
+  @Test(expected = SerializationException.class)
+  public void cycleThroughTypedValueRejected() throws Exception {
+    List<Object> list = new ArrayList<>();
+    TypedValue<List<Object>> typedValue = new TypedValue<>(list, DataType.fromType(List.class));
+    list.add(typedValue);
+
+    serializationProtocol.serialize(typedValue);
+  }
+
+  @Test
+  public void messageWithStreamPayload() throws Exception {
+    Message message = Message.builder().payload(new TypedValue<>(new ByteArrayInputStream("Hello".getBytes()),
+                                                                 DataType.builder().type(InputStream.class)
+                                                                     .mediaType(APPLICATION_JSON).build()))
+        .build();
+
+    Message read = serializationProtocol.deserialize(serializationProtocol.serialize(message));
+    assertThat(read.getPayload().getValue(), equalTo("Hello".getBytes()));
+    assertThat(read.getPayload().getDataType().getType(), equalTo(byte[].class));
+    assertThat(read.getPayload().getDataType().getMediaType().matches(APPLICATION_JSON), is(true));
+  }
+
+  @Test
+  public void cursorStreamProviderNotReadAsBytes() throws Exception {
+    CursorStreamProvider provider = mock(CursorStreamProvider.class);
+
+    try {
+      serializationProtocol.serialize(new TypedValue<>(provider, DataType.CURSOR_STREAM_PROVIDER));
+      fail("A non serializable cursor stream provider was serialized");
+    } catch (SerializationException e) {
+      verify(provider, never()).openCursor();
+    }
+  }
+
+  @Test
+  public void typedValue() throws Exception {
+    DataType dataType = DataType.builder().type(String.class).mediaType(APPLICATION_JSON).charset("UTF-16").build();
+    TypedValue<String> typedValue = new TypedValue<>("{}", dataType);
+
+    TypedValue<String> read = serializationProtocol.deserialize(serializationProtocol.serialize(typedValue));
+    assertThat(read.getValue(), is("{}"));
+    assertThat(read.getDataType(), equalTo(dataType));
+    assertThat(read.getByteLength().isPresent(), is(false));
+  }
+
+  @Test
+  public void message() throws Exception {
+    Message message = Message.builder().value("payload").attributesValue("attributes").build();
+
+    Message read = serializationProtocol.deserialize(serializationProtocol.serialize(message));
+    assertThat(read.getPayload().getValue(), is("payload"));
+    assertThat(read.getAttributes().getValue(), is("attributes"));
+    assertThat(read.getPayload().getDataType(), equalTo(message.getPayload().getDataType()));
+  }
+
+  @Test
+  public void event() throws Exception {
+    CoreEvent event = eventBuilder(muleContext)
+        .message(Message.of("payload"))
+        .addVariable("count", 3)
+        .addVariable("name", "value")
+        .build();
+
+    CoreEvent read = serializationProtocol.deserialize(serializationProtocol.serialize(event));
+    assertThat(read.getContext().getId(), is(event.getContext().getId()));
+    assertThat(read.getMessage().getPayload().getValue(), is("payload"));
+    assertThat(read.getVariables().get("count").getValue(), is(3));
+    assertThat(read.getVariables().get("name").getValue(), is("value"));
+  }
+
+  @Test
+  public void streamedToOutputStream() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    serializationProtocol.serialize("Hello", out);
+    assertThat(serializationProtocol.deserialize(out.toByteArray()), is("Hello"));
+  }
+
+  @Test
+  public void registeredClass() throws Exception {
+    compactProtocol.registerClass(Point.class, new PointCodec());
+
+    Point read = serializationProtocol.deserialize(serializationProtocol.serialize(new Point(3, -4)));
+    assertThat(read.x, is(3));
+    assertThat(read.y, is(-4));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void registerClassTwice() {
+    compactProtocol.registerClass(Point.class, new PointCodec());
+    compactProtocol.registerClass(Point.class, new PointCodec());
+  }
+
+  @Test
+  public void readsJavaSerializedData() throws Exception {
+    byte[] javaBytes = new JavaExternalSerializerProtocol().serialize("Hello");
+    assertThat(serializationProtocol.deserialize(new ByteArrayInputStream(javaBytes)), is("Hello"));
+  }
+
+  @Test
+  public void smallerThanJavaSerialization() throws Exception {
+    Message message = Message.builder().value("payload").attributesValue("attributes").build();
+    JavaExternalSerializerProtocol javaProtocol = new JavaExternalSerializerProtocol();
+    javaProtocol.setMuleContext(muleContext);
+
+    assertThat(serializationProtocol.serialize(message).length, lessThan(javaProtocol.serialize(message).length));
+  }
+
+  private void assertRoundTrip(Object value) {
+    Object read = serializationProtocol.deserialize(serializationProtocol.serialize(value));
+    assertThat(read, equalTo(value));
+  }
+
+  private static class Point {
+
+    private final int x;
+    private final int y;
+
+    private Point(int x, int y) {
+      this.x = x;
+      this.y = y;
+    }
+  }
+
+  private static class PointCodec implements CompactSerializationProtocol.Codec<Point> {
+
+    @Override
+    public void write(Point value, CompactSerializationProtocol.CompactOutput out) throws IOException {
+      out.writeVarLong(value.x & 0xFFFFFFFFL);
+      out.writeInt(value.y);
+    }
+
+    @Override
+    public Point read(CompactSerializationProtocol.CompactInput in) throws IOException {
+      return new Point((int) in.readVarLong(), in.readInt());
+    }
+  }
+}
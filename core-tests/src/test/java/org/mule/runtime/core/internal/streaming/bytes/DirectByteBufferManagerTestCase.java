@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static org.apache.commons.lang3.RandomStringUtils.randomAlphabetic;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.api.util.DataUnit.BYTE;
+import static org.mule.runtime.core.internal.streaming.bytes.ByteStreamingConstants.DEFAULT_DIRECT_SLAB_SIZE;
+import static org.mule.runtime.dsl.api.component.config.DefaultComponentLocation.from;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+
+import org.mule.runtime.api.streaming.bytes.CursorStream;
+import org.mule.runtime.api.util.DataSize;
+import org.mule.runtime.core.api.streaming.bytes.InMemoryCursorStreamConfig;
+import org.mule.runtime.core.api.streaming.bytes.InMemoryCursorStreamProvider;
+import org.mule.runtime.core.api.streaming.bytes.ManagedByteBufferWrapper;
+import org.mule.runtime.core.internal.streaming.DefaultMemoryManager;
+import org.mule.runtime.core.internal.streaming.MemoryManager;
+import org.mule.tck.size.SmallTest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+
+import io.qameta.allure.Feature;
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+@SmallTest
+@Feature(STREAMING)
+public class DirectByteBufferManagerTestCase extends MemoryBoundByteBufferManagerContractTestCase {
+
+  private static final int SLAB_SIZE = 1024;
+
+  @Override
+  protected MemoryBoundByteBufferManager createDefaultBoundBuffer() {
+    return new DirectByteBufferManager();
+  }
+
+  @Override
+  protected MemoryBoundByteBufferManager createBuffer(MemoryManager memoryManager, int capacity) {
+    return new DirectByteBufferManager(memoryManager, DEFAULT_DIRECT_SLAB_SIZE);
+  }
+
+  @Test
+  public void buffersAreDirect() {
+    DirectByteBufferManager bufferManager = new DirectByteBufferManager(new DefaultMemoryManager(), SLAB_SIZE);
+    try {
+      ManagedByteBufferWrapper small = bufferManager.allocateManaged(100);
+      ManagedByteBufferWrapper large = bufferManager.allocateManaged(SLAB_SIZE * 2);
+
+      assertThat(small.getDelegate().isDirect(), is(true));
+      assertThat(large.getDelegate().isDirect(), is(true));
+      assertThat(large.getDelegate().capacity(), is(SLAB_SIZE * 2));
+
+      small.release();
+      large.release();
+    } finally {
+      bufferManager.dispose();
+    }
+  }
+
+  @Test
+  public void releasedChunksAreReused() {
+    DirectByteBufferManager bufferManager = new DirectByteBufferManager(new DefaultMemoryManager(), SLAB_SIZE);
+    try {
+      ManagedByteBufferWrapper buffer = bufferManager.allocateManaged(SLAB_SIZE);
+      long reservedMemory = bufferManager.getDirectMemory();
+      buffer.release();
+
+      for (int i = 0; i < 10; i++) {
+        bufferManager.allocateManaged(SLAB_SIZE).release();
+      }
+
+      assertThat(bufferManager.getDirectMemory(), is(reservedMemory));
+    } finally {
+      bufferManager.dispose();
+    }
+  }
+
+  @Test
+  public void releaseIsIdempotent() {
+    DirectByteBufferManager bufferManager = new DirectByteBufferManager(new DefaultMemoryManager(), SLAB_SIZE);
+    try {
+      ManagedByteBufferWrapper buffer = bufferManager.allocateManaged(SLAB_SIZE);
+      buffer.release();
+      buffer.release();
+
+      ManagedByteBufferWrapper first = bufferManager.allocateManaged(SLAB_SIZE);
+      ManagedByteBufferWrapper second = bufferManager.allocateManaged(SLAB_SIZE);
+      first.getDelegate().put(0, (byte) 1);
+      second.getDelegate().put(0, (byte) 2);
+
+      assertThat(first.getDelegate().get(0), is((byte) 1));
+      first.release();
+      second.release();
+    } finally {
+      bufferManager.dispose();
+    }
+  }
+
+  @Test
+  public void readBytesSurviveClosingTheStreamBuffer() {
+    final String data = randomAlphabetic(100);
+    DirectByteBufferManager bufferManager = new DirectByteBufferManager(new DefaultMemoryManager(), SLAB_SIZE);
+    InMemoryCursorStreamConfig config = new InMemoryCursorStreamConfig(new DataSize(SLAB_SIZE, BYTE),
+                                                                       new DataSize(0, BYTE),
+                                                                       new DataSize(SLAB_SIZE, BYTE));
+    InMemoryStreamBuffer streamBuffer =
+        new InMemoryStreamBuffer(new ByteArrayInputStream(data.getBytes()), config, bufferManager);
+    try {
+      ByteBuffer read = streamBuffer.get(0, data.length());
+      streamBuffer.close();
+
+      // the chunk of the closed buffer is reused by the next allocation of the same size
+      ManagedByteBufferWrapper reused = bufferManager.allocateManaged(SLAB_SIZE);
+      while (reused.getDelegate().hasRemaining()) {
+        reused.getDelegate().put((byte) 0);
+      }
+
+      byte[] readBytes = new byte[read.remaining()];
+      read.get(readBytes);
+      assertThat(new String(readBytes), is(data));
+      reused.release();
+    } finally {
+      bufferManager.dispose();
+    }
+  }
+
+  @Test
+  public void bufferExpandingStream() throws Exception {
+    final String data = randomAlphabetic(SLAB_SIZE * 8);
+    DirectByteBufferManager bufferManager = new DirectByteBufferManager(new DefaultMemoryManager(), SLAB_SIZE);
+    InMemoryCursorStreamConfig config = new InMemoryCursorStreamConfig(new DataSize(SLAB_SIZE, BYTE),
+                                                                       new DataSize(SLAB_SIZE, BYTE),
+                                                                       new DataSize(SLAB_SIZE * 16, BYTE));
+    InMemoryCursorStreamProvider streamProvider =
+        new InMemoryCursorStreamProvider(new ByteArrayInputStream(data.getBytes()), config, bufferManager, from("log"), false);
+    try {
+      try (CursorStream cursor = streamProvider.openCursor()) {
+        assertThat(IOUtils.toString(cursor), is(data));
+      }
+      try (CursorStream cursor = streamProvider.openCursor()) {
+        assertThat(IOUtils.toString(cursor), is(data));
+      }
+    } finally {
+      streamProvider.close();
+      bufferManager.dispose();
+    }
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static org.apache.commons.lang3.RandomStringUtils.randomAlphabetic;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.api.util.DataUnit.BYTE;
+import static org.mule.runtime.dsl.api.component.config.DefaultComponentLocation.from;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+
+import org.mule.runtime.api.streaming.bytes.CursorStream;
+import org.mule.runtime.api.util.DataSize;
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
+import org.mule.runtime.core.api.streaming.bytes.ManagedByteBufferWrapper;
+import org.mule.runtime.core.internal.streaming.DefaultMemoryManager;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.ByteBuffer;
+
+import io.qameta.allure.Feature;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Test;
+
+@SmallTest
+@Feature(STREAMING)
+public class FileStoreCursorStreamProviderTestCase extends AbstractMuleTestCase {
+
+  private static final int MAX_IN_MEMORY_SIZE = 1024;
+
+  private final ByteBufferManager bufferManager = new SimpleByteBufferManager();
+  private final FileStoreCursorStreamConfig config =
+      new FileStoreCursorStreamConfig(new DataSize(MAX_IN_MEMORY_SIZE, BYTE));
+  private final String data = randomAlphabetic(MAX_IN_MEMORY_SIZE * 10 + 7);
+
+  private FileStoreCursorStreamProvider streamProvider =
+      new FileStoreCursorStreamProvider(new ByteArrayInputStream(data.getBytes()), config, bufferManager, from("log"), false);
+
+  @After
+  public void after() {
+    streamProvider.close();
+  }
+
+  @Test
+  public void overflowedStreamIsRepeatable() throws Exception {
+    try (CursorStream cursor = streamProvider.openCursor()) {
+      assertThat(IOUtils.toString(cursor), is(data));
+    }
+    try (CursorStream cursor = streamProvider.openCursor()) {
+      assertThat(IOUtils.toString(cursor), is(data));
+    }
+  }
+
+  @Test
+  public void seekIntoOverflowedData() throws Exception {
+    try (CursorStream cursor = streamProvider.openCursor()) {
+      cursor.seek(MAX_IN_MEMORY_SIZE * 5);
+      assertThat(IOUtils.toString(cursor), is(data.substring(MAX_IN_MEMORY_SIZE * 5)));
+
+      cursor.seek(MAX_IN_MEMORY_SIZE / 2);
+      assertThat(IOUtils.toString(cursor), is(data.substring(MAX_IN_MEMORY_SIZE / 2)));
+    }
+  }
+
+  @Test
+  public void readAcrossMemoryAndFile() throws Exception {
+    try (CursorStream cursor = streamProvider.openCursor()) {
+      cursor.seek(MAX_IN_MEMORY_SIZE - 10);
+      byte[] read = new byte[20];
+      assertThat(IOUtils.read(cursor, read), is(read.length));
+      assertThat(new String(read), is(data.substring(MAX_IN_MEMORY_SIZE - 10, MAX_IN_MEMORY_SIZE + 10)));
+    }
+  }
+
+  @Test
+  public void noFileIfDataFitsInMemory() {
+    FileStoreInputStreamBuffer buffer =
+        new FileStoreInputStreamBuffer(new ByteArrayInputStream(data.substring(0, 100).getBytes()), config, bufferManager);
+    try {
+      ByteBuffer read = buffer.get(0, 200);
+      assertThat(read.remaining(), is(100));
+      assertThat(buffer.get(100, 200), is(nullValue()));
+      assertThat(buffer.getBufferFile(), is(nullValue()));
+    } finally {
+      buffer.close();
+    }
+  }
+
+  @Test
+  public void readBytesSurviveClosingTheStreamBuffer() {
+    DirectByteBufferManager directBufferManager = new DirectByteBufferManager(new DefaultMemoryManager(), MAX_IN_MEMORY_SIZE);
+    FileStoreInputStreamBuffer buffer =
+        new FileStoreInputStreamBuffer(new ByteArrayInputStream(data.getBytes()), config, directBufferManager);
+    try {
+      ByteBuffer read = buffer.get(0, 100);
+      buffer.close();
+
+      // the bucket of the closed buffer is reused by the next allocation of the same size
+      ManagedByteBufferWrapper reused = directBufferManager.allocateManaged(MAX_IN_MEMORY_SIZE);
+      while (reused.getDelegate().hasRemaining()) {
+        reused.getDelegate().put((byte) 0);
+      }
+
+      byte[] readBytes = new byte[read.remaining()];
+      read.get(readBytes);
+      assertThat(new String(readBytes), is(data.substring(0, 100)));
+      reused.release();
+    } finally {
+      directBufferManager.dispose();
+    }
+  }
+
+  @Test
+  public void fileDeletedOnClose() {
+    FileStoreInputStreamBuffer buffer =
+        new FileStoreInputStreamBuffer(new ByteArrayInputStream(data.getBytes()), config, bufferManager);
+    buffer.get(MAX_IN_MEMORY_SIZE * 2, 100);
+
+    File bufferFile = buffer.getBufferFile();
+    assertThat(bufferFile, is(notNullValue()));
+    assertThat(bufferFile.exists(), is(true));
+
+    buffer.close();
+    assertThat(bufferFile.exists(), is(false));
+  }
+}
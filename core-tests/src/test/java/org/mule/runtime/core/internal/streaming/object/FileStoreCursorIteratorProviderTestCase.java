@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.object;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.dsl.api.component.config.DefaultComponentLocation.from;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.StreamingStory.OBJECT_STREAMING;
+
+import org.mule.runtime.api.streaming.object.CursorIterator;
+import org.mule.runtime.core.api.streaming.object.FileStoreCursorIteratorConfig;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+
+@SmallTest
+@Feature(STREAMING)
+@Story(OBJECT_STREAMING)
+public class FileStoreCursorIteratorProviderTestCase extends AbstractObjectStreamingTestCase {
+
+  private static final int DATA_SIZE = 1000;
+  private static final int BUCKET_SIZE = 10;
+
+  private final FileStoreCursorIteratorConfig config = new FileStoreCursorIteratorConfig(BUCKET_SIZE, 3);
+
+  private FileStoreCursorIteratorProvider streamProvider;
+
+  public FileStoreCursorIteratorProviderTestCase() {
+    super(DATA_SIZE);
+  }
+
+  @Before
+  public void before() {
+    streamProvider = new FileStoreCursorIteratorProvider(toStreamingIterator(data), config, muleContext.getObjectSerializer(),
+                                                         from("log"), false);
+  }
+
+  @After
+  public void after() {
+    streamProvider.close();
+  }
+
+  @Test
+  public void consumeAll() throws Exception {
+    try (CursorIterator cursor = streamProvider.openCursor()) {
+      checkEquals(data, cursor);
+    }
+  }
+
+  @Test
+  public void repeatable() throws Exception {
+    try (CursorIterator cursor = streamProvider.openCursor()) {
+      checkEquals(data, cursor);
+    }
+    try (CursorIterator cursor = streamProvider.openCursor()) {
+      checkEquals(data, cursor);
+    }
+  }
+
+  @Test
+  public void seekBackToOffloadedBucket() throws Exception {
+    try (CursorIterator cursor = streamProvider.openCursor()) {
+      checkEquals(data, cursor);
+
+      cursor.seek(BUCKET_SIZE + 3);
+      assertThat(cursor.next(), equalTo(data.get(BUCKET_SIZE + 3)));
+
+      cursor.seek(DATA_SIZE / 2);
+      assertThat(cursor.next(), equalTo(data.get(DATA_SIZE / 2)));
+
+      cursor.seek(0);
+      assertThat(cursor.next(), equalTo(data.get(0)));
+    }
+  }
+
+  @Test
+  public void concurrentCursorsOnDifferentBuckets() throws Exception {
+    try (CursorIterator first = streamProvider.openCursor(); CursorIterator second = streamProvider.openCursor()) {
+      second.seek(DATA_SIZE - 1);
+      assertThat(second.next(), equalTo(data.get(DATA_SIZE - 1)));
+
+      for (int i = 0; i < DATA_SIZE; i++) {
+        assertThat(first.next(), equalTo(data.get(i)));
+      }
+    }
+  }
+
+  @Test
+  public void fileDeletedOnClose() {
+    FileStoreObjectStreamBuffer<Object> buffer =
+        new FileStoreObjectStreamBuffer<>(toStreamingIterator(data), config, muleContext.getObjectSerializer());
+    buffer.initialise();
+    buffer.getBucketFor(buffer.toPosition(DATA_SIZE - 1));
+
+    File bufferFile = buffer.getBufferFile();
+    assertThat(bufferFile, is(notNullValue()));
+    assertThat(bufferFile.exists(), is(true));
+
+    buffer.close();
+    assertThat(bufferFile.exists(), is(false));
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.collection;
+
+import static java.lang.String.CASE_INSENSITIVE_ORDER;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertThat;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+@SmallTest
+public class PersistentCaseInsensitiveMapTestCase extends AbstractMuleTestCase {
+
+  @Test
+  public void caseInsensitiveLookup() {
+    PersistentCaseInsensitiveMap<String> map = PersistentCaseInsensitiveMap.<String>empty().with("MyKey", "value");
+
+    assertThat(map.get("mykey"), is("value"));
+    assertThat(map.get("MYKEY"), is("value"));
+    assertThat(map.containsKey("myKEY"), is(true));
+    assertThat(map.get("other"), is(nullValue()));
+  }
+
+  @Test
+  public void replaceKeepsOriginalKey() {
+    PersistentCaseInsensitiveMap<String> map = PersistentCaseInsensitiveMap.<String>empty()
+        .with("MyKey", "value")
+        .with("MYKEY", "other");
+
+    assertThat(map.size(), is(1));
+    assertThat(map.keySet(), contains("MyKey"));
+    assertThat(map.get("mykey"), is("other"));
+  }
+
+  @Test
+  public void updatesDoNotModifyOriginal() {
+    PersistentCaseInsensitiveMap<String> original = PersistentCaseInsensitiveMap.<String>empty().with("a", "1").with("b", "2");
+    PersistentCaseInsensitiveMap<String> updated = original.with("c", "3").without("a");
+
+    assertThat(original.size(), is(2));
+    assertThat(original.get("a"), is("1"));
+    assertThat(original.containsKey("c"), is(false));
+    assertThat(updated.size(), is(2));
+    assertThat(updated.containsKey("a"), is(false));
+    assertThat(updated.get("c"), is("3"));
+  }
+
+  @Test
+  public void noChangesReturnSameInstance() {
+    PersistentCaseInsensitiveMap<String> map = PersistentCaseInsensitiveMap.<String>empty().with("a", "1");
+
+    assertThat(map.with("A", "1"), is(sameInstance(map)));
+    assertThat(map.without("b"), is(sameInstance(map)));
+  }
+
+  @Test
+  public void collidingHashes() {
+    // Same case-insensitive hash
+    PersistentCaseInsensitiveMap<String> map = PersistentCaseInsensitiveMap.<String>empty().with("az", "1").with("b[", "2");
+
+    assertThat(map.size(), is(2));
+    assertThat(map.get("AZ"), is("1"));
+    assertThat(map.get("B["), is("2"));
+
+    map = map.without("az");
+    assertThat(map.size(), is(1));
+    assertThat(map.get("b["), is("2"));
+    assertThat(map.containsKey("az"), is(false));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void immutable() {
+    PersistentCaseInsensitiveMap.<String>empty().with("a", "1").put("b", "2");
+  }
+
+  @Test
+  public void sameContentsAsReference() {
+    Random random = new Random(42);
+    Map<String, Integer> reference = new TreeMap<>(CASE_INSENSITIVE_ORDER);
+    PersistentCaseInsensitiveMap<Integer> map = PersistentCaseInsensitiveMap.empty();
+
+    for (int i = 0; i < 20000; ++i) {
+      String key = (random.nextBoolean() ? "KEY" : "key") + random.nextInt(2000);
+      if (random.nextInt(3) == 0) {
+        reference.remove(key);
+        map = map.without(key);
+      } else {
+        reference.put(key, i);
+        map = map.with(key, i);
+      }
+    }
+
+    assertThat(map.size(), is(reference.size()));
+    Map<String, Integer> iterated = new HashMap<>();
+    map.forEach((key, value) -> iterated.put(key.toLowerCase(), value));
+    assertThat(iterated.size(), is(reference.size()));
+    reference.forEach((key, value) -> {
+      assertThat(map.get(key), is(value));
+      assertThat(iterated.get(key.toLowerCase()), is(value));
+    });
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.collection;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Test;
+
+@SmallTest
+public class RotatingBloomFilterTestCase extends AbstractMuleTestCase {
+
+  private long now = 0;
+
+  @Test
+  public void noFalseNegatives() {
+    RotatingBloomFilter filter = new RotatingBloomFilter(1000, 0.01, 0, () -> now);
+    for (int i = 0; i < 1000; ++i) {
+      filter.put("id-" + i);
+    }
+    for (int i = 0; i < 1000; ++i) {
+      assertThat(filter.mightContain("id-" + i), is(true));
+    }
+    assertThat(filter.getPositives(), is(1000L));
+  }
+
+  @Test
+  public void falsePositiveRateWithinBounds() {
+    RotatingBloomFilter filter = new RotatingBloomFilter(1000, 0.01, 0, () -> now);
+    for (int i = 0; i < 1000; ++i) {
+      filter.put("id-" + i);
+    }
+
+    for (int i = 0; i < 10000; ++i) {
+      if (filter.mightContain("other-" + i)) {
+        filter.falsePositive();
+      }
+    }
+    assertThat(filter.getFalsePositiveRate(), is(lessThan(0.03)));
+    assertThat(filter.getFalsePositives() + filter.getNegatives(), is(10000L));
+  }
+
+  @Test
+  public void forgetsAfterTwoGenerationsByAge() {
+    RotatingBloomFilter filter = new RotatingBloomFilter(1000, 0.01, 100, () -> now);
+    filter.put("a");
+
+    now = 100;
+    filter.put("b");
+    assertThat(filter.mightContain("a"), is(true));
+
+    now = 200;
+    filter.put("c");
+    assertThat(filter.mightContain("a"), is(false));
+    assertThat(filter.mightContain("b"), is(true));
+    assertThat(filter.mightContain("c"), is(true));
+  }
+
+  @Test
+  public void forgetsAfterTwoGenerationsBySize() {
+    RotatingBloomFilter filter = new RotatingBloomFilter(10, 0.001, 0, () -> now);
+    filter.put("first");
+    for (int i = 0; i < 20; ++i) {
+      filter.put("id-" + i);
+    }
+
+    assertThat(filter.mightContain("first"), is(false));
+    assertThat(filter.mightContain("id-19"), is(true));
+  }
+
+  @Test
+  public void clear() {
+    RotatingBloomFilter filter = new RotatingBloomFilter(1000, 0.01, 0, () -> now);
+    filter.put("a");
+    filter.clear();
+    assertThat(filter.mightContain("a"), is(false));
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.journal;
+
+import static java.nio.file.Files.readAllBytes;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mule.runtime.core.internal.util.journal.JournalDurability.SYNC;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SmallTest
+public class GroupCommitJournalWriterTestCase extends AbstractMuleTestCase {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private boolean failNextWrite = false;
+
+  @Test
+  public void batchKeptWhenWriteFails() throws Exception {
+    File journalFile = new File(temporaryFolder.getRoot(), "journal");
+    GroupCommitJournalWriter writer = createWriter(journalFile);
+
+    long first = writer.append("first".getBytes());
+    long second = writer.append("second".getBytes());
+
+    failNextWrite = true;
+    try {
+      writer.flush(second);
+      fail("Write should have failed");
+    } catch (MuleRuntimeException e) {
+      // expected
+    }
+
+    // the entries of the failed batch are not taken as written
+    writer.flush(first);
+    writer.close();
+
+    assertThat(new String(readAllBytes(journalFile.toPath())), is("firstsecond"));
+  }
+
+  @Test
+  public void entriesAppendedDuringFailedWriteAreKept() throws Exception {
+    File journalFile = new File(temporaryFolder.getRoot(), "journal");
+    GroupCommitJournalWriter writer = createWriter(journalFile);
+
+    writer.append("first".getBytes());
+    failNextWrite = true;
+    try {
+      writer.flush(1);
+      fail("Write should have failed");
+    } catch (MuleRuntimeException e) {
+      // expected
+    }
+
+    long second = writer.append("second".getBytes());
+    writer.flush(second);
+    writer.close();
+
+    assertThat(new String(readAllBytes(journalFile.toPath())), is("firstsecond"));
+  }
+
+  private GroupCommitJournalWriter createWriter(File journalFile) {
+    return new GroupCommitJournalWriter(journalFile, SYNC, 0, new TransactionJournalMetrics()) {
+
+      @Override
+      void writeBatch(byte[] batch) throws IOException {
+        if (failNextWrite) {
+          failNextWrite = false;
+          throw new IOException("Expected");
+        }
+        super.writeBatch(batch);
+      }
+    };
+  }
+}
@@ -7,7 +7,10 @@
 package org.mule.runtime.core.internal.util.journal.queue;
 
 import static java.lang.Math.abs;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsNot.not;
@@ -15,16 +18,25 @@ import static org.junit.Assert.assertThat;
 import static org.mockito.Answers.RETURNS_DEEP_STUBS;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.internal.util.journal.TransactionJournal.JOURNAL_DURABILITY_PROPERTY_KEY;
 import static org.mule.runtime.core.internal.util.journal.TransactionJournal.TX1_LOG_FILE_NAME;
 import static org.mule.runtime.core.internal.util.journal.TransactionJournal.TX2_LOG_FILE_NAME;
 
 import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.internal.util.journal.JournalDurability;
+import org.mule.runtime.core.internal.util.journal.TransactionJournalMetrics;
 import org.mule.runtime.core.internal.util.queue.DefaultQueueStore;
+import org.mule.tck.MuleTestUtils;
 import org.mule.tck.junit4.AbstractMuleContextTestCase;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.junit.Before;
 import org.junit.Rule;
@@ -228,6 +240,59 @@ public class LocalTxQueueTransactionJournalTestCase extends AbstractMuleContextT
     }
   }
 
+  @Test
+  public void syncDurabilityForcesEveryWrite() throws Exception {
+    MuleTestUtils.testWithSystemProperty(JOURNAL_DURABILITY_PROPERTY_KEY, JournalDurability.SYNC.name(), () -> {
+      LocalTxQueueTransactionJournal transactionJournal =
+          new LocalTxQueueTransactionJournal(temporaryFolder.getRoot().getAbsolutePath(), muleContext);
+      transactionJournal.logAdd(TX_ID, mockQueueInfo, "data");
+      transactionJournal.logCommit(TX_ID);
+
+      TransactionJournalMetrics metrics = transactionJournal.getMetrics();
+      assertThat(metrics.getEntriesCount(), is(2l));
+      assertThat(metrics.getSyncsCount(), is(2l));
+      transactionJournal.close();
+    });
+  }
+
+  @Test
+  public void concurrentTransactionsAreLogged() throws Exception {
+    final int transactions = 8;
+    LocalTxQueueTransactionJournal transactionJournal =
+        new LocalTxQueueTransactionJournal(temporaryFolder.getRoot().getAbsolutePath(), muleContext);
+    ExecutorService executor = newFixedThreadPool(transactions);
+    CountDownLatch latch = new CountDownLatch(1);
+    try {
+      List<Future<?>> results = new ArrayList<>();
+      for (int i = 0; i < transactions; i++) {
+        final int txId = i;
+        results.add(executor.submit(() -> {
+          latch.await();
+          transactionJournal.logAdd(txId, mockQueueInfo, "first" + txId);
+          transactionJournal.logAdd(txId, mockQueueInfo, "second" + txId);
+          return null;
+        }));
+      }
+      latch.countDown();
+      for (Future<?> result : results) {
+        result.get(5, SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    TransactionJournalMetrics metrics = transactionJournal.getMetrics();
+    assertThat(metrics.getEntriesCount(), is((long) transactions * 2));
+    assertThat(metrics.getMaxBatchSize(), greaterThanOrEqualTo(1l));
+    transactionJournal.close();
+
+    transactionJournal = new LocalTxQueueTransactionJournal(temporaryFolder.getRoot().getAbsolutePath(), muleContext);
+    Multimap<Integer, LocalQueueTxJournalEntry> allEntries = transactionJournal.getAllLogEntries();
+    for (int i = 0; i < transactions; i++) {
+      assertThat(allEntries.get(i).size(), is(2));
+    }
+  }
+
   private void assertLogFileIsWithinBoundaries(File file) {
     assertThat(file.length(), lessThan(MAXIMUM_FILE_SIZE_EXPECTED));
   }
@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.queue;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.internal.util.queue.MappedSegmentQueueStoreDelegate.MIGRATED_MARKER;
+import static org.mule.runtime.core.internal.util.queue.MappedSegmentQueueStoreDelegate.MIGRATING_MARKER;
+import static org.mule.runtime.core.internal.util.queue.MappedSegmentQueueStoreDelegate.SEGMENT_SIZE_PROPERTY_KEY;
+import static org.mule.tck.SerializationTestUtils.addJavaSerializerToMockMuleContext;
+
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.junit4.rule.SystemProperty;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SmallTest
+public class MappedSegmentQueueStoreDelegateTestCase extends AbstractMuleTestCase {
+
+  private static final String TEST_QUEUE_NAME = "test-queue";
+  private static final int TIMEOUT = 100;
+
+  @Rule
+  public TemporaryFolder workingDirectory = new TemporaryFolder();
+
+  @Rule
+  public SystemProperty segmentSize = new SystemProperty(SEGMENT_SIZE_PROPERTY_KEY, "256");
+
+  private MuleContext mockMuleContext;
+  private MappedSegmentQueueStoreDelegate queue;
+
+  @Before
+  public void before() {
+    mockMuleContext = mock(MuleContext.class);
+    when(mockMuleContext.getExecutionClassLoader()).thenReturn(getClass().getClassLoader());
+    addJavaSerializerToMockMuleContext(mockMuleContext);
+    queue = createQueue(TEST_QUEUE_NAME);
+  }
+
+  @After
+  public void after() {
+    queue.dispose();
+  }
+
+  @Test
+  public void pollInInsertionOrder() throws Exception {
+    queue.offer("1", 0, TIMEOUT);
+    queue.offer("2", 0, TIMEOUT);
+    queue.putNow("3");
+
+    assertThat(queue.getSize(), is(3));
+    assertThat(queue.peek(), is("1"));
+    assertThat(queue.poll(TIMEOUT), is("1"));
+    assertThat(queue.poll(TIMEOUT), is("2"));
+    assertThat(queue.poll(TIMEOUT), is("3"));
+    assertThat(queue.poll(TIMEOUT), is(nullValue()));
+  }
+
+  @Test
+  public void untakenElementIsConsumedFirst() throws Exception {
+    queue.offer("1", 0, TIMEOUT);
+    queue.offer("2", 0, TIMEOUT);
+
+    queue.untake(queue.poll(TIMEOUT));
+
+    assertThat(queue.allElements(), contains("1", "2"));
+  }
+
+  @Test
+  public void untakenElementIsConsumedFirstAfterRestart() throws Exception {
+    queue.offer("1", 0, TIMEOUT);
+    queue.offer("2", 0, TIMEOUT);
+    queue.untake(queue.poll(TIMEOUT));
+    queue.offer("3", 0, TIMEOUT);
+    queue.close();
+
+    queue = createQueue(TEST_QUEUE_NAME);
+
+    assertThat(queue.allElements(), contains("1", "2", "3"));
+    queue.untake(queue.poll(TIMEOUT));
+    assertThat(queue.poll(TIMEOUT), is("1"));
+  }
+
+  @Test
+  public void offerTimesOutWhenFull() throws Exception {
+    queue.dispose();
+    queue = new MappedSegmentQueueStoreDelegate(TEST_QUEUE_NAME, workingDirectory.getRoot().getAbsolutePath(),
+                                                mockMuleContext, 1);
+
+    assertThat(queue.offer("1", 0, TIMEOUT), is(true));
+    assertThat(queue.offer("2", 0, TIMEOUT), is(false));
+  }
+
+  @Test
+  public void elementsAreRecoveredAfterClose() throws Exception {
+    for (int i = 0; i < 20; i++) {
+      queue.offer("element" + i, 0, TIMEOUT);
+    }
+    for (int i = 0; i < 10; i++) {
+      queue.poll(TIMEOUT);
+    }
+    queue.close();
+
+    queue = createQueue(TEST_QUEUE_NAME);
+
+    assertThat(queue.getSize(), is(10));
+    for (int i = 10; i < 20; i++) {
+      assertThat(queue.poll(TIMEOUT), is("element" + i));
+    }
+  }
+
+  @Test
+  public void consumedSegmentsAreDeleted() throws Exception {
+    for (int i = 0; i < 50; i++) {
+      queue.offer("element" + i, 0, TIMEOUT);
+    }
+    int segmentsWithData = segmentFiles().length;
+
+    for (int i = 0; i < 50; i++) {
+      queue.poll(TIMEOUT);
+    }
+
+    assertThat(segmentsWithData > 1, is(true));
+    assertThat(segmentFiles().length, lessThanOrEqualTo(1));
+  }
+
+  @Test
+  public void removeAndContains() throws Exception {
+    queue.addAll(asList("1", "2", "3"));
+
+    assertThat(queue.contains("2"), is(true));
+    queue.remove("2");
+
+    assertThat(queue.contains("2"), is(false));
+    assertThat(queue.getSize(), is(2));
+    assertThat(queue.allElements(), contains("1", "3"));
+  }
+
+  @Test
+  public void clear() throws Exception {
+    queue.addAll(asList("1", "2", "3"));
+
+    queue.clear();
+    assertThat(queue.getSize(), is(0));
+
+    queue.offer("4", 0, TIMEOUT);
+    assertThat(queue.poll(TIMEOUT), is("4"));
+  }
+
+  @Test
+  public void nameWithInvalidCharacters() throws Exception {
+    String[] testNames = new String[] {"test:/test", "test?test", "test:\\test", "test|test",
+        "seda.queue(post:\\Customer:ApiTest-config.1)"};
+
+    for (String testName : testNames) {
+      MappedSegmentQueueStoreDelegate namedQueue = createQueue(testName);
+      namedQueue.offer("1", 0, TIMEOUT);
+      assertThat(namedQueue.poll(TIMEOUT), is("1"));
+      namedQueue.dispose();
+    }
+  }
+
+  @Test
+  public void legacyQueueFilesAreMigrated() throws Exception {
+    queue.dispose();
+    DualRandomAccessFileQueueStoreDelegate legacyQueue =
+        new DualRandomAccessFileQueueStoreDelegate(TEST_QUEUE_NAME, workingDirectory.getRoot().getAbsolutePath(),
+                                                   mockMuleContext, 0);
+    legacyQueue.offer("1", 0, TIMEOUT);
+    legacyQueue.offer("2", 0, TIMEOUT);
+    legacyQueue.close();
+
+    queue = createQueue(TEST_QUEUE_NAME);
+
+    assertThat(queue.allElements(), contains("1", "2"));
+    assertThat(DualRandomAccessFileQueueStoreDelegate.hasQueueFiles(TEST_QUEUE_NAME,
+                                                                    workingDirectory.getRoot().getAbsolutePath()),
+               is(false));
+  }
+
+  @Test
+  public void completedMigrationIsNotRepeated() throws Exception {
+    queue.addAll(asList("1", "2"));
+    queue.close();
+    // a crash after the migration completed but before the legacy files were disposed
+    assertThat(new File(segmentsDirectory(), MIGRATED_MARKER).createNewFile(), is(true));
+    DualRandomAccessFileQueueStoreDelegate legacyQueue =
+        new DualRandomAccessFileQueueStoreDelegate(TEST_QUEUE_NAME, workingDirectory.getRoot().getAbsolutePath(),
+                                                   mockMuleContext, 0);
+    legacyQueue.offer("1", 0, TIMEOUT);
+    legacyQueue.offer("2", 0, TIMEOUT);
+    legacyQueue.close();
+
+    queue = createQueue(TEST_QUEUE_NAME);
+
+    assertThat(queue.allElements(), contains("1", "2"));
+    assertThat(DualRandomAccessFileQueueStoreDelegate.hasQueueFiles(TEST_QUEUE_NAME,
+                                                                    workingDirectory.getRoot().getAbsolutePath()),
+               is(false));
+    assertThat(new File(segmentsDirectory(), MIGRATED_MARKER).exists(), is(false));
+  }
+
+  @Test
+  public void interruptedMigrationIsDiscarded() throws Exception {
+    queue.offer("0", 0, TIMEOUT);
+    // a crash after migrating the first of the legacy elements, which got the second sequence of the queue
+    queue.offer("1", 0, TIMEOUT);
+    queue.close();
+    Files.write(new File(segmentsDirectory(), MIGRATING_MARKER).toPath(), ByteBuffer.allocate(Long.BYTES).putLong(2).array());
+    DualRandomAccessFileQueueStoreDelegate legacyQueue =
+        new DualRandomAccessFileQueueStoreDelegate(TEST_QUEUE_NAME, workingDirectory.getRoot().getAbsolutePath(),
+                                                   mockMuleContext, 0);
+    legacyQueue.offer("1", 0, TIMEOUT);
+    legacyQueue.offer("2", 0, TIMEOUT);
+    legacyQueue.close();
+
+    queue = createQueue(TEST_QUEUE_NAME);
+
+    assertThat(queue.allElements(), contains("0", "1", "2"));
+    assertThat(new File(segmentsDirectory(), MIGRATING_MARKER).exists(), is(false));
+  }
+
+  private MappedSegmentQueueStoreDelegate createQueue(String queueName) {
+    return new MappedSegmentQueueStoreDelegate(queueName, workingDirectory.getRoot().getAbsolutePath(), mockMuleContext, 0);
+  }
+
+  private File[] segmentFiles() {
+    return segmentsDirectory().listFiles(file -> file.getName().endsWith(".seg"));
+  }
+
+  private File segmentsDirectory() {
+    return new File(DualRandomAccessFileQueueStoreDelegate.getQueuesDirectory(workingDirectory.getRoot().getAbsolutePath()),
+                    TEST_QUEUE_NAME + "-segments");
+  }
+}
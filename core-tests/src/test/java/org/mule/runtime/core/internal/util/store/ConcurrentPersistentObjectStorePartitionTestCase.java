@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.store;
+
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
+import static org.mule.tck.SerializationTestUtils.addJavaSerializerToMockMuleContext;
+import static org.mule.tck.util.MuleContextUtils.mockMuleContext;
+
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.api.store.ObjectDoesNotExistException;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.config.MuleConfiguration;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@SmallTest
+@RunWith(MockitoJUnitRunner.class)
+public class ConcurrentPersistentObjectStorePartitionTestCase extends AbstractMuleTestCase {
+
+  private static final String KEY = "key";
+  private static final String VALUE = "value";
+  private static final int THREADS = 8;
+
+  @Rule
+  public TemporaryFolder objectStoreFolder = new TemporaryFolder();
+
+  private MuleContext muleContext = mockMuleContext();
+
+  @Mock
+  private MuleConfiguration muleConfiguration;
+
+  private ConcurrentPersistentObjectStorePartition<Serializable> partition;
+
+  @Before
+  public void setUp() throws Exception {
+    when(muleContext.getExecutionClassLoader()).thenReturn(getClass().getClassLoader());
+    when(muleContext.getConfiguration()).thenReturn(muleConfiguration);
+    when(muleConfiguration.getWorkingDirectory()).thenReturn(objectStoreFolder.getRoot().getParentFile().getPath());
+    addJavaSerializerToMockMuleContext(muleContext);
+    partition = new ConcurrentPersistentObjectStorePartition<>(muleContext, "test", objectStoreFolder.getRoot());
+    partition.open();
+  }
+
+  @Test
+  public void storeRetrieveAndRemove() throws ObjectStoreException {
+    partition.store(KEY, VALUE);
+    assertThat(partition.retrieve(KEY), is(VALUE));
+
+    assertThat(partition.remove(KEY), is(VALUE));
+    assertThat(partition.contains(KEY), is(false));
+  }
+
+  @Test(expected = ObjectDoesNotExistException.class)
+  public void removeUnexistentKey() throws ObjectStoreException {
+    partition.remove(KEY);
+  }
+
+  @Test
+  public void entriesAreRestored() throws ObjectStoreException {
+    partition.store(KEY, VALUE);
+
+    partition = new ConcurrentPersistentObjectStorePartition<>(muleContext, objectStoreFolder.getRoot());
+    partition.open();
+
+    assertThat(partition.retrieve(KEY), is(VALUE));
+  }
+
+  @Test
+  public void onlyOneConcurrentStoreOfTheSameKeySucceeds() throws Exception {
+    ExecutorService executor = newFixedThreadPool(THREADS);
+    CountDownLatch latch = new CountDownLatch(1);
+    try {
+      List<Future<Boolean>> results = new ArrayList<>();
+      for (int i = 0; i < THREADS; i++) {
+        final String value = VALUE + i;
+        results.add(executor.submit(() -> {
+          latch.await();
+          try {
+            partition.store(KEY, value);
+            return true;
+          } catch (ObjectAlreadyExistsException e) {
+            return false;
+          }
+        }));
+      }
+      latch.countDown();
+
+      int stored = 0;
+      for (Future<Boolean> result : results) {
+        if (result.get(5, SECONDS)) {
+          stored++;
+        }
+      }
+
+      assertThat(stored, is(1));
+      assertThat(partition.allKeys(), containsInAnyOrder(KEY));
+      assertThat(objectStoreFolder.getRoot().listFiles(file -> file.getName().endsWith(".obj")).length, is(1));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void concurrentStoreAndExpireKeepFilesIndexed() throws Exception {
+    ExecutorService executor = newFixedThreadPool(THREADS);
+    CountDownLatch latch = new CountDownLatch(1);
+    try {
+      List<Future<?>> results = new ArrayList<>();
+      for (int i = 0; i < THREADS; i++) {
+        final int thread = i;
+        results.add(executor.submit(() -> {
+          latch.await();
+          for (int j = 0; j < 50; j++) {
+            if (thread % 2 == 0) {
+              partition.store(KEY + thread + "-" + j, VALUE);
+            } else {
+              partition.expire(UNBOUNDED, 10);
+            }
+          }
+          return null;
+        }));
+      }
+      latch.countDown();
+
+      for (Future<?> result : results) {
+        result.get(10, SECONDS);
+      }
+
+      // every file left behind must still be reachable through its key
+      assertThat(objectStoreFolder.getRoot().listFiles(file -> file.getName().endsWith(".obj")).length,
+                 is(partition.allKeys().size()));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void expireTrimsToMaxEntries() throws ObjectStoreException {
+    for (int i = 0; i < 5; i++) {
+      partition.store(KEY + i, VALUE + i);
+    }
+
+    partition.expire(UNBOUNDED, 2);
+
+    assertThat(partition.allKeys().size(), is(2));
+    assertThat(objectStoreFolder.getRoot().listFiles(file -> file.getName().endsWith(".obj")).length, is(2));
+  }
+
+  @Test
+  public void clear() throws ObjectStoreException {
+    partition.store(KEY, VALUE);
+
+    partition.clear();
+    assertThat(partition.contains(KEY), is(false));
+
+    partition.store(KEY, VALUE);
+    assertThat(partition.retrieve(KEY), is(VALUE));
+  }
+}
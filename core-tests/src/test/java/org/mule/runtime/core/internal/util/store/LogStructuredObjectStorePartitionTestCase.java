@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.store;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.internal.util.store.LogStructuredObjectStorePartition.MULE_OBJECT_STORE_SEGMENT_SIZE;
+import static org.mule.runtime.core.internal.util.store.LogStructuredObjectStorePartition.SEGMENT_FILE_EXTENSION;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
+import static org.mule.tck.SerializationTestUtils.addJavaSerializerToMockMuleContext;
+import static org.mule.tck.util.MuleContextUtils.mockMuleContext;
+
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.config.MuleConfiguration;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.junit4.rule.SystemProperty;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.io.Serializable;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@SmallTest
+@RunWith(MockitoJUnitRunner.class)
+public class LogStructuredObjectStorePartitionTestCase extends AbstractMuleTestCase {
+
+  private static final String KEY = "key";
+  private static final String VALUE = "value";
+
+  @Rule
+  public TemporaryFolder objectStoreFolder = new TemporaryFolder();
+
+  @Rule
+  public SystemProperty segmentSize = new SystemProperty(MULE_OBJECT_STORE_SEGMENT_SIZE, "512");
+
+  private MuleContext muleContext = mockMuleContext();
+
+  @Mock
+  private MuleConfiguration muleConfiguration;
+
+  private LogStructuredObjectStorePartition<Serializable> partition;
+
+  @Before
+  public void setUp() throws Exception {
+    when(muleContext.getExecutionClassLoader()).thenReturn(getClass().getClassLoader());
+    when(muleContext.getConfiguration()).thenReturn(muleConfiguration);
+    when(muleConfiguration.getWorkingDirectory()).thenReturn(objectStoreFolder.getRoot().getParentFile().getPath());
+    addJavaSerializerToMockMuleContext(muleContext);
+    partition = new LogStructuredObjectStorePartition<>(muleContext, "test", objectStoreFolder.getRoot(), null);
+    partition.open();
+  }
+
+  @After
+  public void tearDown() {
+    partition.dispose();
+  }
+
+  @Test
+  public void storeAndRetrieve() throws ObjectStoreException {
+    partition.store(KEY, VALUE);
+
+    assertThat(partition.contains(KEY), is(true));
+    assertThat(partition.retrieve(KEY), is(VALUE));
+  }
+
+  @Test(expected = ObjectAlreadyExistsException.class)
+  public void storeSameKeyThrowsException() throws ObjectStoreException {
+    partition.store(KEY, VALUE);
+    partition.store(KEY, VALUE);
+  }
+
+  @Test
+  public void entriesAreRestored() throws ObjectStoreException {
+    partition.store(KEY, VALUE);
+    partition.store("removed", VALUE);
+    partition.remove("removed");
+
+    reopen();
+
+    assertThat(partition.allKeys(), containsInAnyOrder(KEY));
+    assertThat(partition.retrieve(KEY), is(VALUE));
+  }
+
+  @Test
+  public void incompleteRecordIsDiscardedOnRecovery() throws Exception {
+    partition.store(KEY, VALUE);
+    partition.dispose();
+
+    File[] segmentFiles = objectStoreFolder.getRoot().listFiles(file -> file.getName().endsWith(SEGMENT_FILE_EXTENSION));
+    Files.write(segmentFiles[segmentFiles.length - 1].toPath(), new byte[] {1, 0, 0, 0}, APPEND);
+
+    reopen();
+    assertThat(partition.retrieve(KEY), is(VALUE));
+
+    partition.store("other", VALUE);
+    reopen();
+    assertThat(partition.allKeys(), containsInAnyOrder(KEY, "other"));
+  }
+
+  @Test
+  public void legacyEntriesAreMigrated() throws ObjectStoreException {
+    partition.dispose();
+    File legacyFolder = new File(objectStoreFolder.getRoot(), "legacy");
+    PersistentObjectStorePartition<Serializable> legacyPartition =
+        new PersistentObjectStorePartition<>(muleContext, "legacy", legacyFolder);
+    legacyPartition.open();
+    legacyPartition.store(KEY, VALUE);
+
+    partition = new LogStructuredObjectStorePartition<>(muleContext, legacyFolder, null);
+    partition.open();
+
+    assertThat(partition.getPartitionName(), is("legacy"));
+    assertThat(partition.retrieve(KEY), is(VALUE));
+    assertThat(partition.listValuesFiles().length, is(0));
+  }
+
+  @Test
+  public void compactionReclaimsSegments() throws ObjectStoreException {
+    for (int i = 0; i < 50; i++) {
+      partition.store(KEY + i, VALUE + i);
+    }
+    for (int i = 1; i < 50; i++) {
+      partition.remove(KEY + i);
+    }
+    int segmentsBefore = partition.getSegmentsCount();
+
+    partition.compact();
+
+    assertThat(partition.getSegmentsCount(), lessThan(segmentsBefore));
+    assertThat(partition.retrieve(KEY + 0), is(VALUE + 0));
+
+    reopen();
+    assertThat(partition.allKeys(), containsInAnyOrder(KEY + 0));
+    assertThat(partition.retrieve(KEY + 0), is(VALUE + 0));
+  }
+
+  @Test
+  public void expireTrimsToMaxEntries() throws ObjectStoreException {
+    for (int i = 0; i < 5; i++) {
+      partition.store(KEY + i, VALUE + i);
+    }
+
+    partition.expire(UNBOUNDED, 2);
+
+    assertThat(partition.allKeys().size(), is(2));
+  }
+
+  @Test
+  public void expireRemovesEntriesOlderThanTtl() throws Exception {
+    partition.store(KEY, VALUE);
+    Thread.sleep(10);
+
+    partition.expire(1, UNBOUNDED);
+
+    assertThat(partition.allKeys(), is(empty()));
+    reopen();
+    assertThat(partition.allKeys(), is(empty()));
+  }
+
+  @Test
+  public void clear() throws ObjectStoreException {
+    partition.store(KEY, VALUE);
+
+    partition.clear();
+    assertThat(partition.contains(KEY), is(false));
+
+    partition.store(KEY, VALUE);
+    reopen();
+    assertThat(partition.retrieve(KEY), is(VALUE));
+  }
+
+  private void reopen() throws ObjectStoreException {
+    partition.dispose();
+    partition = new LogStructuredObjectStorePartition<>(muleContext, objectStoreFolder.getRoot(), null);
+    partition.open();
+  }
+}
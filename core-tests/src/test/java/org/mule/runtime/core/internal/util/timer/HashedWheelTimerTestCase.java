@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.timer;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ScheduledFuture;
+
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+public class HashedWheelTimerTestCase extends AbstractMuleTestCase {
+
+  private static final int TICKS_PER_WHEEL = 8;
+
+  private long now = 0;
+  private HashedWheelTimer timer;
+  private final List<String> fired = new ArrayList<>();
+
+  @Before
+  public void before() {
+    timer = new HashedWheelTimer(10, MILLISECONDS, TICKS_PER_WHEEL, () -> now);
+  }
+
+  @Test
+  public void firesNotBeforeDeadline() {
+    timer.newTimeout(() -> fired.add("a"), 25, MILLISECONDS);
+
+    advanceTo(20);
+    assertThat(fired, is(empty()));
+
+    advanceTo(30);
+    assertThat(fired, contains("a"));
+    assertThat(timer.getPendingTimeouts(), is(0L));
+  }
+
+  @Test
+  public void firesInDeadlineOrder() {
+    timer.newTimeout(() -> fired.add("late"), 50, MILLISECONDS);
+    timer.newTimeout(() -> fired.add("early"), 15, MILLISECONDS);
+    timer.newTimeout(() -> fired.add("now"), 0, MILLISECONDS);
+
+    advanceTo(100);
+    assertThat(fired, contains("now", "early", "late"));
+  }
+
+  @Test
+  public void deadlineBeyondOneRound() {
+    long rounds = 3;
+    long delay = rounds * TICKS_PER_WHEEL * 10 + 5;
+    timer.newTimeout(() -> fired.add("a"), delay, MILLISECONDS);
+
+    advanceTo(delay - 5);
+    assertThat(fired, is(empty()));
+
+    advanceTo(delay + 10);
+    assertThat(fired, contains("a"));
+  }
+
+  @Test
+  public void cancelledNotFired() throws Exception {
+    ScheduledFuture<?> timeout = timer.newTimeout(() -> fired.add("a"), 15, MILLISECONDS);
+    timer.newTimeout(() -> fired.add("b"), 15, MILLISECONDS);
+
+    advanceTo(10);
+    assertThat(timeout.cancel(false), is(true));
+    assertThat(timeout.isCancelled(), is(true));
+    assertThat(timer.getPendingTimeouts(), is(1L));
+
+    advanceTo(30);
+    assertThat(fired, contains("b"));
+    assertThat(timeout.cancel(false), is(false));
+  }
+
+  @Test(expected = CancellationException.class)
+  public void getOnCancelled() throws Exception {
+    ScheduledFuture<?> timeout = timer.newTimeout(() -> fired.add("a"), 15, MILLISECONDS);
+    timeout.cancel(false);
+    timeout.get();
+  }
+
+  @Test
+  public void cannotCancelExpired() {
+    ScheduledFuture<?> timeout = timer.newTimeout(() -> fired.add("a"), 5, MILLISECONDS);
+    advanceTo(10);
+
+    assertThat(timeout.isDone(), is(true));
+    assertThat(timeout.cancel(false), is(false));
+  }
+
+  @Test
+  public void failingTaskDoesNotStopOthers() {
+    timer.newTimeout(() -> {
+      throw new IllegalStateException("expected");
+    }, 5, MILLISECONDS);
+    timer.newTimeout(() -> fired.add("a"), 5, MILLISECONDS);
+
+    advanceTo(10);
+    assertThat(fired, contains("a"));
+  }
+
+  @Test
+  public void delayReportedFromClock() {
+    ScheduledFuture<?> timeout = timer.newTimeout(() -> fired.add("a"), 100, MILLISECONDS);
+    now = MILLISECONDS.toNanos(40);
+    assertThat(timeout.getDelay(MILLISECONDS), is(60L));
+  }
+
+  @Test
+  public void idleTicksSkipped() {
+    advanceTo(10_000);
+    timer.newTimeout(() -> fired.add("a"), 15, MILLISECONDS);
+
+    advanceTo(10_010);
+    assertThat(fired, is(empty()));
+
+    advanceTo(10_020);
+    assertThat(fired, contains("a"));
+  }
+
+  private void advanceTo(long millis) {
+    now = MILLISECONDS.toNanos(millis);
+    timer.tick();
+  }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.timer;
+
+import static java.time.Duration.ofMillis;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static reactor.core.scheduler.Schedulers.fromExecutorService;
+
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.probe.JUnitLambdaProbe;
+import org.mule.tck.probe.PollingProber;
+import org.mule.tck.size.SmallTest;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import reactor.core.publisher.Mono;
+
+@SmallTest
+@RunWith(MockitoJUnitRunner.class)
+public class TimeoutServiceTestCase extends AbstractMuleTestCase {
+
+  @Mock
+  private SchedulerService schedulerService;
+
+  @Mock
+  private Scheduler tickScheduler;
+
+  @Mock
+  private ScheduledFuture<?> tickFuture;
+
+  @Mock
+  private Scheduler delegate;
+
+  private TimeoutService timeoutService;
+
+  @Before
+  public void before() {
+    when(schedulerService.cpuLightScheduler()).thenReturn(tickScheduler);
+    doReturn(tickFuture).when(tickScheduler).scheduleAtFixedRate(any(), anyLong(), anyLong(), eq(MILLISECONDS));
+
+    timeoutService = new TimeoutService();
+    timeoutService.setSchedulerService(schedulerService);
+  }
+
+  @Test
+  public void noTickingUntilScheduled() {
+    timeoutService.withTimerWheel(delegate);
+    verify(tickScheduler, never()).scheduleAtFixedRate(any(), anyLong(), anyLong(), any());
+
+    timeoutService.schedule(() -> {
+    }, 1, MILLISECONDS);
+    timeoutService.schedule(() -> {
+    }, 1, MILLISECONDS);
+    verify(tickScheduler, times(1)).scheduleAtFixedRate(any(), anyLong(), anyLong(), eq(MILLISECONDS));
+  }
+
+  @Test
+  public void tickingStopsWhenIdleAndRestarts() {
+    AtomicBoolean fired = new AtomicBoolean();
+    timeoutService.schedule(() -> fired.set(true), 0, MILLISECONDS);
+    Runnable tick = captureTick(1);
+
+    new PollingProber(1000, 10).check(new JUnitLambdaProbe(() -> {
+      tick.run();
+      return fired.get();
+    }));
+    verify(tickFuture).cancel(false);
+
+    timeoutService.schedule(() -> {
+    }, 1, MILLISECONDS);
+    captureTick(2);
+  }
+
+  @Test
+  public void expiredTasksRunInDelegate() {
+    Runnable task = () -> {
+    };
+    timeoutService.withTimerWheel(delegate).schedule(task, 0, MILLISECONDS);
+    Runnable tick = captureTick(1);
+
+    new PollingProber(1000, 10).check(new JUnitLambdaProbe(() -> {
+      tick.run();
+      verify(delegate).execute(task);
+      return true;
+    }));
+  }
+
+  @Test
+  public void reactorTimeoutFiredByWheel() {
+    doAnswer(invocation -> {
+      ((Runnable) invocation.getArgument(0)).run();
+      return null;
+    }).when(delegate).execute(any());
+    AtomicReference<Throwable> error = new AtomicReference<>();
+
+    Mono.never().timeout(ofMillis(1), fromExecutorService(timeoutService.withTimerWheel(delegate)))
+        .subscribe(value -> {
+        }, error::set);
+    Runnable tick = captureTick(1);
+
+    new PollingProber(1000, 10).check(new JUnitLambdaProbe(() -> {
+      tick.run();
+      return error.get() instanceof TimeoutException;
+    }));
+    verify(delegate, never()).schedule(any(Callable.class), anyLong(), any());
+  }
+
+  @Test
+  public void cancelledCallableLeavesWheel() {
+    ScheduledFuture<Object> future = timeoutService.withTimerWheel(delegate).schedule(() -> null, 1000, MILLISECONDS);
+    assertThat(timeoutService.getPendingTimeouts(), is(1L));
+
+    assertThat(future.cancel(true), is(true));
+    assertThat(future.isCancelled(), is(true));
+    assertThat(timeoutService.getPendingTimeouts(), is(0L));
+    verify(delegate, never()).execute(any());
+  }
+
+  @Test
+  public void disposeStopsTicking() {
+    timeoutService.schedule(() -> {
+    }, 1000, MILLISECONDS);
+    timeoutService.dispose();
+
+    verify(tickFuture).cancel(false);
+    verify(tickScheduler).stop();
+    assertThat(timeoutService.getPendingTimeouts(), is(1L));
+  }
+
+  private Runnable captureTick(int times) {
+    ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+    verify(tickScheduler, times(times)).scheduleAtFixedRate(captor.capture(), anyLong(), anyLong(), eq(MILLISECONDS));
+    return captor.getValue();
+  }
+}
@@ -753,6 +753,41 @@ public class DefaultMessageProcessorChainTestCase extends AbstractReactiveProces
     process(builder.build(), getTestEventUsingFlow("0"));
   }
 
+  @Test
+  public void testFusedCpuLiteProcessors() throws Exception {
+    List<MessageProcessorNotification> notificationList = new ArrayList<>();
+    setupMessageProcessorNotificationListener(notificationList);
+    DefaultMessageProcessorChainBuilder builder = new DefaultMessageProcessorChainBuilder();
+    AppendingMP mp1 = new AppendingMP("1");
+    AppendingMP mp2 = new AppendingMP("2");
+    AppendingMP mp3 = new AppendingMP("3");
+    builder.chain(mp1, mp2, getAppendingMP("4"), mp3);
+
+    assertEquals("01243", process(builder.build(), getTestEventUsingFlow("0")).getMessage().getPayload().getValue());
+    assertThat(mp2.event, is(mp1.resultEvent));
+    assertThat(notificationList, hasSize(8));
+    for (int i = 0; i < notificationList.size(); ++i) {
+      assertThat(notificationList.get(i).getAction().getActionId(),
+                 equalTo(i % 2 == 0 ? MESSAGE_PROCESSOR_PRE_INVOKE : MESSAGE_PROCESSOR_POST_INVOKE));
+    }
+  }
+
+  @Test
+  public void testExceptionBetweenFusedCpuLiteProcessors() throws Exception {
+    DefaultMessageProcessorChainBuilder builder = new DefaultMessageProcessorChainBuilder();
+    AppendingMP mp1 = new AppendingMP("1");
+    AppendingMP mp2 = new AppendingMP("2");
+    builder.chain(mp1, new ExceptionThrowingMessageProcessor(illegalStateException), mp2);
+
+    expectedException.expect(is(illegalStateException));
+    try {
+      process(builder.build(), getTestEventUsingFlow("0"));
+    } finally {
+      assertThat(mp1.resultEvent, not(nullValue()));
+      assertThat(mp2.event, is(nullValue()));
+    }
+  }
+
   @Test
   public void testSuccessNotifications() throws Exception {
     List<MessageProcessorNotification> notificationList = new ArrayList<>();
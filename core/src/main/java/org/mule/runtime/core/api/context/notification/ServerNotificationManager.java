@@ -6,9 +6,14 @@
  */
 package org.mule.runtime.core.api.context.notification;
 
+import static java.lang.Boolean.getBoolean;
+import static java.lang.Integer.getInteger;
+import static java.lang.System.getProperty;
 import static java.lang.Thread.currentThread;
 import static java.util.Collections.unmodifiableMap;
 import static java.util.Collections.unmodifiableSet;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.mule.runtime.core.internal.context.notification.BatchedNotificationDispatcher.HIGH_FREQUENCY_NOTIFICATIONS_KEY;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import org.mule.api.annotation.NoExtend;
@@ -47,10 +52,13 @@ import org.mule.runtime.api.notification.SecurityNotificationListener;
 import org.mule.runtime.api.notification.TransactionNotification;
 import org.mule.runtime.api.notification.TransactionNotificationListener;
 import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.scheduler.SchedulerService;
 import org.mule.runtime.api.util.concurrent.Latch;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.context.MuleContextAware;
 import org.mule.runtime.core.api.util.ClassUtils;
+import org.mule.runtime.core.internal.context.notification.BatchedNotificationDispatcher;
+import org.mule.runtime.core.internal.context.notification.BatchedNotificationDispatcher.OverflowPolicy;
 import org.mule.runtime.core.internal.context.notification.Configuration;
 import org.mule.runtime.core.internal.context.notification.Policy;
 import org.mule.runtime.core.privileged.context.notification.OptimisedNotificationHandler;
@@ -95,6 +103,43 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
 
   private static final Logger logger = getLogger(ServerNotificationManager.class);
 
+  /**
+   * When set to {@code true}, asynchronous notifications are queued in a bounded buffer per listener and delivered in batches,
+   * instead of submitting a task for each notification and listener.
+   *
+   * @since 4.4.0
+   */
+  public static final String MULE_NOTIFICATIONS_BATCHED_DISPATCH = SYSTEM_PROPERTY_PREFIX + "notifications.batchedDispatch";
+
+  /**
+   * The maximum amount of asynchronous notifications pending delivery for each listener when
+   * {@link #MULE_NOTIFICATIONS_BATCHED_DISPATCH} is enabled.
+   *
+   * @since 4.4.0
+   */
+  public static final String MULE_NOTIFICATIONS_BUFFER_SIZE = SYSTEM_PROPERTY_PREFIX + "notifications.bufferSize";
+
+  /**
+   * What to do with an asynchronous notification when the buffer of a listener is full, when
+   * {@link #MULE_NOTIFICATIONS_BATCHED_DISPATCH} is enabled. One of {@code DROP} (the default) or {@code BLOCK}.
+   * Even with {@code BLOCK}, threads for CPU work never wait, and drop the notification instead.
+   *
+   * @since 4.4.0
+   */
+  public static final String MULE_NOTIFICATIONS_OVERFLOW_POLICY = SYSTEM_PROPERTY_PREFIX + "notifications.overflowPolicy";
+
+  /**
+   * When set to {@code true}, along with {@link #MULE_NOTIFICATIONS_BATCHED_DISPATCH}, message processor and pipeline
+   * notifications are coalesced: within each batch delivered to a listener, only the latest one of each action for each
+   * component (or flow, for pipeline notifications) is delivered. Meant for listeners which only care about the latest state,
+   * since the others are not notified of every event.
+   *
+   * @since 4.4.0
+   */
+  public static final String MULE_NOTIFICATIONS_COALESCE = SYSTEM_PROPERTY_PREFIX + "notifications.coalesce";
+
+  private static final int DEFAULT_NOTIFICATIONS_BUFFER_SIZE = 1024;
+
   private boolean dynamic = false;
   private Configuration configuration = new Configuration();
   private final AtomicInteger activeFires = new AtomicInteger();
@@ -103,6 +148,7 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
   private MuleContext muleContext;
   private Scheduler notificationsLiteScheduler;
   private Scheduler notificationsIoScheduler;
+  private BatchedNotificationDispatcher batchedDispatcher;
 
   @Override
   public boolean isNotificationDynamic() {
@@ -123,8 +169,21 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
    * object to send notifications.
    */
   public void initialise() throws InitialisationException {
-    notificationsLiteScheduler = muleContext.getSchedulerService().cpuLightScheduler();
-    notificationsIoScheduler = muleContext.getSchedulerService().ioScheduler();
+    SchedulerService schedulerService = muleContext.getSchedulerService();
+    notificationsLiteScheduler = schedulerService.cpuLightScheduler();
+    notificationsIoScheduler = schedulerService.ioScheduler();
+
+    if (getBoolean(MULE_NOTIFICATIONS_BATCHED_DISPATCH)) {
+      batchedDispatcher = new BatchedNotificationDispatcher(notificationsLiteScheduler, notificationsIoScheduler,
+                                                            getInteger(MULE_NOTIFICATIONS_BUFFER_SIZE,
+                                                                       DEFAULT_NOTIFICATIONS_BUFFER_SIZE),
+                                                            OverflowPolicy.valueOf(getProperty(MULE_NOTIFICATIONS_OVERFLOW_POLICY,
+                                                                                               OverflowPolicy.DROP.name())),
+                                                            () -> !schedulerService.isCurrentThreadForCpuWork(),
+                                                            getBoolean(MULE_NOTIFICATIONS_COALESCE)
+                                                                ? HIGH_FREQUENCY_NOTIFICATIONS_KEY
+                                                                : notification -> null);
+    }
   }
 
   public void addInterfaceToType(Class<? extends NotificationListener> iface,
@@ -155,6 +214,9 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
    */
   public void removeListener(NotificationListener<?> listener) {
     configuration.removeListener(listener);
+    if (batchedDispatcher != null) {
+      batchedDispatcher.removeListener(listener);
+    }
   }
 
   public void disableInterface(Class<? extends NotificationListener> iface) {
@@ -194,6 +256,8 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
       }
       if (notification.isSynchronous()) {
         notifyListeners(notification, (listener, nfn) -> listener.onNotification(nfn));
+      } else if (batchedDispatcher != null) {
+        notifyListeners(notification, batchedDispatcher::dispatch);
       } else {
         notifyListeners(notification, (listener, nfn) -> {
           if (listener.isBlocking()) {
@@ -250,6 +314,11 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
       notificationsIoScheduler.stop();
       notificationsIoScheduler = null;
     }
+    if (batchedDispatcher != null) {
+      logger.debug("Notification manager disposed with {} notifications queued, {} dropped",
+                   batchedDispatcher.getQueuedCount(), batchedDispatcher.getDroppedCount());
+      batchedDispatcher = null;
+    }
 
     configuration = null;
   }
@@ -288,6 +357,36 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
     return disposed.get();
   }
 
+  /**
+   * @return the number of asynchronous notifications queued for batched delivery, or {@code 0} if
+   *         {@link #MULE_NOTIFICATIONS_BATCHED_DISPATCH} is not enabled.
+   * @since 4.4.0
+   */
+  public long getQueuedNotificationsCount() {
+    BatchedNotificationDispatcher dispatcher = batchedDispatcher;
+    return dispatcher != null ? dispatcher.getQueuedCount() : 0;
+  }
+
+  /**
+   * @return the number of asynchronous notifications dropped because the buffer of their listener was full, or {@code 0} if
+   *         {@link #MULE_NOTIFICATIONS_BATCHED_DISPATCH} is not enabled.
+   * @since 4.4.0
+   */
+  public long getDroppedNotificationsCount() {
+    BatchedNotificationDispatcher dispatcher = batchedDispatcher;
+    return dispatcher != null ? dispatcher.getDroppedCount() : 0;
+  }
+
+  /**
+   * @return the number of asynchronous notifications not delivered because a later one replaced them, or {@code 0} if
+   *         {@link #MULE_NOTIFICATIONS_COALESCE} is not enabled.
+   * @since 4.4.0
+   */
+  public long getCoalescedNotificationsCount() {
+    BatchedNotificationDispatcher dispatcher = batchedDispatcher;
+    return dispatcher != null ? dispatcher.getCoalescedCount() : 0;
+  }
+
   /**
    * @return a {@link ServerNotificationManager} with the default configuration for Mule notifications
    */
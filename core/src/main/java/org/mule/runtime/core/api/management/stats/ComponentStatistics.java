@@ -6,15 +6,23 @@
  */
 package org.mule.runtime.core.api.management.stats;
 
+import static java.lang.Long.MAX_VALUE;
+import static org.mule.runtime.core.api.management.stats.ProcessingTime.getEffectiveTime;
+
 import org.mule.api.annotation.NoExtend;
 import org.mule.runtime.core.api.util.StringUtils;
+import org.mule.runtime.core.internal.management.stats.LatencyHistogram;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * ComponentStatistics is a basic metrics aggregation class that is accessible via the JMX api. This class is not thread-safe -
- * occasional errors in reported statistics should be expected, especially when the {@link #clear()} method is used.
+ * ComponentStatistics is a basic metrics aggregation class that is accessible via the JMX api. Measurements are recorded without
+ * locking, so that components processing many events concurrently don't contend on their statistics. Values read while events
+ * are being recorded may be slightly inconsistent with each other, especially when the {@link #clear()} method is used.
  */
 @NoExtend
 public class ComponentStatistics implements Statistics {
@@ -26,14 +34,14 @@ public class ComponentStatistics implements Statistics {
    */
   private static final long serialVersionUID = -2086999226732861674L;
 
-  private long minExecutionTime = 0;
-  private long maxExecutionTime = 0;
-  private long averageExecutionTime = 0;
-  private long executedEvent = 0;
-  private long totalExecTime = 0;
-  private boolean enabled = false;
+  private final AtomicLong minExecutionTime = new AtomicLong(MAX_VALUE);
+  private final AtomicLong maxExecutionTime = new AtomicLong(0);
+  private final LongAdder executedEvent = new LongAdder();
+  private final LongAdder totalExecTime = new LongAdder();
+  private final LatencyHistogram executionTimes = new LatencyHistogram();
+  private volatile boolean enabled = false;
   private long intervalTime = 0;
-  private long currentIntervalStartTime = 0;
+  private final AtomicLong currentIntervalStartTime = new AtomicLong(0);
   private boolean statIntervalTimeEnabled = false;
 
   /**
@@ -65,11 +73,11 @@ public class ComponentStatistics implements Statistics {
    * If called while a branch is being executed, then statistics may be slightly erroneous.
    */
   public void clear() {
-    minExecutionTime = 0;
-    maxExecutionTime = 0;
-    executedEvent = 0;
-    totalExecTime = 0;
-    averageExecutionTime = 0;
+    minExecutionTime.set(MAX_VALUE);
+    maxExecutionTime.set(0);
+    executedEvent.reset();
+    totalExecTime.reset();
+    executionTimes.reset();
   }
 
   /**
@@ -102,7 +110,7 @@ public class ComponentStatistics implements Statistics {
    * @return The maximum time, or zero if no events have been started.
    */
   public long getMaxExecutionTime() {
-    return maxExecutionTime;
+    return maxExecutionTime.get();
   }
 
   /**
@@ -111,7 +119,8 @@ public class ComponentStatistics implements Statistics {
    * @return The maximum time, or zero if no events have been completed.
    */
   public long getMinExecutionTime() {
-    return minExecutionTime;
+    long min = minExecutionTime.get();
+    return min == MAX_VALUE ? 0 : min;
   }
 
   /**
@@ -121,7 +130,7 @@ public class ComponentStatistics implements Statistics {
    * @return The total cumulative execution time, in milliseconds.
    */
   public long getTotalExecutionTime() {
-    return totalExecTime;
+    return totalExecTime.sum();
   }
 
   /**
@@ -133,7 +142,7 @@ public class ComponentStatistics implements Statistics {
    * @return The number of events executed since last cleared.
    */
   public long getExecutedEvents() {
-    return executedEvent;
+    return executedEvent.sum();
   }
 
   /**
@@ -143,34 +152,20 @@ public class ComponentStatistics implements Statistics {
    * @param branch the time to execute this branch
    * @param total the total time (so far) for processing this event
    */
-  public synchronized void addExecutionBranchTime(boolean first, long branch, long total) {
+  public void addExecutionBranchTime(boolean first, long branch, long total) {
     // TODO MULE-9151 - ComponentStatistics should really create distinct Event
     // objects that can be used to aggregate statistics and then atomically
     // log them at completion time.
 
-    if (statIntervalTimeEnabled) {
-      long currentTime = System.currentTimeMillis();
-      if (currentIntervalStartTime == 0) {
-        currentIntervalStartTime = currentTime;
-      }
-
-      if ((currentTime - currentIntervalStartTime) > intervalTime) {
-        clear();
-        currentIntervalStartTime = currentTime;
-      }
-    }
+    clearIfIntervalElapsed();
 
     if (first) {
-      executedEvent++;
+      executedEvent.increment();
     }
 
-    if (executedEvent > 0) {
-      totalExecTime += ProcessingTime.getEffectiveTime(branch);
-      long effectiveTotal = ProcessingTime.getEffectiveTime(total);
-      if (maxExecutionTime == 0 || effectiveTotal > maxExecutionTime) {
-        maxExecutionTime = effectiveTotal;
-      }
-      averageExecutionTime = totalExecTime / executedEvent;
+    if (executedEvent.sum() > 0) {
+      totalExecTime.add(getEffectiveTime(branch));
+      updateMax(getEffectiveTime(total));
     }
   }
 
@@ -181,12 +176,11 @@ public class ComponentStatistics implements Statistics {
    * 
    * @param time the total time required to process this event
    */
-  public synchronized void addCompleteExecutionTime(long time) {
-    if (executedEvent > 0) {
-      long effectiveTime = ProcessingTime.getEffectiveTime(time);
-      if (minExecutionTime == 0 || effectiveTime < minExecutionTime) {
-        minExecutionTime = effectiveTime;
-      }
+  public void addCompleteExecutionTime(long time) {
+    if (executedEvent.sum() > 0) {
+      long effectiveTime = getEffectiveTime(time);
+      updateMin(effectiveTime);
+      executionTimes.record(effectiveTime);
     }
   }
 
@@ -197,31 +191,48 @@ public class ComponentStatistics implements Statistics {
    *
    * @param time The total event time to be logged/recorded.
    */
-  public synchronized void addExecutionTime(long time) {
-    if (statIntervalTimeEnabled) {
-      long currentTime = System.currentTimeMillis();
-      if (currentIntervalStartTime == 0) {
-        currentIntervalStartTime = currentTime;
-      }
+  public void addExecutionTime(long time) {
+    clearIfIntervalElapsed();
 
-      if ((currentTime - currentIntervalStartTime) > intervalTime) {
-        clear();
-        currentIntervalStartTime = currentTime;
-      }
-    }
+    executedEvent.increment();
 
-    executedEvent++;
+    long effectiveTime = getEffectiveTime(time);
+    totalExecTime.add(effectiveTime);
+    updateMin(effectiveTime);
+    updateMax(effectiveTime);
+    executionTimes.record(effectiveTime);
+  }
 
-    long effectiveTime = ProcessingTime.getEffectiveTime(time);
-    totalExecTime += effectiveTime;
+  // Plain CAS loops rather than LongAccumulators, which hold a non serializable function. Once the min/max has settled, most
+  // updates don't need to write at all.
+  private void updateMin(long time) {
+    long current;
+    while (time < (current = minExecutionTime.get()) && !minExecutionTime.compareAndSet(current, time)) {
+      // retry with the value set by the competing thread
+    }
+  }
 
-    if (minExecutionTime == 0 || effectiveTime < minExecutionTime) {
-      minExecutionTime = time;
+  private void updateMax(long time) {
+    long current;
+    while (time > (current = maxExecutionTime.get()) && !maxExecutionTime.compareAndSet(current, time)) {
+      // retry with the value set by the competing thread
     }
-    if (maxExecutionTime == 0 || effectiveTime > maxExecutionTime) {
-      maxExecutionTime = time;
+  }
+
+  private void clearIfIntervalElapsed() {
+    if (!statIntervalTimeEnabled) {
+      return;
+    }
+
+    long currentTime = System.currentTimeMillis();
+    currentIntervalStartTime.compareAndSet(0, currentTime);
+
+    long intervalStartTime = currentIntervalStartTime.get();
+    // only the thread which starts the new interval clears the statistics
+    if ((currentTime - intervalStartTime) > intervalTime
+        && currentIntervalStartTime.compareAndSet(intervalStartTime, currentTime)) {
+      clear();
     }
-    averageExecutionTime = totalExecTime / executedEvent;
   }
 
   /**
@@ -230,7 +241,44 @@ public class ComponentStatistics implements Statistics {
    * @return the total event time accumulated to this point, divided by the total number of events recorded.
    */
   public long getAverageExecutionTime() {
-    return averageExecutionTime;
+    long executed = executedEvent.sum();
+    return executed == 0 ? 0 : totalExecTime.sum() / executed;
+  }
+
+  /**
+   * Returns the execution time which is greater or equal than the given {@code percentile} of the complete event execution times
+   * recorded since last cleared.
+   *
+   * @param percentile a percentile, between {@code 0} and {@code 100}
+   * @return the execution time at the given percentile, or zero if no events have been completed.
+   * @since 4.4.0
+   */
+  public long getExecutionTimePercentile(double percentile) {
+    return executionTimes.getValueAtPercentile(percentile);
+  }
+
+  /**
+   * @return the median of the complete event execution times recorded since last cleared.
+   * @since 4.4.0
+   */
+  public long getExecutionTimeP50() {
+    return getExecutionTimePercentile(50);
+  }
+
+  /**
+   * @return the 99th percentile of the complete event execution times recorded since last cleared.
+   * @since 4.4.0
+   */
+  public long getExecutionTimeP99() {
+    return getExecutionTimePercentile(99);
+  }
+
+  /**
+   * @return the 99.9th percentile of the complete event execution times recorded since last cleared.
+   * @since 4.4.0
+   */
+  public long getExecutionTimeP999() {
+    return getExecutionTimePercentile(99.9);
   }
 
 }
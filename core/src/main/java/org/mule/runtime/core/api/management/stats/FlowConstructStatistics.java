@@ -64,6 +64,14 @@ public interface FlowConstructStatistics extends Statistics {
    */
   long getTotalProcessingTime();
 
+  /**
+   * @param percentile a percentile, between {@code 0} and {@code 100}
+   * @return the time required to process an event which is greater or equal than the given {@code percentile} of the time
+   *         required to process each of the current finalized events
+   * @since 4.4.0
+   */
+  long getProcessingTimePercentile(double percentile);
+
   /**
    * @return the number of execution errors at a given time
    */
@@ -26,6 +26,16 @@ public interface ObjectStreamingManager {
    */
   CursorIteratorProviderFactory getInMemoryCursorProviderFactory(InMemoryCursorIteratorConfig config);
 
+  /**
+   * Creates a {@link CursorIteratorProviderFactory} which keeps a bounded amount of items in memory and offloads the rest
+   * to disk, using the artifact's {@link org.mule.runtime.api.serialization.ObjectSerializer}
+   *
+   * @param config the configuration for the produced {@link CursorIteratorProvider} instances
+   * @return a new {@link CursorIteratorProviderFactory}
+   * @since 4.4.0
+   */
+  CursorIteratorProviderFactory getFileStoreCursorProviderFactory(FileStoreCursorIteratorConfig config);
+
   /**
    * Creates a null object implementation of {@link CursorIteratorProviderFactory}
    *
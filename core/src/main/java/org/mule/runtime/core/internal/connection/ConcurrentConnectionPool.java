@@ -0,0 +1,433 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import static java.lang.System.currentTimeMillis;
+import static java.lang.System.identityHashCode;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_FAIL;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_GROW;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.config.PoolingProfile;
+import org.mule.runtime.api.scheduler.Scheduler;
+
+import java.lang.ref.WeakReference;
+import java.util.Deque;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.pool.ObjectPool;
+import org.apache.commons.pool.PoolableObjectFactory;
+import org.slf4j.Logger;
+
+/**
+ * An {@link ObjectPool} of connections which doesn't serialize the borrowers on a single lock.
+ * <p>
+ * Each pooled connection has an atomic state, and borrowing one means atomically switching it from idle to in use. A borrower
+ * first tries the connection it last returned from the same thread, which is the one most likely to be idle and whose
+ * resources are most likely to be warm. If it's not available, it pops connections from a lock-free stack of idle connections
+ * until it claims one, and only creates a new connection if none is idle.
+ * <p>
+ * The semantics of the {@link PoolingProfile} are kept: {@link PoolingProfile#getMaxActive()} bounds the connections in use
+ * (except when the exhausted action is {@link PoolingProfile#WHEN_EXHAUSTED_GROW}), {@link PoolingProfile#getMaxWait()} is how
+ * long to wait for one to be returned (zero or negative meaning forever), and connections returned when there already are
+ * {@link PoolingProfile#getMaxIdle()} idle ones are destroyed.
+ * <p>
+ * If an eviction {@link Scheduler} is given, idle connections are checked every
+ * {@link PoolingProfile#getEvictionCheckIntervalMillis()} in the background, destroying those which were idle for longer than
+ * {@link PoolingProfile#getMinEvictionMillis()}. As with the commons-pool defaults this pool replaces, connections are never
+ * validated by the pool itself, neither when borrowed nor while idle.
+ *
+ * @param <C> the generic type of the pooled connections
+ * @since 4.4.0
+ */
+final class ConcurrentConnectionPool<C> implements ObjectPool<C> {
+
+  private static final Logger LOGGER = getLogger(ConcurrentConnectionPool.class);
+
+  private static final int IDLE = 0;
+  private static final int IN_USE = 1;
+  private static final int RESERVED = 2;
+  private static final int REMOVED = 3;
+
+  private volatile PoolableObjectFactory<C> factory;
+  private final int maxIdle;
+  private final long maxWait;
+  private final int exhaustedAction;
+  private final long minEvictionMillis;
+  private final ScheduledFuture<?> evictionTask;
+
+  private final Map<IdentityKey, PooledConnection<C>> connections = new ConcurrentHashMap<>();
+  private final Deque<PooledConnection<C>> idleStack = new ConcurrentLinkedDeque<>();
+  private final ThreadLocal<WeakReference<PooledConnection<C>>> lastReturned = new ThreadLocal<>();
+  private final Semaphore permits;
+
+  private final AtomicInteger activeCount = new AtomicInteger();
+  private final AtomicInteger idleCount = new AtomicInteger();
+  private final AtomicBoolean closed = new AtomicBoolean(false);
+  private final ConnectionPoolMetrics metrics = new ConnectionPoolMetrics(activeCount::get, idleCount::get);
+
+  /**
+   * Creates a new instance
+   *
+   * @param factory           the factory to create and destroy the connections
+   * @param poolingProfile    the {@link PoolingProfile} which configures the pool
+   * @param evictionScheduler the {@link Scheduler} on which to check the idle connections. It may be shared with other pools,
+   *                          so it's not stopped when this pool is closed. May be {@code null} if the {@code poolingProfile}
+   *                          has no eviction interval.
+   */
+  ConcurrentConnectionPool(PoolableObjectFactory<C> factory, PoolingProfile poolingProfile, Scheduler evictionScheduler) {
+    this.factory = factory;
+    this.maxIdle = poolingProfile.getMaxIdle();
+    this.maxWait = poolingProfile.getMaxWait();
+    this.exhaustedAction = poolingProfile.getExhaustedAction();
+    this.minEvictionMillis = poolingProfile.getMinEvictionMillis();
+
+    int maxActive = poolingProfile.getMaxActive();
+    permits = maxActive < 0 || exhaustedAction == WHEN_EXHAUSTED_GROW ? null : new Semaphore(maxActive);
+
+    long evictionInterval = poolingProfile.getEvictionCheckIntervalMillis();
+    if (evictionScheduler != null && evictionInterval > 0 && minEvictionMillis > 0) {
+      evictionTask = evictionScheduler.scheduleWithFixedDelay(this::evict, evictionInterval, evictionInterval, MILLISECONDS);
+    } else {
+      evictionTask = null;
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws NoSuchElementException if the pool is exhausted
+   */
+  @Override
+  public C borrowObject() throws Exception {
+    assertOpen();
+    final long start = nanoTime();
+    acquirePermit();
+    try {
+      PooledConnection<C> connection = claimIdle();
+      if (connection == null) {
+        connection = create();
+      }
+
+      activeCount.incrementAndGet();
+      metrics.onBorrow(nanoTime() - start);
+      return connection.connection;
+    } catch (Exception | Error e) {
+      releasePermit();
+      throw e;
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void returnObject(C obj) throws Exception {
+    PooledConnection<C> connection = getPooled(obj);
+    release(connection);
+
+    try {
+      activeCount.decrementAndGet();
+      if (closed.get() || (maxIdle >= 0 && idleCount.get() >= maxIdle)) {
+        destroy(connection);
+      } else {
+        connection.lastReturned = currentTimeMillis();
+        makeIdle(connection);
+        lastReturned.set(connection.weakReference);
+        // the pool may have been closed and cleared while this connection was being returned
+        if (closed.get() && reserve(connection)) {
+          destroy(connection);
+        }
+      }
+    } finally {
+      releasePermit();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void invalidateObject(C obj) throws Exception {
+    PooledConnection<C> connection = getPooled(obj);
+    release(connection);
+
+    try {
+      activeCount.decrementAndGet();
+      destroy(connection);
+    } finally {
+      releasePermit();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void addObject() throws Exception {
+    assertOpen();
+    PooledConnection<C> connection = create();
+    connection.lastReturned = currentTimeMillis();
+    makeIdle(connection);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getNumIdle() {
+    return idleCount.get();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getNumActive() {
+    return activeCount.get();
+  }
+
+  /**
+   * Destroys all the idle connections.
+   */
+  @Override
+  public void clear() {
+    for (PooledConnection<C> connection : connections.values()) {
+      if (reserve(connection)) {
+        destroy(connection);
+      }
+    }
+  }
+
+  /**
+   * Closes the pool, destroying all the idle connections. Connections which are in use are destroyed once returned.
+   */
+  @Override
+  public void close() {
+    if (closed.compareAndSet(false, true)) {
+      if (evictionTask != null) {
+        evictionTask.cancel(false);
+      }
+      clear();
+    }
+  }
+
+  /**
+   * Sets the factory used to create new connections, destroying the idle ones with the previous factory. As with
+   * {@link org.apache.commons.pool.impl.GenericObjectPool}, this is only allowed while no connection is in use.
+   * <p>
+   * Each connection is always destroyed with the factory which created it.
+   *
+   * @throws IllegalStateException if the pool is closed or has connections in use
+   */
+  @Override
+  public void setFactory(PoolableObjectFactory<C> factory) {
+    assertOpen();
+    if (activeCount.get() > 0) {
+      throw new IllegalStateException("Objects are already active");
+    }
+
+    this.factory = factory;
+    clear();
+  }
+
+  /**
+   * @return the {@link ConnectionPoolMetrics} of this pool
+   */
+  ConnectionPoolMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Destroys the idle connections which were idle for too long.
+   */
+  void evict() {
+    if (minEvictionMillis <= 0) {
+      return;
+    }
+
+    final long now = currentTimeMillis();
+    for (PooledConnection<C> connection : connections.values()) {
+      if (closed.get()) {
+        return;
+      }
+      if (!reserve(connection)) {
+        continue;
+      }
+
+      if (now - connection.lastReturned >= minEvictionMillis || closed.get()) {
+        destroy(connection);
+      } else {
+        makeIdle(connection);
+      }
+    }
+  }
+
+  private PooledConnection<C> claimIdle() {
+    WeakReference<PooledConnection<C>> lastReturnedReference = lastReturned.get();
+    PooledConnection<C> connection = lastReturnedReference != null ? lastReturnedReference.get() : null;
+    if (connection != null && claim(connection)) {
+      return connection;
+    }
+
+    while ((connection = idleStack.pollFirst()) != null) {
+      connection.stacked.set(false);
+      if (claim(connection)) {
+        return connection;
+      }
+    }
+
+    return null;
+  }
+
+  private boolean claim(PooledConnection<C> connection) {
+    if (connection.state.compareAndSet(IDLE, IN_USE)) {
+      idleCount.decrementAndGet();
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Takes a connection out of use, so that only one of concurrent returns or invalidations of it goes through.
+   */
+  private void release(PooledConnection<C> connection) {
+    if (!connection.state.compareAndSet(IN_USE, RESERVED)) {
+      throw new IllegalStateException("Connection was already returned to the pool");
+    }
+  }
+
+  private boolean reserve(PooledConnection<C> connection) {
+    if (connection.state.compareAndSet(IDLE, RESERVED)) {
+      idleCount.decrementAndGet();
+      return true;
+    }
+    return false;
+  }
+
+  private void makeIdle(PooledConnection<C> connection) {
+    // count it before it can be claimed, so that the count never goes below zero
+    idleCount.incrementAndGet();
+    connection.state.set(IDLE);
+
+    // a connection which is already stacked must not be pushed again, otherwise a thread reusing the same connection over
+    // and over would make the stack grow indefinitely
+    if (connection.stacked.compareAndSet(false, true)) {
+      idleStack.offerFirst(connection);
+    }
+  }
+
+  private PooledConnection<C> create() throws Exception {
+    final PoolableObjectFactory<C> factory = this.factory;
+    PooledConnection<C> connection = new PooledConnection<>(factory.makeObject(), factory);
+    connections.put(new IdentityKey(connection.connection), connection);
+    metrics.onCreate();
+    return connection;
+  }
+
+  private void destroy(PooledConnection<C> connection) {
+    connection.state.set(REMOVED);
+    connections.remove(new IdentityKey(connection.connection));
+    if (connection.stacked.get()) {
+      idleStack.remove(connection);
+    }
+    try {
+      connection.factory.destroyObject(connection.connection);
+    } catch (Exception e) {
+      LOGGER.warn("Exception was found trying to destroy connection of type " + connection.connection.getClass().getName(), e);
+    } finally {
+      metrics.onDestroy();
+    }
+  }
+
+  private PooledConnection<C> getPooled(C obj) {
+    PooledConnection<C> connection = connections.get(new IdentityKey(obj));
+    if (connection == null) {
+      throw new IllegalStateException("Connection is not part of this pool");
+    }
+    return connection;
+  }
+
+  private void acquirePermit() throws InterruptedException {
+    if (permits == null) {
+      return;
+    }
+
+    boolean acquired;
+    if (exhaustedAction == WHEN_EXHAUSTED_FAIL) {
+      acquired = permits.tryAcquire();
+    } else if (maxWait <= 0) {
+      permits.acquire();
+      acquired = true;
+    } else {
+      acquired = permits.tryAcquire(maxWait, MILLISECONDS);
+    }
+
+    if (!acquired) {
+      throw new NoSuchElementException(exhaustedAction == WHEN_EXHAUSTED_FAIL ? "Pool exhausted"
+          : "Timeout waiting for idle connection");
+    }
+  }
+
+  private void releasePermit() {
+    if (permits != null) {
+      permits.release();
+    }
+  }
+
+  private void assertOpen() {
+    if (closed.get()) {
+      throw new IllegalStateException("Pool not open");
+    }
+  }
+
+  private static final class PooledConnection<C> {
+
+    private final C connection;
+    private final PoolableObjectFactory<C> factory;
+    private final AtomicInteger state = new AtomicInteger(IN_USE);
+    private final AtomicBoolean stacked = new AtomicBoolean(false);
+    private final WeakReference<PooledConnection<C>> weakReference = new WeakReference<>(this);
+    private volatile long lastReturned;
+
+    private PooledConnection(C connection, PoolableObjectFactory<C> factory) {
+      this.connection = connection;
+      this.factory = factory;
+    }
+  }
+
+  /**
+   * Connections are tracked by identity, since their {@code equals} and {@code hashCode} could be anything.
+   */
+  private static final class IdentityKey {
+
+    private final Object object;
+
+    private IdentityKey(Object object) {
+      this.object = object;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof IdentityKey && ((IdentityKey) obj).object == object;
+    }
+
+    @Override
+    public int hashCode() {
+      return identityHashCode(object);
+    }
+  }
+}
@@ -6,6 +6,7 @@
  */
 package org.mule.runtime.core.internal.connection;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.mule.runtime.api.meta.model.connection.ConnectionManagementType.CACHED;
 import static org.mule.runtime.api.meta.model.connection.ConnectionManagementType.NONE;
 import static org.mule.runtime.api.meta.model.connection.ConnectionManagementType.POOLING;
@@ -16,6 +17,8 @@ import org.mule.runtime.api.connection.CachedConnectionProvider;
 import org.mule.runtime.api.connection.ConnectionProvider;
 import org.mule.runtime.api.connection.PoolingConnectionProvider;
 import org.mule.runtime.api.connection.PoolingListener;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.util.LazyValue;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.api.meta.model.connection.ConnectionManagementType;
 
@@ -28,6 +31,7 @@ final class ConnectionManagementStrategyFactory {
 
   private final PoolingProfile defaultPoolingProfile;
   private final MuleContext muleContext;
+  private final LazyValue<Scheduler> evictionScheduler;
 
   /**
    * Creates a new instance
@@ -38,6 +42,9 @@ final class ConnectionManagementStrategyFactory {
   ConnectionManagementStrategyFactory(PoolingProfile defaultPoolingProfile, MuleContext muleContext) {
     this.defaultPoolingProfile = defaultPoolingProfile;
     this.muleContext = muleContext;
+    evictionScheduler = new LazyValue<>(() -> muleContext.getSchedulerService()
+        .ioScheduler(muleContext.getSchedulerBaseConfig().withName("connection-pool-evictor")
+            .withShutdownTimeout(0, MILLISECONDS)));
   }
 
   /**
@@ -79,7 +86,14 @@ final class ConnectionManagementStrategyFactory {
         : new PoolingConnectionManagementStrategy<>(connectionProvider, poolingProfile,
                                                     (PoolingListener<C>) unwrapProviderWrapper(connectionProvider,
                                                                                                PoolingConnectionProvider.class),
-                                                    muleContext);
+                                                    evictionScheduler::get, muleContext);
+  }
+
+  /**
+   * Stops the {@link Scheduler} on which the idle connections of all the pools created by this factory are evicted.
+   */
+  void dispose() {
+    evictionScheduler.ifComputed(Scheduler::stop);
   }
 
   private <C> ConnectionManagementType getManagementType(ConnectionProvider<C> connectionProvider) {
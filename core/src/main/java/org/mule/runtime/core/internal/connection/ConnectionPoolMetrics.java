@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import static java.lang.Long.numberOfLeadingZeros;
+import static java.lang.Math.min;
+import static java.lang.System.currentTimeMillis;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntSupplier;
+
+/**
+ * Statistics about the usage of a connection pool.
+ *
+ * @since 4.4.0
+ */
+public class ConnectionPoolMetrics {
+
+  private static final int HISTOGRAM_BUCKETS = 32;
+
+  private final IntSupplier activeCount;
+  private final IntSupplier idleCount;
+  private final long startTime = currentTimeMillis();
+
+  private final AtomicLong borrows = new AtomicLong();
+  private final AtomicLong maxBorrowWaitNanos = new AtomicLong();
+  private final AtomicLongArray borrowWaitHistogram = new AtomicLongArray(HISTOGRAM_BUCKETS);
+  private final AtomicLong created = new AtomicLong();
+  private final AtomicLong destroyed = new AtomicLong();
+
+  ConnectionPoolMetrics(IntSupplier activeCount, IntSupplier idleCount) {
+    this.activeCount = activeCount;
+    this.idleCount = idleCount;
+  }
+
+  void onBorrow(long waitNanos) {
+    borrows.incrementAndGet();
+    maxBorrowWaitNanos.accumulateAndGet(waitNanos, Math::max);
+
+    long waitMicros = NANOSECONDS.toMicros(waitNanos);
+    int bucket = waitMicros == 0 ? 0 : min(HISTOGRAM_BUCKETS - 1, 63 - numberOfLeadingZeros(waitMicros));
+    borrowWaitHistogram.incrementAndGet(bucket);
+  }
+
+  void onCreate() {
+    created.incrementAndGet();
+  }
+
+  void onDestroy() {
+    destroyed.incrementAndGet();
+  }
+
+  /**
+   * @return the number of connections currently borrowed from the pool.
+   */
+  public int getActiveCount() {
+    return activeCount.getAsInt();
+  }
+
+  /**
+   * @return the number of connections currently idle in the pool.
+   */
+  public int getIdleCount() {
+    return idleCount.getAsInt();
+  }
+
+  /**
+   * @return the number of connections borrowed from the pool.
+   */
+  public long getBorrowsCount() {
+    return borrows.get();
+  }
+
+  /**
+   * Returns how long the borrowers had to wait to obtain a connection. The value at index {@code i} is the number of borrows
+   * which took between {@code 2^i} and {@code 2^(i+1)} microseconds. Index {@code 0} also counts the borrows which took less
+   * than a microsecond, and the last index counts every borrow which took longer than it.
+   *
+   * @return the wait time histogram.
+   */
+  public long[] getBorrowWaitHistogram() {
+    long[] histogram = new long[HISTOGRAM_BUCKETS];
+    for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+      histogram[i] = borrowWaitHistogram.get(i);
+    }
+    return histogram;
+  }
+
+  /**
+   * @return the maximum time a borrower had to wait to obtain a connection, in nanoseconds.
+   */
+  public long getMaxBorrowWaitNanos() {
+    return maxBorrowWaitNanos.get();
+  }
+
+  /**
+   * @return the number of connections created by the pool.
+   */
+  public long getCreatedCount() {
+    return created.get();
+  }
+
+  /**
+   * @return the number of connections destroyed by the pool.
+   */
+  public long getDestroyedCount() {
+    return destroyed.get();
+  }
+
+  /**
+   * @return the average number of connections created per second since the pool was created.
+   */
+  public double getCreationRate() {
+    long elapsed = currentTimeMillis() - startTime;
+    return elapsed == 0 ? created.get() : created.get() * 1000d / elapsed;
+  }
+}
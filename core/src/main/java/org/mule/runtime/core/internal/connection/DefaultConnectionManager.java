@@ -268,6 +268,7 @@ public final class DefaultConnectionManager implements ConnectionManagerAdapter
 
   @Override
   public void dispose() {
+    managementStrategyFactory.dispose();
     disposeIfNeeded(retryPolicyTemplate, LOGGER);
   }
 
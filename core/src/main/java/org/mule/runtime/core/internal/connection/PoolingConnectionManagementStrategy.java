@@ -7,6 +7,7 @@
 package org.mule.runtime.core.internal.connection;
 
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+
 import org.mule.runtime.api.config.PoolingProfile;
 import org.mule.runtime.api.connection.ConnectionException;
 import org.mule.runtime.api.connection.ConnectionHandler;
@@ -14,13 +15,13 @@ import org.mule.runtime.api.connection.ConnectionProvider;
 import org.mule.runtime.api.connection.PoolingListener;
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.exception.DefaultMuleException;
+import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.core.api.MuleContext;
 
 import java.util.NoSuchElementException;
+import java.util.function.Supplier;
 
-import org.apache.commons.pool.ObjectPool;
 import org.apache.commons.pool.PoolableObjectFactory;
-import org.apache.commons.pool.impl.GenericObjectPool;
 
 /**
  * A {@link ConnectionManagementStrategy} which returns connections obtained from a {@link #pool}
@@ -31,8 +32,9 @@ import org.apache.commons.pool.impl.GenericObjectPool;
 final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementStrategy<C> {
 
   private final PoolingProfile poolingProfile;
-  private final ObjectPool<C> pool;
+  private final ConcurrentConnectionPool<C> pool;
   private final PoolingListener<C> poolingListener;
+  private final Supplier<Scheduler> evictionSchedulerSupplier;
 
   /**
    * Creates a new instance
@@ -40,13 +42,17 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
    * @param connectionProvider the {@link ConnectionProvider} used to manage the connections
    * @param poolingProfile the {@link PoolingProfile} which configures the {@link #pool}
    * @param poolingListener a {@link PoolingListener}
+   * @param evictionSchedulerSupplier supplies the {@link Scheduler}, shared by all the pools, on which idle connections are
+   *        evicted. Only invoked if the {@code poolingProfile} has an eviction interval.
    * @param muleContext the application's {@link MuleContext}
    */
   PoolingConnectionManagementStrategy(ConnectionProvider<C> connectionProvider, PoolingProfile poolingProfile,
-                                      PoolingListener<C> poolingListener, MuleContext muleContext) {
+                                      PoolingListener<C> poolingListener, Supplier<Scheduler> evictionSchedulerSupplier,
+                                      MuleContext muleContext) {
     super(connectionProvider, muleContext);
     this.poolingProfile = poolingProfile;
     this.poolingListener = poolingListener;
+    this.evictionSchedulerSupplier = evictionSchedulerSupplier;
     pool = createPool();
   }
 
@@ -96,17 +102,20 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
     }
   }
 
-  private ObjectPool<C> createPool() {
-    GenericObjectPool.Config config = new GenericObjectPool.Config();
-    config.maxIdle = poolingProfile.getMaxIdle();
-    config.maxActive = poolingProfile.getMaxActive();
-    config.maxWait = poolingProfile.getMaxWait();
-    config.whenExhaustedAction = (byte) poolingProfile.getExhaustedAction();
-    config.minEvictableIdleTimeMillis = poolingProfile.getMinEvictionMillis();
-    config.timeBetweenEvictionRunsMillis = poolingProfile.getEvictionCheckIntervalMillis();
-    GenericObjectPool genericPool = new GenericObjectPool(new ObjectFactoryAdapter(), config);
-
-    return genericPool;
+  private ConcurrentConnectionPool<C> createPool() {
+    Scheduler evictionScheduler = null;
+    if (poolingProfile.getEvictionCheckIntervalMillis() > 0) {
+      evictionScheduler = evictionSchedulerSupplier.get();
+    }
+
+    return new ConcurrentConnectionPool<>(new ObjectFactoryAdapter(), poolingProfile, evictionScheduler);
+  }
+
+  /**
+   * @return the {@link ConnectionPoolMetrics} of the {@link #pool}
+   */
+  public ConnectionPoolMetrics getPoolMetrics() {
+    return pool.getMetrics();
   }
 
   public PoolingProfile getPoolingProfile() {
@@ -0,0 +1,328 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.context.notification;
+
+import static java.lang.Math.min;
+import static java.lang.Thread.currentThread;
+import static java.util.Arrays.asList;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.notification.MessageProcessorNotification;
+import org.mule.runtime.api.notification.Notification;
+import org.mule.runtime.api.notification.NotificationListener;
+import org.mule.runtime.api.notification.PipelineMessageNotification;
+import org.mule.runtime.api.scheduler.Scheduler;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+
+/**
+ * Dispatches asynchronous notifications to their listeners in batches.
+ * <p>
+ * Instead of submitting a task per listener and notification, each listener has a bounded buffer of pending notifications. At
+ * most one task per listener drains its buffer at any given time, delivering every notification found there (up to
+ * {@link #MAX_BATCH_SIZE}) in a single task, so that high-frequency notifications such as the message processor ones are
+ * delivered by a few tasks, and each listener gets its notifications in the order they were fired.
+ * <p>
+ * Optionally, notifications can also be coalesced: a function gives a key to each notification which may be collapsed, and only
+ * the latest notification for each key within a batch is delivered. See {@link #HIGH_FREQUENCY_NOTIFICATIONS_KEY}.
+ * <p>
+ * When the buffer of a listener is full, the {@link OverflowPolicy} decides whether the notification is dropped or the firing
+ * thread waits for room in the buffer. Threads that must not block (such as the {@code CPU_LITE} ones, which may be the same
+ * ones that have to drain the buffers) never wait, and drop the notification instead.
+ *
+ * @since 4.4.0
+ */
+public class BatchedNotificationDispatcher {
+
+  private static final Logger LOGGER = getLogger(BatchedNotificationDispatcher.class);
+
+  static final int MAX_BATCH_SIZE = 256;
+
+  /**
+   * Coalesces the high-frequency notifications: {@link MessageProcessorNotification}s by action and component, and
+   * {@link PipelineMessageNotification}s by action and flow. Other notifications are never coalesced.
+   */
+  public static final Function<Notification, Object> HIGH_FREQUENCY_NOTIFICATIONS_KEY = notification -> {
+    if (notification instanceof MessageProcessorNotification) {
+      MessageProcessorNotification processorNotification = (MessageProcessorNotification) notification;
+      return asList(MessageProcessorNotification.class, processorNotification.getAction(),
+                    processorNotification.getComponent());
+    } else if (notification instanceof PipelineMessageNotification) {
+      PipelineMessageNotification pipelineNotification = (PipelineMessageNotification) notification;
+      return asList(PipelineMessageNotification.class, pipelineNotification.getAction(),
+                    pipelineNotification.getResourceIdentifier());
+    } else {
+      return null;
+    }
+  };
+
+  private static final Function<Notification, Object> NO_COALESCING = notification -> null;
+
+  /**
+   * What to do with a notification when the buffer of the listener is full.
+   */
+  public enum OverflowPolicy {
+    /**
+     * The notification is discarded.
+     */
+    DROP,
+
+    /**
+     * The firing thread waits until there is room in the buffer, unless it is a thread that must not block, in which case the
+     * notification is discarded.
+     */
+    BLOCK
+  }
+
+  private final Scheduler liteScheduler;
+  private final Scheduler ioScheduler;
+  private final int bufferSize;
+  private final OverflowPolicy overflowPolicy;
+  private final BooleanSupplier blockingAllowed;
+  private final Function<Notification, Object> coalescingKey;
+
+  private final Map<NotificationListener, ListenerBuffer> buffers = new ConcurrentHashMap<>();
+  private final LongAdder queued = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+  private final LongAdder coalesced = new LongAdder();
+
+  /**
+   * Creates a new instance
+   *
+   * @param liteScheduler  the scheduler on which to notify the non-blocking listeners
+   * @param ioScheduler    the scheduler on which to notify the blocking listeners
+   * @param bufferSize     the maximum amount of pending notifications for each listener
+   * @param overflowPolicy what to do with a notification when the buffer of the listener is full
+   */
+  public BatchedNotificationDispatcher(Scheduler liteScheduler, Scheduler ioScheduler, int bufferSize,
+                                       OverflowPolicy overflowPolicy) {
+    this(liteScheduler, ioScheduler, bufferSize, overflowPolicy, () -> true);
+  }
+
+  /**
+   * Creates a new instance
+   *
+   * @param liteScheduler   the scheduler on which to notify the non-blocking listeners
+   * @param ioScheduler     the scheduler on which to notify the blocking listeners
+   * @param bufferSize      the maximum amount of pending notifications for each listener
+   * @param overflowPolicy  what to do with a notification when the buffer of the listener is full
+   * @param blockingAllowed tells whether the current thread may wait for room in a buffer when the policy is
+   *                        {@link OverflowPolicy#BLOCK}
+   */
+  public BatchedNotificationDispatcher(Scheduler liteScheduler, Scheduler ioScheduler, int bufferSize,
+                                       OverflowPolicy overflowPolicy, BooleanSupplier blockingAllowed) {
+    this(liteScheduler, ioScheduler, bufferSize, overflowPolicy, blockingAllowed, NO_COALESCING);
+  }
+
+  /**
+   * Creates a new instance
+   *
+   * @param liteScheduler   the scheduler on which to notify the non-blocking listeners
+   * @param ioScheduler     the scheduler on which to notify the blocking listeners
+   * @param bufferSize      the maximum amount of pending notifications for each listener
+   * @param overflowPolicy  what to do with a notification when the buffer of the listener is full
+   * @param blockingAllowed tells whether the current thread may wait for room in a buffer when the policy is
+   *                        {@link OverflowPolicy#BLOCK}
+   * @param coalescingKey   gives the key of the notifications which may be coalesced with later ones with the same key in the
+   *                        same batch, or {@code null} for those which must always be delivered
+   */
+  public BatchedNotificationDispatcher(Scheduler liteScheduler, Scheduler ioScheduler, int bufferSize,
+                                       OverflowPolicy overflowPolicy, BooleanSupplier blockingAllowed,
+                                       Function<Notification, Object> coalescingKey) {
+    this.liteScheduler = liteScheduler;
+    this.ioScheduler = ioScheduler;
+    this.bufferSize = bufferSize;
+    this.overflowPolicy = overflowPolicy;
+    this.blockingAllowed = blockingAllowed;
+    this.coalescingKey = coalescingKey;
+  }
+
+  /**
+   * Queues the given {@code notification} to be delivered to the {@code listener}.
+   *
+   * @param listener     the listener to notify
+   * @param notification the notification to deliver
+   */
+  public void dispatch(NotificationListener listener, Notification notification) {
+    ListenerBuffer buffer = buffers.computeIfAbsent(listener, ListenerBuffer::new);
+    if (buffer.offer(notification)) {
+      queued.increment();
+      buffer.scheduleDrain();
+    } else {
+      dropped.increment();
+    }
+  }
+
+  /**
+   * Discards the pending notifications for the given {@code listener}.
+   *
+   * @param listener a listener that will no longer be notified
+   */
+  public void removeListener(NotificationListener listener) {
+    ListenerBuffer buffer = buffers.remove(listener);
+    if (buffer != null) {
+      dropped.add(buffer.pending.size());
+      buffer.pending.clear();
+    }
+  }
+
+  /**
+   * @return the number of notifications that were queued for delivery
+   */
+  public long getQueuedCount() {
+    return queued.sum();
+  }
+
+  /**
+   * @return the number of notifications that were dropped because the buffer of their listener was full, or because they were
+   *         still pending when their listener was removed or the schedulers were stopped
+   */
+  public long getDroppedCount() {
+    return dropped.sum();
+  }
+
+  /**
+   * @return the number of notifications that were not delivered because a later one with the same coalescing key was in the
+   *         same batch
+   */
+  public long getCoalescedCount() {
+    return coalesced.sum();
+  }
+
+  /**
+   * @return the number of notifications queued and not yet delivered
+   */
+  public long getPendingCount() {
+    long pending = 0;
+    for (ListenerBuffer buffer : buffers.values()) {
+      pending += buffer.pending.size();
+    }
+    return pending;
+  }
+
+  private class ListenerBuffer {
+
+    private final NotificationListener listener;
+    private final BlockingQueue<Notification> pending = new ArrayBlockingQueue<>(bufferSize);
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+
+    private ListenerBuffer(NotificationListener listener) {
+      this.listener = listener;
+    }
+
+    private boolean offer(Notification notification) {
+      if (overflowPolicy == OverflowPolicy.DROP) {
+        return pending.offer(notification);
+      }
+
+      if (pending.offer(notification)) {
+        return true;
+      }
+
+      if (!blockingAllowed.getAsBoolean()) {
+        return false;
+      }
+
+      // make sure the buffer is being drained before waiting for it
+      scheduleDrain();
+      try {
+        pending.put(notification);
+        return true;
+      } catch (InterruptedException e) {
+        currentThread().interrupt();
+        return false;
+      }
+    }
+
+    private void scheduleDrain() {
+      if (!draining.compareAndSet(false, true)) {
+        return;
+      }
+
+      try {
+        (listener.isBlocking() ? ioScheduler : liteScheduler).submit(this::drain);
+      } catch (RejectedExecutionException e) {
+        draining.set(false);
+        int discarded = pending.size();
+        pending.clear();
+        dropped.add(discarded);
+        LOGGER.warn("Notifications for listener {} could not be dispatched. {} notifications were dropped", listener,
+                    discarded);
+      }
+    }
+
+    private void drain() {
+      try {
+        List<Notification> batch = new ArrayList<>(min(pending.size(), MAX_BATCH_SIZE));
+        pending.drainTo(batch, MAX_BATCH_SIZE);
+
+        for (Notification notification : coalesce(batch)) {
+          try {
+            listener.onNotification(notification);
+          } catch (Exception e) {
+            LOGGER.error("Listener " + listener + " failed to process notification " + notification, e);
+          }
+        }
+      } finally {
+        draining.set(false);
+      }
+
+      // more notifications may have arrived after the last poll, before the flag was cleared
+      if (!pending.isEmpty()) {
+        scheduleDrain();
+      }
+    }
+
+    /**
+     * Removes from the batch the notifications for which there's a later one with the same coalescing key, keeping the order of
+     * the remaining ones.
+     */
+    private List<Notification> coalesce(List<Notification> batch) {
+      if (coalescingKey == NO_COALESCING || batch.size() < 2) {
+        return batch;
+      }
+
+      Set<Object> seenKeys = new HashSet<>();
+      boolean[] superseded = new boolean[batch.size()];
+      int supersededCount = 0;
+      for (int i = batch.size() - 1; i >= 0; --i) {
+        Object key = coalescingKey.apply(batch.get(i));
+        if (key != null && !seenKeys.add(key)) {
+          superseded[i] = true;
+          supersededCount++;
+        }
+      }
+
+      if (supersededCount == 0) {
+        return batch;
+      }
+
+      coalesced.add(supersededCount);
+      List<Notification> latest = new ArrayList<>(batch.size() - supersededCount);
+      for (int i = 0; i < batch.size(); ++i) {
+        if (!superseded[i]) {
+          latest.add(batch.get(i));
+        }
+      }
+      return latest;
+    }
+  }
+}
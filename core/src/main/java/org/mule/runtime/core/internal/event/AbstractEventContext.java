@@ -9,7 +9,10 @@ package org.mule.runtime.core.internal.event;
 import static com.google.common.base.Functions.identity;
 import static java.lang.String.format;
 import static java.lang.System.lineSeparator;
+import static java.util.Collections.emptySet;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.ConcurrentHashMap.newKeySet;
+import static java.util.concurrent.atomic.AtomicIntegerFieldUpdater.newUpdater;
 import static java.util.stream.Collectors.joining;
 import static org.apache.commons.lang3.StringUtils.leftPad;
 import static org.mule.runtime.api.functional.Either.left;
@@ -29,10 +32,10 @@ import org.mule.runtime.core.privileged.event.BaseEventContext;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
@@ -45,6 +48,10 @@ import reactor.core.publisher.MonoSink;
 
 /**
  * Base class for implementations of {@link BaseEventContext}
+ * <p>
+ * Child contexts are registered without locking, and the number of them that are not complete yet is kept in a counter so that
+ * checking whether this context can complete does not need to go through all of them. The lists of completion callbacks are only
+ * allocated when a callback is registered.
  *
  * @since 4.0
  */
@@ -59,15 +66,20 @@ abstract class AbstractEventContext implements BaseEventContext {
   private static final Logger LOGGER = LoggerFactory.getLogger(AbstractEventContext.class);
   private static final FlowExceptionHandler NULL_EXCEPTION_HANDLER = NullExceptionHandler.getInstance();
 
+  private static final AtomicIntegerFieldUpdater<AbstractEventContext> INCOMPLETE_CHILDREN_UPDATER =
+      newUpdater(AbstractEventContext.class, "incompleteChildren");
+  @SuppressWarnings("rawtypes")
+  private static final AtomicReferenceFieldUpdater<AbstractEventContext, Set> CHILD_CONTEXTS_UPDATER =
+      AtomicReferenceFieldUpdater.newUpdater(AbstractEventContext.class, Set.class, "childContexts");
+
   private final boolean debugLogEnabled = LOGGER.isDebugEnabled();
-  private transient final List<BaseEventContext> childContexts = new ArrayList<>();
+  private transient volatile Set<BaseEventContext> childContexts;
+  private transient volatile int incompleteChildren;
   private transient final FlowExceptionHandler exceptionHandler;
   private transient final CompletableFuture<Void> externalCompletion;
-  private transient List<BiConsumer<CoreEvent, Throwable>> onResponseConsumerList = new ArrayList<>();
-  private transient List<BiConsumer<CoreEvent, Throwable>> onCompletionConsumerList = new ArrayList<>(2);
-  private transient List<BiConsumer<CoreEvent, Throwable>> onTerminatedConsumerList = new ArrayList<>();
-
-  private final ReadWriteLock childContextsReadWriteLock = new ReentrantReadWriteLock();
+  private transient List<BiConsumer<CoreEvent, Throwable>> onResponseConsumerList;
+  private transient List<BiConsumer<CoreEvent, Throwable>> onCompletionConsumerList;
+  private transient List<BiConsumer<CoreEvent, Throwable>> onTerminatedConsumerList;
 
   private final int depthLevel;
 
@@ -96,29 +108,54 @@ abstract class AbstractEventContext implements BaseEventContext {
     this.exceptionHandler = exceptionHandler;
   }
 
-  protected void initCompletionLists() {
-    if (onCompletionConsumerList == null) {
-      onResponseConsumerList = new ArrayList<>();
+  void addChildContext(BaseEventContext childContext) {
+    INCOMPLETE_CHILDREN_UPDATER.incrementAndGet(this);
+
+    Set<BaseEventContext> children = childContexts;
+    if (children == null) {
+      children = newKeySet();
+      if (!CHILD_CONTEXTS_UPDATER.compareAndSet(this, null, children)) {
+        children = childContexts;
+      }
     }
+    children.add(childContext);
+  }
 
-    if (onCompletionConsumerList == null) {
-      onCompletionConsumerList = new ArrayList<>(2);
+  private void childCompleted(BaseEventContext childContext) {
+    // Children of a context that was serialized are not registered in its deserialized copy, so they must not count.
+    Set<BaseEventContext> children = childContexts;
+    if (children != null && children.contains(childContext)) {
+      INCOMPLETE_CHILDREN_UPDATER.decrementAndGet(this);
     }
+    tryComplete();
+  }
 
-    if (onTerminatedConsumerList == null) {
-      onTerminatedConsumerList = new ArrayList<>();
+  /**
+   * Recomputes the number of incomplete children from the registered ones. To be called by the serializable subclasses once
+   * deserialized, since neither the children nor the counter are part of the serialized form.
+   */
+  protected void recomputeIncompleteChildren() {
+    int incomplete = 0;
+    for (BaseEventContext childContext : getChildContexts()) {
+      if (!childContext.isComplete()) {
+        incomplete++;
+      }
     }
+    incompleteChildren = incomplete;
   }
 
-  void addChildContext(BaseEventContext childContext) {
-    childContextsReadWriteLock.writeLock().lock();
-    try {
-      childContexts.add(childContext);
-    } finally {
-      childContextsReadWriteLock.writeLock().unlock();
+  private void removeChildContext(BaseEventContext childContext) {
+    Set<BaseEventContext> children = childContexts;
+    if (children != null) {
+      children.remove(childContext);
     }
   }
 
+  private Set<BaseEventContext> getChildContexts() {
+    Set<BaseEventContext> children = childContexts;
+    return children == null ? emptySet() : children;
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -195,41 +232,25 @@ abstract class AbstractEventContext implements BaseEventContext {
     responsePublisher.ifComputed(rp -> rp.result = result);
 
     state = STATE_RESPONSE;
-    for (BiConsumer<CoreEvent, Throwable> onResponseConsumer : onResponseConsumerList) {
-      signalConsumerSilently(onResponseConsumer);
-    }
-    onResponseConsumerList.clear();
+    onResponseConsumerList = signalConsumersSilently(onResponseConsumerList);
     tryComplete();
   }
 
-  protected void tryComplete() {
-    boolean allChildrenComplete;
-
-    getChildContextsReadLock().lock();
-    try {
-      allChildrenComplete = childContexts.stream().allMatch(BaseEventContext::isComplete);
-    } finally {
-      getChildContextsReadLock().unlock();
-    }
-
-    synchronized (this) {
-      if (state == STATE_RESPONSE && allChildrenComplete) {
-        if (debugLogEnabled) {
-          LOGGER.debug("{} completed.", this);
-        }
-        this.state = STATE_COMPLETE;
+  protected synchronized void tryComplete() {
+    // A child decrements the counter before calling this method, so its completion cannot be missed.
+    if (state == STATE_RESPONSE && incompleteChildren == 0) {
+      if (debugLogEnabled) {
+        LOGGER.debug("{} completed.", this);
+      }
+      this.state = STATE_COMPLETE;
 
-        for (BiConsumer<CoreEvent, Throwable> consumer : onCompletionConsumerList) {
-          signalConsumerSilently(consumer);
+      onCompletionConsumerList = signalConsumersSilently(onCompletionConsumerList);
+      getParentContext().ifPresent(context -> {
+        if (context instanceof AbstractEventContext) {
+          ((AbstractEventContext) context).childCompleted(this);
         }
-        onCompletionConsumerList.clear();
-        getParentContext().ifPresent(context -> {
-          if (context instanceof AbstractEventContext) {
-            ((AbstractEventContext) context).tryComplete();
-          }
-        });
-        tryTerminate();
-      }
+      });
+      tryTerminate();
     }
   }
 
@@ -240,33 +261,39 @@ abstract class AbstractEventContext implements BaseEventContext {
       }
       this.state = STATE_TERMINATED;
 
-      for (BiConsumer<CoreEvent, Throwable> consumer : onTerminatedConsumerList) {
-        signalConsumerSilently(consumer);
-      }
-      onTerminatedConsumerList.clear();
+      onTerminatedConsumerList = signalConsumersSilently(onTerminatedConsumerList);
 
-      getChildContextsWriteLock().lock();
-      try {
-        this.childContexts.clear();
-      } finally {
-        getChildContextsWriteLock().unlock();
-      }
-
-      getParentContext().ifPresent(context -> {
-        AbstractEventContext parent = (AbstractEventContext) context;
-        parent.getChildContextsWriteLock().lock();
-        try {
-          parent.childContexts.remove(this);
-        } finally {
-          parent.getChildContextsWriteLock().unlock();
-        }
-      });
+      this.childContexts = null;
+      getParentContext().ifPresent(context -> ((AbstractEventContext) context).removeChildContext(this));
 
       result = null;
       responsePublisher = null;
     }
   }
 
+  /**
+   * Signals all the {@code consumers}, if any.
+   *
+   * @return {@code null}, so the list can be released by assigning the result to it
+   */
+  private List<BiConsumer<CoreEvent, Throwable>> signalConsumersSilently(List<BiConsumer<CoreEvent, Throwable>> consumers) {
+    if (consumers != null) {
+      for (BiConsumer<CoreEvent, Throwable> consumer : consumers) {
+        signalConsumerSilently(consumer);
+      }
+    }
+    return null;
+  }
+
+  private static List<BiConsumer<CoreEvent, Throwable>> addConsumer(List<BiConsumer<CoreEvent, Throwable>> consumers,
+                                                                   BiConsumer<CoreEvent, Throwable> consumer) {
+    if (consumers == null) {
+      consumers = new ArrayList<>(2);
+    }
+    consumers.add(requireNonNull(consumer));
+    return consumers;
+  }
+
   private void signalConsumerSilently(BiConsumer<CoreEvent, Throwable> consumer) {
     try {
       consumer.accept(result.getRight(), result.getLeft());
@@ -307,7 +334,7 @@ abstract class AbstractEventContext implements BaseEventContext {
     if (state >= STATE_TERMINATED) {
       signalConsumerSilently(consumer);
     } else {
-      onTerminatedConsumerList.add(requireNonNull(consumer));
+      onTerminatedConsumerList = addConsumer(onTerminatedConsumerList, consumer);
     }
   }
 
@@ -316,7 +343,7 @@ abstract class AbstractEventContext implements BaseEventContext {
     if (state >= STATE_COMPLETE) {
       signalConsumerSilently(consumer);
     } else {
-      onCompletionConsumerList.add(requireNonNull(consumer));
+      onCompletionConsumerList = addConsumer(onCompletionConsumerList, consumer);
     }
   }
 
@@ -325,7 +352,7 @@ abstract class AbstractEventContext implements BaseEventContext {
     if (state >= STATE_RESPONSE) {
       signalConsumerSilently(consumer);
     } else {
-      onResponseConsumerList.add(requireNonNull(consumer));
+      onResponseConsumerList = addConsumer(onResponseConsumerList, consumer);
     }
   }
 
@@ -339,16 +366,13 @@ abstract class AbstractEventContext implements BaseEventContext {
   }
 
   public void forEachChild(Consumer<BaseEventContext> childConsumer) {
-    getChildContextsReadLock().lock();
-    try {
-      childContexts.stream().filter(context -> !context.isTerminated()).forEach(context -> {
+    for (BaseEventContext context : getChildContexts()) {
+      if (!context.isTerminated()) {
         childConsumer.accept(context);
         if (context instanceof AbstractEventContext) {
           ((AbstractEventContext) context).forEachChild(childConsumer);
         }
-      });
-    } finally {
-      getChildContextsReadLock().unlock();
+      }
     }
   }
 
@@ -395,20 +419,12 @@ abstract class AbstractEventContext implements BaseEventContext {
     return depthLevel;
   }
 
-  public Lock getChildContextsReadLock() {
-    return childContextsReadWriteLock.readLock();
-  }
-
-  public Lock getChildContextsWriteLock() {
-    return childContextsReadWriteLock.writeLock();
-  }
-
   protected abstract String basicToString();
 
   protected final String detailedToString(int level, BaseEventContext highlight) {
     return (this == highlight ? "=> " : "") + basicToString()
         + lineSeparator()
-        + childContexts.stream()
+        + getChildContexts().stream()
             .map(ctx -> leftPad("", (1 + level) * TO_STRING_TAB_SIZE)
                 + ((AbstractEventContext) ctx).detailedToString(1 + level, highlight))
             .collect(joining(lineSeparator()));
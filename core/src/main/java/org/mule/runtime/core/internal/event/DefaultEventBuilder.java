@@ -17,7 +17,6 @@ import static org.mule.runtime.api.util.collection.SmallMap.unmodifiable;
 import static org.mule.runtime.core.api.config.i18n.CoreMessages.cannotReadPayloadAsBytes;
 import static org.mule.runtime.core.api.config.i18n.CoreMessages.cannotReadPayloadAsString;
 import static org.mule.runtime.core.api.config.i18n.CoreMessages.objectIsNull;
-import static org.mule.runtime.core.api.util.CaseInsensitiveHashMap.basedOn;
 import static org.mule.runtime.core.api.util.CaseInsensitiveHashMap.emptyCaseInsensitiveMap;
 import static org.mule.runtime.core.api.util.SystemUtils.getDefaultEncoding;
 import static org.mule.runtime.core.internal.message.EventInternalContext.copyOf;
@@ -47,6 +46,7 @@ import org.mule.runtime.core.internal.message.EventInternalContext;
 import org.mule.runtime.core.internal.message.InternalEvent;
 import org.mule.runtime.core.internal.message.InternalEvent.Builder;
 import org.mule.runtime.core.internal.message.InternalMessage;
+import org.mule.runtime.core.internal.util.collection.PersistentCaseInsensitiveMap;
 import org.mule.runtime.core.privileged.connector.ReplyToHandler;
 import org.mule.runtime.core.privileged.event.BaseEventContext;
 import org.mule.runtime.core.privileged.event.DefaultMuleSession;
@@ -67,7 +67,7 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
   private BaseEventContext context;
   private Function<EventContext, Message> messageFactory;
   private boolean varsModified = false;
-  private CaseInsensitiveHashMap<String, TypedValue<?>> flowVariables;
+  private PersistentCaseInsensitiveMap<TypedValue<?>> flowVariables;
   private CaseInsensitiveHashMap<String, TypedValue<?>> originalVars;
   private Map<String, Object> internalParameters;
   private Error error;
@@ -135,10 +135,9 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
   @Override
   public DefaultEventBuilder variables(Map<String, ?> flowVariables) {
-    initVariables();
-
-    copyFromTo(flowVariables, this.flowVariables);
+    this.flowVariables = toPersistentVariables(flowVariables);
     this.varsModified = true;
+    this.modified = true;
 
     return this;
   }
@@ -149,10 +148,7 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
       return variables(variables);
     }
 
-    if (varsModified) {
-      this.flowVariables.clear();
-    }
-
+    this.flowVariables = null;
     originalVars = (CaseInsensitiveHashMap<String, TypedValue<?>>) variables;
     this.varsModified = false;
     this.modified = true;
@@ -168,7 +164,7 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
     initVariables();
 
-    flowVariables.put(key, new TypedValue<>(value, DataType.fromObject(value)));
+    flowVariables = flowVariables.with(key, new TypedValue<>(value, DataType.fromObject(value)));
     this.varsModified = true;
     this.modified = true;
     return this;
@@ -179,7 +175,7 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
   public DefaultEventBuilder addVariable(String key, Object value, DataType dataType) {
     initVariables();
 
-    flowVariables.put(key, new TypedValue<>(value, dataType));
+    flowVariables = flowVariables.with(key, new TypedValue<>(value, dataType));
     this.varsModified = true;
     this.modified = true;
     return this;
@@ -189,7 +185,7 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
   public CoreEvent.Builder addVariable(String key, TypedValue<?> value) {
     initVariables();
 
-    flowVariables.put(key, value);
+    flowVariables = flowVariables.with(key, value);
     this.varsModified = true;
     this.modified = true;
     return this;
@@ -199,8 +195,10 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
   public DefaultEventBuilder removeVariable(String key) {
     initVariables();
 
-    this.modified = flowVariables.remove(key) != null || modified;
+    PersistentCaseInsensitiveMap<TypedValue<?>> withoutKey = flowVariables.without(key);
+    this.modified = withoutKey != flowVariables || modified;
     this.varsModified = this.varsModified || modified;
+    flowVariables = withoutKey;
     return this;
   }
 
@@ -209,7 +207,7 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
     if ((flowVariables != null && !this.flowVariables.isEmpty()) || !this.originalVars.isEmpty()) {
       this.varsModified = true;
       this.modified = true;
-      flowVariables = basedOn(new SmallMap<>());
+      flowVariables = PersistentCaseInsensitiveMap.empty();
     }
     return this;
   }
@@ -307,7 +305,7 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
     } else {
       return new InternalEventImplementation(context,
                                              requireNonNull(messageFactory.apply(context)),
-                                             varsModified ? flowVariables : originalVars,
+                                             varsModified ? new PersistentVariables(flowVariables) : originalVars,
                                              internalParameters,
                                              session,
                                              securityContext,
@@ -324,7 +322,8 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
   protected void initVariables() {
     if (!varsModified && flowVariables == null) {
-      flowVariables = originalVars.copy();
+      // Variables built here are kept in a persistent map, so they are only copied if they were built elsewhere
+      flowVariables = toPersistentVariables(originalVars);
     }
   }
 
@@ -335,17 +334,20 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
     }
   }
 
-  private void copyFromTo(Map<String, ?> source, Map<String, TypedValue<?>> target) {
-    target.clear();
+  private PersistentCaseInsensitiveMap<TypedValue<?>> toPersistentVariables(Map<String, ?> source) {
+    if (source instanceof PersistentVariables) {
+      return ((PersistentVariables) source).getPersistentMap();
+    }
 
+    PersistentCaseInsensitiveMap<TypedValue<?>> target = PersistentCaseInsensitiveMap.empty();
     for (Entry<String, ?> entry : source.entrySet()) {
       if (entry.getValue() instanceof TypedValue) {
-        target.put(entry.getKey(), (TypedValue<?>) entry.getValue());
+        target = target.with(entry.getKey(), (TypedValue<?>) entry.getValue());
       } else {
-        target.put(entry.getKey(), new TypedValue<>(entry.getValue(), DataType.fromObject(entry.getValue())));
+        target = target.with(entry.getKey(), new TypedValue<>(entry.getValue(), DataType.fromObject(entry.getValue())));
       }
     }
-    this.modified = true;
+    return target;
   }
 
   /**
@@ -35,6 +35,8 @@ import org.mule.runtime.core.internal.streaming.ManagedCursorProvider;
 import org.mule.runtime.core.internal.streaming.StreamingGhostBuster;
 import org.mule.runtime.core.privileged.event.BaseEventContext;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.time.Instant;
 import java.util.Optional;
@@ -257,7 +259,6 @@ public final class DefaultEventContext extends AbstractEventContext implements S
 
   void createStreamingState() {
     if (streamingState == null) {
-      initCompletionLists();
       streamingState = new EventStreamingState();
       onTerminated((event, e) -> streamingState.dispose());
     }
@@ -288,6 +289,13 @@ public final class DefaultEventContext extends AbstractEventContext implements S
     }
   }
 
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    // the state kept by the superclass is not serialized
+    flowCallStack = new DefaultFlowCallStack();
+    recomputeIncompleteChildren();
+  }
+
   @Override
   public String toString() {
     if (LOGGER.isTraceEnabled()) {
@@ -392,5 +400,12 @@ public final class DefaultEventContext extends AbstractEventContext implements S
       return of(parent);
     }
 
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+      in.defaultReadObject();
+      // the state kept by the superclass is not serialized
+      flowCallStack = new DefaultFlowCallStack();
+      recomputeIncompleteChildren();
+    }
+
   }
 }
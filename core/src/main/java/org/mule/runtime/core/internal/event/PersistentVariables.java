@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.event;
+
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.core.api.util.CaseInsensitiveHashMap;
+import org.mule.runtime.core.internal.util.collection.PersistentCaseInsensitiveMap;
+
+import java.io.ObjectStreamException;
+
+/**
+ * The immutable variables of an event built by a {@link DefaultEventBuilder}.
+ * <p>
+ * The variables are kept in a {@link PersistentCaseInsensitiveMap}, so events built from this one share the variables that are
+ * not modified instead of copying all of them. They are serialized as a plain immutable {@link CaseInsensitiveHashMap}, so the
+ * serialized form of events doesn't depend on the nodes of the persistent map.
+ *
+ * @since 4.4.0
+ */
+final class PersistentVariables extends CaseInsensitiveHashMap<String, TypedValue<?>> {
+
+  private static final long serialVersionUID = -1589934478342562129L;
+
+  private final PersistentCaseInsensitiveMap<TypedValue<?>> persistentMap;
+
+  PersistentVariables(PersistentCaseInsensitiveMap<TypedValue<?>> persistentMap) {
+    this.persistentMap = persistentMap;
+    // Any attempt to modify the persistent map throws an UnsupportedOperationException
+    this.delegate = persistentMap;
+  }
+
+  PersistentCaseInsensitiveMap<TypedValue<?>> getPersistentMap() {
+    return persistentMap;
+  }
+
+  @Override
+  public CaseInsensitiveHashMap<String, TypedValue<?>> toImmutableCaseInsensitiveMap() {
+    return this;
+  }
+
+  @Override
+  public CaseInsensitiveHashMap<String, TypedValue<?>> copy() {
+    return new CaseInsensitiveHashMap<>(persistentMap);
+  }
+
+  private Object writeReplace() throws ObjectStreamException {
+    return new CaseInsensitiveHashMap<>(persistentMap).toImmutableCaseInsensitiveMap();
+  }
+}
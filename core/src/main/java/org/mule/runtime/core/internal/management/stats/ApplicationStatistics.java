@@ -86,6 +86,22 @@ public class ApplicationStatistics extends DefaultFlowConstructStatistics {
     return total;
   }
 
+  @Override
+  public long getProcessingTimePercentile(double percentile) {
+    return getProcessingTimeHistogram().getValueAtPercentile(percentile);
+  }
+
+  @Override
+  public LatencyHistogram getProcessingTimeHistogram() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (FlowConstructStatistics stats : parent.getServiceStatistics()) {
+      if (!(stats instanceof ApplicationStatistics) && stats instanceof DefaultFlowConstructStatistics) {
+        histogram.add(((DefaultFlowConstructStatistics) stats).getProcessingTimeHistogram());
+      }
+    }
+    return histogram;
+  }
+
   @Override
   public long getExecutionErrors() {
     long total = 0;
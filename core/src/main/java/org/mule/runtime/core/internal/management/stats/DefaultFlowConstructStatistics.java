@@ -7,25 +7,27 @@
 package org.mule.runtime.core.internal.management.stats;
 
 import static java.lang.System.currentTimeMillis;
+import static org.mule.runtime.core.api.management.stats.ProcessingTime.getEffectiveTime;
 
 import org.mule.runtime.core.api.management.stats.ComponentStatistics;
 import org.mule.runtime.core.api.management.stats.FlowConstructStatistics;
 
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 public class DefaultFlowConstructStatistics implements FlowConstructStatistics {
 
   private static final long serialVersionUID = 5337576392583767442L;
 
   protected final String flowConstructType;
-  protected String name;
-  protected boolean enabled = false;
-  private long samplePeriod = 0;
-  protected final AtomicLong receivedEvents = new AtomicLong(0);
+  protected volatile String name;
+  protected volatile boolean enabled = false;
+  private volatile long samplePeriod = 0;
+  protected final LongAdder receivedEvents = new LongAdder();
 
-  private final AtomicLong executionError = new AtomicLong(0);
-  private final AtomicLong fatalError = new AtomicLong(0);
+  private final LongAdder executionError = new LongAdder();
+  private final LongAdder fatalError = new LongAdder();
   protected final ComponentStatistics flowStatistics = new ComponentStatistics();
+  private final LatencyHistogram processingTimes = new LatencyHistogram();
 
   public DefaultFlowConstructStatistics(String flowConstructType, String name) {
     this.name = name;
@@ -46,12 +48,12 @@ public class DefaultFlowConstructStatistics implements FlowConstructStatistics {
 
   @Override
   public void incExecutionError() {
-    executionError.addAndGet(1);
+    executionError.increment();
   }
 
   @Override
   public void incFatalError() {
-    fatalError.addAndGet(1);
+    fatalError.increment();
   }
 
   /**
@@ -64,7 +66,7 @@ public class DefaultFlowConstructStatistics implements FlowConstructStatistics {
   }
 
   @Override
-  public synchronized String getName() {
+  public String getName() {
     return name;
   }
 
@@ -74,19 +76,25 @@ public class DefaultFlowConstructStatistics implements FlowConstructStatistics {
 
   @Override
   public synchronized void clear() {
-    receivedEvents.set(0);
+    receivedEvents.reset();
     samplePeriod = currentTimeMillis();
 
-    executionError.set(0);
-    fatalError.set(0);
+    executionError.reset();
+    fatalError.reset();
     if (flowStatistics != null) {
       flowStatistics.clear();
     }
+    if (processingTimes != null) {
+      processingTimes.reset();
+    }
   }
 
   @Override
   public void addCompleteFlowExecutionTime(long time) {
     flowStatistics.addCompleteExecutionTime(time);
+    if (flowStatistics.getExecutedEvents() > 0) {
+      processingTimes.record(getEffectiveTime(time));
+    }
   }
 
   @Override
@@ -119,24 +127,57 @@ public class DefaultFlowConstructStatistics implements FlowConstructStatistics {
     return flowStatistics.getTotalExecutionTime();
   }
 
+  @Override
+  public long getProcessingTimePercentile(double percentile) {
+    return processingTimes.getValueAtPercentile(percentile);
+  }
+
+  /**
+   * @return the median time required to process an event
+   */
+  public long getProcessingTimeP50() {
+    return getProcessingTimePercentile(50);
+  }
+
+  /**
+   * @return the 99th percentile of the time required to process an event
+   */
+  public long getProcessingTimeP99() {
+    return getProcessingTimePercentile(99);
+  }
+
+  /**
+   * @return the 99.9th percentile of the time required to process an event
+   */
+  public long getProcessingTimeP999() {
+    return getProcessingTimePercentile(99.9);
+  }
+
+  /**
+   * @return the histogram of the time required to process each of the finalized events
+   */
+  public LatencyHistogram getProcessingTimeHistogram() {
+    return processingTimes;
+  }
+
   @Override
   public long getExecutionErrors() {
-    return executionError.get();
+    return executionError.sum();
   }
 
   @Override
   public long getFatalErrors() {
-    return fatalError.get();
+    return fatalError.sum();
   }
 
   @Override
   public void incReceivedEvents() {
-    receivedEvents.addAndGet(1);
+    receivedEvents.increment();
   }
 
   @Override
   public long getTotalEventsReceived() {
-    return receivedEvents.get();
+    return receivedEvents.sum();
   }
 
   public long getSamplePeriod() {
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.management.stats;
+
+import static java.lang.Long.numberOfLeadingZeros;
+import static java.lang.Math.ceil;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of latencies which can be recorded concurrently without locking.
+ * <p>
+ * Values are counted in buckets whose width grows with the magnitude of the value: values up to {@code 15} have a bucket each,
+ * and each following power of two range is split into 16 buckets. Percentiles are therefore reported with a precision of
+ * about 6% of the value, whatever the value is, while using a fixed and small amount of memory.
+ *
+ * @since 4.4.0
+ */
+public final class LatencyHistogram implements Serializable {
+
+  private static final long serialVersionUID = 3012786352174387532L;
+
+  private static final int SUB_BUCKET_BITS = 4;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int MAX_MAGNITUDE = 40;
+  private static final int BUCKETS = SUB_BUCKETS + (MAX_MAGNITUDE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+  /**
+   * Records a value. Negative values are recorded as zero, and values of {@code 2^41} or more are counted in the highest
+   * bucket.
+   *
+   * @param value the value to record
+   */
+  public void record(long value) {
+    counts.incrementAndGet(indexOf(max(0, value)));
+  }
+
+  /**
+   * Adds all the values recorded in {@code other} to {@code this} histogram.
+   *
+   * @param other the histogram which values are to be added
+   */
+  public void add(LatencyHistogram other) {
+    for (int i = 0; i < BUCKETS; i++) {
+      long count = other.counts.get(i);
+      if (count > 0) {
+        counts.addAndGet(i, count);
+      }
+    }
+  }
+
+  /**
+   * @return the number of values recorded
+   */
+  public long getTotalCount() {
+    long total = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      total += counts.get(i);
+    }
+    return total;
+  }
+
+  /**
+   * Returns the value which is greater or equal than the given {@code percentile} of the recorded values.
+   *
+   * @param percentile a percentile, between {@code 0} and {@code 100}
+   * @return the value at the given percentile, or {@code 0} if no values were recorded
+   */
+  public long getValueAtPercentile(double percentile) {
+    final long[] snapshot = new long[BUCKETS];
+    long total = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      snapshot[i] = counts.get(i);
+      total += snapshot[i];
+    }
+    if (total == 0) {
+      return 0;
+    }
+
+    long target = max(1, (long) ceil(min(100, max(0, percentile)) / 100 * total));
+    long accumulated = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      accumulated += snapshot[i];
+      if (accumulated >= target) {
+        return highestValueOf(i);
+      }
+    }
+
+    return highestValueOf(BUCKETS - 1);
+  }
+
+  /**
+   * Discards all the recorded values.
+   */
+  public void reset() {
+    for (int i = 0; i < BUCKETS; i++) {
+      counts.set(i, 0);
+    }
+  }
+
+  private static int indexOf(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+
+    int magnitude = 63 - numberOfLeadingZeros(value);
+    if (magnitude > MAX_MAGNITUDE) {
+      return BUCKETS - 1;
+    }
+
+    int subBucket = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return SUB_BUCKETS + (magnitude - SUB_BUCKET_BITS) * SUB_BUCKETS + subBucket;
+  }
+
+  private static long highestValueOf(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+
+    int magnitude = (index - SUB_BUCKETS) / SUB_BUCKETS + SUB_BUCKET_BITS;
+    int subBucket = (index - SUB_BUCKETS) % SUB_BUCKETS;
+    int shift = magnitude - SUB_BUCKET_BITS;
+    long lowest = ((long) (SUB_BUCKETS + subBucket)) << shift;
+    return lowest + (1L << shift) - 1;
+  }
+}
@@ -48,6 +48,7 @@ public class LoggerMessageProcessor extends AbstractComponent implements Process
   protected String message;
   protected String category;
   protected String level = "INFO";
+  private LogLevel logLevel = LogLevel.INFO;
 
   protected MuleContext muleContext;
   ExtendedExpressionManager expressionManager;
@@ -106,17 +107,14 @@ public class LoggerMessageProcessor extends AbstractComponent implements Process
     } else {
       if (StringUtils.isEmpty(message)) {
         logWithLevel(event.getMessage());
-      } else {
-        LogLevel logLevel = LogLevel.valueOf(level);
-        if (LogLevel.valueOf(level).isEnabled(logger)) {
-          logLevel.log(logger, expressionManager.parseLogTemplate(message, event, getLocation(), NULL_BINDING_CONTEXT));
-        }
+      } else if (logLevel.isEnabled(logger)) {
+        // The template is only evaluated if its result is going to be logged
+        logLevel.log(logger, expressionManager.parseLogTemplate(message, event, getLocation(), NULL_BINDING_CONTEXT));
       }
     }
   }
 
   protected void logWithLevel(Object object) {
-    LogLevel logLevel = LogLevel.valueOf(level);
     if (logLevel.isEnabled(logger)) {
       logLevel.log(logger, object);
     }
@@ -137,6 +135,7 @@ public class LoggerMessageProcessor extends AbstractComponent implements Process
 
   public void setLevel(String level) {
     this.level = level.toUpperCase();
+    this.logLevel = LogLevel.valueOf(this.level);
   }
 
   public enum LogLevel {
@@ -7,6 +7,9 @@
 
 package org.mule.runtime.core.internal.routing;
 
+import static java.lang.Runtime.getRuntime;
+import static java.util.Optional.empty;
+import static java.util.Optional.ofNullable;
 import static org.mule.runtime.api.util.Preconditions.checkArgument;
 import static org.mule.runtime.core.api.exception.Errors.ComponentIdentifiers.Handleable.TIMEOUT;
 import static org.mule.runtime.core.internal.component.ComponentUtils.getFromAnnotatedObject;
@@ -30,10 +33,12 @@ import org.mule.runtime.core.api.processor.AbstractMuleObjectOwner;
 import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
 import org.mule.runtime.core.internal.exception.MessagingException;
 import org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair;
+import org.mule.runtime.core.internal.util.timer.TimeoutService;
 import org.mule.runtime.core.privileged.processor.Scope;
 import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChain;
 import org.mule.runtime.core.privileged.routing.CompositeRoutingException;
 
+import java.util.Optional;
 import java.util.function.Consumer;
 
 import javax.inject.Inject;
@@ -60,10 +65,16 @@ public abstract class AbstractForkJoinRouter extends AbstractMuleObjectOwner<Mes
   @Inject
   private ErrorTypeRepository errorTypeRepository;
 
+  @Inject
+  private Optional<TimeoutService> timeoutService = empty();
+
   private ForkJoinStrategyFactory forkJoinStrategyFactory;
   private ForkJoinStrategy forkJoinStrategy;
   private long timeout = Long.MAX_VALUE;
   private Integer maxConcurrency;
+  private boolean adaptiveConcurrency = false;
+  private int minConcurrency = 1;
+  private AdaptiveConcurrencyLimiter concurrencyLimiter;
   private Scheduler timeoutScheduler;
   private ErrorType timeoutErrorType;
   private String target;
@@ -114,14 +125,24 @@ public abstract class AbstractForkJoinRouter extends AbstractMuleObjectOwner<Mes
     if (targetValue != null) {
       targetValueExpression = compile(targetValue, expressionManager);
     }
-    timeoutScheduler = schedulerService.cpuLightScheduler();
+    Scheduler cpuLightScheduler = schedulerService.cpuLightScheduler();
+    timeoutScheduler = timeoutService.map(service -> service.withTimerWheel(cpuLightScheduler)).orElse(cpuLightScheduler);
     timeoutErrorType = errorTypeRepository.getErrorType(TIMEOUT).get();
     maxConcurrency = maxConcurrency != null ? maxConcurrency : getDefaultMaxConcurrency();
     forkJoinStrategyFactory = forkJoinStrategyFactory != null ? forkJoinStrategyFactory : getDefaultForkJoinStrategyFactory();
 
-    forkJoinStrategy =
-        forkJoinStrategyFactory.createForkJoinStrategy(resolveProcessingStrategy(), maxConcurrency,
-                                                       isDelayErrors(), timeout, timeoutScheduler, timeoutErrorType);
+    if (adaptiveConcurrency) {
+      concurrencyLimiter = new AdaptiveConcurrencyLimiter(minConcurrency, maxConcurrency,
+                                                          getRuntime().availableProcessors());
+      forkJoinStrategy =
+          forkJoinStrategyFactory.createForkJoinStrategy(resolveProcessingStrategy(), maxConcurrency,
+                                                         isDelayErrors(), timeout, timeoutScheduler, timeoutErrorType,
+                                                         concurrencyLimiter);
+    } else {
+      forkJoinStrategy =
+          forkJoinStrategyFactory.createForkJoinStrategy(resolveProcessingStrategy(), maxConcurrency,
+                                                         isDelayErrors(), timeout, timeoutScheduler, timeoutErrorType);
+    }
   }
 
   protected ProcessingStrategy resolveProcessingStrategy() {
@@ -173,6 +194,36 @@ public abstract class AbstractForkJoinRouter extends AbstractMuleObjectOwner<Mes
     this.maxConcurrency = maxConcurrency;
   }
 
+  /**
+   * Set whether the number of routing pairs executing in parallel is adapted to the latency and errors of the routes, between
+   * {@code minConcurrency} and {@code maxConcurrency}.
+   *
+   * @param adaptiveConcurrency
+   */
+  public void setAdaptiveConcurrency(boolean adaptiveConcurrency) {
+    this.adaptiveConcurrency = adaptiveConcurrency;
+  }
+
+  /**
+   * Set the minimum concurrency to which the number of routing pairs executing in parallel may be lowered when
+   * {@code adaptiveConcurrency} is enabled.
+   *
+   * @param minConcurrency
+   * @throws IllegalArgumentException if the value is zero or less.
+   */
+  public void setMinConcurrency(int minConcurrency) {
+    checkArgument(minConcurrency > 0, "Minimum concurrency must be one or more.");
+    this.minConcurrency = minConcurrency;
+  }
+
+  /**
+   * @return the limiter that adapts the concurrency of this router, if {@code adaptiveConcurrency} is enabled. It provides the
+   *         current limit and the latency of the routes.
+   */
+  public Optional<AdaptiveConcurrencyLimiter> getConcurrencyLimiter() {
+    return ofNullable(concurrencyLimiter);
+  }
+
   /**
    * The variable where the result from this router should be stored. If this is not set then the result is set in the payload.
    *
@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.runtime.core.internal.routing;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+
+import org.mule.runtime.core.internal.management.stats.LatencyHistogram;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits how many routes of a {@link ForkJoinStrategy} are processed at the same time, adapting the limit to how the routes
+ * behave.
+ * <p>
+ * The limit is adjusted with an additive increase/multiplicative decrease policy:
+ * <ul>
+ * <li>When a route fails or times out, or when the average route latency goes above {@link #LATENCY_TOLERANCE} times the
+ * lowest observed latency, the limit is multiplied by {@link #BACKOFF_RATIO}.
+ * <li>Otherwise, when a route completes while the limit is being fully used, the limit grows by {@code 1 / limit}, that is,
+ * by about one after a whole limit worth of routes completed.
+ * </ul>
+ * The limit never goes out of the {@code minLimit} and {@code maxLimit} bounds.
+ * <p>
+ * Routes which cannot start because the limit is reached are not blocked; they are queued and started as soon as a route
+ * completes.
+ *
+ * @since 4.4.0
+ */
+public class AdaptiveConcurrencyLimiter {
+
+  static final double BACKOFF_RATIO = 0.9;
+  static final double LATENCY_TOLERANCE = 2.0;
+
+  /**
+   * Weight of each new sample in the exponentially weighted average of the latency.
+   */
+  private static final double SMOOTHING = 0.1;
+
+  /**
+   * How much the lowest observed latency grows on each sample, so that a permanent change in the latency of the routes is
+   * eventually taken as the new baseline instead of causing the limit to stay at its minimum.
+   */
+  private static final double BASELINE_DRIFT = 1.001;
+
+  private final int minLimit;
+  private final int maxLimit;
+
+  private final Deque<Runnable> waiting = new ArrayDeque<>();
+  private double limit;
+  private int inFlight;
+  private double averageLatency = -1;
+  private double baselineLatency = Double.MAX_VALUE;
+
+  private final LongAdder completedRoutes = new LongAdder();
+  private final LongAdder failedRoutes = new LongAdder();
+  private final LatencyHistogram routeLatency = new LatencyHistogram();
+
+  /**
+   * @param minLimit the lowest value the limit can take
+   * @param maxLimit the highest value the limit can take
+   * @param initialLimit the limit to start with. It is adjusted to the bounds if out of them.
+   */
+  public AdaptiveConcurrencyLimiter(int minLimit, int maxLimit, int initialLimit) {
+    checkArgument(minLimit > 0, "Minimum concurrency must be one or more.");
+    checkArgument(maxLimit >= minLimit, "Maximum concurrency must not be lower than the minimum concurrency.");
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.limit = min(maxLimit, max(minLimit, initialLimit));
+  }
+
+  /**
+   * Runs {@code onAcquired} as soon as a route may be started, which may be right away in the calling thread, or later in the
+   * thread that completes another route.
+   * <p>
+   * Once {@code onAcquired} is run, {@link #release()} or {@link #release(long, boolean)} must be called exactly once.
+   *
+   * @param onAcquired the callback that starts the route
+   */
+  public void acquire(Runnable onAcquired) {
+    synchronized (this) {
+      if (inFlight >= (int) limit) {
+        waiting.add(onAcquired);
+        return;
+      }
+      inFlight++;
+    }
+    onAcquired.run();
+  }
+
+  /**
+   * Discards a callback passed to {@link #acquire(Runnable)} if it was not run yet.
+   *
+   * @param onAcquired the callback to discard
+   * @return {@code true} if the callback was discarded, {@code false} if it was already run
+   */
+  public synchronized boolean cancel(Runnable onAcquired) {
+    return waiting.remove(onAcquired);
+  }
+
+  /**
+   * Releases the permit of a route that was not completed, such as a cancelled one, without changing the limit.
+   */
+  public void release() {
+    List<Runnable> toRun;
+    synchronized (this) {
+      inFlight--;
+      toRun = pollWaiting();
+    }
+    toRun.forEach(Runnable::run);
+  }
+
+  /**
+   * Releases the permit of a route that completed, and adjusts the limit according to its outcome.
+   *
+   * @param latencyNanos how long the route took
+   * @param failed whether the route failed or timed out
+   */
+  public void release(long latencyNanos, boolean failed) {
+    completedRoutes.increment();
+    routeLatency.record(NANOSECONDS.toMillis(latencyNanos));
+
+    List<Runnable> toRun;
+    synchronized (this) {
+      boolean limitReached = inFlight >= (int) limit;
+      inFlight--;
+
+      if (failed) {
+        failedRoutes.increment();
+        backoff();
+      } else {
+        baselineLatency = min(latencyNanos, baselineLatency * BASELINE_DRIFT);
+        averageLatency = averageLatency < 0 ? latencyNanos : averageLatency + SMOOTHING * (latencyNanos - averageLatency);
+
+        if (averageLatency > baselineLatency * LATENCY_TOLERANCE) {
+          backoff();
+        } else if (limitReached) {
+          limit = min(maxLimit, limit + 1 / limit);
+        }
+      }
+
+      toRun = pollWaiting();
+    }
+    toRun.forEach(Runnable::run);
+  }
+
+  private void backoff() {
+    limit = max(minLimit, limit * BACKOFF_RATIO);
+  }
+
+  private List<Runnable> pollWaiting() {
+    List<Runnable> toRun = new ArrayList<>();
+    while (!waiting.isEmpty() && inFlight < (int) limit) {
+      inFlight++;
+      toRun.add(waiting.poll());
+    }
+    return toRun;
+  }
+
+  /**
+   * @return the current limit of routes processed at the same time
+   */
+  public synchronized int getLimit() {
+    return (int) limit;
+  }
+
+  /**
+   * @return the number of routes being processed
+   */
+  public synchronized int getInFlight() {
+    return inFlight;
+  }
+
+  /**
+   * @return the number of routes waiting for the limit to allow them to start
+   */
+  public synchronized int getWaiting() {
+    return waiting.size();
+  }
+
+  /**
+   * @return the exponentially weighted average of the latency of the successful routes, in nanoseconds, or {@code -1} if no route
+   *         completed yet
+   */
+  public synchronized long getAverageLatency() {
+    return (long) averageLatency;
+  }
+
+  /**
+   * @return the number of routes which completed, successfully or not
+   */
+  public long getCompletedRoutes() {
+    return completedRoutes.sum();
+  }
+
+  /**
+   * @return the number of routes which failed or timed out
+   */
+  public long getFailedRoutes() {
+    return failedRoutes.sum();
+  }
+
+  /**
+   * Returns the value which is greater or equal than the given {@code percentile} of the latencies of the completed routes.
+   *
+   * @param percentile a percentile, between {@code 0} and {@code 100}
+   * @return the latency at the given percentile, in milliseconds
+   */
+  public long getRouteLatencyPercentile(double percentile) {
+    return routeLatency.getValueAtPercentile(percentile);
+  }
+
+  public int getMinLimit() {
+    return minLimit;
+  }
+
+  public int getMaxLimit() {
+    return maxLimit;
+  }
+}
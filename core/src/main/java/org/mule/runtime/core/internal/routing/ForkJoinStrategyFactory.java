@@ -30,6 +30,27 @@ public interface ForkJoinStrategyFactory {
                                           long timeout, Scheduler timeoutScheduler,
                                           ErrorType timeoutErrorType);
 
+  /**
+   * Create instance of {@link ForkJoinStrategy} which number of routes/parts processed in parallel is further limited by a
+   * {@link AdaptiveConcurrencyLimiter}.
+   * <p>
+   * Implementations that do not support adaptive concurrency ignore the {@code concurrencyLimiter}.
+   *
+   * @param processingStrategy processing strategy to use
+   * @param maxConcurrency maximum number of routes/parts to be processed in parallel.
+   * @param delayErrors if all routers/parts should be processed regardless of errors and a {@link CompositeRoutingException}
+   *        thrown or not.
+   * @param timeoutErrorType the timeout error type.
+   * @param concurrencyLimiter the limiter shared by all the invocations of the router.
+   * @return new instance of {@link ForkJoinStrategy}
+   * @since 4.4.0
+   */
+  default ForkJoinStrategy createForkJoinStrategy(ProcessingStrategy processingStrategy, int maxConcurrency, boolean delayErrors,
+                                                  long timeout, Scheduler timeoutScheduler, ErrorType timeoutErrorType,
+                                                  AdaptiveConcurrencyLimiter concurrencyLimiter) {
+    return createForkJoinStrategy(processingStrategy, maxConcurrency, delayErrors, timeout, timeoutScheduler, timeoutErrorType);
+  }
+
   DataType getResultDataType();
 
 }
@@ -41,6 +41,7 @@ import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.expression.ExpressionRuntimeException;
 import org.mule.runtime.core.api.processor.Processor;
 import org.mule.runtime.core.internal.context.MuleContextWithRegistry;
+import org.mule.runtime.core.internal.util.collection.RotatingBloomFilter;
 
 import java.util.UUID;
 
@@ -60,6 +61,10 @@ public class IdempotentMessageValidator extends AbstractComponent
 
   private static final Logger LOGGER = getLogger(IdempotentMessageValidator.class);
 
+  private static final int SEEN_IDS_FILTER_EXPECTED_IDS = 100000;
+  private static final double SEEN_IDS_FILTER_FALSE_POSITIVE_RATE = 0.01;
+  private static final long DEFAULT_STORE_ENTRY_TTL = MINUTES.toMillis(5);
+
   protected MuleContext muleContext;
 
   protected volatile ObjectStore<String> store;
@@ -72,6 +77,9 @@ public class IdempotentMessageValidator extends AbstractComponent
   private CompiledExpression compiledIdExpression;
   private CompiledExpression compiledValueExpression;
 
+  private boolean bloomFilter = false;
+  private RotatingBloomFilter seenIdsFilter;
+
   @Override
   public void setMuleContext(MuleContext context) {
     this.muleContext = context;
@@ -96,19 +104,44 @@ public class IdempotentMessageValidator extends AbstractComponent
                                         createStaticMessage("Ambiguous definition of object store, both reference and private were configured"),
                                         this);
     }
+    boolean defaultStore = false;
     if (store == null) {
       if (privateStore == null) { // If no object store was defined, create one
         this.store = createMessageIdStore();
+        defaultStore = true;
       } else { // If object store was defined privately
         this.store = privateStore;
       }
     }
     initialiseIfNeeded(store, true, muleContext);
+
+    if (bloomFilter) {
+      // The entries of the default store expire, so the filter forgets the IDs at the same pace
+      seenIdsFilter = new RotatingBloomFilter(SEEN_IDS_FILTER_EXPECTED_IDS, SEEN_IDS_FILTER_FALSE_POSITIVE_RATE,
+                                              defaultStore ? DEFAULT_STORE_ENTRY_TTL : 0);
+    }
   }
 
   @Override
   public void start() throws MuleException {
     startIfNeeded(store);
+    if (seenIdsFilter != null) {
+      rebuildSeenIdsFilter();
+    }
+  }
+
+  /**
+   * Adds the IDs already in the store to the filter, so that they are not skipped when looking for duplicates.
+   * <p>
+   * Failing to do it does not lead to duplicates being accepted, since the store rejects them anyway when the new ID is stored.
+   */
+  private void rebuildSeenIdsFilter() {
+    seenIdsFilter.clear();
+    try {
+      store.allKeys().forEach(seenIdsFilter::put);
+    } catch (ObjectStoreException e) {
+      LOGGER.warn("Could not load the IDs of the processed events from the object store: " + e.getMessage());
+    }
   }
 
   @Override
@@ -125,7 +158,7 @@ public class IdempotentMessageValidator extends AbstractComponent
     ObjectStoreManager objectStoreManager = ((MuleContextWithRegistry) muleContext).getRegistry().get(OBJECT_STORE_MANAGER);
     return objectStoreManager.createObjectStore(storePrefix, ObjectStoreSettings.builder()
         .persistent(false)
-        .entryTtl(MINUTES.toMillis(5))
+        .entryTtl(DEFAULT_STORE_ENTRY_TTL)
         .expirationInterval(SECONDS.toMillis(6))
         .build());
   }
@@ -167,8 +200,10 @@ public class IdempotentMessageValidator extends AbstractComponent
       if (event != null && isNewMessage(event, id)) {
         try {
           store.store(id, value);
+          rememberSeenId(id);
           return true;
         } catch (ObjectAlreadyExistsException ex) {
+          rememberSeenId(id);
           return false;
         } catch (ObjectStoreNotAvailableException e) {
           LOGGER.error("ObjectStore not available: " + e.getMessage());
@@ -204,7 +239,15 @@ public class IdempotentMessageValidator extends AbstractComponent
           initialise();
         }
       }
-      return !store.contains(id);
+      if (seenIdsFilter != null && !seenIdsFilter.mightContain(id)) {
+        // Definitely not seen. In case the filter already forgot the ID, storing it will fail anyway.
+        return true;
+      }
+      boolean seen = store.contains(id);
+      if (!seen && seenIdsFilter != null) {
+        seenIdsFilter.falsePositive();
+      }
+      return !seen;
     } catch (MuleException e) {
       LOGGER.error("Exception attempting to determine idempotency of incoming message for " + getLocation().getRootContainerName()
           + " from the connector "
@@ -213,6 +256,33 @@ public class IdempotentMessageValidator extends AbstractComponent
     }
   }
 
+  private void rememberSeenId(String id) {
+    if (seenIdsFilter != null) {
+      seenIdsFilter.put(id);
+    }
+  }
+
+  /**
+   * @return the in-memory filter used to avoid looking up new IDs in the store, or {@code null} if it is not enabled
+   */
+  public RotatingBloomFilter getSeenIdsFilter() {
+    return seenIdsFilter;
+  }
+
+  /**
+   * Enables an in-memory Bloom filter of the processed IDs, so that the store is only queried for the IDs which might have been
+   * processed already. Most of the IDs are usually new, so this avoids a round trip to the store for most events when it is
+   * persistent or remote.
+   * <p>
+   * The store must reject storing an ID that it already contains, as required by
+   * {@link ObjectStore#store(String, java.io.Serializable)}.
+   *
+   * @param bloomFilter whether the filter is enabled. Default value is {@code false}.
+   */
+  public void setBloomFilter(boolean bloomFilter) {
+    this.bloomFilter = bloomFilter;
+  }
+
   public String getValueExpression() {
     return valueExpression;
   }
@@ -22,6 +22,7 @@ import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.processor.Processor;
 import org.mule.runtime.core.api.streaming.StreamingManager;
 import org.mule.runtime.core.internal.routing.forkjoin.CollectListForkJoinStrategyFactory;
+import org.mule.runtime.core.internal.routing.forkjoin.StreamingCollectListForkJoinStrategyFactory;
 import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChain;
 
 import java.util.Iterator;
@@ -51,6 +52,7 @@ public class ParallelForEach extends AbstractForkJoinRouter {
   protected StreamingManager streamingManager;
 
   private String collectionExpression = DEFAULT_SPLIT_EXPRESSION;
+  private boolean streamingResults = false;
   private SplittingStrategy<CoreEvent, Iterator<TypedValue<?>>> splittingStrategy;
 
   private List<Processor> messageProcessors;
@@ -95,6 +97,9 @@ public class ParallelForEach extends AbstractForkJoinRouter {
 
   @Override
   protected ForkJoinStrategyFactory getDefaultForkJoinStrategyFactory() {
+    if (streamingResults) {
+      return new StreamingCollectListForkJoinStrategyFactory(streamingManager, muleContext.getObjectSerializer());
+    }
     return new CollectListForkJoinStrategyFactory(false);
   }
 
@@ -106,4 +111,14 @@ public class ParallelForEach extends AbstractForkJoinRouter {
   public void setCollectionExpression(String collectionExpression) {
     this.collectionExpression = collectionExpression;
   }
+
+  /**
+   * Set whether the results of the routes are returned as a repeatable iterator instead of a {@link List}. In that case, the
+   * results are moved to a temporary file once there are too many of them to be kept in memory.
+   *
+   * @param streamingResults
+   */
+  public void setStreamingResults(boolean streamingResults) {
+    this.streamingResults = streamingResults;
+  }
 }
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing;
+
+import static java.lang.Math.max;
+import static java.lang.System.currentTimeMillis;
+import static java.util.concurrent.ConcurrentHashMap.newKeySet;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.event.EventContext;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.serialization.SerializationException;
+import org.mule.runtime.api.store.ObjectStore;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.core.api.event.CoreEvent;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+
+/**
+ * Keeps the events waiting for a retry of an {@link UntilSuccessful} scope in an {@link ObjectStore} instead of in memory.
+ * <p>
+ * While an event waits for its retry, only an event without message nor variables is kept in memory, so that its context is
+ * preserved. The message and variables are stored along with the time the retry is due and the number of retries left after it,
+ * and put back into the event when the delay elapses.
+ * <p>
+ * The delays are only kept track of by the delay scheduler: the stored entries are retrieved and the events redelivered in a
+ * separate redelivery scheduler, since retrieving them may block and the retried chain may take a while.
+ * <p>
+ * Entries left in the store by a previous execution (for instance, if the runtime was stopped while events were waiting) may be
+ * {@link #recover(BiConsumer) recovered}, although the caller that originally sent them is no longer waiting for a response.
+ *
+ * @since 4.4.0
+ */
+class PersistentRetryQueue {
+
+  private static final Logger LOGGER = getLogger(PersistentRetryQueue.class);
+
+  private final ObjectStore<PendingRetry> store;
+  private final Scheduler delayScheduler;
+  private final Scheduler redeliveryScheduler;
+
+  // Keys of the entries that belong to events of this execution, as opposed to the ones left by a previous one
+  private final Set<String> scheduledKeys = newKeySet();
+
+  /**
+   * @param store the store where the waiting messages are kept. It is expected to be persistent.
+   * @param delayScheduler the scheduler used to wait for the retries to be due
+   * @param redeliveryScheduler the scheduler where the due events are retrieved from the store and redelivered
+   */
+  PersistentRetryQueue(ObjectStore<PendingRetry> store, Scheduler delayScheduler, Scheduler redeliveryScheduler) {
+    this.store = store;
+    this.delayScheduler = delayScheduler;
+    this.redeliveryScheduler = redeliveryScheduler;
+  }
+
+  /**
+   * Stores the message and variables of {@code event} and schedules {@code redelivery} to be called with an equivalent event once
+   * {@code delayInMillis} elapse.
+   * <p>
+   * If the event cannot be stored (for instance, because its payload is a stream), it is kept in memory until the retry is due.
+   *
+   * @param event the event to retry
+   * @param delayInMillis the time to wait before the retry
+   * @param retriesLeft the number of retries left once this one is done, kept so that a {@link #recover(BiConsumer) recovered}
+   *        entry doesn't start over with the whole retry budget
+   * @param redelivery the callback to call with the event to retry
+   * @param failure the callback to call if the stored event could not be retrieved, with an event that has the context of
+   *        {@code event} but neither its message nor its variables, and the cause of the failure
+   */
+  void schedule(CoreEvent event, long delayInMillis, int retriesLeft, Consumer<CoreEvent> redelivery,
+                BiConsumer<CoreEvent, Throwable> failure) {
+    final String key = event.getContext().getId();
+    if (!scheduledKeys.add(key)) {
+      redeliverAfter(delayInMillis, () -> redelivery.accept(event));
+      return;
+    }
+
+    try {
+      store.store(key, new PendingRetry(event, currentTimeMillis() + delayInMillis, retriesLeft));
+    } catch (ObjectStoreException | SerializationException e) {
+      scheduledKeys.remove(key);
+      LOGGER.debug("Could not store event '{}' for retrying, keeping it in memory: {}", key, e.getMessage());
+      redeliverAfter(delayInMillis, () -> redelivery.accept(event));
+      return;
+    }
+
+    final CoreEvent skeleton = CoreEvent.builder(event).message(Message.of(null)).clearVariables().build();
+    redeliverAfter(delayInMillis, () -> {
+      final PendingRetry pending;
+      try {
+        pending = take(key);
+      } catch (ObjectStoreException e) {
+        failure.accept(skeleton, e);
+        return;
+      }
+      redelivery.accept(pending.restoreInto(skeleton));
+    });
+  }
+
+  /**
+   * Schedules the redelivery of the entries left in the store by a previous execution, when their retries are due.
+   *
+   * @param redelivery the callback to call with the key and the stored message and variables of each recovered entry
+   * @return the number of recovered entries
+   * @throws ObjectStoreException if the store could not be read
+   */
+  int recover(BiConsumer<String, PendingRetry> redelivery) throws ObjectStoreException {
+    int recovered = 0;
+    for (String key : store.allKeys()) {
+      if (!scheduledKeys.add(key)) {
+        continue;
+      }
+
+      PendingRetry pending = store.retrieve(key);
+      redeliverAfter(max(0, pending.getDueTime() - currentTimeMillis()), () -> {
+        final PendingRetry taken;
+        try {
+          taken = take(key);
+        } catch (ObjectStoreException e) {
+          // There is no caller waiting for this event, and the entry may be recovered again by a later execution
+          LOGGER.error("Could not retrieve recovered event '" + key + "' for retrying", e);
+          return;
+        }
+        redelivery.accept(key, taken);
+      });
+      ++recovered;
+    }
+    return recovered;
+  }
+
+  /**
+   * @return the number of events waiting for a retry
+   */
+  int size() {
+    return scheduledKeys.size();
+  }
+
+  private void redeliverAfter(long delayInMillis, Runnable redelivery) {
+    delayScheduler.schedule(() -> redeliveryScheduler.execute(redelivery), delayInMillis, MILLISECONDS);
+  }
+
+  private PendingRetry take(String key) throws ObjectStoreException {
+    try {
+      return store.remove(key);
+    } finally {
+      scheduledKeys.remove(key);
+    }
+  }
+
+  /**
+   * The state of an event waiting for a retry that is kept in the store.
+   */
+  static final class PendingRetry implements Serializable {
+
+    private static final long serialVersionUID = -2981664434208470245L;
+
+    private final Message message;
+    private final Map<String, TypedValue<?>> variables;
+    private final String correlationId;
+    private final long dueTime;
+    private final int retriesLeft;
+
+    PendingRetry(CoreEvent event, long dueTime, int retriesLeft) {
+      this.message = event.getMessage();
+      this.variables = new LinkedHashMap<>(event.getVariables());
+      this.correlationId = event.getCorrelationId();
+      this.dueTime = dueTime;
+      this.retriesLeft = retriesLeft;
+    }
+
+    /**
+     * @param event the event to use as base
+     * @return a copy of {@code event} with the stored message and variables
+     */
+    CoreEvent restoreInto(CoreEvent event) {
+      return withVariables(CoreEvent.builder(event).message(message).clearVariables());
+    }
+
+    /**
+     * @param context the context for the new event
+     * @return a new event with the stored message and variables
+     */
+    CoreEvent toEvent(EventContext context) {
+      return withVariables(CoreEvent.builder(context).message(message));
+    }
+
+    private CoreEvent withVariables(CoreEvent.Builder builder) {
+      variables.forEach(builder::addVariable);
+      return builder.build();
+    }
+
+    String getCorrelationId() {
+      return correlationId;
+    }
+
+    long getDueTime() {
+      return dueTime;
+    }
+
+    /**
+     * @return the number of retries left once the stored one is done
+     */
+    int getRetriesLeft() {
+      return retriesLeft;
+    }
+  }
+}
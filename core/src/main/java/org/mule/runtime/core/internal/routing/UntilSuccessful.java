@@ -7,17 +7,25 @@
 package org.mule.runtime.core.internal.routing;
 
 import static java.util.Collections.singletonList;
+import static java.util.Optional.empty;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.api.config.MuleProperties.OBJECT_STORE_MANAGER;
+import static org.mule.runtime.core.api.event.EventContextFactory.create;
 import static org.mule.runtime.core.privileged.processor.MessageProcessors.buildNewChainWithListOfProcessors;
 import static org.mule.runtime.core.privileged.processor.MessageProcessors.createDefaultProcessingStrategyFactory;
 import static org.mule.runtime.core.privileged.processor.MessageProcessors.getProcessingStrategy;
 import static org.mule.runtime.core.privileged.processor.MessageProcessors.processToApply;
+import static org.slf4j.LoggerFactory.getLogger;
+import static reactor.core.publisher.Flux.just;
 
 import org.mule.runtime.api.component.location.ConfigurationComponentLocator;
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.lifecycle.InitialisationException;
 import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.api.store.ObjectStoreManager;
+import org.mule.runtime.api.store.ObjectStoreSettings;
 import org.mule.runtime.core.api.el.ExtendedExpressionManager;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.expression.ExpressionRuntimeException;
@@ -25,6 +33,8 @@ import org.mule.runtime.core.api.processor.AbstractMuleObjectOwner;
 import org.mule.runtime.core.api.processor.Processor;
 import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
 import org.mule.runtime.core.internal.routing.UntilSuccessfulRouter.RetryContextInitializationException;
+import org.mule.runtime.core.internal.util.timer.TimeoutService;
+import org.mule.runtime.core.privileged.event.BaseEventContext;
 import org.mule.runtime.core.privileged.processor.Scope;
 import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChain;
 
@@ -33,8 +43,10 @@ import java.util.Optional;
 import java.util.function.Predicate;
 
 import javax.inject.Inject;
+import javax.inject.Named;
 
 import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
 
 /**
  * UntilSuccessful attempts to route a message to the message processor it contains. Routing is considered successful if no
@@ -42,6 +54,8 @@ import org.reactivestreams.Publisher;
  */
 public class UntilSuccessful extends AbstractMuleObjectOwner implements Scope {
 
+  private static final Logger LOGGER = getLogger(UntilSuccessful.class);
+
   private static final String DEFAULT_MILLIS_BETWEEN_RETRIES = "60000";
   private static final String DEFAULT_RETRIES = "5";
 
@@ -54,6 +68,13 @@ public class UntilSuccessful extends AbstractMuleObjectOwner implements Scope {
   @Inject
   private ConfigurationComponentLocator componentLocator;
 
+  @Inject
+  private Optional<TimeoutService> timeoutService = empty();
+
+  @Inject
+  @Named(OBJECT_STORE_MANAGER)
+  private ObjectStoreManager objectStoreManager;
+
   private String maxRetries = DEFAULT_RETRIES;
   private String millisBetweenRetries = DEFAULT_MILLIS_BETWEEN_RETRIES;
   private MessageProcessorChain nestedChain;
@@ -61,6 +82,9 @@ public class UntilSuccessful extends AbstractMuleObjectOwner implements Scope {
   private Scheduler timer;
   private List<Processor> processors;
   private ProcessingStrategy processingStrategy;
+  private boolean persistent = false;
+  private PersistentRetryQueue retryQueue;
+  private Scheduler redeliveryScheduler;
 
   @Override
   public void initialise() throws InitialisationException {
@@ -73,7 +97,8 @@ public class UntilSuccessful extends AbstractMuleObjectOwner implements Scope {
 
     super.initialise();
 
-    timer = schedulerService.cpuLightScheduler();
+    Scheduler cpuLightScheduler = schedulerService.cpuLightScheduler();
+    timer = timeoutService.map(service -> service.withTimerWheel(cpuLightScheduler)).orElse(cpuLightScheduler);
     shouldRetry = event -> event.getError().isPresent();
 
     final Optional<ProcessingStrategy> processingStrategyFromRootContainer =
@@ -81,12 +106,58 @@ public class UntilSuccessful extends AbstractMuleObjectOwner implements Scope {
 
     processingStrategy = processingStrategyFromRootContainer
         .orElseGet(() -> createDefaultProcessingStrategyFactory().create(muleContext, getLocation().getLocation() + ".ps"));
+
+    if (persistent) {
+      redeliveryScheduler = schedulerService.ioScheduler();
+      retryQueue = new PersistentRetryQueue(objectStoreManager
+          .getOrCreateObjectStore(getLocation().getLocation() + "." + getClass().getName(), ObjectStoreSettings.builder()
+              .persistent(true)
+              .build()), timer, redeliveryScheduler);
+    }
+  }
+
+  @Override
+  public void start() throws MuleException {
+    super.start();
+    if (retryQueue != null) {
+      recoverPendingRetries();
+    }
+  }
+
+  /**
+   * Retries the events left in the store of this scope by a previous execution. Since there is no caller waiting for them
+   * anymore, each one is processed with a new event context, which is completed with the result of the retry once it finishes,
+   * and its result is only logged. Recovered events are only retried as many times as they had left when they were stored.
+   */
+  private void recoverPendingRetries() {
+    try {
+      int recovered = retryQueue.recover((key, pending) -> {
+        BaseEventContext context = (BaseEventContext) create(muleContext.getUniqueIdString(), muleContext.getId(),
+                                                             getLocation(), pending.getCorrelationId(), empty());
+        just(pending.toEvent(context)).transform(publisher -> createRouter(publisher, pending.getRetriesLeft()))
+            .subscribe(result -> {
+              LOGGER.info("Recovered retry of event '{}' succeeded", key);
+              context.success(result);
+            }, error -> {
+              LOGGER.error("Recovered retry of event '" + key + "' failed", error);
+              context.error(error);
+            });
+      });
+      if (recovered > 0) {
+        LOGGER.info("Recovered {} events pending for retry in '{}'", recovered, getLocation().getLocation());
+      }
+    } catch (ObjectStoreException e) {
+      LOGGER.error("Could not recover the events pending for retry in '" + getLocation().getLocation() + "'", e);
+    }
   }
 
   @Override
   public void dispose() {
     super.dispose();
     timer.stop();
+    if (redeliveryScheduler != null) {
+      redeliveryScheduler.stop();
+    }
   }
 
   @Override
@@ -108,8 +179,12 @@ public class UntilSuccessful extends AbstractMuleObjectOwner implements Scope {
 
   @Override
   public Publisher<CoreEvent> apply(Publisher<CoreEvent> publisher) {
+    return createRouter(publisher, null);
+  }
+
+  private Publisher<CoreEvent> createRouter(Publisher<CoreEvent> publisher, Integer retriesLeft) {
     return new UntilSuccessfulRouter(this, publisher, nestedChain, processingStrategy, expressionManager, shouldRetry, timer,
-                                     maxRetries, millisBetweenRetries)
+                                     maxRetries, millisBetweenRetries, retryQueue, retriesLeft)
                                          .getDownstreamPublisher();
   }
 
@@ -143,6 +218,22 @@ public class UntilSuccessful extends AbstractMuleObjectOwner implements Scope {
     this.millisBetweenRetries = millisBetweenRetries;
   }
 
+  /**
+   * @return whether the events waiting for a retry are kept in a persistent object store instead of in memory. Default value is
+   *         {@code false}.
+   */
+  public boolean isPersistent() {
+    return persistent;
+  }
+
+  /**
+   * @param persistent whether the events waiting for a retry are kept in a persistent object store instead of in memory, so
+   *        that they are retried even if the application is restarted in the meantime. Default value is {@code false}.
+   */
+  public void setPersistent(boolean persistent) {
+    this.persistent = persistent;
+  }
+
   /**
    * Configure the nested {@link Processor}'s that error handling and transactional behaviour should be applied to.
    *
@@ -73,6 +73,8 @@ class UntilSuccessfulRouter {
   private final Component owner;
   private final Predicate<CoreEvent> shouldRetry;
   private final ConditionalExecutorServiceDecorator delayScheduler;
+  private final PersistentRetryQueue retryQueue;
+  private final Integer initialRetriesLeft;
 
   private final Flux<CoreEvent> upstreamFlux;
   private final Flux<CoreEvent> innerFlux;
@@ -98,7 +100,30 @@ class UntilSuccessfulRouter {
                         ProcessingStrategy processingStrategy, ExtendedExpressionManager expressionManager,
                         Predicate<CoreEvent> shouldRetry, Scheduler delayScheduler,
                         String maxRetries, String millisBetweenRetries) {
+    this(owner, publisher, nestedChain, processingStrategy, expressionManager, shouldRetry, delayScheduler, maxRetries,
+         millisBetweenRetries, null);
+  }
+
+  UntilSuccessfulRouter(Component owner, Publisher<CoreEvent> publisher, Processor nestedChain,
+                        ProcessingStrategy processingStrategy, ExtendedExpressionManager expressionManager,
+                        Predicate<CoreEvent> shouldRetry, Scheduler delayScheduler,
+                        String maxRetries, String millisBetweenRetries, PersistentRetryQueue retryQueue) {
+    this(owner, publisher, nestedChain, processingStrategy, expressionManager, shouldRetry, delayScheduler, maxRetries,
+         millisBetweenRetries, retryQueue, null);
+  }
+
+  /**
+   * @param initialRetriesLeft the number of retries left for the events of this router, instead of the configured maximum. Used
+   *        to resume the events recovered from the {@code retryQueue}, or {@code null} to start with the whole retry budget.
+   */
+  UntilSuccessfulRouter(Component owner, Publisher<CoreEvent> publisher, Processor nestedChain,
+                        ProcessingStrategy processingStrategy, ExtendedExpressionManager expressionManager,
+                        Predicate<CoreEvent> shouldRetry, Scheduler delayScheduler,
+                        String maxRetries, String millisBetweenRetries, PersistentRetryQueue retryQueue,
+                        Integer initialRetriesLeft) {
     this.owner = owner;
+    this.retryQueue = retryQueue;
+    this.initialRetriesLeft = initialRetriesLeft;
     this.shouldRetry = shouldRetry;
     this.delayScheduler = new ConditionalExecutorServiceDecorator(delayScheduler, s -> isTransactionActive());
     this.retryContextResolver = new EventInternalContextResolver<>(RETRY_CTX_INTERNAL_PARAM_KEY,
@@ -109,6 +134,9 @@ class UntilSuccessfulRouter {
         .doOnNext(event -> {
           // Inject event into retrial execution chain
           RetryContext ctx = new RetryContext(event, sessionSupplier, maxRetriesSupplier, delaySupplier);
+          if (initialRetriesLeft != null) {
+            ctx.retryCount.set(initialRetriesLeft);
+          }
           inflightEvents.getAndIncrement();
           innerRecorder.next(eventWithCurrentContext(event, ctx));
         })
@@ -184,8 +212,23 @@ class UntilSuccessfulRouter {
                      ctx.maxRetries != RETRY_COUNT_FOREVER ? ctx.maxRetries : "unlimited");
 
         // Schedule retry with delay
-        UntilSuccessfulRouter.this.delayScheduler.schedule(() -> innerRecorder.next(eventWithCurrentContext(ctx.event, ctx)),
-                                                           ctx.delayInMillis, MILLISECONDS);
+        if (retryQueue != null && !isTransactionActive()) {
+          // Only the event context is kept in memory while waiting, the message and variables are restored from the queue
+          CoreEvent event = ctx.event;
+          ctx.event = null;
+          retryQueue.schedule(event, ctx.delayInMillis, ctx.retryCount.get(), restoredEvent -> {
+            ctx.event = restoredEvent;
+            innerRecorder.next(eventWithCurrentContext(restoredEvent, ctx));
+          }, (skeleton, failure) -> {
+            LOGGER.error("Could not retrieve the event to retry. Failing...");
+            eventWithCurrentContextDeleted(skeleton);
+            downstreamRecorder.next(left(new MessagingException(skeleton, failure, owner), CoreEvent.class));
+            completeRouterIfNecessary();
+          });
+        } else {
+          UntilSuccessfulRouter.this.delayScheduler.schedule(() -> innerRecorder.next(eventWithCurrentContext(ctx.event, ctx)),
+                                                             ctx.delayInMillis, MILLISECONDS);
+        }
       } else { // Retries exhausted
         // Current context already pooped. No need to re-insert it
         LOGGER.error("Retry attempts exhausted. Failing...");
@@ -7,6 +7,7 @@
 
 package org.mule.runtime.core.internal.routing.forkjoin;
 
+import static java.lang.System.nanoTime;
 import static java.time.Duration.ofMillis;
 import static java.util.Optional.empty;
 import static java.util.stream.Collectors.toList;
@@ -19,6 +20,7 @@ import static reactor.core.publisher.Flux.from;
 import static reactor.core.publisher.Mono.defer;
 import static reactor.core.publisher.Mono.error;
 import static reactor.core.publisher.Mono.just;
+import static reactor.core.publisher.SignalType.CANCEL;
 
 import org.mule.runtime.api.message.Error;
 import org.mule.runtime.api.message.ErrorType;
@@ -35,6 +37,7 @@ import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
 import org.mule.runtime.core.internal.event.DefaultEventBuilder;
 import org.mule.runtime.core.internal.exception.MessagingException;
 import org.mule.runtime.core.internal.message.ErrorBuilder;
+import org.mule.runtime.core.internal.routing.AdaptiveConcurrencyLimiter;
 import org.mule.runtime.core.internal.routing.ForkJoinStrategy;
 import org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair;
 import org.mule.runtime.core.internal.routing.ForkJoinStrategyFactory;
@@ -48,7 +51,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -71,6 +76,11 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
 
   public static final String TIMEOUT_EXCEPTION_DESCRIPTION = "Route Timeout";
   public static final String TIMEOUT_EXCEPTION_DETAILED_DESCRIPTION_PREFIX = "Timeout while processing route/part:";
+
+  private static final int ROUTE_WAITING = 0;
+  private static final int ROUTE_STARTED = 1;
+  private static final int ROUTE_DONE = 2;
+
   private final boolean mergeVariables;
 
   public AbstractForkJoinStrategyFactory() {
@@ -84,14 +94,23 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
   @Override
   public ForkJoinStrategy createForkJoinStrategy(ProcessingStrategy processingStrategy, int maxConcurrency, boolean delayErrors,
                                                  long timeout, Scheduler timeoutScheduler, ErrorType timeoutErrorType) {
+    return createForkJoinStrategy(processingStrategy, maxConcurrency, delayErrors, timeout, timeoutScheduler, timeoutErrorType,
+                                  null);
+  }
+
+  @Override
+  public ForkJoinStrategy createForkJoinStrategy(ProcessingStrategy processingStrategy, int maxConcurrency, boolean delayErrors,
+                                                 long timeout, Scheduler timeoutScheduler, ErrorType timeoutErrorType,
+                                                 AdaptiveConcurrencyLimiter concurrencyLimiter) {
     reactor.core.scheduler.Scheduler reactorTimeoutScheduler = Schedulers.fromExecutorService(timeoutScheduler);
     return (original, routingPairs) -> {
       final AtomicInteger count = new AtomicInteger();
       final CoreEvent.Builder resultBuilder = builder(original);
       return from(routingPairs)
           .map(addSequence(count))
-          .flatMapSequential(processRoutePair(processingStrategy, maxConcurrency, delayErrors, timeout, reactorTimeoutScheduler,
-                                              timeoutErrorType),
+          .flatMapSequential(limitConcurrency(processRoutePair(processingStrategy, maxConcurrency, delayErrors, timeout,
+                                                               reactorTimeoutScheduler, timeoutErrorType),
+                                              concurrencyLimiter),
                              maxConcurrency)
           .reduce(new Pair<List<CoreEvent>, Boolean>(new ArrayList<>(), false), (pair, event) -> {
             // Accumulates events and check if there is a (new) error within those events
@@ -112,11 +131,11 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
     };
   }
 
-  private boolean isOriginalError(Error newError, Optional<Error> originalError) {
+  static boolean isOriginalError(Error newError, Optional<Error> originalError) {
     return originalError.map(error -> error.equals(newError)).orElse(false);
   }
 
-  private CoreEvent removeOriginalError(CoreEvent event, Optional<Error> originalError) {
+  static CoreEvent removeOriginalError(CoreEvent event, Optional<Error> originalError) {
     return event.getError().map(err -> isOriginalError(err, originalError) ? CoreEvent.builder(event).error(null).build() : event)
         .orElse(event);
   }
@@ -132,16 +151,16 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
   protected abstract Function<List<CoreEvent>, CoreEvent> createResultEvent(CoreEvent original,
                                                                             CoreEvent.Builder resultBuilder);
 
-  private Function<RoutingPair, RoutingPair> addSequence(AtomicInteger count) {
+  static Function<RoutingPair, RoutingPair> addSequence(AtomicInteger count) {
     return pair -> of(builder(pair.getEvent()).groupCorrelation(Optional.of(GroupCorrelation.of(count.getAndIncrement())))
         .build(), pair.getRoute());
   }
 
-  private Function<RoutingPair, Publisher<? extends CoreEvent>> processRoutePair(ProcessingStrategy processingStrategy,
-                                                                                 int maxConcurrency,
-                                                                                 boolean delayErrors, long timeout,
-                                                                                 reactor.core.scheduler.Scheduler timeoutScheduler,
-                                                                                 ErrorType timeoutErrorType) {
+  static Function<RoutingPair, Publisher<? extends CoreEvent>> processRoutePair(ProcessingStrategy processingStrategy,
+                                                                                int maxConcurrency,
+                                                                                boolean delayErrors, long timeout,
+                                                                                reactor.core.scheduler.Scheduler timeoutScheduler,
+                                                                                ErrorType timeoutErrorType) {
 
     return pair -> {
       ReactiveProcessor route = publisher -> from(publisher)
@@ -163,15 +182,64 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
     };
   }
 
-  private Mono<CoreEvent> onTimeout(ProcessingStrategy processingStrategy, boolean delayErrors, ErrorType timeoutErrorType,
-                                    RoutingPair pair) {
+  /**
+   * Defers the processing of each route until {@code concurrencyLimiter} allows it to start, and reports its outcome back to
+   * it.
+   *
+   * @param routeProcessor the function that processes a route
+   * @param concurrencyLimiter the limiter to use, or {@code null} for the routes to start right away
+   * @return the function to use to process the routes
+   */
+  static Function<RoutingPair, Publisher<? extends CoreEvent>> limitConcurrency(
+      Function<RoutingPair, Publisher<? extends CoreEvent>> routeProcessor, AdaptiveConcurrencyLimiter concurrencyLimiter) {
+    if (concurrencyLimiter == null) {
+      return routeProcessor;
+    }
+
+    return pair -> defer(() -> {
+      final AtomicInteger state = new AtomicInteger(ROUTE_WAITING);
+      final AtomicBoolean failed = new AtomicBoolean();
+      final AtomicLong start = new AtomicLong();
+
+      return Mono.<RoutingPair>create(sink -> {
+        Runnable onAcquired = () -> {
+          start.set(nanoTime());
+          if (state.compareAndSet(ROUTE_WAITING, ROUTE_STARTED)) {
+            sink.success(pair);
+          } else {
+            // Cancelled while waiting to start
+            concurrencyLimiter.release();
+          }
+        };
+        sink.onCancel(() -> concurrencyLimiter.cancel(onAcquired));
+        concurrencyLimiter.acquire(onAcquired);
+      })
+          .flatMap(p -> Mono.<CoreEvent>from(routeProcessor.apply(p))
+              // the event may already carry an error when entering the route, which doesn't make the route fail
+              .doOnNext(event -> failed.set(event.getError().isPresent()
+                  && event.getError().get() != p.getEvent().getError().orElse(null)))
+              .doOnError(e -> failed.set(true)))
+          .doFinally(signal -> {
+            if (state.getAndSet(ROUTE_DONE) == ROUTE_STARTED) {
+              if (signal == CANCEL) {
+                concurrencyLimiter.release();
+              } else {
+                concurrencyLimiter.release(nanoTime() - start.get(), failed.get());
+              }
+            }
+          });
+    });
+  }
+
+  private static Mono<CoreEvent> onTimeout(ProcessingStrategy processingStrategy, boolean delayErrors,
+                                           ErrorType timeoutErrorType, RoutingPair pair) {
     return defer(() -> delayErrors ? just(createTimeoutErrorEvent(timeoutErrorType, pair))
         : error(new TimeoutException(buildDetailedDescription(pair))))
             .transform(processingStrategy.onPipeline(p -> p));
   }
 
-  private ReactiveProcessor applyProcessingStrategy(ProcessingStrategy processingStrategy, ReactiveProcessor processor,
-                                                    int maxConcurrency) {
+  private static ReactiveProcessor applyProcessingStrategy(ProcessingStrategy processingStrategy,
+                                                           ReactiveProcessor processor, int maxConcurrency) {
     if (maxConcurrency > 1) {
       return processingStrategy.onPipeline(processor);
     } else {
@@ -179,7 +247,7 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
     }
   }
 
-  private CoreEvent createTimeoutErrorEvent(ErrorType timeoutErrorType, RoutingPair pair) {
+  private static CoreEvent createTimeoutErrorEvent(ErrorType timeoutErrorType, RoutingPair pair) {
     final String detailedDescription = buildDetailedDescription(pair);
 
     return builder(pair.getEvent()).message(Message.of(null))
@@ -191,12 +259,12 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
         .build();
   }
 
-  private String buildDetailedDescription(RoutingPair pair) {
+  private static String buildDetailedDescription(RoutingPair pair) {
     return TIMEOUT_EXCEPTION_DETAILED_DESCRIPTION_PREFIX + " '"
         + pair.getEvent().getGroupCorrelation().get().getSequence() + "'";
   }
 
-  private CompositeRoutingException createCompositeRoutingException(List<CoreEvent> results) {
+  static CompositeRoutingException createCompositeRoutingException(List<CoreEvent> results) {
     Map<String, Message> successMap = new LinkedHashMap<>();
     Map<String, Error> errorMap = new LinkedHashMap<>();
 
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing.forkjoin;
+
+import static java.lang.Math.max;
+import static java.nio.ByteBuffer.allocate;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.util.Arrays.copyOf;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.internal.streaming.TempBufferFileUtils.createBufferFile;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.serialization.SerializationException;
+import org.mule.runtime.api.serialization.SerializationProtocol;
+import org.mule.runtime.api.streaming.CursorProvider;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.slf4j.Logger;
+
+/**
+ * Holds the results of the routes of a fork-join in the order they are added, so that they can be read by index afterwards.
+ * <p>
+ * The first results are kept in memory. Once there are more than {@code maxInMemoryResults} of them, the following ones are
+ * serialized to a temporary file, and the offset of each of them is kept so that it can be read straight from the file any
+ * amount of times. Results which cannot be serialized, or which payload is a {@link CursorProvider}, are always kept in memory.
+ * <p>
+ * Results are expected to be added from a single thread at a time, and read only after all of them were added. Once that
+ * happens, reads are thread-safe.
+ *
+ * @since 4.4.0
+ */
+final class RouteResultSpool implements Closeable {
+
+  private static final Logger LOGGER = getLogger(RouteResultSpool.class);
+
+  private static final int INITIAL_SPOOLED_CAPACITY = 16;
+
+  private final SerializationProtocol serializationProtocol;
+  private final int maxInMemoryResults;
+
+  /**
+   * The first results, followed by those which could not be written to the file
+   */
+  private final List<Message> inMemory = new ArrayList<>();
+  private int inMemoryHead = -1;
+  private int size = 0;
+
+  /**
+   * For each result from {@link #inMemoryHead} on, its offset in the file, or {@code -(index in inMemory + 1)}
+   */
+  private long[] spooled;
+  private File spoolFile;
+  private DataOutputStream output;
+  private long outputPosition = 0;
+  private FileChannel input;
+  private volatile boolean closed = false;
+
+  RouteResultSpool(SerializationProtocol serializationProtocol, int maxInMemoryResults) {
+    this.serializationProtocol = serializationProtocol;
+    this.maxInMemoryResults = maxInMemoryResults;
+  }
+
+  /**
+   * Adds a result after the ones already added.
+   *
+   * @param message the result of a route
+   */
+  void add(Message message) {
+    if (spoolFile == null && inMemory.size() < maxInMemoryResults) {
+      inMemory.add(message);
+      size++;
+      return;
+    }
+
+    byte[] serialized = null;
+    if (!(message.getPayload().getValue() instanceof CursorProvider)) {
+      try {
+        serialized = serializationProtocol.serialize(message);
+      } catch (SerializationException e) {
+        LOGGER.debug("Could not serialize route result, it will be kept in memory", e);
+      }
+    }
+
+    try {
+      if (spoolFile == null) {
+        inMemoryHead = inMemory.size();
+        spooled = new long[INITIAL_SPOOLED_CAPACITY];
+        spoolFile = createBufferFile("fork-join");
+        output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(spoolFile)));
+      }
+
+      final int spooledIndex = size - inMemoryHead;
+      if (spooledIndex == spooled.length) {
+        spooled = copyOf(spooled, max(INITIAL_SPOOLED_CAPACITY, spooled.length * 2));
+      }
+
+      if (serialized != null) {
+        output.writeInt(serialized.length);
+        output.write(serialized);
+        spooled[spooledIndex] = outputPosition;
+        outputPosition += Integer.BYTES + serialized.length;
+      } else {
+        spooled[spooledIndex] = -(inMemory.size() + 1);
+        inMemory.add(message);
+      }
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not write route result to spool file"), e);
+    }
+    size++;
+  }
+
+  /**
+   * @return the amount of results added
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * @param index the position of the result, in the order in which they were added
+   * @return the result at the given {@code index}
+   * @throws NoSuchElementException if there's no result at the given {@code index}
+   */
+  Message get(int index) {
+    if (index < 0 || index >= size) {
+      throw new NoSuchElementException();
+    }
+    if (closed) {
+      throw new IllegalStateException("Route results were already released");
+    }
+
+    if (spoolFile == null || index < inMemoryHead) {
+      return inMemory.get(index);
+    }
+
+    long location = spooled[index - inMemoryHead];
+    if (location < 0) {
+      return inMemory.get((int) (-location - 1));
+    }
+
+    try {
+      FileChannel channel = getInput();
+      ByteBuffer length = allocate(Integer.BYTES);
+      readFully(channel, length, location);
+      ByteBuffer serialized = allocate(length.getInt(0));
+      readFully(channel, serialized, location + Integer.BYTES);
+      return serializationProtocol.deserialize(serialized.array());
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not read route result from spool file"), e);
+    }
+  }
+
+  /**
+   * Releases the results and deletes the spool file.
+   */
+  @Override
+  public synchronized void close() {
+    closed = true;
+    inMemory.clear();
+    closeQuietly(output);
+    closeQuietly(input);
+    if (spoolFile != null && spoolFile.exists() && !spoolFile.delete()) {
+      LOGGER.warn("Could not delete fork-join spool file {}", spoolFile.getAbsolutePath());
+    }
+  }
+
+  /**
+   * @return the file to which results are written, or {@code null} if all results were kept in memory
+   */
+  File getSpoolFile() {
+    return spoolFile;
+  }
+
+  private synchronized FileChannel getInput() throws IOException {
+    if (input == null) {
+      output.close();
+      input = FileChannel.open(spoolFile.toPath(), READ);
+    }
+    return input;
+  }
+
+  private void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+    // positional reads don't move the channel's position, so cursors can read concurrently
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) < 0) {
+        throw new EOFException();
+      }
+    }
+  }
+
+  private void closeQuietly(Closeable closeable) {
+    if (closeable != null) {
+      try {
+        closeable.close();
+      } catch (IOException e) {
+        LOGGER.debug("Found exception trying to close fork-join spool file", e);
+      }
+    }
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing.forkjoin;
+
+import static java.lang.Boolean.getBoolean;
+import static java.lang.Math.toIntExact;
+import static org.mule.runtime.api.util.MuleSystemProperties.TRACK_CURSOR_PROVIDER_CLOSE_PROPERTY;
+
+import org.mule.runtime.api.component.location.ComponentLocation;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.streaming.object.CursorIterator;
+import org.mule.runtime.api.streaming.object.CursorIteratorProvider;
+import org.mule.runtime.core.internal.streaming.AbstractCursorIterator;
+import org.mule.runtime.core.internal.streaming.object.AbstractCursorIteratorProvider;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A {@link CursorIteratorProvider} over the results held by a {@link RouteResultSpool}.
+ * <p>
+ * Cursors read the results straight from the spool, so the spooled results are deserialized once per read instead of being
+ * copied into another buffer first. The spool is released along with this provider's resources.
+ *
+ * @since 4.4.0
+ */
+final class RouteResultSpoolCursorIteratorProvider extends AbstractCursorIteratorProvider {
+
+  private static final boolean TRACK_CURSOR_PROVIDER_CLOSE = getBoolean(TRACK_CURSOR_PROVIDER_CLOSE_PROPERTY);
+
+  private final RouteResultSpool spool;
+
+  RouteResultSpoolCursorIteratorProvider(RouteResultSpool spool, ComponentLocation originatingLocation) {
+    super(null, originatingLocation, TRACK_CURSOR_PROVIDER_CLOSE);
+    this.spool = spool;
+  }
+
+  @Override
+  protected CursorIterator doOpenCursor() {
+    return new SpoolCursorIterator(this);
+  }
+
+  @Override
+  public void releaseResources() {
+    spool.close();
+  }
+
+  private final class SpoolCursorIterator extends AbstractCursorIterator<Message> {
+
+    private SpoolCursorIterator(CursorIteratorProvider provider) {
+      super(provider);
+    }
+
+    @Override
+    protected Message doNext(long position) {
+      if (position >= spool.size()) {
+        throw new NoSuchElementException();
+      }
+      return spool.get(toIntExact(position));
+    }
+
+    @Override
+    public boolean hasNext() {
+      return getPosition() < spool.size();
+    }
+
+    @Override
+    public int getSize() {
+      return spool.size();
+    }
+
+    @Override
+    public void release() {}
+
+    @Override
+    protected void doClose() {}
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.runtime.core.internal.routing.forkjoin;
+
+import static org.mule.runtime.api.metadata.DataType.CURSOR_ITERATOR_PROVIDER;
+import static org.mule.runtime.core.api.event.CoreEvent.builder;
+import static org.mule.runtime.core.internal.routing.forkjoin.AbstractForkJoinStrategyFactory.addSequence;
+import static org.mule.runtime.core.internal.routing.forkjoin.AbstractForkJoinStrategyFactory.isOriginalError;
+import static org.mule.runtime.core.internal.routing.forkjoin.AbstractForkJoinStrategyFactory.limitConcurrency;
+import static org.mule.runtime.core.internal.routing.forkjoin.AbstractForkJoinStrategyFactory.processRoutePair;
+import static reactor.core.Exceptions.propagate;
+import static reactor.core.publisher.Flux.from;
+import static reactor.core.publisher.Mono.fromSupplier;
+
+import org.mule.runtime.api.message.Error;
+import org.mule.runtime.api.message.ErrorType;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.api.streaming.StreamingManager;
+import org.mule.runtime.core.internal.routing.AdaptiveConcurrencyLimiter;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategyFactory;
+import org.mule.runtime.core.privileged.routing.CompositeRoutingException;
+import org.mule.runtime.core.privileged.routing.RoutingResult;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * {@link ForkJoinStrategy} that:
+ * <ul>
+ * <li>Performs parallel execution of route pairs subject to {@code maxConcurrency}.
+ * <li>Keeps at most {@code maxConcurrency} route results waiting to be collected, even if earlier routes have not completed yet.
+ * <li>Collects results in order into a {@link RouteResultSpool}, which moves them to a temporary file once there are more than
+ * {@code maxInMemoryResults} of them.
+ * <li>Waits for the completion of all routes before emitting a result event, with an optional timeout, which payload is a
+ * {@link org.mule.runtime.api.streaming.object.CursorIteratorProvider} which reads the {@link Message}s of the routes straight
+ * from the {@link RouteResultSpool}.
+ * <li>Will process all routes, regardless of errors, and propagating a composite exception where there were one or more errors.
+ * </ul>
+ * Variables set in the routes are not merged into the result event.
+ *
+ * @since 4.4.0
+ */
+public class StreamingCollectListForkJoinStrategyFactory implements ForkJoinStrategyFactory {
+
+  public static final int DEFAULT_MAX_IN_MEMORY_RESULTS = 100;
+
+  private final StreamingManager streamingManager;
+  private final ObjectSerializer objectSerializer;
+  private final int maxInMemoryResults;
+
+  public StreamingCollectListForkJoinStrategyFactory(StreamingManager streamingManager, ObjectSerializer objectSerializer) {
+    this(streamingManager, objectSerializer, DEFAULT_MAX_IN_MEMORY_RESULTS);
+  }
+
+  public StreamingCollectListForkJoinStrategyFactory(StreamingManager streamingManager, ObjectSerializer objectSerializer,
+                                                     int maxInMemoryResults) {
+    this.streamingManager = streamingManager;
+    this.objectSerializer = objectSerializer;
+    this.maxInMemoryResults = maxInMemoryResults;
+  }
+
+  @Override
+  public ForkJoinStrategy createForkJoinStrategy(ProcessingStrategy processingStrategy, int maxConcurrency, boolean delayErrors,
+                                                 long timeout, Scheduler timeoutScheduler, ErrorType timeoutErrorType) {
+    return createForkJoinStrategy(processingStrategy, maxConcurrency, delayErrors, timeout, timeoutScheduler, timeoutErrorType,
+                                  null);
+  }
+
+  @Override
+  public ForkJoinStrategy createForkJoinStrategy(ProcessingStrategy processingStrategy, int maxConcurrency, boolean delayErrors,
+                                                 long timeout, Scheduler timeoutScheduler, ErrorType timeoutErrorType,
+                                                 AdaptiveConcurrencyLimiter concurrencyLimiter) {
+    reactor.core.scheduler.Scheduler reactorTimeoutScheduler = Schedulers.fromExecutorService(timeoutScheduler);
+    return (original, routingPairs) -> {
+      final AtomicInteger count = new AtomicInteger();
+      final RouteResultSpool spool = new RouteResultSpool(objectSerializer.getInternalProtocol(), maxInMemoryResults);
+      final Map<String, Error> errors = new LinkedHashMap<>();
+      return from(routingPairs)
+          .map(addSequence(count))
+          .flatMapSequential(limitConcurrency(processRoutePair(processingStrategy, maxConcurrency, delayErrors, timeout,
+                                                               reactorTimeoutScheduler, timeoutErrorType),
+                                              concurrencyLimiter),
+                             maxConcurrency)
+          .doOnNext(event -> {
+            // Results are emitted in order, so each one is spooled as soon as it arrives instead of keeping the events around
+            Error error = event.getError().orElse(null);
+            if (error != null && !isOriginalError(error, original.getError())) {
+              errors.put(Integer.toString(event.getGroupCorrelation().get().getSequence()), error);
+            } else {
+              spool.add(event.getMessage());
+            }
+          })
+          .then(fromSupplier(() -> {
+            if (!errors.isEmpty()) {
+              throw propagate(createCompositeRoutingException(spool, errors, count.get()));
+            }
+            Object provider = streamingManager.manage(new RouteResultSpoolCursorIteratorProvider(spool, null),
+                                                      original.getContext());
+            return builder(original)
+                .message(Message.builder().payload(new TypedValue<>(provider, CURSOR_ITERATOR_PROVIDER)).build())
+                .build();
+          }))
+          .doOnError(e -> spool.close())
+          .doOnCancel(spool::close);
+    };
+  }
+
+  private CompositeRoutingException createCompositeRoutingException(RouteResultSpool spool, Map<String, Error> errors,
+                                                                    int routes) {
+    Map<String, Message> successMap = new LinkedHashMap<>();
+    try {
+      int successful = 0;
+      for (int i = 0; i < routes; ++i) {
+        String key = Integer.toString(i);
+        if (!errors.containsKey(key)) {
+          successMap.put(key, spool.get(successful++));
+        }
+      }
+    } finally {
+      spool.close();
+    }
+    return new CompositeRoutingException(new RoutingResult(successMap, errors));
+  }
+
+  @Override
+  public DataType getResultDataType() {
+    return CURSOR_ITERATOR_PROVIDER;
+  }
+}
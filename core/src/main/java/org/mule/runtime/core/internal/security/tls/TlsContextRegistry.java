@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.security.tls;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.net.ssl.SSLContext;
+
+/**
+ * Runtime level registry of {@link SSLContext}s, keyed by a hash of the contents of the key store, trust store and protocol
+ * settings used to create them.
+ * <p>
+ * TLS configurations with identical settings get the same {@link SSLContext}, so it is initialized just once and its TLS session
+ * caches are shared by all the connections created from any of those configurations.
+ * <p>
+ * Contexts are only weakly referenced from here, so they are released once no configuration uses them.
+ *
+ * @since 4.4
+ */
+public final class TlsContextRegistry {
+
+  private static final Map<String, WeakReference<SSLContext>> CONTEXTS = new ConcurrentHashMap<>();
+
+  private TlsContextRegistry() {
+    // Nothing to do
+  }
+
+  /**
+   * @param contentHash the hash of the settings the context was created with
+   * @return the registered {@link SSLContext} for the given {@code contentHash}, or {@code null} if there is none.
+   */
+  public static SSLContext lookup(String contentHash) {
+    WeakReference<SSLContext> reference = CONTEXTS.get(contentHash);
+    if (reference == null) {
+      return null;
+    }
+
+    SSLContext context = reference.get();
+    if (context == null) {
+      CONTEXTS.remove(contentHash, reference);
+    }
+    return context;
+  }
+
+  /**
+   * Registers an {@link SSLContext} unless another one was already registered for the same {@code contentHash}.
+   *
+   * @param contentHash the hash of the settings the context was created with
+   * @param context the context to register
+   * @return the {@link SSLContext} to use for the given {@code contentHash}, which will be the given {@code context} unless a
+   *         concurrent registration for the same settings took place.
+   */
+  public static SSLContext register(String contentHash, SSLContext context) {
+    // Keep a strong reference to the resulting context, so it cannot be collected before being returned
+    final SSLContext[] registered = new SSLContext[1];
+    CONTEXTS.compute(contentHash, (key, reference) -> {
+      registered[0] = reference == null ? null : reference.get();
+      if (registered[0] == null) {
+        registered[0] = context;
+        return new WeakReference<>(context);
+      }
+      return reference;
+    });
+    return registered[0];
+  }
+}
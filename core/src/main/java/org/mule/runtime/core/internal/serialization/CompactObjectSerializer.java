@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.runtime.core.internal.serialization;
+
+import static java.lang.Boolean.getBoolean;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
+
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.api.serialization.SerializationProtocol;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.context.MuleContextAware;
+
+/**
+ * Serializes objects using the {@link CompactSerializationProtocol} for the internal protocol. The external protocol still uses
+ * Java serialization, since its output may be consumed outside of the runtime.
+ *
+ * @since 4.4.0
+ */
+public class CompactObjectSerializer implements ObjectSerializer, MuleContextAware {
+
+  /**
+   * When set to {@code true}, the {@link CompactObjectSerializer} is used as the default {@link ObjectSerializer} of the
+   * artifacts, instead of the {@link JavaObjectSerializer}.
+   */
+  public static final String MULE_COMPACT_SERIALIZATION = SYSTEM_PROPERTY_PREFIX + "serialization.compact";
+
+  private final CompactSerializationProtocol compactSerializerProtocol = new CompactSerializationProtocol();
+  private final JavaExternalSerializerProtocol javaSerializerProtocol = new JavaExternalSerializerProtocol();
+
+  /**
+   * @return a new instance of the {@link ObjectSerializer} to use by default, according to {@link #MULE_COMPACT_SERIALIZATION}
+   */
+  public static ObjectSerializer createDefaultObjectSerializer() {
+    return getBoolean(MULE_COMPACT_SERIALIZATION) ? new CompactObjectSerializer() : new JavaObjectSerializer();
+  }
+
+  @Override
+  public CompactSerializationProtocol getInternalProtocol() {
+    return compactSerializerProtocol;
+  }
+
+  @Override
+  public SerializationProtocol getExternalProtocol() {
+    return javaSerializerProtocol;
+  }
+
+  @Override
+  public void setMuleContext(MuleContext context) {
+    compactSerializerProtocol.setMuleContext(context);
+    javaSerializerProtocol.setMuleContext(context);
+  }
+}
@@ -0,0 +1,711 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.serialization;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.newSetFromMap;
+import static java.util.Optional.ofNullable;
+import static org.mule.runtime.api.metadata.DataType.BYTE_ARRAY;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.mule.runtime.core.api.util.IOUtils.closeQuietly;
+
+import org.mule.runtime.api.event.EventContext;
+import org.mule.runtime.api.message.Error;
+import org.mule.runtime.api.message.ItemSequenceInfo;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.metadata.CollectionDataType;
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.api.metadata.FunctionDataType;
+import org.mule.runtime.api.metadata.MapDataType;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.api.security.SecurityContext;
+import org.mule.runtime.api.serialization.SerializationException;
+import org.mule.runtime.api.serialization.SerializationProtocol;
+import org.mule.runtime.core.internal.message.InternalEvent;
+import org.mule.runtime.core.internal.message.InternalMessage;
+import org.mule.runtime.core.privileged.event.MuleSession;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.commons.io.input.ClassLoaderObjectInputStream;
+
+/**
+ * Implementation of {@link SerializationProtocol} which writes a compact binary format.
+ * <p>
+ * Each value is written as a one byte tag followed by its data. Strings, numbers, byte arrays, lists and maps, as well as
+ * {@link DataType}, {@link TypedValue}, {@link Message} and {@link InternalEvent} have specialized codecs. Additional classes may
+ * be {@link #registerClass(Class, Codec) registered} along with their codec, in which case they are identified by the index of
+ * their registration instead of their class name. Any other value is written using Java serialization.
+ * <p>
+ * Identity is preserved within the written value: an object found again while writing it (other than strings, numbers and
+ * booleans) is written as a reference to its first occurrence. Cycles are supported through lists and maps only, since the other
+ * values are built once their content is read; any other cycle is rejected with a {@link SerializationException}.
+ * <p>
+ * Objects are written straight to the given {@link OutputStream}, without materializing them in an intermediate byte array
+ * first. Streams written with Java serialization can still be read by this protocol, so that already persisted data remains
+ * readable after switching to it.
+ *
+ * @since 4.4.0
+ */
+public class CompactSerializationProtocol extends AbstractSerializationProtocol {
+
+  private static final byte[] MAGIC = {'M', 'C', 1};
+  private static final int JAVA_STREAM_MAGIC = 0xACED;
+
+  private static final byte NULL = 0;
+  private static final byte STRING = 1;
+  private static final byte INTEGER = 2;
+  private static final byte LONG = 3;
+  private static final byte TRUE = 4;
+  private static final byte FALSE = 5;
+  private static final byte DOUBLE = 6;
+  private static final byte BYTES = 7;
+  private static final byte ARRAY_LIST = 8;
+  private static final byte HASH_MAP = 9;
+  private static final byte LINKED_HASH_MAP = 10;
+  private static final byte DATA_TYPE = 11;
+  private static final byte TYPED_VALUE = 12;
+  private static final byte MESSAGE = 13;
+  private static final byte EVENT = 14;
+  private static final byte REGISTERED = 15;
+  private static final byte JAVA = 16;
+  private static final byte REFERENCE = 17;
+
+  private final SerializationProtocol fallbackProtocol;
+  private final List<Codec<?>> registeredCodecs = new CopyOnWriteArrayList<>();
+  private final Map<Class<?>, Integer> registeredIds = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a new instance which writes the values without a specialized codec with plain Java serialization.
+   */
+  public CompactSerializationProtocol() {
+    this(null);
+  }
+
+  /**
+   * Creates a new instance which writes the values without a specialized codec with the given {@code fallbackProtocol}. This
+   * allows to keep the class loader awareness of the protocols used for deployed artifacts.
+   *
+   * @param fallbackProtocol the protocol to use for values without a specialized codec. If {@code null}, plain Java
+   *                         serialization is used.
+   */
+  public CompactSerializationProtocol(SerializationProtocol fallbackProtocol) {
+    this.fallbackProtocol = fallbackProtocol;
+  }
+
+  /**
+   * Writes and reads the instances of a {@link #registerClass(Class, Codec) registered} class.
+   *
+   * @param <T> the type of the values handled by this codec
+   */
+  public interface Codec<T> {
+
+    /**
+     * Writes the given {@code value}.
+     *
+     * @param value a non null value
+     * @param out   where to write the value
+     */
+    void write(T value, CompactOutput out) throws IOException;
+
+    /**
+     * Reads a value previously written by {@link #write(Object, CompactOutput)}.
+     *
+     * @param in where to read the value from
+     * @return the read value
+     */
+    T read(CompactInput in) throws IOException;
+  }
+
+  /**
+   * Registers a class which instances are to be written with the given {@code codec}.
+   * <p>
+   * Registered classes are identified by the order of their registration, so the same classes must be registered in the same
+   * order by the protocol which writes a value and the one which reads it.
+   *
+   * @param type  the class to register. Subclasses are not handled by the {@code codec}
+   * @param codec the codec for the instances of {@code type}
+   * @throws IllegalArgumentException if {@code type} was already registered
+   */
+  public synchronized <T> void registerClass(Class<T> type, Codec<? super T> codec) {
+    checkArgument(!registeredIds.containsKey(type), format("Class '%s' is already registered", type.getName()));
+    registeredCodecs.add(codec);
+    registeredIds.put(type, registeredCodecs.size() - 1);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected byte[] doSerialize(Object object) throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    CompactOutput out = new CompactOutput(bytes);
+    out.write(MAGIC);
+    out.writeValue(object);
+    out.flush();
+    return bytes.toByteArray();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void serialize(Object object, OutputStream out) throws SerializationException {
+    try {
+      CompactOutput compactOut = new CompactOutput(new BufferedOutputStream(out));
+      compactOut.write(MAGIC);
+      compactOut.writeValue(object);
+      compactOut.flush();
+    } catch (SerializationException e) {
+      throw e;
+    } catch (IOException e) {
+      throw new SerializationException("Could not write to output stream", e);
+    } catch (Exception e) {
+      throw new SerializationException("Could not serialize object", e);
+    } finally {
+      closeQuietly(out);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected <T> T doDeserialize(InputStream inputStream, ClassLoader classLoader) throws Exception {
+    PushbackInputStream pushbackStream = new PushbackInputStream(inputStream, MAGIC.length);
+    byte[] header = new byte[MAGIC.length];
+    int read = 0;
+    int count;
+    while (read < header.length && (count = pushbackStream.read(header, read, header.length - read)) > 0) {
+      read += count;
+    }
+    pushbackStream.unread(header, 0, read);
+
+    if (read >= 2 && ((header[0] & 0xFF) << 8 | (header[1] & 0xFF)) == JAVA_STREAM_MAGIC) {
+      return (T) readJava(pushbackStream, classLoader);
+    }
+
+    for (int i = 0; i < MAGIC.length; ++i) {
+      if (read <= i || header[i] != MAGIC[i]) {
+        throw new SerializationException("Stream was not written with the compact serialization protocol");
+      }
+    }
+    pushbackStream.skip(MAGIC.length);
+
+    return (T) new CompactInput(pushbackStream, classLoader).readValue();
+  }
+
+  private void encode(Object value, CompactOutput out) throws IOException {
+    if (value == null) {
+      out.writeByte(NULL);
+      return;
+    }
+
+    if (value instanceof String) {
+      out.writeByte(STRING);
+      out.writeString((String) value);
+      return;
+    } else if (value instanceof Integer) {
+      out.writeByte(INTEGER);
+      out.writeVarLong(zigZag((Integer) value));
+      return;
+    } else if (value instanceof Long) {
+      out.writeByte(LONG);
+      out.writeVarLong(zigZag((Long) value));
+      return;
+    } else if (value instanceof Boolean) {
+      out.writeByte((Boolean) value ? TRUE : FALSE);
+      return;
+    } else if (value instanceof Double) {
+      out.writeByte(DOUBLE);
+      out.writeDouble((Double) value);
+      return;
+    }
+
+    Integer reference = out.references.get(value);
+    if (reference != null) {
+      out.writeByte(REFERENCE);
+      out.writeVarInt(reference);
+      return;
+    }
+
+    Integer registeredId = registeredIds.get(value.getClass());
+    if (registeredId == null && value.getClass() == ArrayList.class) {
+      out.writeByte(ARRAY_LIST);
+      out.addReference(value);
+      writeList((List<?>) value, out);
+    } else if (registeredId == null && value.getClass() == HashMap.class) {
+      out.writeByte(HASH_MAP);
+      out.addReference(value);
+      writeMap((Map<?, ?>) value, out);
+    } else if (registeredId == null && value.getClass() == LinkedHashMap.class) {
+      out.writeByte(LINKED_HASH_MAP);
+      out.addReference(value);
+      writeMap((Map<?, ?>) value, out);
+    } else {
+      // the reader builds these values once their content is read, so a reference to them can only follow them
+      if (!out.inProgress.add(value)) {
+        throw new SerializationException(format("Cyclic reference to an instance of '%s', only lists and maps may be cyclic",
+                                                value.getClass().getName()));
+      }
+      encodeValue(value, registeredId, out);
+      out.inProgress.remove(value);
+      out.addReference(value);
+    }
+  }
+
+  private void encodeValue(Object value, Integer registeredId, CompactOutput out) throws IOException {
+    if (registeredId != null) {
+      out.writeByte(REGISTERED);
+      out.writeVarInt(registeredId);
+      ((Codec<Object>) registeredCodecs.get(registeredId)).write(value, out);
+    } else if (value instanceof byte[]) {
+      out.writeByte(BYTES);
+      out.writeBytes((byte[]) value);
+    } else if (value instanceof DataType && isSimpleDataType((DataType) value)) {
+      out.writeByte(DATA_TYPE);
+      writeDataType((DataType) value, out);
+    } else if (value instanceof TypedValue) {
+      out.writeByte(TYPED_VALUE);
+      writeTypedValue((TypedValue<?>) value, out);
+    } else if (value instanceof Message && isPlainMessage((Message) value)) {
+      out.writeByte(MESSAGE);
+      writeMessage((Message) value, out);
+    } else if (value instanceof InternalEvent) {
+      out.writeByte(EVENT);
+      writeEvent((InternalEvent) value, out);
+    } else {
+      // this includes cursor stream providers, which are written as Java serialization does so that they are not read back as
+      // a different type
+      out.writeByte(JAVA);
+      writeJava(value, out);
+    }
+  }
+
+  private Object decode(CompactInput in) throws IOException {
+    byte tag = in.readByte();
+    switch (tag) {
+      case NULL:
+        return null;
+      case STRING:
+        return in.readString();
+      case INTEGER:
+        return (int) unZigZag(in.readVarLong());
+      case LONG:
+        return unZigZag(in.readVarLong());
+      case TRUE:
+        return true;
+      case FALSE:
+        return false;
+      case DOUBLE:
+        return in.readDouble();
+      case ARRAY_LIST:
+        return readList(in);
+      case HASH_MAP:
+        return readMap(in.addReference(new HashMap<>()), in);
+      case LINKED_HASH_MAP:
+        return readMap(in.addReference(new LinkedHashMap<>()), in);
+      case REFERENCE:
+        return in.getReference(in.readVarInt());
+      default:
+        return in.addReference(decodeValue(tag, in));
+    }
+  }
+
+  private Object decodeValue(byte tag, CompactInput in) throws IOException {
+    switch (tag) {
+      case BYTES:
+        return in.readBytes();
+      case DATA_TYPE:
+        return readDataType(in);
+      case TYPED_VALUE:
+        return readTypedValue(in);
+      case MESSAGE:
+        return readMessage(in);
+      case EVENT:
+        return readEvent(in);
+      case REGISTERED:
+        int id = in.readVarInt();
+        if (id >= registeredCodecs.size()) {
+          throw new SerializationException(format("No class registered with id %d", id));
+        }
+        return registeredCodecs.get(id).read(in);
+      case JAVA:
+        return readJava(new ByteArrayInputStream(in.readBytes()), in.getClassLoader());
+      default:
+        throw new SerializationException(format("Unknown value tag %d", tag));
+    }
+  }
+
+  private void writeList(List<?> list, CompactOutput out) throws IOException {
+    out.writeVarInt(list.size());
+    for (Object item : list) {
+      out.writeValue(item);
+    }
+  }
+
+  private List<Object> readList(CompactInput in) throws IOException {
+    int size = in.readVarInt();
+    List<Object> list = in.addReference(new ArrayList<>(size));
+    for (int i = 0; i < size; ++i) {
+      list.add(in.readValue());
+    }
+    return list;
+  }
+
+  private void writeMap(Map<?, ?> map, CompactOutput out) throws IOException {
+    out.writeVarInt(map.size());
+    for (Map.Entry<?, ?> entry : map.entrySet()) {
+      out.writeValue(entry.getKey());
+      out.writeValue(entry.getValue());
+    }
+  }
+
+  private Map<Object, Object> readMap(Map<Object, Object> map, CompactInput in) throws IOException {
+    int size = in.readVarInt();
+    for (int i = 0; i < size; ++i) {
+      map.put(in.readValue(), in.readValue());
+    }
+    return map;
+  }
+
+  private boolean isSimpleDataType(DataType dataType) {
+    return !(dataType instanceof CollectionDataType || dataType instanceof MapDataType || dataType instanceof FunctionDataType);
+  }
+
+  private void writeDataType(DataType dataType, CompactOutput out) throws IOException {
+    out.writeString(dataType.getType().getName());
+    out.writeString(dataType.getMediaType().toRfcString());
+  }
+
+  private DataType readDataType(CompactInput in) throws IOException {
+    String typeName = in.readString();
+    String mediaType = in.readString();
+    try {
+      return DataType.builder()
+          .type(org.apache.commons.lang3.ClassUtils.getClass(in.getClassLoader(), typeName))
+          .mediaType(mediaType)
+          .build();
+    } catch (ClassNotFoundException e) {
+      throw new SerializationException(format("Could not load class '%s' of serialized DataType", typeName), e);
+    }
+  }
+
+  private void writeTypedValue(TypedValue<?> typedValue, CompactOutput out) throws IOException {
+    out.writeValue(typedValue.getValue());
+    out.writeValue(typedValue.getDataType());
+    out.writeVarLong(typedValue.getByteLength().isPresent() ? typedValue.getByteLength().getAsLong() + 1 : 0);
+  }
+
+  private TypedValue<?> readTypedValue(CompactInput in) throws IOException {
+    Object value = in.readValue();
+    DataType dataType = (DataType) in.readValue();
+    long length = in.readVarLong();
+    return new TypedValue<>(value, dataType, length == 0 ? OptionalLong.empty() : OptionalLong.of(length - 1));
+  }
+
+  private boolean isPlainMessage(Message message) {
+    if (message instanceof InternalMessage) {
+      InternalMessage internalMessage = (InternalMessage) message;
+      return internalMessage.getInboundPropertyNames().isEmpty()
+          && internalMessage.getOutboundPropertyNames().isEmpty()
+          && internalMessage.getInboundAttachmentNames().isEmpty()
+          && internalMessage.getOutboundAttachmentNames().isEmpty()
+          && internalMessage.getExceptionPayload() == null;
+    }
+    return true;
+  }
+
+  private void writeMessage(Message message, CompactOutput out) throws IOException {
+    writeTypedValue(getSerializablePayload(message), out);
+    writeTypedValue(message.getAttributes(), out);
+  }
+
+  /**
+   * As with Java serialization of messages, a payload which is not {@link Serializable} (such as a stream) is written as its
+   * byte array representation.
+   */
+  private TypedValue<?> getSerializablePayload(Message message) throws SerializationException {
+    TypedValue<?> payload = message.getPayload();
+    Object value = payload.getValue();
+    if (value == null || value instanceof Serializable) {
+      return payload;
+    }
+
+    if (muleContext == null) {
+      throw new SerializationException(format("Was expecting a Serializable payload. %s was found instead",
+                                              value.getClass().getName()));
+    }
+    byte[] bytes = (byte[]) muleContext.getTransformationService().transform(message, BYTE_ARRAY).getPayload().getValue();
+    return new TypedValue<>(bytes, DataType.builder(BYTE_ARRAY).mediaType(payload.getDataType().getMediaType()).build());
+  }
+
+  private Message readMessage(CompactInput in) throws IOException {
+    return Message.builder()
+        .payload(readTypedValue(in))
+        .attributes(readTypedValue(in))
+        .build();
+  }
+
+  private void writeEvent(InternalEvent event, CompactOutput out) throws IOException {
+    out.writeValue(event.getContext());
+    out.writeValue(event.getMessage());
+
+    Map<String, TypedValue<?>> variables = event.getVariables();
+    out.writeVarInt(variables.size());
+    for (Map.Entry<String, TypedValue<?>> variable : variables.entrySet()) {
+      out.writeString(variable.getKey());
+      writeTypedValue(variable.getValue(), out);
+    }
+
+    out.writeValue(event.getSession());
+    out.writeValue(event.getSecurityContext());
+    out.writeValue(event.getError().orElse(null));
+    out.writeValue(event.getItemSequenceInfo().orElse(null));
+    out.writeValue(event.getLegacyCorrelationId());
+    out.writeBoolean(event.isNotificationsEnabled());
+  }
+
+  private InternalEvent readEvent(CompactInput in) throws IOException {
+    InternalEvent.Builder builder = InternalEvent.builder((EventContext) in.readValue());
+    builder.message((Message) in.readValue());
+
+    int variables = in.readVarInt();
+    for (int i = 0; i < variables; ++i) {
+      String name = in.readString();
+      TypedValue<?> value = readTypedValue(in);
+      builder.addVariable(name, value.getValue(), value.getDataType());
+    }
+
+    builder.session((MuleSession) in.readValue());
+    builder.securityContext((SecurityContext) in.readValue());
+    builder.error((Error) in.readValue());
+    builder.itemSequenceInfo(ofNullable((ItemSequenceInfo) in.readValue()));
+    String legacyCorrelationId = (String) in.readValue();
+    if (legacyCorrelationId != null) {
+      builder.correlationId(legacyCorrelationId);
+    }
+    if (!in.readBoolean()) {
+      builder.disableNotifications();
+    }
+
+    return builder.build();
+  }
+
+  private void writeJava(Object value, CompactOutput out) throws IOException {
+    if (fallbackProtocol != null) {
+      out.writeBytes(fallbackProtocol.serialize(value));
+      return;
+    }
+
+    if (!(value instanceof Serializable)) {
+      throw new SerializationException(format("Was expecting a Serializable type. %s was found instead",
+                                              value.getClass().getName()));
+    }
+    out.writeBytes(org.apache.commons.lang3.SerializationUtils.serialize((Serializable) value));
+  }
+
+  private Object readJava(InputStream inputStream, ClassLoader classLoader) throws IOException {
+    if (fallbackProtocol != null) {
+      return fallbackProtocol.deserialize(inputStream, classLoader);
+    }
+
+    // post initialization is left to the base class, which only applies it to the deserialized root object
+    try (ObjectInputStream in = new ClassLoaderObjectInputStream(classLoader, inputStream)) {
+      return in.readObject();
+    } catch (ClassNotFoundException e) {
+      throw new SerializationException("Could not deserialize object", e);
+    }
+  }
+
+  private static long zigZag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  private static long unZigZag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  /**
+   * The stream on which values are written by this protocol and its {@link Codec codecs}.
+   */
+  public final class CompactOutput extends DataOutputStream {
+
+    private final Map<Object, Integer> references = new IdentityHashMap<>();
+    private final Set<Object> inProgress = newSetFromMap(new IdentityHashMap<>());
+
+    private CompactOutput(OutputStream out) {
+      super(out);
+    }
+
+    private void addReference(Object value) {
+      references.put(value, references.size());
+    }
+
+    /**
+     * Writes any value supported by the protocol, including {@code null}.
+     *
+     * @param value the value to write
+     */
+    public void writeValue(Object value) throws IOException {
+      encode(value, this);
+    }
+
+    /**
+     * Writes a non negative int using as few bytes as possible.
+     *
+     * @param value the value to write
+     */
+    public void writeVarInt(int value) throws IOException {
+      writeVarLong(value & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Writes a non negative long using as few bytes as possible.
+     *
+     * @param value the value to write
+     */
+    public void writeVarLong(long value) throws IOException {
+      while ((value & ~0x7FL) != 0) {
+        writeByte((int) ((value & 0x7F) | 0x80));
+        value >>>= 7;
+      }
+      writeByte((int) value);
+    }
+
+    /**
+     * Writes a non null {@link String} as UTF-8, preceded by its length in bytes.
+     *
+     * @param value the value to write
+     */
+    public void writeString(String value) throws IOException {
+      writeBytes(value.getBytes(UTF_8));
+    }
+
+    /**
+     * Writes a non null byte array preceded by its length.
+     *
+     * @param value the value to write
+     */
+    public void writeBytes(byte[] value) throws IOException {
+      writeVarInt(value.length);
+      write(value);
+    }
+  }
+
+  /**
+   * The stream from which values are read by this protocol and its {@link Codec codecs}.
+   */
+  public final class CompactInput extends DataInputStream {
+
+    private final ClassLoader classLoader;
+    private final List<Object> references = new ArrayList<>();
+
+    private CompactInput(InputStream in, ClassLoader classLoader) {
+      super(in);
+      this.classLoader = classLoader;
+    }
+
+    private <T> T addReference(T value) {
+      references.add(value);
+      return value;
+    }
+
+    private Object getReference(int id) throws SerializationException {
+      if (id >= references.size()) {
+        throw new SerializationException(format("Reference to value %d found before the value itself", id));
+      }
+      return references.get(id);
+    }
+
+    /**
+     * @return the {@link ClassLoader} with which to load the classes of the values being read
+     */
+    public ClassLoader getClassLoader() {
+      return classLoader;
+    }
+
+    /**
+     * Reads a value written with {@link CompactOutput#writeValue(Object)}.
+     *
+     * @return the read value
+     */
+    public Object readValue() throws IOException {
+      return decode(this);
+    }
+
+    /**
+     * Reads an int written with {@link CompactOutput#writeVarInt(int)}.
+     *
+     * @return the read value
+     */
+    public int readVarInt() throws IOException {
+      return (int) readVarLong();
+    }
+
+    /**
+     * Reads a long written with {@link CompactOutput#writeVarLong(long)}.
+     *
+     * @return the read value
+     */
+    public long readVarLong() throws IOException {
+      long value = 0;
+      int shift = 0;
+      byte b;
+      do {
+        if (shift >= 64) {
+          throw new SerializationException("Malformed variable length number");
+        }
+        b = readByte();
+        value |= (long) (b & 0x7F) << shift;
+        shift += 7;
+      } while ((b & 0x80) != 0);
+      return value;
+    }
+
+    /**
+     * Reads a {@link String} written with {@link CompactOutput#writeString(String)}.
+     *
+     * @return the read value
+     */
+    public String readString() throws IOException {
+      return new String(readBytes(), UTF_8);
+    }
+
+    /**
+     * Reads a byte array written with {@link CompactOutput#writeBytes(byte[])}.
+     *
+     * @return the read value
+     */
+    public byte[] readBytes() throws IOException {
+      byte[] bytes = new byte[readVarInt()];
+      readFully(bytes);
+      return bytes;
+    }
+  }
+}
@@ -6,7 +6,8 @@
  */
 package org.mule.runtime.core.internal.store;
 
-import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.lang.Math.max;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
 import org.mule.runtime.api.store.ObjectAlreadyExistsException;
 import org.mule.runtime.api.store.ObjectDoesNotExistException;
@@ -23,6 +24,7 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,7 +35,7 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
   private static final Logger LOGGER = LoggerFactory.getLogger(PartitionedInMemoryObjectStore.class);
 
   private ConcurrentMap<String, ConcurrentMap<String, T>> partitions = new ConcurrentHashMap<>();
-  private ConcurrentMap<String, ConcurrentLinkedQueue<ExpiryEntry>> expiryInfoPartition = new ConcurrentHashMap<>();
+  private ConcurrentMap<String, ExpiryIndex> expiryInfoPartition = new ConcurrentHashMap<>();
 
   @Override
   public boolean isPersistent() {
@@ -55,7 +57,7 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
     if (oldValue != null) {
       throw new ObjectAlreadyExistsException();
     }
-    getExpiryInfoPartition(partitionName).add(new ExpiryEntry(getCurrentNanoTime(), key));
+    getExpiryInfoPartition(partitionName).add(key, getCurrentNanoTime());
   }
 
   @Override
@@ -74,15 +76,7 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
       throw new ObjectDoesNotExistException();
     }
 
-    Iterator<ExpiryEntry> iterator = getExpiryInfoPartition(partitionName).iterator();
-    while (iterator.hasNext()) {
-      ExpiryEntry entry = iterator.next();
-      if (key.equals(entry.getKey())) {
-        iterator.remove();
-        break;
-      }
-    }
-
+    getExpiryInfoPartition(partitionName).remove(key);
     return removedValue;
   }
 
@@ -119,11 +113,11 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
     return partition;
   }
 
-  private ConcurrentLinkedQueue<ExpiryEntry> getExpiryInfoPartition(String partitionName) {
-    ConcurrentLinkedQueue<ExpiryEntry> partition = expiryInfoPartition.get(partitionName);
+  private ExpiryIndex getExpiryInfoPartition(String partitionName) {
+    ExpiryIndex partition = expiryInfoPartition.get(partitionName);
     if (partition == null) {
-      partition = new ConcurrentLinkedQueue<>();
-      ConcurrentLinkedQueue<ExpiryEntry> previous = expiryInfoPartition.putIfAbsent(partitionName, partition);
+      partition = new ExpiryIndex();
+      ExpiryIndex previous = expiryInfoPartition.putIfAbsent(partitionName, partition);
       if (previous != null) {
         partition = previous;
       }
@@ -151,7 +145,7 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
     final long now = getCurrentNanoTime();
     int expiredEntries = 0;
     ExpiryEntry oldestEntry;
-    ConcurrentLinkedQueue<ExpiryEntry> store = getExpiryInfoPartition(partitionName);
+    ExpiryIndex store = getExpiryInfoPartition(partitionName);
     ConcurrentMap<String, T> partition = getPartition(partitionName);
 
     trimToMaxSize(store, maxEntries, partition);
@@ -160,14 +154,11 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
       return;
     }
 
-    while ((oldestEntry = store.peek()) != null) {
-      if (NANOSECONDS.toMillis(now - oldestEntry.getTime()) >= entryTTL) {
-        oldestEntry = store.remove();
-        partition.remove(oldestEntry.getKey());
-        expiredEntries++;
-      } else {
-        break;
-      }
+    // Entries are indexed in insertion order, so only the expired ones are visited
+    final long ttlNanos = MILLISECONDS.toNanos(entryTTL);
+    while ((oldestEntry = store.pollOldestInsertedBefore(now - ttlNanos)) != null) {
+      partition.remove(oldestEntry.getKey());
+      expiredEntries++;
     }
 
     if (LOGGER.isDebugEnabled()) {
@@ -175,23 +166,20 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
     }
   }
 
-  private void trimToMaxSize(ConcurrentLinkedQueue<ExpiryEntry> store, int maxEntries, ConcurrentMap<String, T> partition) {
+  private void trimToMaxSize(ExpiryIndex store, int maxEntries, ConcurrentMap<String, T> partition) {
     if (maxEntries <= UNBOUNDED) {
       return;
     }
 
-    int currentSize = store.size();
-    int excess = (currentSize - maxEntries);
-    if (excess > 0) {
-      while (currentSize > maxEntries) {
-        ExpiryEntry toRemove = store.remove();
-        partition.remove(toRemove.getKey());
-        currentSize--;
-      }
+    int excess = 0;
+    ExpiryEntry toRemove;
+    while (store.size() > maxEntries && (toRemove = store.pollOldest()) != null) {
+      partition.remove(toRemove.getKey());
+      excess++;
+    }
 
-      if (LOGGER.isDebugEnabled()) {
-        LOGGER.debug("Expired " + excess + " excess entries");
-      }
+    if (excess > 0 && LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Expired " + excess + " excess entries");
     }
   }
 
@@ -202,7 +190,7 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
       partition.clear();
     }
 
-    ConcurrentLinkedQueue<ExpiryEntry> entries = expiryInfoPartition.remove(partitionName);
+    ExpiryIndex entries = expiryInfoPartition.remove(partitionName);
     if (entries != null) {
       entries.clear();
     }
@@ -220,9 +208,9 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
   private static class ExpiryEntry {
 
     private final long time;
-    private final Serializable key;
+    private final String key;
 
-    public ExpiryEntry(long time, Serializable key) {
+    public ExpiryEntry(long time, String key) {
       this.time = time;
       this.key = key;
     }
@@ -231,8 +219,87 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
       return time;
     }
 
-    public Serializable getKey() {
+    public String getKey() {
       return key;
     }
   }
+
+  /**
+   * The entries of a partition in insertion order, which is also their expiration order since all of them have the same TTL.
+   * <p>
+   * Besides the queue, the current entry of each key is kept in a map, so that removing a key and getting the number of entries
+   * do not need to traverse the queue. Entries of removed keys are left in the queue and skipped once they reach its head, unless
+   * they make up most of it.
+   */
+  private static class ExpiryIndex {
+
+    private static final int MIN_STALE_ENTRIES_TO_COMPACT = 64;
+
+    private final ConcurrentLinkedQueue<ExpiryEntry> entries = new ConcurrentLinkedQueue<>();
+    private final ConcurrentMap<String, ExpiryEntry> entriesByKey = new ConcurrentHashMap<>();
+    private final AtomicInteger staleEntries = new AtomicInteger();
+
+    private void add(String key, long time) {
+      ExpiryEntry entry = new ExpiryEntry(time, key);
+      if (entriesByKey.put(key, entry) != null) {
+        staleEntries.incrementAndGet();
+      }
+      entries.add(entry);
+    }
+
+    private void remove(String key) {
+      if (entriesByKey.remove(key) != null && staleEntries.incrementAndGet() > max(MIN_STALE_ENTRIES_TO_COMPACT, size())) {
+        compact();
+      }
+    }
+
+    private int size() {
+      return entriesByKey.size();
+    }
+
+    private ExpiryEntry pollOldest() {
+      return pollOldestInsertedBefore(Long.MAX_VALUE);
+    }
+
+    /**
+     * Removes the oldest entry if it was inserted before {@code time}.
+     *
+     * @return the removed entry, or {@code null} if there was none old enough
+     */
+    private ExpiryEntry pollOldestInsertedBefore(long time) {
+      ExpiryEntry entry;
+      while ((entry = entries.peek()) != null) {
+        boolean live = entriesByKey.get(entry.getKey()) == entry;
+        if (live && entry.getTime() > time) {
+          return null;
+        }
+        if (!entries.remove(entry)) {
+          // Polled concurrently
+          continue;
+        }
+        if (live && entriesByKey.remove(entry.getKey(), entry)) {
+          return entry;
+        }
+        staleEntries.decrementAndGet();
+      }
+      return null;
+    }
+
+    private synchronized void compact() {
+      Iterator<ExpiryEntry> iterator = entries.iterator();
+      while (iterator.hasNext()) {
+        ExpiryEntry entry = iterator.next();
+        if (entriesByKey.get(entry.getKey()) != entry) {
+          iterator.remove();
+          staleEntries.decrementAndGet();
+        }
+      }
+    }
+
+    private void clear() {
+      entriesByKey.clear();
+      entries.clear();
+      staleEntries.set(0);
+    }
+  }
 }
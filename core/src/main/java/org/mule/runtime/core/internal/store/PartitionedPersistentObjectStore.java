@@ -6,10 +6,15 @@
  */
 package org.mule.runtime.core.internal.store;
 
+import static java.lang.Boolean.getBoolean;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import org.mule.runtime.api.exception.MuleRuntimeException;
 import org.mule.runtime.api.i18n.I18nMessage;
+import org.mule.runtime.api.lifecycle.Disposable;
+import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.api.store.ObjectStoreException;
 import org.mule.runtime.api.store.PartitionableExpirableObjectStore;
 import org.mule.runtime.core.api.MuleContext;
@@ -18,6 +23,8 @@ import org.mule.runtime.core.api.config.i18n.CoreMessages;
 import org.mule.runtime.core.api.context.MuleContextAware;
 import org.mule.runtime.core.api.util.FileUtils;
 import org.mule.runtime.core.api.util.UUID;
+import org.mule.runtime.core.internal.util.store.ConcurrentPersistentObjectStorePartition;
+import org.mule.runtime.core.internal.util.store.LogStructuredObjectStorePartition;
 import org.mule.runtime.core.internal.util.store.PersistentObjectStorePartition;
 
 import java.io.File;
@@ -31,15 +38,34 @@ import java.util.Map;
 import org.slf4j.Logger;
 
 public class PartitionedPersistentObjectStore<T extends Serializable> extends AbstractPartitionableObjectStore<T>
-    implements PartitionableExpirableObjectStore<T>, InternalComponent, MuleContextAware {
+    implements PartitionableExpirableObjectStore<T>, InternalComponent, MuleContextAware, Disposable {
 
   private static final Logger LOGGER = getLogger(PartitionedPersistentObjectStore.class);
   public static final String OBJECT_STORE_DIR = "objectstore";
 
+  /**
+   * System property to store the partitions in append-only segment files ({@link LogStructuredObjectStorePartition}) instead
+   * of using a file per entry. Existing partitions are migrated to the new format when loaded.
+   *
+   * @since 4.4.0
+   */
+  public static final String MULE_OBJECT_STORE_LOG_STRUCTURED = SYSTEM_PROPERTY_PREFIX + "objectStore.persistent.logStructured";
+
+  /**
+   * System property to allow concurrent access to the file per entry partitions
+   * ({@link ConcurrentPersistentObjectStorePartition}). Has no effect if {@link #MULE_OBJECT_STORE_LOG_STRUCTURED} is set.
+   *
+   * @since 4.4.0
+   */
+  public static final String MULE_OBJECT_STORE_CONCURRENT = SYSTEM_PROPERTY_PREFIX + "objectStore.persistent.concurrent";
+
   protected MuleContext muleContext;
   private File storeDirectory;
   private Map<String, PersistentObjectStorePartition> partitionsByName = new HashMap<>();
   private boolean initialized = false;
+  private final boolean logStructured = getBoolean(MULE_OBJECT_STORE_LOG_STRUCTURED);
+  private final boolean concurrent = getBoolean(MULE_OBJECT_STORE_CONCURRENT);
+  private Scheduler compactionScheduler;
 
   public PartitionedPersistentObjectStore() {
     super();
@@ -82,12 +108,47 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
   public void close(String partitionName) throws ObjectStoreException {}
 
   private void createPartition(String partitionName) throws ObjectStoreException {
-    PersistentObjectStorePartition persistentObjectStorePartition =
-        new PersistentObjectStorePartition(muleContext, partitionName, getNewPartitionDirectory(partitionName));
+    PersistentObjectStorePartition persistentObjectStorePartition;
+    if (isLogStructured()) {
+      persistentObjectStorePartition = new LogStructuredObjectStorePartition(muleContext, partitionName,
+                                                                             getNewPartitionDirectory(partitionName),
+                                                                             getCompactionScheduler());
+    } else if (concurrent) {
+      persistentObjectStorePartition =
+          new ConcurrentPersistentObjectStorePartition(muleContext, partitionName, getNewPartitionDirectory(partitionName));
+    } else {
+      persistentObjectStorePartition =
+          new PersistentObjectStorePartition(muleContext, partitionName, getNewPartitionDirectory(partitionName));
+    }
     persistentObjectStorePartition.open();
     partitionsByName.putIfAbsent(partitionName, persistentObjectStorePartition);
   }
 
+  private PersistentObjectStorePartition restorePartition(File partitionDirectory) throws ObjectStoreException {
+    if (isLogStructured()) {
+      return new LogStructuredObjectStorePartition(muleContext, partitionDirectory, getCompactionScheduler());
+    } else if (concurrent) {
+      return new ConcurrentPersistentObjectStorePartition(muleContext, partitionDirectory);
+    } else {
+      return new PersistentObjectStorePartition(muleContext, partitionDirectory);
+    }
+  }
+
+  /**
+   * @return whether the partitions of this store are {@link LogStructuredObjectStorePartition}s.
+   */
+  protected boolean isLogStructured() {
+    return logStructured;
+  }
+
+  private synchronized Scheduler getCompactionScheduler() {
+    if (compactionScheduler == null) {
+      compactionScheduler = muleContext.getSchedulerService()
+          .customScheduler(muleContext.getSchedulerBaseConfig().withName("ObjectStore-Compactor").withMaxConcurrentTasks(1));
+    }
+    return compactionScheduler;
+  }
+
   private File getNewPartitionDirectory(String partitionName) {
     return new File(storeDirectory, getPartitionDirectoryName(partitionName));
   }
@@ -191,8 +252,7 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
     }
     for (File partitionDirectory : directories) {
       try {
-        PersistentObjectStorePartition persistentObjectStorePartition =
-            new PersistentObjectStorePartition(muleContext, partitionDirectory);
+        PersistentObjectStorePartition persistentObjectStorePartition = restorePartition(partitionDirectory);
         persistentObjectStorePartition.open();
         partitionsByName.putIfAbsent(persistentObjectStorePartition.getPartitionName(), persistentObjectStorePartition);
       } catch (Exception e) {
@@ -201,6 +261,15 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
     }
   }
 
+  @Override
+  public synchronized void dispose() {
+    partitionsByName.values().forEach(partition -> disposeIfNeeded(partition, LOGGER));
+    if (compactionScheduler != null) {
+      compactionScheduler.stop();
+      compactionScheduler = null;
+    }
+  }
+
   @Override
   public void setMuleContext(MuleContext context) {
     muleContext = context;
@@ -79,6 +79,15 @@ public class SharedPartitionedPersistentObjectStore<T extends Serializable> exte
     return new PersistentObjectStorePartition<>(muleContext, partitionName, partitionObjectStore.getPartitionDirectory());
   }
 
+  /**
+   * Partitions are accessed through a new {@link PersistentObjectStorePartition} on each operation, so the file per entry
+   * format is always used.
+   */
+  @Override
+  protected boolean isLogStructured() {
+    return false;
+  }
+
   @Override
   public void open() throws ObjectStoreException {
     lock.lock();
@@ -6,9 +6,11 @@
  */
 package org.mule.runtime.core.internal.streaming.bytes;
 
+import static java.lang.Math.min;
 import static java.lang.Thread.currentThread;
 import static java.lang.Thread.interrupted;
 import static org.mule.runtime.api.util.Preconditions.checkState;
+import static org.mule.runtime.core.internal.streaming.bytes.ByteStreamingConstants.DEFAULT_BUFFER_BUCKET_SIZE;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
@@ -96,6 +98,10 @@ public abstract class AbstractInputStreamBuffer extends AbstractStreamingBuffer
   protected abstract ByteBuffer doGet(long position, int length);
 
   protected int consumeStream(ByteBuffer buffer) throws IOException {
+    if (!buffer.hasArray()) {
+      return consumeStreamIntoDirectBuffer(buffer);
+    }
+
     final byte[] dest = buffer.array();
 
     int totalRead = 0;
@@ -150,5 +156,33 @@ public abstract class AbstractInputStreamBuffer extends AbstractStreamingBuffer
     return totalRead;
   }
 
+  /**
+   * Buffers which are not backed by an array (such as the direct ones) are filled by reading into an intermediate heap chunk.
+   */
+  private int consumeStreamIntoDirectBuffer(ByteBuffer buffer) throws IOException {
+    final byte[] chunk = new byte[min(buffer.remaining(), DEFAULT_BUFFER_BUCKET_SIZE)];
+    final ByteBuffer heapBuffer = ByteBuffer.wrap(chunk);
+
+    int totalRead = 0;
+    while (buffer.hasRemaining()) {
+      heapBuffer.clear();
+      heapBuffer.limit(min(chunk.length, buffer.remaining()));
+      int read = consumeStream(heapBuffer);
+      if (read == -1) {
+        return totalRead == 0 ? -1 : totalRead;
+      } else if (read == 0) {
+        break;
+      }
+
+      buffer.put(chunk, 0, read);
+      totalRead += read;
+      if (stream.available() < 1) {
+        break;
+      }
+    }
+
+    return totalRead;
+  }
+
   protected abstract ByteBuffer copy(long position, int length);
 }
@@ -9,9 +9,11 @@ package org.mule.runtime.core.internal.streaming.bytes;
 import static java.lang.Integer.getInteger;
 import static java.lang.System.getProperty;
 import static org.mule.runtime.api.util.DataUnit.KB;
+import static org.mule.runtime.api.util.DataUnit.MB;
 import static org.mule.runtime.api.util.MuleSystemProperties.MULE_STREAMING_BUCKET_SIZE;
 import static org.mule.runtime.api.util.MuleSystemProperties.MULE_STREAMING_MAX_BUFFER_POOL_SIZE;
 import static org.mule.runtime.api.util.MuleSystemProperties.MULE_STREAMING_MAX_HEAP_PERCENTAGE;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
 
 /**
  * Constants around byte streaming
@@ -39,6 +41,28 @@ public final class ByteStreamingConstants {
    */
   public static final int DEFAULT_BUFFER_POOL_SIZE = getInteger(MULE_STREAMING_MAX_BUFFER_POOL_SIZE, 2048);
 
+  /**
+   * System property to set the max amount of off-heap memory (in bytes) that can be devoted to repeatable streaming buffers
+   * when using {@link DirectByteBufferManager}
+   *
+   * @since 4.4.0
+   */
+  public static final String MULE_STREAMING_MAX_DIRECT_MEMORY = SYSTEM_PROPERTY_PREFIX + "streaming.maxDirectMemory";
+
+  /**
+   * System property to set the size of the off-heap slabs from which {@link DirectByteBufferManager} carves its buffers
+   *
+   * @since 4.4.0
+   */
+  public static final String MULE_STREAMING_DIRECT_SLAB_SIZE = SYSTEM_PROPERTY_PREFIX + "streaming.directSlabSize";
+
+  /**
+   * The default size of the off-heap slabs from which {@link DirectByteBufferManager} carves its buffers
+   *
+   * @since 4.4.0
+   */
+  public static final int DEFAULT_DIRECT_SLAB_SIZE = getInteger(MULE_STREAMING_DIRECT_SLAB_SIZE, MB.toBytes(4));
+
   private static double getMaxStreamingMemoryPercentage() {
     String v = getProperty(MULE_STREAMING_MAX_HEAP_PERCENTAGE);
     return v != null ? Double.valueOf(v) : 0.7;
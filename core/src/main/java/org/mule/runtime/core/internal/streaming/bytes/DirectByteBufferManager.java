@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.lang.Integer.highestOneBit;
+import static java.lang.Integer.numberOfLeadingZeros;
+import static java.lang.Integer.numberOfTrailingZeros;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.String.format;
+import static java.lang.System.getProperty;
+import static java.nio.ByteBuffer.allocateDirect;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.internal.streaming.bytes.ByteStreamingConstants.DEFAULT_DIRECT_SLAB_SIZE;
+import static org.mule.runtime.core.internal.streaming.bytes.ByteStreamingConstants.MULE_STREAMING_MAX_DIRECT_MEMORY;
+
+import org.mule.runtime.api.lifecycle.Disposable;
+import org.mule.runtime.core.api.streaming.bytes.ManagedByteBufferWrapper;
+import org.mule.runtime.core.api.util.func.CheckedConsumer;
+import org.mule.runtime.core.internal.streaming.DefaultMemoryManager;
+import org.mule.runtime.core.internal.streaming.MemoryManager;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link MemoryBoundByteBufferManager} implementation which keeps the buffers off-heap, so that large buffered payloads don't
+ * add to the garbage collector's work.
+ * <p>
+ * Direct memory is reserved in slabs, which are carved into chunks of a power of two size. Each size has its own free list, so
+ * released chunks are reused by later allocations of the same size class instead of being reclaimed. Buffers larger than a slab
+ * get a dedicated direct buffer which is dropped once released. Releasing a buffer more than once has no effect, so a chunk
+ * never makes it twice into its free list.
+ * <p>
+ * The off-heap memory has its own cap, set through {@link ByteStreamingConstants#MULE_STREAMING_MAX_DIRECT_MEMORY} and defaulting
+ * to the same value as the heap streaming memory cap. Memory held by the free list of a size class counts towards the cap and is
+ * only available to buffers of that size class.
+ * <p>
+ * The deprecated {@link #allocate(int)} keeps returning heap buffers, since its callers may rely on {@link ByteBuffer#array()}.
+ *
+ * @since 4.4.0
+ */
+public class DirectByteBufferManager extends MemoryBoundByteBufferManager implements Disposable {
+
+  private static final int MIN_CHUNK_SIZE = 64;
+
+  private final AtomicLong directMemory = new AtomicLong(0);
+  private final long maxDirectMemory;
+  private final int slabSize;
+  private final SizeClass[] sizeClasses;
+
+  /**
+   * Creates a new instance
+   */
+  public DirectByteBufferManager() {
+    this(new DefaultMemoryManager(), DEFAULT_DIRECT_SLAB_SIZE);
+  }
+
+  /**
+   * Creates a new instance
+   *
+   * @param memoryManager the {@link MemoryManager} through which heap status is obtained
+   * @param slabSize the size of the off-heap slabs from which the buffers are carved
+   */
+  public DirectByteBufferManager(MemoryManager memoryManager, int slabSize) {
+    super(memoryManager);
+    this.maxDirectMemory = calculateMaxDirectMemory();
+    this.slabSize = max(highestOneBit(slabSize), MIN_CHUNK_SIZE);
+    this.sizeClasses = new SizeClass[numberOfTrailingZeros(this.slabSize) + 1];
+    for (int i = 0; i < sizeClasses.length; i++) {
+      sizeClasses[i] = new SizeClass(1 << i);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public ManagedByteBufferWrapper allocateManaged(int capacity) {
+    int chunkSize = max(MIN_CHUNK_SIZE, capacity);
+    if (chunkSize > slabSize) {
+      reserve(capacity);
+      final ByteBuffer buffer;
+      try {
+        buffer = allocateDirect(capacity);
+      } catch (OutOfMemoryError e) {
+        directMemory.addAndGet(-capacity);
+        throw maxDirectMemoryExceeded();
+      }
+      return new ManagedByteBufferWrapper(buffer, releaseOnce(() -> directMemory.addAndGet(-capacity)));
+    }
+
+    final SizeClass sizeClass = sizeClasses[32 - numberOfLeadingZeros(chunkSize - 1)];
+    final ByteBuffer chunk = sizeClass.take();
+
+    // the returned buffer must have exactly the requested capacity, not the one of the size class
+    ByteBuffer buffer = chunk.duplicate();
+    buffer.limit(capacity);
+    return new ManagedByteBufferWrapper(buffer.slice(), releaseOnce(() -> sizeClass.restore(chunk)));
+  }
+
+  private static CheckedConsumer<ManagedByteBufferWrapper> releaseOnce(Runnable releaseAction) {
+    final AtomicBoolean released = new AtomicBoolean(false);
+    return b -> {
+      if (released.compareAndSet(false, true)) {
+        releaseAction.run();
+      }
+    };
+  }
+
+  /**
+   * Drops the free chunks. The off-heap memory is released once the buffers still in use are released and collected.
+   */
+  @Override
+  public void dispose() {
+    for (SizeClass sizeClass : sizeClasses) {
+      sizeClass.clear();
+    }
+  }
+
+  /**
+   * @return the amount of off-heap memory currently reserved, in bytes
+   */
+  long getDirectMemory() {
+    return directMemory.get();
+  }
+
+  private void reserve(long bytes) {
+    if (directMemory.addAndGet(bytes) > maxDirectMemory) {
+      directMemory.addAndGet(-bytes);
+      throw maxDirectMemoryExceeded();
+    }
+  }
+
+  private MaxStreamingMemoryExceededException maxDirectMemoryExceeded() {
+    return new MaxStreamingMemoryExceededException(createStaticMessage(format("Max streaming direct memory limit of %d bytes was exceeded",
+                                                                              maxDirectMemory)));
+  }
+
+  private long calculateMaxDirectMemory() {
+    String maxMemoryProperty = getProperty(MULE_STREAMING_MAX_DIRECT_MEMORY);
+    if (maxMemoryProperty == null) {
+      return getMaxStreamingMemory();
+    }
+
+    try {
+      return Long.valueOf(maxMemoryProperty);
+    } catch (Exception e) {
+      throw new IllegalArgumentException(format("Invalid value for system property '%s'. A memory size (in bytes) was "
+          + "expected, got '%s' instead", MULE_STREAMING_MAX_DIRECT_MEMORY, maxMemoryProperty));
+    }
+  }
+
+  private class SizeClass {
+
+    private final int chunkSize;
+    private final Queue<ByteBuffer> freeChunks = new ConcurrentLinkedQueue<>();
+
+    private ByteBuffer slab;
+    private int slabOffset;
+
+    private SizeClass(int chunkSize) {
+      this.chunkSize = chunkSize;
+    }
+
+    private ByteBuffer take() {
+      ByteBuffer chunk = freeChunks.poll();
+      if (chunk != null) {
+        return chunk;
+      }
+
+      synchronized (this) {
+        if (slab == null || slabOffset + chunkSize > slab.capacity()) {
+          slab = allocateSlab();
+          slabOffset = 0;
+        }
+
+        ByteBuffer view = slab.duplicate();
+        view.position(slabOffset);
+        view.limit(slabOffset + chunkSize);
+        slabOffset += chunkSize;
+        return view.slice();
+      }
+    }
+
+    private ByteBuffer allocateSlab() {
+      // use a smaller slab rather than failing if what's left under the cap can't fit a full one
+      long available = maxDirectMemory - directMemory.get();
+      int size = (int) max(chunkSize, min(slabSize, available - available % chunkSize));
+      reserve(size);
+      try {
+        return allocateDirect(size);
+      } catch (OutOfMemoryError e) {
+        directMemory.addAndGet(-size);
+        throw maxDirectMemoryExceeded();
+      }
+    }
+
+    private void restore(ByteBuffer chunk) {
+      chunk.clear();
+      freeChunks.offer(chunk);
+    }
+
+    private void clear() {
+      freeChunks.clear();
+      synchronized (this) {
+        slab = null;
+      }
+    }
+  }
+}
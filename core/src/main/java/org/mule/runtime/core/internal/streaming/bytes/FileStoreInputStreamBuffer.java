@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.internal.streaming.TempBufferFileUtils.createBufferFile;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
+import org.mule.runtime.core.api.streaming.bytes.ManagedByteBufferWrapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import org.slf4j.Logger;
+
+/**
+ * An implementation of {@link AbstractInputStreamBuffer} which holds the first bytes of the stream in memory and overflows
+ * the rest into a temporary file.
+ * <p>
+ * The in-memory part is made of buckets which are allocated as the stream is consumed, up to the
+ * {@link FileStoreCursorStreamConfig#getMaxInMemorySize()}. Once that is reached, the remaining data is appended to a local
+ * file which is created on demand, and read back through positional reads. That way cursors can freely move across the whole
+ * stream while the memory used by each buffer stays bounded.
+ *
+ * @since 4.4.0
+ */
+public class FileStoreInputStreamBuffer extends AbstractInputStreamBuffer {
+
+  private static final Logger LOGGER = getLogger(FileStoreInputStreamBuffer.class);
+
+  private final int bucketSize;
+  private final long maxInMemorySize;
+  private final ManagedByteBufferWrapper[] buckets;
+
+  private File bufferFile;
+  private FileChannel fileChannel;
+  private ByteBuffer fileWriteBuffer;
+  private long bufferTip = 0;
+
+  /**
+   * Creates a new instance
+   *
+   * @param stream        the stream to be buffered
+   * @param config        this buffer's configuration
+   * @param bufferManager the {@link ByteBufferManager} that will be used to allocate the in-memory buckets
+   */
+  public FileStoreInputStreamBuffer(InputStream stream, FileStoreCursorStreamConfig config, ByteBufferManager bufferManager) {
+    super(stream, bufferManager);
+    bucketSize = config.getBucketSize();
+    buckets = new ManagedByteBufferWrapper[config.getBucketsCount()];
+    maxInMemorySize = (long) bucketSize * buckets.length;
+  }
+
+  @Override
+  protected ByteBuffer doGet(long position, int length) {
+    readLock.lock();
+    try {
+      ByteBuffer presentRead = getFromCurrentData(position, length);
+      if (presentRead != null) {
+        return presentRead;
+      }
+
+      readLock.unlock();
+      writeLock.lock();
+      try {
+        ByteBuffer refetch = getFromCurrentData(position, length);
+        if (refetch != null) {
+          return refetch;
+        }
+
+        while (!streamFullyConsumed && bufferTip <= position) {
+          consumeForwardData();
+        }
+        return getFromCurrentData(position, length);
+      } catch (IOException e) {
+        throw new MuleRuntimeException(createStaticMessage("Could not read stream"), e);
+      } finally {
+        // classic lock downgrade
+        readLock.lock();
+        writeLock.unlock();
+      }
+    } finally {
+      readLock.unlock();
+    }
+  }
+
+  private ByteBuffer getFromCurrentData(long position, int length) {
+    if (position >= bufferTip) {
+      return null;
+    }
+
+    return copy(position, min(length, toIntExact(min(Integer.MAX_VALUE, bufferTip - position))));
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Data is always copied into a new heap buffer. Buckets come from the {@link ByteBufferManager}, which may pool them (and
+   * hand them to someone else once this buffer is closed), so views over them can't outlive the buffer.
+   */
+  @Override
+  protected ByteBuffer copy(long position, int length) {
+    if (position < maxInMemorySize) {
+      final int offset = (int) (position % bucketSize);
+      ByteBuffer view = buckets[(int) (position / bucketSize)].getDelegate().duplicate();
+      view.limit(min(view.position(), offset + length));
+      view.position(offset);
+
+      ByteBuffer read = ByteBuffer.allocate(view.remaining());
+      read.put(view);
+      read.flip();
+      return read;
+    }
+
+    ByteBuffer read = ByteBuffer.allocate(length);
+    long filePosition = position - maxInMemorySize;
+    try {
+      while (read.hasRemaining()) {
+        int count = fileChannel.read(read, filePosition + read.position());
+        if (count < 0) {
+          break;
+        }
+      }
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not read from streaming buffer file"), e);
+    }
+    read.flip();
+    return read;
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Data is appended to the current in-memory bucket or, once the memory limit was reached, to the buffer file.
+   */
+  @Override
+  public int consumeForwardData() throws IOException {
+    if (bufferTip < maxInMemorySize) {
+      int bucketIndex = (int) (bufferTip / bucketSize);
+      if (buckets[bucketIndex] == null) {
+        buckets[bucketIndex] = bufferManager.allocateManaged(bucketSize);
+      }
+
+      int read = consumeStream(buckets[bucketIndex].getDelegate());
+      if (read > 0) {
+        bufferTip += read;
+      }
+      return read;
+    }
+
+    if (fileChannel == null) {
+      openBufferFile();
+    }
+
+    fileWriteBuffer.clear();
+    int read = consumeStream(fileWriteBuffer);
+    if (read > 0) {
+      fileWriteBuffer.flip();
+      long filePosition = bufferTip - maxInMemorySize;
+      while (fileWriteBuffer.hasRemaining()) {
+        filePosition += fileChannel.write(fileWriteBuffer, filePosition);
+      }
+      bufferTip += read;
+    }
+    return read;
+  }
+
+  /**
+   * @return the file to which the data which doesn't fit in memory is written, or {@code null} if no data overflowed yet
+   */
+  File getBufferFile() {
+    return bufferFile;
+  }
+
+  private void openBufferFile() throws IOException {
+    bufferFile = createBufferFile("stream-overflow");
+    fileChannel = FileChannel.open(bufferFile.toPath(), READ, WRITE);
+    fileWriteBuffer = ByteBuffer.allocate(bucketSize);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void doClose() {
+    for (int i = 0; i < buckets.length; i++) {
+      if (buckets[i] != null) {
+        buckets[i].release();
+        buckets[i] = null;
+      }
+    }
+
+    if (fileChannel != null) {
+      try {
+        fileChannel.close();
+      } catch (IOException e) {
+        LOGGER.debug("Found exception trying to close streaming buffer file", e);
+      }
+    }
+    if (bufferFile != null && !bufferFile.delete()) {
+      LOGGER.warn("Could not delete streaming buffer file {}", bufferFile.getAbsolutePath());
+    }
+  }
+}
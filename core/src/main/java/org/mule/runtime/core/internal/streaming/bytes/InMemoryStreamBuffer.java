@@ -204,7 +204,8 @@ public class InMemoryStreamBuffer extends AbstractInputStreamBuffer {
 
   private ByteBuffer softCopy(long position, int length) {
     final int offset = toIntExact(position);
-    return wrap(actingBuffer.array(), offset, min(length, actingBuffer.limit() - offset)).slice();
+    length = min(length, actingBuffer.limit() - offset);
+    return wrap(actingBuffer.array(), actingBuffer.arrayOffset() + offset, length).slice();
   }
 
   protected ByteBuffer hardCopy(long position, int length) {
@@ -212,11 +213,22 @@ public class InMemoryStreamBuffer extends AbstractInputStreamBuffer {
     length = min(length, actingBuffer.limit() - offset);
 
     byte[] b = new byte[length];
-    arraycopy(actingBuffer.array(), offset, b, 0, length);
+    if (actingBuffer.hasArray()) {
+      arraycopy(actingBuffer.array(), actingBuffer.arrayOffset() + offset, b, 0, length);
+    } else {
+      ByteBuffer view = actingBuffer.duplicate();
+      view.position(offset);
+      view.get(b);
+    }
     return wrap(b);
   }
 
   private boolean canDoSoftCopy() {
+    // direct memory may be pooled, and handed to someone else once this buffer is closed while views over it are still held
+    if (!actingBuffer.hasArray()) {
+      return false;
+    }
+
     return streamFullyConsumed
         || actingBuffer.capacity() >= maxBufferSize
         || bufferSizeIncrement == 0;
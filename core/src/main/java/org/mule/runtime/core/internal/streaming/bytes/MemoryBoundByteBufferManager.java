@@ -112,6 +112,13 @@ public abstract class MemoryBoundByteBufferManager implements ByteBufferManager
     streamingMemory.addAndGet(-byteBuffer.capacity());
   }
 
+  /**
+   * @return the max amount of memory (in bytes) that can be devoted to the buffers allocated through {@link #allocateIfFits(int)}
+   */
+  protected final long getMaxStreamingMemory() {
+    return maxStreamingMemory;
+  }
+
   private long calculateMaxStreamingMemory(MemoryManager memoryManager) {
     String maxMemoryProperty = getProperty(MULE_STREAMING_MAX_MEMORY);
     if (maxMemoryProperty == null) {
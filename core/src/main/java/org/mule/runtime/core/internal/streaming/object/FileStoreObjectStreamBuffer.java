@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.object;
+
+import static java.nio.ByteBuffer.wrap;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.internal.streaming.TempBufferFileUtils.createBufferFile;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.api.serialization.SerializationException;
+import org.mule.runtime.api.serialization.SerializationProtocol;
+import org.mule.runtime.core.api.streaming.object.FileStoreCursorIteratorConfig;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+
+/**
+ * An {@link AbstractObjectStreamBuffer} implementation which keeps only the most recently used buckets in memory.
+ * <p>
+ * Buckets have a fixed size. Each time a bucket is filled, it is serialized with the given {@link ObjectSerializer} and
+ * appended to a temporary file. Only up to {@link FileStoreCursorIteratorConfig#getMaxInMemoryBuckets()} filled buckets are
+ * kept in memory, the rest are read back from the file when a cursor moves to them. The bucket which is being filled is always
+ * held in memory, as well as the buckets containing items which cannot be serialized.
+ *
+ * @param <T> The generic type of the items in the stream
+ * @since 4.4.0
+ */
+public class FileStoreObjectStreamBuffer<T> extends AbstractObjectStreamBuffer<T> {
+
+  private static final Logger LOGGER = getLogger(FileStoreObjectStreamBuffer.class);
+
+  private final FileStoreCursorIteratorConfig config;
+  private final SerializationProtocol serializationProtocol;
+
+  /**
+   * Offset and length of each of the buckets written to the {@link #bufferFile}, indexed by bucket index.
+   */
+  private final List<long[]> storedBuckets = new ArrayList<>();
+  private Map<Integer, Bucket<T>> hotBuckets;
+
+  /**
+   * Buckets which could not be serialized, and are therefore always held in memory.
+   */
+  private final Map<Integer, Bucket<T>> pinnedBuckets = new HashMap<>();
+
+  private File bufferFile;
+  private FileChannel fileChannel;
+  private long fileSize = 0;
+
+  public FileStoreObjectStreamBuffer(Iterator<T> stream, FileStoreCursorIteratorConfig config, ObjectSerializer serializer) {
+    super(stream);
+    this.config = config;
+    this.serializationProtocol = serializer.getInternalProtocol();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Position toPosition(long position) {
+    int bucketSize = config.getBucketSize();
+    return new Position((int) (position / bucketSize), (int) (position % bucketSize));
+  }
+
+  @Override
+  protected void initialize(Optional<Position> maxPosition, Bucket<T> initialBucket) {
+    final int maxInMemoryBuckets = config.getMaxInMemoryBuckets();
+    // access ordered, so that the least recently used bucket is the one evicted
+    hotBuckets = new LinkedHashMap<Integer, Bucket<T>>(maxInMemoryBuckets + 1, 0.75f, true) {
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Integer, Bucket<T>> eldest) {
+        return size() > maxInMemoryBuckets;
+      }
+    };
+
+    setCurrentBucket(new Bucket<>(0, config.getBucketSize()));
+  }
+
+  @Override
+  protected Bucket<T> getPresentBucket(Position position) {
+    final int bucketIndex = position.getBucketIndex();
+    final Bucket<T> currentBucket = getCurrentBucket();
+    if (currentBucket != null && currentBucket.getIndex() == bucketIndex) {
+      return currentBucket;
+    }
+
+    if (bucketIndex >= storedBuckets.size()) {
+      return null;
+    }
+    if (storedBuckets.get(bucketIndex) == null) {
+      return pinnedBuckets.get(bucketIndex);
+    }
+
+    // many readers can get here at the same time
+    synchronized (hotBuckets) {
+      Bucket<T> bucket = hotBuckets.get(bucketIndex);
+      if (bucket == null) {
+        bucket = readBucket(bucketIndex);
+        hotBuckets.put(bucketIndex, bucket);
+      }
+      return bucket;
+    }
+  }
+
+  @Override
+  protected Bucket<T> onBucketOverflow(Bucket<T> overflownBucket) {
+    writeBucket(overflownBucket);
+    synchronized (hotBuckets) {
+      hotBuckets.put(overflownBucket.getIndex(), overflownBucket);
+    }
+
+    return new Bucket<>(overflownBucket.getIndex() + 1, config.getBucketSize());
+  }
+
+  @Override
+  protected void validateMaxBufferSizeNotExceeded(int instancesCount) {
+    // the buffer is only bound by the available disk space
+  }
+
+  private void writeBucket(Bucket<T> bucket) {
+    final byte[] serialized;
+    try {
+      serialized = serializationProtocol.serialize(bucket);
+    } catch (SerializationException e) {
+      LOGGER.debug("Could not serialize bucket {}, it will be kept in memory", bucket.getIndex(), e);
+      pinnedBuckets.put(bucket.getIndex(), bucket);
+      storedBuckets.add(null);
+      return;
+    }
+
+    try {
+      if (fileChannel == null) {
+        bufferFile = createBufferFile("object-stream");
+        fileChannel = FileChannel.open(bufferFile.toPath(), READ, WRITE);
+      }
+
+      ByteBuffer buffer = wrap(serialized);
+      long position = fileSize;
+      while (buffer.hasRemaining()) {
+        position += fileChannel.write(buffer, position);
+      }
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not write to object streaming buffer file"), e);
+    }
+
+    storedBuckets.add(new long[] {fileSize, serialized.length});
+    fileSize += serialized.length;
+  }
+
+  private Bucket<T> readBucket(int bucketIndex) {
+    final long[] storedBucket = storedBuckets.get(bucketIndex);
+    final ByteBuffer buffer = ByteBuffer.allocate((int) storedBucket[1]);
+    try {
+      while (buffer.hasRemaining()) {
+        if (fileChannel.read(buffer, storedBucket[0] + buffer.position()) < 0) {
+          break;
+        }
+      }
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not read from object streaming buffer file"), e);
+    }
+
+    return serializationProtocol.deserialize(buffer.array());
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected void doClose() {
+    if (hotBuckets != null) {
+      synchronized (hotBuckets) {
+        hotBuckets.clear();
+      }
+    }
+    storedBuckets.clear();
+    pinnedBuckets.clear();
+
+    if (fileChannel != null) {
+      try {
+        fileChannel.close();
+      } catch (IOException e) {
+        LOGGER.debug("Found exception trying to close object streaming buffer file", e);
+      }
+    }
+    if (bufferFile != null && !bufferFile.delete()) {
+      LOGGER.warn("Could not delete object streaming buffer file {}", bufferFile.getAbsolutePath());
+    }
+  }
+
+  /**
+   * @return the file to which the filled buckets are written, or {@code null} if no bucket was filled yet
+   */
+  File getBufferFile() {
+    return bufferFile;
+  }
+}
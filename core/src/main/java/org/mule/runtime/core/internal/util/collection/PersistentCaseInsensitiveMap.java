@@ -0,0 +1,481 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.collection;
+
+import static java.lang.Character.toLowerCase;
+import static java.lang.Character.toUpperCase;
+import static java.lang.Integer.bitCount;
+import static java.lang.System.arraycopy;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An immutable {@link Map} with case-insensitive {@link String} keys, which is updated by creating new versions of it that share
+ * most of their structure with the original one.
+ * <p>
+ * Entries are kept in a hash array mapped trie, so {@link #with(String, Object)} and {@link #without(String)} only copy the
+ * nodes in the path to the modified entry, which is {@code O(log n)}, instead of the whole map.
+ * <p>
+ * As in {@link org.mule.runtime.core.api.util.CaseInsensitiveHashMap}, keys are compared ignoring case, but their original case
+ * is preserved. Replacing the value of an existing key keeps the key as it was first added. Iteration order is not defined.
+ * <p>
+ * Any method that would modify this map in place throws an {@link UnsupportedOperationException}.
+ *
+ * @param <V> the type of the values
+ * @since 4.4.0
+ */
+public final class PersistentCaseInsensitiveMap<V> extends AbstractMap<String, V> implements Serializable {
+
+  private static final long serialVersionUID = 5395836410366813742L;
+
+  private static final int BITS_PER_LEVEL = 5;
+  private static final int LEVEL_MASK = (1 << BITS_PER_LEVEL) - 1;
+  // Levels needed to consume a 32 bit hash, plus the one for colliding hashes
+  private static final int MAX_DEPTH = 8;
+
+  @SuppressWarnings("rawtypes")
+  private static final PersistentCaseInsensitiveMap EMPTY = new PersistentCaseInsensitiveMap<>(null, 0);
+
+  private final BitmapNode root;
+  private final int size;
+
+  private transient Set<Entry<String, V>> entrySet;
+
+  private PersistentCaseInsensitiveMap(BitmapNode root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  /**
+   * @param <V> the type of the values
+   * @return an empty map
+   */
+  @SuppressWarnings("unchecked")
+  public static <V> PersistentCaseInsensitiveMap<V> empty() {
+    return EMPTY;
+  }
+
+  /**
+   * @param map the map to copy
+   * @param <V> the type of the values
+   * @return a map with the entries of {@code map}, or {@code map} itself if it is already a {@link PersistentCaseInsensitiveMap}
+   */
+  @SuppressWarnings("unchecked")
+  public static <V> PersistentCaseInsensitiveMap<V> copyOf(Map<String, ? extends V> map) {
+    if (map instanceof PersistentCaseInsensitiveMap) {
+      return (PersistentCaseInsensitiveMap<V>) map;
+    }
+
+    PersistentCaseInsensitiveMap<V> copy = empty();
+    for (Entry<String, ? extends V> entry : map.entrySet()) {
+      copy = copy.with(entry.getKey(), entry.getValue());
+    }
+    return copy;
+  }
+
+  /**
+   * @param key the key of the entry to add or replace
+   * @param value the value for {@code key}
+   * @return a map with the same entries as this one, plus {@code key} mapped to {@code value}. If {@code key} was already mapped
+   *         to {@code value}, this same instance is returned.
+   */
+  public PersistentCaseInsensitiveMap<V> with(String key, V value) {
+    Leaf<V> leaf = new Leaf<>(hash(key), key, value);
+    if (root == null) {
+      return new PersistentCaseInsensitiveMap<>(new BitmapNode(bit(leaf.hash, 0), new Object[] {leaf}), 1);
+    }
+
+    Mutation mutation = new Mutation();
+    BitmapNode newRoot = root.with(0, leaf, mutation);
+    return newRoot == root ? this : new PersistentCaseInsensitiveMap<>(newRoot, mutation.added ? size + 1 : size);
+  }
+
+  /**
+   * @param key the key of the entry to remove
+   * @return a map with the same entries as this one, except for {@code key}. If there was no entry for {@code key}, this same
+   *         instance is returned.
+   */
+  public PersistentCaseInsensitiveMap<V> without(String key) {
+    if (root == null) {
+      return this;
+    }
+
+    Object newRoot = root.without(0, hash(key), key);
+    if (newRoot == root) {
+      return this;
+    } else if (newRoot == null) {
+      return empty();
+    } else if (newRoot instanceof BitmapNode) {
+      return new PersistentCaseInsensitiveMap<>((BitmapNode) newRoot, size - 1);
+    } else {
+      // Only an entry or a collision node is left, which still needs a root
+      return new PersistentCaseInsensitiveMap<>(new BitmapNode(bit(hashOf(newRoot), 0), new Object[] {newRoot}), size - 1);
+    }
+  }
+
+  @Override
+  public V get(Object key) {
+    Leaf<V> leaf = find(key);
+    return leaf == null ? null : leaf.getValue();
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return find(key) != null;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public Set<Entry<String, V>> entrySet() {
+    if (entrySet == null) {
+      entrySet = new AbstractSet<Entry<String, V>>() {
+
+        @Override
+        public Iterator<Entry<String, V>> iterator() {
+          return new EntryIterator<>(root);
+        }
+
+        @Override
+        public int size() {
+          return size;
+        }
+      };
+    }
+    return entrySet;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Leaf<V> find(Object key) {
+    if (!(key instanceof String) || root == null) {
+      return null;
+    }
+
+    String stringKey = (String) key;
+    int hash = hash(stringKey);
+    Object node = root;
+    int shift = 0;
+    while (true) {
+      if (node instanceof BitmapNode) {
+        BitmapNode bitmapNode = (BitmapNode) node;
+        int bit = bit(hash, shift);
+        if ((bitmapNode.bitmap & bit) == 0) {
+          return null;
+        }
+        node = bitmapNode.array[bitmapNode.index(bit)];
+        shift += BITS_PER_LEVEL;
+      } else if (node instanceof Leaf) {
+        Leaf<V> leaf = (Leaf<V>) node;
+        return leaf.matches(hash, stringKey) ? leaf : null;
+      } else {
+        return (Leaf<V>) ((CollisionNode) node).find(hash, stringKey);
+      }
+    }
+  }
+
+  // Consistent with String#equalsIgnoreCase
+  private static int hash(String key) {
+    int hash = 0;
+    for (int i = 0; i < key.length(); ++i) {
+      hash = 31 * hash + toLowerCase(toUpperCase(key.charAt(i)));
+    }
+    // Spread the bits, since only a few of them are used in each level
+    return hash ^ (hash >>> 16);
+  }
+
+  private static int bit(int hash, int shift) {
+    return 1 << ((hash >>> shift) & LEVEL_MASK);
+  }
+
+  private static int hashOf(Object node) {
+    return node instanceof Leaf ? ((Leaf<?>) node).hash : ((CollisionNode) node).hash;
+  }
+
+  /**
+   * Creates the node that holds both {@code existing}, which is a {@link Leaf} or a {@link CollisionNode}, and {@code leaf}, which
+   * have different keys.
+   */
+  private static Object merge(int shift, Object existing, Leaf<?> leaf) {
+    int existingHash = hashOf(existing);
+    if (existingHash == leaf.hash) {
+      return existing instanceof Leaf ? new CollisionNode(leaf.hash, new Leaf[] {(Leaf<?>) existing, leaf})
+          : ((CollisionNode) existing).with(leaf, new Mutation());
+    }
+
+    int existingBit = bit(existingHash, shift);
+    int leafBit = bit(leaf.hash, shift);
+    if (existingBit == leafBit) {
+      return new BitmapNode(existingBit, new Object[] {merge(shift + BITS_PER_LEVEL, existing, leaf)});
+    }
+    return new BitmapNode(existingBit | leafBit,
+                          Integer.compareUnsigned(existingBit, leafBit) < 0 ? new Object[] {existing, leaf}
+                              : new Object[] {leaf, existing});
+  }
+
+  private static final class Mutation {
+
+    private boolean added;
+  }
+
+  private interface Node extends Serializable {
+  }
+
+  private static final class Leaf<V> extends SimpleImmutableEntry<String, V> {
+
+    private static final long serialVersionUID = -3046404522473232447L;
+
+    private final int hash;
+
+    private Leaf(int hash, String key, V value) {
+      super(key, value);
+      this.hash = hash;
+    }
+
+    private boolean matches(int hash, String key) {
+      return this.hash == hash && getKey().equalsIgnoreCase(key);
+    }
+  }
+
+  /**
+   * A node of the trie, with a slot for each of the values of a chunk of the hash. Each slot holds a {@link Leaf}, a
+   * {@link BitmapNode} or a {@link CollisionNode}, and only the slots in use are allocated.
+   */
+  private static final class BitmapNode implements Node {
+
+    private static final long serialVersionUID = -2395498183006585066L;
+
+    private final int bitmap;
+    private final Object[] array;
+
+    private BitmapNode(int bitmap, Object[] array) {
+      this.bitmap = bitmap;
+      this.array = array;
+    }
+
+    private int index(int bit) {
+      return bitCount(bitmap & (bit - 1));
+    }
+
+    private BitmapNode with(int shift, Leaf<?> leaf, Mutation mutation) {
+      int bit = bit(leaf.hash, shift);
+      int index = index(bit);
+
+      if ((bitmap & bit) == 0) {
+        Object[] newArray = new Object[array.length + 1];
+        arraycopy(array, 0, newArray, 0, index);
+        newArray[index] = leaf;
+        arraycopy(array, index, newArray, index + 1, array.length - index);
+        mutation.added = true;
+        return new BitmapNode(bitmap | bit, newArray);
+      }
+
+      Object current = array[index];
+      Object replacement;
+      if (current instanceof Leaf) {
+        Leaf<?> currentLeaf = (Leaf<?>) current;
+        if (currentLeaf.matches(leaf.hash, leaf.getKey())) {
+          if (currentLeaf.getValue() == leaf.getValue()) {
+            return this;
+          }
+          replacement = new Leaf<>(currentLeaf.hash, currentLeaf.getKey(), leaf.getValue());
+        } else {
+          replacement = merge(shift + BITS_PER_LEVEL, currentLeaf, leaf);
+          mutation.added = true;
+        }
+      } else if (current instanceof BitmapNode) {
+        replacement = ((BitmapNode) current).with(shift + BITS_PER_LEVEL, leaf, mutation);
+      } else {
+        CollisionNode collisionNode = (CollisionNode) current;
+        if (collisionNode.hash == leaf.hash) {
+          replacement = collisionNode.with(leaf, mutation);
+        } else {
+          replacement = merge(shift + BITS_PER_LEVEL, collisionNode, leaf);
+          mutation.added = true;
+        }
+      }
+
+      return replacement == current ? this : withSlot(index, replacement);
+    }
+
+    /**
+     * @return this node if {@code key} is not in it, {@code null} if it was its only entry, a {@link Leaf} or
+     *         {@link CollisionNode} if only that is left, or a new node without {@code key} otherwise.
+     */
+    private Object without(int shift, int hash, String key) {
+      int bit = bit(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return this;
+      }
+
+      int index = index(bit);
+      Object current = array[index];
+      Object replacement;
+      if (current instanceof Leaf) {
+        replacement = ((Leaf<?>) current).matches(hash, key) ? null : current;
+      } else if (current instanceof BitmapNode) {
+        replacement = ((BitmapNode) current).without(shift + BITS_PER_LEVEL, hash, key);
+      } else {
+        replacement = ((CollisionNode) current).without(hash, key);
+      }
+
+      if (replacement == current) {
+        return this;
+      } else if (replacement != null) {
+        return withSlot(index, replacement);
+      } else if (array.length == 1) {
+        return null;
+      } else if (array.length == 2 && !(array[index ^ 1] instanceof BitmapNode)) {
+        // Let the parent inline the remaining entry
+        return array[index ^ 1];
+      }
+
+      Object[] newArray = new Object[array.length - 1];
+      arraycopy(array, 0, newArray, 0, index);
+      arraycopy(array, index + 1, newArray, index, array.length - index - 1);
+      return new BitmapNode(bitmap & ~bit, newArray);
+    }
+
+    private BitmapNode withSlot(int index, Object node) {
+      Object[] newArray = array.clone();
+      newArray[index] = node;
+      return new BitmapNode(bitmap, newArray);
+    }
+  }
+
+  /**
+   * The entries which keys have the same hash.
+   */
+  private static final class CollisionNode implements Node {
+
+    private static final long serialVersionUID = 2722532826102596117L;
+
+    private final int hash;
+    private final Leaf<?>[] leaves;
+
+    private CollisionNode(int hash, Leaf<?>[] leaves) {
+      this.hash = hash;
+      this.leaves = leaves;
+    }
+
+    private Leaf<?> find(int hash, String key) {
+      for (Leaf<?> leaf : leaves) {
+        if (leaf.matches(hash, key)) {
+          return leaf;
+        }
+      }
+      return null;
+    }
+
+    private CollisionNode with(Leaf<?> leaf, Mutation mutation) {
+      for (int i = 0; i < leaves.length; ++i) {
+        if (leaves[i].matches(leaf.hash, leaf.getKey())) {
+          if (leaves[i].getValue() == leaf.getValue()) {
+            return this;
+          }
+          Leaf<?>[] newLeaves = leaves.clone();
+          newLeaves[i] = new Leaf<>(hash, leaves[i].getKey(), leaf.getValue());
+          return new CollisionNode(hash, newLeaves);
+        }
+      }
+
+      Leaf<?>[] newLeaves = new Leaf[leaves.length + 1];
+      arraycopy(leaves, 0, newLeaves, 0, leaves.length);
+      newLeaves[leaves.length] = leaf;
+      mutation.added = true;
+      return new CollisionNode(hash, newLeaves);
+    }
+
+    private Object without(int hash, String key) {
+      for (int i = 0; i < leaves.length; ++i) {
+        if (leaves[i].matches(hash, key)) {
+          if (leaves.length == 2) {
+            return leaves[i ^ 1];
+          }
+          Leaf<?>[] newLeaves = new Leaf[leaves.length - 1];
+          arraycopy(leaves, 0, newLeaves, 0, i);
+          arraycopy(leaves, i + 1, newLeaves, i, leaves.length - i - 1);
+          return new CollisionNode(hash, newLeaves);
+        }
+      }
+      return this;
+    }
+  }
+
+  /**
+   * Walks the trie depth first, keeping the position in each level in a stack.
+   */
+  private static final class EntryIterator<V> implements Iterator<Entry<String, V>> {
+
+    private final Object[][] arrays = new Object[MAX_DEPTH][];
+    private final int[] indexes = new int[MAX_DEPTH];
+    private int depth = -1;
+    private Leaf<V> next;
+
+    private EntryIterator(BitmapNode root) {
+      if (root != null) {
+        push(root.array);
+        advance();
+      }
+    }
+
+    private void push(Object[] array) {
+      ++depth;
+      arrays[depth] = array;
+      indexes[depth] = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void advance() {
+      next = null;
+      while (depth >= 0) {
+        if (indexes[depth] == arrays[depth].length) {
+          arrays[depth--] = null;
+          continue;
+        }
+
+        Object node = arrays[depth][indexes[depth]++];
+        if (node instanceof Leaf) {
+          next = (Leaf<V>) node;
+          return;
+        } else if (node instanceof BitmapNode) {
+          push(((BitmapNode) node).array);
+        } else {
+          push(((CollisionNode) node).leaves);
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public Entry<String, V> next() {
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      Leaf<V> current = next;
+      advance();
+      return current;
+    }
+  }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.collection;
+
+import static java.lang.Math.ceil;
+import static java.lang.Math.log;
+import static java.lang.Math.max;
+import static java.lang.Math.round;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * A Bloom filter of {@link String}s that forgets the oldest ones.
+ * <p>
+ * Since elements cannot be removed from a Bloom filter, two generations of it are kept. Elements are always added to the current
+ * generation and looked up in both. Once the current generation is full or older than {@code maxAge}, it becomes the previous one
+ * and an empty generation takes its place, dropping the elements that were only in the previous one. This way, the false positive
+ * rate stays around the configured one regardless of how many elements are added, and an element is remembered at least for
+ * {@code maxAge} unless more than {@code expectedElements} are added in that time.
+ * <p>
+ * Besides the lookups, the results of {@link #mightContain(String)} are counted so the effective false positive rate can be
+ * monitored, given that the callers report the {@link #falsePositive() false positives} they find.
+ *
+ * @since 4.4.0
+ */
+public final class RotatingBloomFilter {
+
+  private static final double LN2 = log(2);
+
+  private final int expectedElements;
+  private final int numBits;
+  private final int numHashes;
+  private final long maxAge;
+  private final LongSupplier clock;
+
+  private volatile Generation current;
+  private volatile Generation previous;
+
+  private final LongAdder positives = new LongAdder();
+  private final LongAdder negatives = new LongAdder();
+  private final LongAdder falsePositives = new LongAdder();
+
+  /**
+   * Creates a new filter.
+   *
+   * @param expectedElements the number of elements that fit in each generation
+   * @param falsePositiveRate the desired probability of {@link #mightContain(String)} returning {@code true} for an element that
+   *        was not added, when each generation holds {@code expectedElements}
+   * @param maxAgeMillis the time after which a generation is replaced even if it is not full, or {@code 0} to replace it only when
+   *        full
+   */
+  public RotatingBloomFilter(int expectedElements, double falsePositiveRate, long maxAgeMillis) {
+    this(expectedElements, falsePositiveRate, maxAgeMillis, System::currentTimeMillis);
+  }
+
+  RotatingBloomFilter(int expectedElements, double falsePositiveRate, long maxAgeMillis, LongSupplier clock) {
+    checkArgument(expectedElements > 0, "Expected elements must be greater than zero");
+    checkArgument(falsePositiveRate > 0 && falsePositiveRate < 1, "False positive rate must be between 0 and 1");
+    checkArgument(maxAgeMillis >= 0, "Max age cannot be negative");
+
+    this.expectedElements = expectedElements;
+    this.numBits = (int) max(64, ceil(-expectedElements * log(falsePositiveRate) / (LN2 * LN2)));
+    this.numHashes = (int) max(1, round((double) numBits / expectedElements * LN2));
+    this.maxAge = maxAgeMillis;
+    this.clock = clock;
+
+    this.current = new Generation();
+    this.previous = new Generation();
+  }
+
+  /**
+   * Adds {@code element} to the filter.
+   *
+   * @param element the element to add
+   */
+  public void put(String element) {
+    long hash = hash(element);
+    rotateIfNeeded().put(hash);
+  }
+
+  /**
+   * @param element the element to look up
+   * @return {@code false} if {@code element} was not added or has already been forgotten, {@code true} if it might have been
+   *         added.
+   */
+  public boolean mightContain(String element) {
+    long hash = hash(element);
+    if (current.mightContain(hash) || previous.mightContain(hash)) {
+      positives.increment();
+      return true;
+    } else {
+      negatives.increment();
+      return false;
+    }
+  }
+
+  /**
+   * Records that the last call to {@link #mightContain(String)} for an element returned {@code true} but it was not actually
+   * added.
+   */
+  public void falsePositive() {
+    falsePositives.increment();
+  }
+
+  /**
+   * Removes all the elements of the filter. Counters are not reset.
+   */
+  public synchronized void clear() {
+    current = new Generation();
+    previous = new Generation();
+  }
+
+  /**
+   * @return the number of lookups for which the element might have been added
+   */
+  public long getPositives() {
+    return positives.sum();
+  }
+
+  /**
+   * @return the number of lookups for which the element was not added
+   */
+  public long getNegatives() {
+    return negatives.sum();
+  }
+
+  /**
+   * @return the number of {@link #getPositives() positive} lookups that were reported as a {@link #falsePositive() false positive}
+   */
+  public long getFalsePositives() {
+    return falsePositives.sum();
+  }
+
+  /**
+   * @return the ratio of reported false positives among the lookups of elements that were not added, or {@code 0} if there were
+   *         no lookups yet
+   */
+  public double getFalsePositiveRate() {
+    long falsePositives = getFalsePositives();
+    long notAdded = falsePositives + getNegatives();
+    return notAdded == 0 ? 0 : (double) falsePositives / notAdded;
+  }
+
+  private Generation rotateIfNeeded() {
+    Generation generation = current;
+    if (!generation.isExpired()) {
+      return generation;
+    }
+
+    synchronized (this) {
+      if (current == generation) {
+        previous = generation;
+        current = new Generation();
+      }
+      return current;
+    }
+  }
+
+  // 64 bit FNV-1a, followed by a finalization step so that the high and low halves are well distributed
+  private static long hash(String element) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < element.length(); ++i) {
+      hash ^= element.charAt(i);
+      hash *= 0x100000001b3L;
+    }
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+
+  private final class Generation {
+
+    private final AtomicLongArray bits = new AtomicLongArray((numBits + 63) >>> 6);
+    private final AtomicInteger size = new AtomicInteger();
+    private final long createdAt = clock.getAsLong();
+
+    private void put(long hash) {
+      int h1 = (int) hash;
+      int h2 = (int) (hash >>> 32);
+      for (int i = 0; i < numHashes; ++i) {
+        int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % numBits;
+        long mask = 1L << bit;
+        int word = bit >>> 6;
+        long value;
+        while (((value = bits.get(word)) & mask) == 0 && !bits.compareAndSet(word, value, value | mask)) {
+          // retry
+        }
+      }
+      size.incrementAndGet();
+    }
+
+    private boolean mightContain(long hash) {
+      int h1 = (int) hash;
+      int h2 = (int) (hash >>> 32);
+      for (int i = 0; i < numHashes; ++i) {
+        int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % numBits;
+        if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private boolean isExpired() {
+      return size.get() >= expectedElements || (maxAge > 0 && clock.getAsLong() - createdAt >= maxAge);
+    }
+  }
+}
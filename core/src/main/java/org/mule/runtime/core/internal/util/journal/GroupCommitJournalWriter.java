@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.journal;
+
+import static java.lang.System.currentTimeMillis;
+import static java.lang.System.nanoTime;
+import static org.mule.runtime.core.internal.util.journal.JournalDurability.INTERVAL;
+import static org.mule.runtime.core.internal.util.journal.JournalDurability.OS_BUFFERED;
+import static org.mule.runtime.core.internal.util.journal.JournalDurability.SYNC;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+
+/**
+ * Appends serialized journal entries to a journal file using group commit.
+ * <p>
+ * Entries are first appended to an in-memory buffer. The first thread that needs its entry written takes every entry appended
+ * until then and writes (and, depending on the {@link JournalDurability}, forces) all of them at once, so threads logging
+ * concurrently usually find their entries already written once they get to do it.
+ */
+class GroupCommitJournalWriter {
+
+  private static final Logger LOGGER = getLogger(GroupCommitJournalWriter.class);
+
+  private final File journalFile;
+  private final JournalDurability durability;
+  private final long syncIntervalMillis;
+  private final TransactionJournalMetrics metrics;
+
+  /**
+   * Guards the pending entries. Must never be held while trying to get the {@link #writeLock}.
+   */
+  private final Object bufferLock = new Object();
+  private final ByteArrayOutputStream pendingEntries = new ByteArrayOutputStream();
+  private int pendingEntriesCount = 0;
+  private long appendedEntries = 0;
+
+  private final Object writeLock = new Object();
+  private FileOutputStream outputStream;
+  private long writtenEntries = 0;
+  private long lastSync = currentTimeMillis();
+
+  GroupCommitJournalWriter(File journalFile, JournalDurability durability, long syncIntervalMillis,
+                           TransactionJournalMetrics metrics) {
+    this.journalFile = journalFile;
+    this.durability = durability;
+    this.syncIntervalMillis = syncIntervalMillis;
+    this.metrics = metrics;
+    open();
+  }
+
+  /**
+   * @param serializedEntry the entry to add to the journal
+   * @return the sequence number to pass to {@link #flush(long)} to wait for the entry to be written
+   */
+  long append(byte[] serializedEntry) {
+    synchronized (bufferLock) {
+      pendingEntries.write(serializedEntry, 0, serializedEntry.length);
+      pendingEntriesCount++;
+      return ++appendedEntries;
+    }
+  }
+
+  /**
+   * Blocks until the entry with the given sequence number is written, along with every other entry appended before calling
+   * this method.
+   *
+   * @param sequence the value returned by {@link #append(byte[])}
+   */
+  void flush(long sequence) {
+    synchronized (writeLock) {
+      if (writtenEntries >= sequence) {
+        // another thread already wrote it as part of its batch
+        return;
+      }
+      doFlush(durability == SYNC || (durability == INTERVAL && currentTimeMillis() - lastSync >= syncIntervalMillis));
+    }
+  }
+
+  /**
+   * Discards every pending entry and empties the journal file.
+   */
+  void truncate() {
+    synchronized (writeLock) {
+      synchronized (bufferLock) {
+        pendingEntries.reset();
+        pendingEntriesCount = 0;
+        writtenEntries = appendedEntries;
+      }
+      closeOutputStream();
+      FileUtils.deleteQuietly(journalFile);
+      open();
+    }
+  }
+
+  /**
+   * Writes the pending entries and frees the journal file.
+   */
+  void close() {
+    synchronized (writeLock) {
+      if (!outputStream.getChannel().isOpen()) {
+        return;
+      }
+      try {
+        doFlush(durability != OS_BUFFERED);
+      } catch (MuleRuntimeException e) {
+        LOGGER.warn(e.getMessage());
+        if (LOGGER.isDebugEnabled()) {
+          LOGGER.debug("Error writing pending transaction journal entries", e);
+        }
+      }
+      closeOutputStream();
+    }
+  }
+
+  /**
+   * Has to be called holding the {@link #writeLock}.
+   * <p>
+   * The entries are only removed from the pending ones once they have been written, so if writing them fails they are written
+   * again by the next flush, and the threads waiting for them keep waiting instead of taking them as written.
+   */
+  private void doFlush(boolean sync) {
+    final byte[] batch;
+    final int batchSize;
+    final long target;
+    synchronized (bufferLock) {
+      batch = pendingEntries.toByteArray();
+      batchSize = pendingEntriesCount;
+      target = appendedEntries;
+    }
+
+    try {
+      if (batchSize > 0) {
+        writeBatch(batch);
+        discardPending(batch.length, batchSize);
+        metrics.onBatchWritten(batchSize);
+      }
+      if (sync) {
+        long start = nanoTime();
+        outputStream.getChannel().force(false);
+        metrics.onSync(nanoTime() - start);
+        lastSync = currentTimeMillis();
+      }
+    } catch (IOException e) {
+      throw new MuleRuntimeException(e);
+    }
+    writtenEntries = target;
+  }
+
+  /**
+   * Appends the given {@code batch} to the journal file. If that fails, the file is truncated back to its previous length, so
+   * the batch can be written again without leaving a partially written entry behind.
+   */
+  void writeBatch(byte[] batch) throws IOException {
+    long length = outputStream.getChannel().size();
+    try {
+      outputStream.write(batch);
+    } catch (IOException e) {
+      try {
+        outputStream.getChannel().truncate(length);
+      } catch (IOException truncateException) {
+        e.addSuppressed(truncateException);
+      }
+      throw e;
+    }
+  }
+
+  private void discardPending(int bytes, int entries) {
+    synchronized (bufferLock) {
+      if (pendingEntries.size() == bytes) {
+        pendingEntries.reset();
+      } else {
+        // more entries were appended while writing
+        byte[] pending = pendingEntries.toByteArray();
+        pendingEntries.reset();
+        pendingEntries.write(pending, bytes, pending.length - bytes);
+      }
+      pendingEntriesCount -= entries;
+    }
+  }
+
+  private void open() {
+    if (!journalFile.exists()) {
+      try {
+        journalFile.createNewFile();
+      } catch (IOException e) {
+        throw new MuleRuntimeException(e);
+      }
+    }
+    try {
+      this.outputStream = new FileOutputStream(journalFile, true);
+    } catch (FileNotFoundException e) {
+      throw new MuleRuntimeException(e);
+    }
+  }
+
+  private void closeOutputStream() {
+    try {
+      outputStream.close();
+    } catch (IOException e) {
+      LOGGER.warn(e.getMessage());
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("Error closing transaction journal file", e);
+      }
+    }
+  }
+}
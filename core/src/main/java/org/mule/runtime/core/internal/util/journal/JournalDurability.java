@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.journal;
+
+/**
+ * Defines when the entries written to a transaction journal are forced to the storage device.
+ *
+ * @since 4.4.0
+ */
+public enum JournalDurability {
+
+  /**
+   * Every logged operation is forced to disk before returning to the caller. Operations logged concurrently share a single
+   * force.
+   */
+  SYNC,
+
+  /**
+   * Every logged operation is written to the file before returning to the caller, but the file is forced to disk at most once
+   * per configured interval.
+   */
+  INTERVAL,
+
+  /**
+   * Every logged operation is written to the file before returning to the caller, leaving it to the operating system to flush
+   * it to disk.
+   */
+  OS_BUFFERED
+}
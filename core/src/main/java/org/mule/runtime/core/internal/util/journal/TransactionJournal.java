@@ -6,6 +6,9 @@
  */
 package org.mule.runtime.core.internal.util.journal;
 
+import static java.lang.Long.getLong;
+import static java.lang.System.getProperty;
+
 import org.mule.runtime.api.util.Preconditions;
 
 import com.google.common.collect.LinkedHashMultimap;
@@ -25,18 +28,35 @@ import org.slf4j.LoggerFactory;
  *
  * Keeps a memory cache of the log entries for performance reasons. Once a transaction finishes the client of this class must
  * manually remove the entries related to such transaction to clear the cache.
+ *
+ * Entries logged concurrently by different transactions are written to the journal file together, and the
+ * {@link JournalDurability} configured through {@link #JOURNAL_DURABILITY_PROPERTY_KEY} determines when they are forced to disk.
  */
 public class TransactionJournal<T, K extends JournalEntry<T>> {
 
   public static final String TX1_LOG_FILE_NAME = "tx1.log";
   public static final String TX2_LOG_FILE_NAME = "tx2.log";
 
+  /**
+   * System property to set the {@link JournalDurability} of the transaction journals. Defaults to
+   * {@link JournalDurability#OS_BUFFERED}.
+   */
+  public static final String JOURNAL_DURABILITY_PROPERTY_KEY = "mule.queue.journalDurability";
+
+  /**
+   * System property to set the minimum time in milliseconds between forces to disk when using
+   * {@link JournalDurability#INTERVAL}. Defaults to 1000.
+   */
+  public static final String JOURNAL_SYNC_INTERVAL_PROPERTY_KEY = "mule.queue.journalSyncInterval";
+
   private static final int MAXIMUM_LOG_FILE_ENTRIES = 50000;
   private static final int ONE_MEGABYTE_IN_BYTES = 1024 * 1024;
 
   private transient Logger logger = LoggerFactory.getLogger(getClass());
 
   private final TransactionCompletePredicate transactionCompletePredicate;
+  private final JournalEntrySerializer journalEntrySerializer;
+  private final TransactionJournalMetrics metrics = new TransactionJournalMetrics();
 
   /**
    * Log file in which we are currently writing new entries.
@@ -72,11 +92,18 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
     File logFile2 = new File(logFileDirectory, TX2_LOG_FILE_NAME);
     logger.info(String.format("Using files for tx logs %s and %s", logFile1.getAbsolutePath(), logFile2.getAbsolutePath()));
 
+    JournalDurability durability =
+        JournalDurability.valueOf(getProperty(JOURNAL_DURABILITY_PROPERTY_KEY, JournalDurability.OS_BUFFERED.name()));
+    long syncIntervalMillis = getLong(JOURNAL_SYNC_INTERVAL_PROPERTY_KEY, 1000L);
+
     this.currentLogFile =
-        new TransactionJournalFile(logFile1, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes);
+        new TransactionJournalFile(logFile1, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes,
+                                   durability, syncIntervalMillis, metrics);
     this.notCurrentLogFile =
-        new TransactionJournalFile(logFile2, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes);
+        new TransactionJournalFile(logFile2, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes,
+                                   durability, syncIntervalMillis, metrics);
     this.transactionCompletePredicate = transactionCompletePredicate;
+    this.journalEntrySerializer = journalEntrySerializer;
 
   }
 
@@ -92,9 +119,16 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
    *
    * @param journalEntry journal entry with the update operation details
    */
-  public synchronized void logUpdateOperation(JournalEntry<T> journalEntry) {
-    TransactionJournalFile logFile = determineLogFile(journalEntry.getTxId());
-    logFile.logOperation(journalEntry);
+  public void logUpdateOperation(JournalEntry<T> journalEntry) {
+    byte[] serializedEntry = TransactionJournalFile.serialize(journalEntrySerializer, journalEntry);
+    TransactionJournalFile logFile;
+    long sequence;
+    synchronized (this) {
+      logFile = determineLogFile(journalEntry.getTxId());
+      sequence = logFile.logOperation(journalEntry, serializedEntry);
+    }
+    // wait outside of the lock so entries from concurrent transactions get written together
+    logFile.flush(sequence);
   }
 
   /**
@@ -104,12 +138,25 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
    *
    * @param journalEntry journal entry with the checkpoint operation details
    */
-  public synchronized void logCheckpointOperation(JournalEntry<T> journalEntry) {
-    TransactionJournalFile logFile = determineLogFile(journalEntry.getTxId());
-    logFile.logOperation(journalEntry);
-    if (transactionCompletePredicate.isTransactionComplete(journalEntry)) {
-      logFile.clearEntriesForTransaction(journalEntry.getTxId());
+  public void logCheckpointOperation(JournalEntry<T> journalEntry) {
+    byte[] serializedEntry = TransactionJournalFile.serialize(journalEntrySerializer, journalEntry);
+    TransactionJournalFile logFile;
+    long sequence;
+    synchronized (this) {
+      logFile = determineLogFile(journalEntry.getTxId());
+      sequence = logFile.logOperation(journalEntry, serializedEntry);
+      if (transactionCompletePredicate.isTransactionComplete(journalEntry)) {
+        logFile.clearEntriesForTransaction(journalEntry.getTxId());
+      }
     }
+    logFile.flush(sequence);
+  }
+
+  /**
+   * @return the statistics of the writes done to the journal files.
+   */
+  public TransactionJournalMetrics getMetrics() {
+    return metrics;
   }
 
   /**
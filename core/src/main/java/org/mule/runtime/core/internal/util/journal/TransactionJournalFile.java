@@ -7,25 +7,23 @@
 package org.mule.runtime.core.internal.util.journal;
 
 import static org.slf4j.LoggerFactory.getLogger;
-import org.mule.runtime.api.exception.MuleRuntimeException;
 
 import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Multimap;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 
-import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
 
 /**
@@ -50,7 +48,7 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
 
   private Multimap<T, K> entries = LinkedHashMultimap.create();
 
-  private DataOutputStream logFileOutputStream;
+  private final GroupCommitJournalWriter writer;
   private int journalOperations = 0;
 
   /**
@@ -61,24 +59,71 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    */
   public TransactionJournalFile(File journalFile, JournalEntrySerializer journalEntrySerializer,
                                 TransactionCompletePredicate transactionCompletePredicate, Long clearFileMinimumSizeInBytes) {
+    this(journalFile, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes,
+         JournalDurability.OS_BUFFERED, 0, new TransactionJournalMetrics());
+  }
+
+  /**
+   * @param journalFile journal file to use. Will be created if it doesn't exists. If exists then transaction entries will get
+   *        loaded from it.
+   * @param journalEntrySerializer serializer for {@link JournalEntry}
+   * @param transactionCompletePredicate a callback to determine if a transaction is complete.
+   * @param durability when the written entries are forced to disk.
+   * @param syncIntervalMillis the minimum time between forces when using {@link JournalDurability#INTERVAL}.
+   * @param metrics where to record the statistics of the writes done to the file.
+   */
+  public TransactionJournalFile(File journalFile, JournalEntrySerializer journalEntrySerializer,
+                                TransactionCompletePredicate transactionCompletePredicate, Long clearFileMinimumSizeInBytes,
+                                JournalDurability durability, long syncIntervalMillis, TransactionJournalMetrics metrics) {
     this.journalFile = journalFile;
     this.journalEntrySerializer = journalEntrySerializer;
     this.clearFileMinimumSizeInBytes = clearFileMinimumSizeInBytes;
     if (journalFile.exists()) {
       loadAllEntries(transactionCompletePredicate);
     }
-    createLogOutputStream();
+    this.writer = new GroupCommitJournalWriter(journalFile, durability, syncIntervalMillis, metrics);
   }
 
   /**
-   * Adds a journal entry for an operation done over a transactional resource
+   * Adds a journal entry for an operation done over a transactional resource and waits for it to be written.
    * 
    * @param journalEntry operation details
    */
-  public synchronized void logOperation(K journalEntry) {
+  public void logOperation(K journalEntry) {
+    flush(logOperation(journalEntry, serialize(journalEntrySerializer, journalEntry)));
+  }
+
+  /**
+   * Adds a journal entry for an operation done over a transactional resource without waiting for it to be written.
+   *
+   * @param journalEntry operation details
+   * @param serializedEntry the journal entry as returned by {@link #serialize(JournalEntrySerializer, JournalEntry)}
+   * @return the sequence number to pass to {@link #flush(long)} to wait for the entry to be written
+   */
+  public synchronized long logOperation(K journalEntry, byte[] serializedEntry) {
     entries.put(journalEntry.getTxId(), journalEntry);
-    journalEntrySerializer.serialize(journalEntry, logFileOutputStream);
     journalOperations++;
+    return writer.append(serializedEntry);
+  }
+
+  /**
+   * Waits until the journal entry with the given sequence number is written. Entries logged concurrently are written together.
+   *
+   * @param sequence the value returned by {@link #logOperation(JournalEntry, byte[])}
+   */
+  public void flush(long sequence) {
+    writer.flush(sequence);
+  }
+
+  /**
+   * @param journalEntrySerializer serializer for {@link JournalEntry}
+   * @param journalEntry the entry to serialize
+   * @return the journal entry serialized as it has to be written to the journal file
+   */
+  static byte[] serialize(JournalEntrySerializer journalEntrySerializer, JournalEntry journalEntry) {
+    ByteArrayOutputStream serializedEntry = new ByteArrayOutputStream();
+    journalEntrySerializer.serialize(journalEntry, new DataOutputStream(serializedEntry));
+    return serializedEntry.toByteArray();
   }
 
   /**
@@ -120,14 +165,7 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    * Will not remove the transaction context.
    */
   public synchronized void close() {
-    try {
-      logFileOutputStream.close();
-    } catch (IOException e) {
-      LOGGER.warn(e.getMessage());
-      if (LOGGER.isDebugEnabled()) {
-        LOGGER.debug("Error closing transaction journal file", e);
-      }
-    }
+    writer.close();
   }
 
   /**
@@ -156,25 +194,8 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    * Remove all the entries from the transaction journal and cleans the transaction journal fle.
    */
   public synchronized void clear() {
-    close();
     entries.clear();
-    FileUtils.deleteQuietly(journalFile);
-    createLogOutputStream();
-  }
-
-  private void createLogOutputStream() {
-    if (!journalFile.exists()) {
-      try {
-        journalFile.createNewFile();
-      } catch (IOException e) {
-        throw new MuleRuntimeException(e);
-      }
-    }
-    try {
-      this.logFileOutputStream = new DataOutputStream(new FileOutputStream(journalFile, true));
-    } catch (FileNotFoundException e) {
-      throw new MuleRuntimeException(e);
-    }
+    writer.truncate();
   }
 
   /**
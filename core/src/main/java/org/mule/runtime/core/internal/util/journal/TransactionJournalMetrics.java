@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.journal;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Statistics about how the entries of a {@link TransactionJournal} are written to disk.
+ *
+ * @since 4.4.0
+ */
+public class TransactionJournalMetrics {
+
+  private final AtomicLong entries = new AtomicLong();
+  private final AtomicLong batches = new AtomicLong();
+  private final AtomicLong maxBatchSize = new AtomicLong();
+  private final AtomicLong syncs = new AtomicLong();
+  private final AtomicLong syncTimeNanos = new AtomicLong();
+  private final AtomicLong maxSyncTimeNanos = new AtomicLong();
+
+  void onBatchWritten(int batchSize) {
+    entries.addAndGet(batchSize);
+    batches.incrementAndGet();
+    maxBatchSize.accumulateAndGet(batchSize, Math::max);
+  }
+
+  void onSync(long elapsedNanos) {
+    syncs.incrementAndGet();
+    syncTimeNanos.addAndGet(elapsedNanos);
+    maxSyncTimeNanos.accumulateAndGet(elapsedNanos, Math::max);
+  }
+
+  /**
+   * @return the number of journal entries written to disk.
+   */
+  public long getEntriesCount() {
+    return entries.get();
+  }
+
+  /**
+   * @return the number of writes done to the journal files. Each write contains all the entries logged concurrently.
+   */
+  public long getBatchesCount() {
+    return batches.get();
+  }
+
+  /**
+   * @return the average number of entries per write.
+   */
+  public double getAverageBatchSize() {
+    long batches = this.batches.get();
+    return batches == 0 ? 0 : (double) entries.get() / batches;
+  }
+
+  /**
+   * @return the maximum number of entries written at once.
+   */
+  public long getMaxBatchSize() {
+    return maxBatchSize.get();
+  }
+
+  /**
+   * @return the number of times a journal file was forced to disk.
+   */
+  public long getSyncsCount() {
+    return syncs.get();
+  }
+
+  /**
+   * @return the average time it took to force a journal file to disk, in nanoseconds.
+   */
+  public long getAverageSyncLatencyNanos() {
+    long syncs = this.syncs.get();
+    return syncs == 0 ? 0 : syncTimeNanos.get() / syncs;
+  }
+
+  /**
+   * @return the maximum time it took to force a journal file to disk, in nanoseconds.
+   */
+  public long getMaxSyncLatencyNanos() {
+    return maxSyncTimeNanos.get();
+  }
+}
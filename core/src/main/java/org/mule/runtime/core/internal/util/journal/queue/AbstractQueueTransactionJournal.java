@@ -11,6 +11,7 @@ import org.mule.runtime.core.internal.util.journal.JournalEntry;
 import org.mule.runtime.core.internal.util.journal.JournalEntrySerializer;
 import org.mule.runtime.core.internal.util.journal.TransactionCompletePredicate;
 import org.mule.runtime.core.internal.util.journal.TransactionJournal;
+import org.mule.runtime.core.internal.util.journal.TransactionJournalMetrics;
 import org.mule.runtime.core.internal.util.queue.QueueStore;
 
 import com.google.common.collect.Multimap;
@@ -125,6 +126,13 @@ public abstract class AbstractQueueTransactionJournal<T, K extends JournalEntry<
     return logFile.getLogEntriesForTx(txId);
   }
 
+  /**
+   * @return the statistics of the writes done to the journal files.
+   */
+  public TransactionJournalMetrics getMetrics() {
+    return logFile.getMetrics();
+  }
+
   protected TransactionJournal<T, K> getJournal() {
     return logFile;
   }
@@ -6,6 +6,9 @@
  */
 package org.mule.runtime.core.internal.util.queue;
 
+import static java.lang.Boolean.getBoolean;
+import static org.mule.runtime.core.internal.util.queue.MappedSegmentQueueStoreDelegate.MAPPED_SEGMENTS_PROPERTY_KEY;
+
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.util.queue.DefaultQueueConfiguration;
 import org.mule.runtime.core.api.util.queue.QueueConfiguration;
@@ -43,8 +46,13 @@ public class DefaultQueueStore implements RecoverableQueueStore {
       this.config = new DefaultQueueConfiguration();
     }
     if (this.config.isPersistent()) {
-      delegate = new DualRandomAccessFileQueueStoreDelegate(this.name, muleContext.getConfiguration().getWorkingDirectory(),
-                                                            muleContext, this.config.getCapacity());
+      if (getBoolean(MAPPED_SEGMENTS_PROPERTY_KEY)) {
+        delegate = new MappedSegmentQueueStoreDelegate(this.name, muleContext.getConfiguration().getWorkingDirectory(),
+                                                       muleContext, this.config.getCapacity());
+      } else {
+        delegate = new DualRandomAccessFileQueueStoreDelegate(this.name, muleContext.getConfiguration().getWorkingDirectory(),
+                                                              muleContext, this.config.getCapacity());
+      }
     } else {
       delegate = new DefaultQueueStoreDelegate(this.config.getCapacity());
     }
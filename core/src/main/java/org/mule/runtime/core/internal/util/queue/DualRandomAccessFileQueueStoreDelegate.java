@@ -84,10 +84,21 @@ public class DualRandomAccessFileQueueStoreDelegate extends AbstractQueueStoreDe
     return queueControlDataFile;
   }
 
-  private static File getQueuesDirectory(String workingDirectory) {
+  static File getQueuesDirectory(String workingDirectory) {
     return new File(workingDirectory + File.separator + QUEUE_STORE_DIRECTORY);
   }
 
+  /**
+   * @param queueName queue name
+   * @param workingDirectory the working directory of the queues' owner
+   * @return whether there are files of this delegate for the given queue
+   */
+  static boolean hasQueueFiles(String queueName, String workingDirectory) {
+    File queuesDirectory = getQueuesDirectory(workingDirectory);
+    return new File(queuesDirectory, queueName + QUEUE_STORE_1_SUFFIX).exists()
+        || new File(queuesDirectory, queueName + QUEUE_STORE_2_SUFFIX).exists();
+  }
+
 
   public static File getFirstQueueFileForTesting(String queueName, String workingDirectory) {
     return new File(getQueuesDirectory(workingDirectory), queueName + QUEUE_STORE_1_SUFFIX);
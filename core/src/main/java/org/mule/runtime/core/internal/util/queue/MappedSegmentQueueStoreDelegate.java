@@ -0,0 +1,788 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.queue;
+
+import static java.lang.Boolean.valueOf;
+import static java.lang.Integer.getInteger;
+import static java.lang.Math.max;
+import static java.lang.String.format;
+import static java.lang.System.getProperty;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.Files.readAllBytes;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.apache.commons.io.FileUtils.deleteQuietly;
+import static org.mule.runtime.core.internal.util.queue.QueueFileProvider.toHex;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.api.util.Preconditions;
+import org.mule.runtime.core.api.MuleContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link TransactionalQueueStoreDelegate} implementation that stores the queue data in memory-mapped, fixed size segment files.
+ * <p/>
+ * Entries are appended at the tail of the last segment and consumed from the head, which is tracked by an in-memory index of
+ * the live entries. Producers and consumers use separate locks (in the same way as {@link java.util.concurrent.LinkedBlockingQueue}
+ * does) so they don't contend with each other. Consuming an entry only flips its status byte in the mapped segment, and a
+ * segment file is deleted as a whole as soon as all of its entries were consumed.
+ * <p/>
+ * Each record has a sequence number which gives its position in the queue, so that the order of the entries can be restored
+ * after a restart even for those put back at the head with {@link #untake(Serializable)}, which are written at the tail of the
+ * last segment like any other.
+ * <p/>
+ * Writes are made durable with group commit: the first thread that needs to sync forces every segment modified until then,
+ * so threads syncing concurrently share a single flush.
+ */
+public class MappedSegmentQueueStoreDelegate implements TransactionalQueueStoreDelegate {
+
+  /**
+   * System property to use this delegate for persistent queues instead of {@link DualRandomAccessFileQueueStoreDelegate}.
+   */
+  public static final String MAPPED_SEGMENTS_PROPERTY_KEY = "mule.queue.mappedSegments";
+  public static final String SEGMENT_SIZE_PROPERTY_KEY = "mule.queue.segmentSize";
+  public static final String SYNC_ON_WRITE_PROPERTY_KEY = "mule.queue.syncOnWrite";
+
+  private static final int ONE_MEGABYTE = 1024 * 1024;
+  private static final String SEGMENTS_DIRECTORY_SUFFIX = "-segments";
+  private static final String SEGMENT_FILE_EXTENSION = ".seg";
+  static final String MIGRATING_MARKER = "migrating";
+  static final String MIGRATED_MARKER = "migrated";
+
+  private static final byte END = 0;
+  private static final byte LIVE = 1;
+  private static final byte REMOVED = 2;
+  // status + sequence + data length
+  private static final int RECORD_HEADER_SIZE = 13;
+
+  protected final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+  private final ObjectSerializer serializer;
+  private final int capacity;
+  private final int segmentSize;
+  private final boolean syncOnWrite;
+  private final File segmentsDirectory;
+
+  private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+  private final ConcurrentLinkedDeque<Entry> entries = new ConcurrentLinkedDeque<>();
+  private final AtomicInteger count = new AtomicInteger();
+
+  private final ReentrantLock putLock = new ReentrantLock();
+  private final Condition notFull = putLock.newCondition();
+  private final ReentrantLock takeLock = new ReentrantLock();
+  private final Condition notEmpty = takeLock.newCondition();
+
+  private volatile Segment tail;
+  private int tailPosition;
+  // sequences of the entries at both ends of the queue, only updated holding the putLock
+  private long headSequence = 0;
+  private long tailSequence = 0;
+
+  private final Object syncLock = new Object();
+  private final AtomicLong writes = new AtomicLong();
+  private final Set<Segment> dirtySegments = ConcurrentHashMap.newKeySet();
+  private long syncedWrites = 0;
+
+  public MappedSegmentQueueStoreDelegate(String queueName, String workingDirectory, MuleContext muleContext, int capacity) {
+    this.serializer = muleContext.getObjectSerializer();
+    this.capacity = capacity;
+    this.segmentSize = getInteger(SEGMENT_SIZE_PROPERTY_KEY, ONE_MEGABYTE);
+    this.syncOnWrite = valueOf(getProperty(SYNC_ON_WRITE_PROPERTY_KEY, "true"));
+    this.segmentsDirectory = createSegmentsDirectory(queueName, workingDirectory);
+
+    try {
+      loadSegments();
+      if (new File(segmentsDirectory, MIGRATED_MARKER).exists()) {
+        // the elements were already migrated, only the legacy files were left behind
+        if (DualRandomAccessFileQueueStoreDelegate.hasQueueFiles(queueName, workingDirectory)) {
+          new DualRandomAccessFileQueueStoreDelegate(queueName, workingDirectory, muleContext, 0).dispose();
+        }
+      } else {
+        discardIncompleteMigration();
+        if (DualRandomAccessFileQueueStoreDelegate.hasQueueFiles(queueName, workingDirectory)) {
+          migrate(new DualRandomAccessFileQueueStoreDelegate(queueName, workingDirectory, muleContext, 0));
+        }
+      }
+      deleteQuietly(new File(segmentsDirectory, MIGRATING_MARKER));
+      deleteQuietly(new File(segmentsDirectory, MIGRATED_MARKER));
+    } catch (IOException e) {
+      throw new MuleRuntimeException(e);
+    }
+
+    if (logger.isDebugEnabled()) {
+      logger.debug(format("Queue %s has %s messages", queueName, getSize()));
+    }
+  }
+
+  private static File createSegmentsDirectory(String queueName, String workingDirectory) {
+    File queuesDirectory = DualRandomAccessFileQueueStoreDelegate.getQueuesDirectory(workingDirectory);
+    File directory = new File(queuesDirectory, queueName + SEGMENTS_DIRECTORY_SUFFIX);
+    if (!queuesDirectory.equals(directory.getParentFile()) || (!directory.exists() && !directory.mkdirs())) {
+      // if file system does not support the name provided then use a hex representation of the name.
+      directory = new File(queuesDirectory, toHex(queueName) + SEGMENTS_DIRECTORY_SUFFIX);
+      Preconditions.checkState(directory.exists() || directory.mkdirs(),
+                               "Could not create queue store directory " + directory.getAbsolutePath());
+    }
+    return directory;
+  }
+
+  @Override
+  public void putNow(Serializable o) {
+    byte[] data = serializer.getInternalProtocol().serialize(o);
+    final long write;
+    final int c;
+
+    putLock.lock();
+    try {
+      Entry entry = write(data, ++tailSequence);
+      entries.addLast(entry);
+      write = writes.get();
+      c = count.getAndIncrement();
+    } finally {
+      putLock.unlock();
+    }
+
+    sync(write);
+    if (c == 0) {
+      signalNotEmpty();
+    }
+  }
+
+  @Override
+  public boolean offer(Serializable o, int room, long timeout) throws InterruptedException {
+    checkInterrupted();
+    if (capacity > 0 && capacity <= room) {
+      throw new IllegalStateException("Can not add more objects than the capacity in one time");
+    }
+
+    // serialization happens before taking the lock, so producers only contend for the actual write
+    byte[] data = o == null ? null : serializer.getInternalProtocol().serialize(o);
+    final long write;
+    final int c;
+
+    putLock.lockInterruptibly();
+    try {
+      if (capacity > 0) {
+        long nanos = MILLISECONDS.toNanos(timeout);
+        while (count.get() >= capacity - room) {
+          if (timeout < 0) {
+            // If timeout is negative then wait until notified without a timeout.
+            notFull.await();
+          } else {
+            if (nanos <= 0L) {
+              return false;
+            }
+            nanos = notFull.awaitNanos(nanos);
+          }
+        }
+      }
+      if (data == null) {
+        return true;
+      }
+
+      Entry entry = write(data, ++tailSequence);
+      entries.addLast(entry);
+      write = writes.get();
+      c = count.getAndIncrement();
+    } finally {
+      putLock.unlock();
+    }
+
+    sync(write);
+    if (c == 0) {
+      signalNotEmpty();
+    }
+    return true;
+  }
+
+  @Override
+  public Serializable poll(long timeout) throws InterruptedException {
+    checkInterrupted();
+    final Entry entry;
+
+    takeLock.lockInterruptibly();
+    try {
+      long nanos = MILLISECONDS.toNanos(timeout);
+      while (count.get() == 0) {
+        if (nanos <= 0L) {
+          return null;
+        }
+        nanos = notEmpty.awaitNanos(nanos);
+      }
+
+      entry = entries.pollFirst();
+      if (count.getAndDecrement() > 1) {
+        notEmpty.signal();
+      }
+    } finally {
+      takeLock.unlock();
+    }
+
+    // the segment can't be reclaimed until the entry is marked as removed
+    byte[] data = read(entry);
+    sync(markRemoved(entry));
+    if (capacity > 0) {
+      signalNotFull();
+    }
+    return deserialize(data);
+  }
+
+  @Override
+  public Serializable peek() throws InterruptedException {
+    checkInterrupted();
+    takeLock.lockInterruptibly();
+    try {
+      Entry entry = entries.peekFirst();
+      return entry == null ? null : deserialize(read(entry));
+    } finally {
+      takeLock.unlock();
+    }
+  }
+
+  @Override
+  public void untake(Serializable item) throws InterruptedException {
+    checkInterrupted();
+    byte[] data = serializer.getInternalProtocol().serialize(item);
+    final long write;
+    final int c;
+
+    putLock.lockInterruptibly();
+    try {
+      // the data goes to the tail segment, its sequence is what keeps it at the head after a restart
+      Entry entry = write(data, --headSequence);
+      entries.addFirst(entry);
+      write = writes.get();
+      c = count.getAndIncrement();
+    } finally {
+      putLock.unlock();
+    }
+
+    sync(write);
+    if (c == 0) {
+      signalNotEmpty();
+    }
+  }
+
+  @Override
+  public int getSize() {
+    return count.get();
+  }
+
+  @Override
+  public void clear() throws InterruptedException {
+    checkInterrupted();
+    fullyLock();
+    try {
+      deleteSegments();
+      entries.clear();
+      count.set(0);
+      tail = createSegment(0, segmentSize);
+      tailPosition = 0;
+      headSequence = 0;
+      tailSequence = 0;
+      notFull.signalAll();
+    } catch (IOException e) {
+      throw new MuleRuntimeException(e);
+    } finally {
+      fullyUnlock();
+    }
+  }
+
+  @Override
+  public boolean addAll(Collection<? extends Serializable> items) {
+    List<byte[]> data = new ArrayList<>(items.size());
+    for (Serializable item : items) {
+      data.add(serializer.getInternalProtocol().serialize(item));
+    }
+
+    final long write;
+    final int c;
+
+    putLock.lock();
+    try {
+      for (byte[] itemData : data) {
+        entries.addLast(write(itemData, ++tailSequence));
+      }
+      write = writes.get();
+      c = count.getAndAdd(data.size());
+    } finally {
+      putLock.unlock();
+    }
+
+    // all the items are synced at once
+    sync(write);
+    if (c == 0 && !data.isEmpty()) {
+      signalNotEmpty();
+    }
+    return true;
+  }
+
+  /**
+   * @return all the elements in the queue, in the order in which they would be consumed.
+   */
+  public Collection<Serializable> allElements() {
+    List<Serializable> elements = new ArrayList<>(count.get());
+    takeLock.lock();
+    try {
+      for (Entry entry : entries) {
+        try {
+          elements.add(deserialize(read(entry)));
+        } catch (Exception e) {
+          logger.warn("Failure trying to deserialize value " + e.getMessage());
+          if (logger.isDebugEnabled()) {
+            logger.debug("Failure trying to deserialize value", e);
+          }
+        }
+      }
+    } finally {
+      takeLock.unlock();
+    }
+    return elements;
+  }
+
+  @Override
+  public void remove(Serializable value) {
+    final long write;
+    takeLock.lock();
+    try {
+      Entry entry = find(value);
+      if (entry == null || !entries.removeFirstOccurrence(entry)) {
+        return;
+      }
+      count.decrementAndGet();
+      write = markRemoved(entry);
+    } finally {
+      takeLock.unlock();
+    }
+
+    sync(write);
+    if (capacity > 0) {
+      signalNotFull();
+    }
+  }
+
+  @Override
+  public boolean contains(Serializable value) {
+    takeLock.lock();
+    try {
+      return find(value) != null;
+    } finally {
+      takeLock.unlock();
+    }
+  }
+
+  private Entry find(Serializable value) {
+    // only the live entries are checked, without going through the consumed ones in the files
+    for (Entry entry : entries) {
+      if (deserialize(read(entry)).equals(value)) {
+        return entry;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public void close() {
+    fullyLock();
+    try {
+      for (Segment segment : segments.values()) {
+        segment.force();
+        segment.close();
+      }
+      segments.clear();
+      dirtySegments.clear();
+      entries.clear();
+      count.set(0);
+    } finally {
+      fullyUnlock();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void dispose() {
+    fullyLock();
+    try {
+      deleteSegments();
+      entries.clear();
+      count.set(0);
+      deleteQuietly(segmentsDirectory);
+    } finally {
+      fullyUnlock();
+    }
+  }
+
+  /**
+   * Has to be called holding the {@link #putLock}.
+   */
+  private Entry write(byte[] data, long sequence) {
+    final int recordSize = RECORD_HEADER_SIZE + data.length;
+    if (tailPosition + recordSize > tail.capacity) {
+      rotate(recordSize);
+    }
+
+    final Segment segment = tail;
+    final int position = tailPosition;
+    ByteBuffer buffer = segment.buffer.duplicate();
+    buffer.position(position + 1);
+    buffer.putLong(sequence);
+    buffer.putInt(data.length);
+    buffer.put(data);
+    if (buffer.hasRemaining()) {
+      // a previous incomplete write may have left data after this record
+      buffer.put(END);
+    }
+    // the record becomes visible on recovery only once it is completely written
+    segment.buffer.put(position, LIVE);
+
+    tailPosition = position + recordSize;
+    segment.live.incrementAndGet();
+    dirtySegments.add(segment);
+    writes.incrementAndGet();
+    return new Entry(segment, position, data.length, sequence);
+  }
+
+  private void rotate(int recordSize) {
+    Segment sealed = tail;
+    try {
+      tail = createSegment(sealed.id + 1, max(segmentSize, recordSize + 1));
+      tailPosition = 0;
+    } catch (IOException e) {
+      throw new MuleRuntimeException(e);
+    }
+
+    if (sealed.live.get() == 0) {
+      reclaim(sealed);
+    }
+  }
+
+  private long markRemoved(Entry entry) {
+    final Segment segment = entry.segment;
+    segment.buffer.put(entry.position, REMOVED);
+    dirtySegments.add(segment);
+    long write = writes.incrementAndGet();
+
+    if (segment.live.decrementAndGet() == 0 && segment != tail) {
+      reclaim(segment);
+    }
+    return write;
+  }
+
+  private void reclaim(Segment segment) {
+    if (segment.reclaimed.compareAndSet(false, true)) {
+      segments.remove(segment.id, segment);
+      dirtySegments.remove(segment);
+      segment.close();
+      deleteQuietly(segment.file);
+    }
+  }
+
+  private byte[] read(Entry entry) {
+    byte[] data = new byte[entry.length];
+    ByteBuffer buffer = entry.segment.buffer.duplicate();
+    buffer.position(entry.position + RECORD_HEADER_SIZE);
+    buffer.get(data);
+    return data;
+  }
+
+  /**
+   * Makes sure that the given write is durable. Whoever gets to sync first does so on behalf of every write done until
+   * then, so threads waiting on the lock will usually find their write already synced.
+   */
+  private void sync(long write) {
+    if (!syncOnWrite) {
+      return;
+    }
+
+    synchronized (syncLock) {
+      if (syncedWrites >= write) {
+        return;
+      }
+
+      // Segments are marked dirty before the write counter is incremented, so every write up to the target is covered.
+      final long target = writes.get();
+      for (Iterator<Segment> iterator = dirtySegments.iterator(); iterator.hasNext();) {
+        Segment segment = iterator.next();
+        iterator.remove();
+        segment.force();
+      }
+      syncedWrites = target;
+    }
+  }
+
+  private void loadSegments() throws IOException {
+    File[] files = segmentsDirectory.listFiles(file -> file.isFile() && file.getName().endsWith(SEGMENT_FILE_EXTENSION));
+    if (files == null || files.length == 0) {
+      tail = createSegment(0, segmentSize);
+      tailPosition = 0;
+      return;
+    }
+
+    // segment names are zero padded, so they sort in the order in which they were created
+    Arrays.sort(files);
+    List<Entry> recovered = new ArrayList<>();
+    for (File file : files) {
+      String name = file.getName();
+      long id = Long.parseLong(name.substring(0, name.length() - SEGMENT_FILE_EXTENSION.length()));
+      Segment segment = openSegment(id, file, (int) max(file.length(), segmentSize));
+      segments.put(id, segment);
+      tailPosition = recover(segment, recovered);
+      tail = segment;
+    }
+
+    // untaken entries are further on in the files than their position in the queue
+    recovered.sort(Comparator.comparingLong(entry -> entry.sequence));
+    entries.addAll(recovered);
+    if (!recovered.isEmpty()) {
+      headSequence = recovered.get(0).sequence;
+      tailSequence = recovered.get(recovered.size() - 1).sequence;
+    }
+
+    for (Segment segment : segments.values()) {
+      if (segment != tail && segment.live.get() == 0) {
+        reclaim(segment);
+      }
+    }
+    count.set(entries.size());
+  }
+
+  /**
+   * @return the position after the last complete record of the segment
+   */
+  private int recover(Segment segment, List<Entry> recovered) {
+    ByteBuffer buffer = segment.buffer;
+    int position = 0;
+    while (position + RECORD_HEADER_SIZE <= segment.capacity) {
+      byte status = buffer.get(position);
+      long sequence = buffer.getLong(position + 1);
+      int length = buffer.getInt(position + 9);
+      if ((status != LIVE && status != REMOVED) || length < 0 || position + RECORD_HEADER_SIZE + length > segment.capacity) {
+        break;
+      }
+
+      if (status == LIVE) {
+        recovered.add(new Entry(segment, position, length, sequence));
+        segment.live.incrementAndGet();
+      }
+      position += RECORD_HEADER_SIZE + length;
+    }
+    return position;
+  }
+
+  /**
+   * Migrates the elements of the legacy queue files. Markers are written so that a crash at any point doesn't duplicate them: the
+   * entries of a migration interrupted before completion are discarded on restart and migrated again, and once it completed
+   * the legacy files are only disposed.
+   */
+  private void migrate(DualRandomAccessFileQueueStoreDelegate legacyDelegate) throws IOException {
+    try {
+      Collection<Serializable> legacyElements = legacyDelegate.allElements();
+      if (!legacyElements.isEmpty()) {
+        logger.info("Migrating {} elements to memory-mapped queue segments in {}", legacyElements.size(),
+                    segmentsDirectory.getAbsolutePath());
+        writeMarker(MIGRATING_MARKER, tailSequence + 1);
+        addAll(legacyElements);
+        for (Segment segment : segments.values()) {
+          segment.force();
+        }
+      }
+      writeMarker(MIGRATED_MARKER, tailSequence);
+      legacyDelegate.dispose();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      legacyDelegate.close();
+    }
+  }
+
+  /**
+   * Removes the entries written by a migration which didn't complete, since the legacy files they come from are still there.
+   */
+  private void discardIncompleteMigration() throws IOException {
+    File marker = new File(segmentsDirectory, MIGRATING_MARKER);
+    if (!marker.exists()) {
+      return;
+    }
+
+    byte[] content = readAllBytes(marker.toPath());
+    if (content.length < Long.BYTES) {
+      // the crash happened before any element was migrated
+      return;
+    }
+
+    long firstMigratedSequence = ByteBuffer.wrap(content).getLong();
+    for (Iterator<Entry> iterator = entries.iterator(); iterator.hasNext();) {
+      Entry entry = iterator.next();
+      if (entry.sequence >= firstMigratedSequence) {
+        iterator.remove();
+        markRemoved(entry);
+      }
+    }
+    count.set(entries.size());
+    for (Segment segment : segments.values()) {
+      segment.force();
+    }
+  }
+
+  private void writeMarker(String name, long sequence) throws IOException {
+    try (FileChannel channel = FileChannel.open(new File(segmentsDirectory, name).toPath(), CREATE, WRITE, TRUNCATE_EXISTING)) {
+      ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+      buffer.putLong(sequence);
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      channel.force(true);
+    }
+  }
+
+  private Segment createSegment(long id, int size) throws IOException {
+    File file = new File(segmentsDirectory, format("%020d%s", id, SEGMENT_FILE_EXTENSION));
+    Segment segment = openSegment(id, file, size);
+    segments.put(id, segment);
+    return segment;
+  }
+
+  private Segment openSegment(long id, File file, int size) throws IOException {
+    FileChannel channel = FileChannel.open(file.toPath(), CREATE, READ, WRITE);
+    return new Segment(id, file, channel, channel.map(READ_WRITE, 0, size), size);
+  }
+
+  private void deleteSegments() {
+    for (Segment segment : segments.values()) {
+      segment.reclaimed.set(true);
+      segment.close();
+      deleteQuietly(segment.file);
+    }
+    segments.clear();
+    dirtySegments.clear();
+  }
+
+  private Serializable deserialize(byte[] data) {
+    return serializer.getInternalProtocol().deserialize(data);
+  }
+
+  private void signalNotEmpty() {
+    takeLock.lock();
+    try {
+      notEmpty.signal();
+    } finally {
+      takeLock.unlock();
+    }
+  }
+
+  private void signalNotFull() {
+    putLock.lock();
+    try {
+      // producers may be waiting for different amounts of room
+      notFull.signalAll();
+    } finally {
+      putLock.unlock();
+    }
+  }
+
+  private void fullyLock() {
+    putLock.lock();
+    takeLock.lock();
+  }
+
+  private void fullyUnlock() {
+    takeLock.unlock();
+    putLock.unlock();
+  }
+
+  private void checkInterrupted() throws InterruptedException {
+    if (Thread.interrupted()) {
+      throw new InterruptedException();
+    }
+  }
+
+  private final class Segment {
+
+    private final long id;
+    private final File file;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final AtomicInteger live = new AtomicInteger();
+    private final AtomicBoolean reclaimed = new AtomicBoolean(false);
+
+    private Segment(long id, File file, FileChannel channel, MappedByteBuffer buffer, int capacity) {
+      this.id = id;
+      this.file = file;
+      this.channel = channel;
+      this.buffer = buffer;
+      this.capacity = capacity;
+    }
+
+    private void force() {
+      try {
+        buffer.force();
+      } catch (RuntimeException e) {
+        // the segment may have been reclaimed concurrently
+        if (!reclaimed.get()) {
+          throw e;
+        }
+      }
+    }
+
+    private void close() {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        logger.warn(e.getMessage());
+        if (logger.isDebugEnabled()) {
+          logger.debug("Error closing queue segment", e);
+        }
+      }
+    }
+  }
+
+  private static final class Entry {
+
+    private final Segment segment;
+    private final int position;
+    private final int length;
+    private final long sequence;
+
+    private Entry(Segment segment, int position, int length, long sequence) {
+      this.segment = segment;
+      this.position = position;
+      this.length = length;
+      this.sequence = sequence;
+    }
+  }
+}
@@ -0,0 +1,312 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.store;
+
+import static java.lang.String.format;
+import static java.util.Collections.unmodifiableList;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.api.util.FileUtils.cleanDirectory;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.api.store.ObjectDoesNotExistException;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.api.store.ObjectStoreNotAvailableException;
+import org.mule.runtime.core.api.MuleContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+
+/**
+ * A {@link PersistentObjectStorePartition} which keeps the same file per entry layout but allows concurrent access to it.
+ * <p>
+ * The key index is a pair of {@link ConcurrentHashMap}s, so lookups don't block and each key is claimed atomically. Values
+ * are serialized, written, read and deleted without holding any exclusive lock: writers first write the value to a fresh
+ * file and only then publish it in the index, while removals unpublish the key before touching the file. Only
+ * {@link #clear()}, {@link #close()} and the initial load of the index are exclusive.
+ *
+ * @param <T> the serializable entity to be persisted by OS
+ *
+ * @since 4.4.0
+ */
+public class ConcurrentPersistentObjectStorePartition<T extends Serializable> extends PersistentObjectStorePartition<T> {
+
+  private static final Logger LOGGER = getLogger(ConcurrentPersistentObjectStorePartition.class);
+
+  private final ConcurrentMap<String, String> keyToFileName = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, String> fileNameToKey = new ConcurrentHashMap<>();
+
+  /**
+   * Shared by regular operations, exclusive for the ones that affect the whole partition.
+   */
+  private final ReadWriteLock partitionLock = new ReentrantReadWriteLock();
+
+  private volatile boolean loaded = false;
+
+  public ConcurrentPersistentObjectStorePartition(MuleContext muleContext, String partitionName, File partitionDirectory) {
+    super(muleContext, partitionName, partitionDirectory);
+  }
+
+  public ConcurrentPersistentObjectStorePartition(MuleContext muleContext, File partitionDirectory)
+      throws ObjectStoreNotAvailableException {
+    super(muleContext, partitionDirectory);
+  }
+
+  @Override
+  public void close() throws ObjectStoreException {
+    partitionLock.writeLock().lock();
+    try {
+      cleanDirectory(getPartitionDirectory());
+      getPartitionDirectory().delete();
+    } catch (IOException e) {
+      throw new ObjectStoreException(createStaticMessage("Could not close object store partition"), e);
+    } finally {
+      keyToFileName.clear();
+      fileNameToKey.clear();
+      partitionLock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public List<String> allKeys() throws ObjectStoreException {
+    assureLoaded();
+    return unmodifiableList(new ArrayList<>(keyToFileName.keySet()));
+  }
+
+  @Override
+  protected boolean doContains(String key) throws ObjectStoreException {
+    assureLoaded();
+    return keyToFileName.containsKey(key);
+  }
+
+  @Override
+  protected void doStore(String key, T value) throws ObjectStoreException {
+    assureLoaded();
+
+    // fail fast before paying for the serialization
+    if (keyToFileName.containsKey(key)) {
+      throw new ObjectAlreadyExistsException();
+    }
+
+    partitionLock.readLock().lock();
+    try {
+      File newFile = createFileToStoreObject();
+      serialize(newFile, new StoreValue<>(key, value));
+
+      // both indexes are updated at once, so that no one finds the key without its file being in the index
+      final String newFileName = newFile.getName();
+      String fileName = keyToFileName.compute(key, (k, existingFileName) -> {
+        if (existingFileName != null) {
+          return existingFileName;
+        }
+        fileNameToKey.put(newFileName, k);
+        return newFileName;
+      });
+      if (!fileName.equals(newFileName)) {
+        // another thread won the race for this key
+        newFile.delete();
+        throw new ObjectAlreadyExistsException();
+      }
+    } finally {
+      partitionLock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public void clear() throws ObjectStoreException {
+    partitionLock.writeLock().lock();
+    try {
+      cleanDirectory(getPartitionDirectory());
+      createOrRetrievePartitionDescriptorFile();
+    } catch (IOException e) {
+      throw new ObjectStoreException(createStaticMessage("Could not clear ObjectStore"), e);
+    } finally {
+      keyToFileName.clear();
+      fileNameToKey.clear();
+      partitionLock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  protected T doRetrieve(String key) throws ObjectStoreException {
+    assureLoaded();
+
+    partitionLock.readLock().lock();
+    try {
+      return load(key, keyToFileName.get(key));
+    } finally {
+      partitionLock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public Map<String, T> retrieveAll() throws ObjectStoreException {
+    assureLoaded();
+
+    partitionLock.readLock().lock();
+    try {
+      Map<String, T> values = new LinkedHashMap<>(keyToFileName.size());
+      for (Map.Entry<String, String> entry : keyToFileName.entrySet()) {
+        try {
+          values.put(entry.getKey(), load(entry.getKey(), entry.getValue()));
+        } catch (ObjectDoesNotExistException e) {
+          // removed while iterating
+        }
+      }
+      return values;
+    } finally {
+      partitionLock.readLock().unlock();
+    }
+  }
+
+  @Override
+  protected T doRemove(String key) throws ObjectStoreException {
+    assureLoaded();
+
+    partitionLock.readLock().lock();
+    try {
+      // whoever removes the key from the index owns its file
+      String filename = keyToFileName.remove(key);
+      if (filename == null) {
+        throw new ObjectDoesNotExistException(createStaticMessage("Key does not exist: " + key));
+      }
+      fileNameToKey.remove(filename);
+
+      File file = new File(getPartitionDirectory(), filename);
+      try {
+        return deserialize(file).getValue();
+      } finally {
+        if (!file.delete()) {
+          LOGGER.warn("Deleting {} failed", file.getAbsolutePath());
+        }
+      }
+    } finally {
+      partitionLock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public void expire(long entryTTL, int maxEntries) throws ObjectStoreException {
+    assureLoaded();
+
+    partitionLock.readLock().lock();
+    try {
+      // files which are not in the index yet belong to stores still in progress
+      File[] files = Arrays.stream(listValuesFiles())
+          .filter(file -> fileNameToKey.containsKey(file.getName()))
+          .toArray(File[]::new);
+      Arrays.sort(files, (f1, f2) -> {
+        int result = Long.valueOf(f1.lastModified()).compareTo(f2.lastModified());
+        if (result == 0) {
+          result = f1.getName().compareTo(f2.getName());
+        }
+        return result;
+      });
+
+      int startIndex = 0;
+      if (maxEntries != UNBOUNDED) {
+        int excess = files.length - maxEntries;
+        for (; startIndex < excess; startIndex++) {
+          expireFile(files[startIndex]);
+        }
+      }
+
+      if (entryTTL == UNBOUNDED) {
+        return;
+      }
+
+      final long now = System.currentTimeMillis();
+      for (int i = startIndex; i < files.length; i++) {
+        if ((now - files[i].lastModified()) >= entryTTL) {
+          expireFile(files[i]);
+        } else {
+          break;
+        }
+      }
+    } finally {
+      partitionLock.readLock().unlock();
+    }
+  }
+
+  private void expireFile(File file) {
+    String key = fileNameToKey.get(file.getName());
+    if (key != null && keyToFileName.remove(key, file.getName())) {
+      fileNameToKey.remove(file.getName());
+      if (!file.delete()) {
+        LOGGER.warn("Deleting {} failed", file.getAbsolutePath());
+      }
+    }
+  }
+
+  private T load(String key, String filename) throws ObjectStoreException {
+    if (filename == null) {
+      throw new ObjectDoesNotExistException(createStaticMessage("Key does not exist: " + key));
+    }
+
+    File file = new File(getPartitionDirectory(), filename);
+    try {
+      return deserialize(file).getValue();
+    } catch (ObjectStoreException e) {
+      if (!file.exists()) {
+        // removed after it was looked up
+        throw new ObjectDoesNotExistException(createStaticMessage("Key does not exist: " + key));
+      }
+      throw e;
+    }
+  }
+
+  private void assureLoaded() throws ObjectStoreException {
+    if (!loaded) {
+      loadStoredKeysAndFileNames();
+    }
+  }
+
+  private void loadStoredKeysAndFileNames() throws ObjectStoreException {
+    partitionLock.writeLock().lock();
+    try {
+      /*
+       * by re-checking this condition here we can avoid contention in {@link #assureLoaded}. The amount of times that this
+       * condition should evaluate to {@code true} is really limited, which provides better performance in the long run
+       */
+      if (loaded) {
+        return;
+      }
+
+      for (File file : listValuesFiles()) {
+        try {
+          StoreValue<T> storeValue = deserialize(file);
+          keyToFileName.put((String) storeValue.getKey(), file.getName());
+          fileNameToKey.put(file.getName(), (String) storeValue.getKey());
+        } catch (ObjectStoreException e) {
+          LOGGER.warn(format("Could not deserialize the ObjectStore file: %s. The file will be skipped and moved to the Garbage folder",
+                             file.getName()));
+          moveToCorruptedFilesFolder(file);
+        }
+      }
+
+      loaded = true;
+    } catch (Exception e) {
+      throw new ObjectStoreException(createStaticMessage(format("Could not restore object store data from %1s",
+                                                                getPartitionDirectory().getAbsolutePath())));
+    } finally {
+      partitionLock.writeLock().unlock();
+    }
+  }
+}
@@ -0,0 +1,930 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.store;
+
+import static java.lang.Boolean.valueOf;
+import static java.lang.Long.getLong;
+import static java.lang.String.format;
+import static java.lang.System.currentTimeMillis;
+import static java.lang.System.getProperty;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Comparator.comparingLong;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.mule.runtime.core.api.util.FileUtils.cleanDirectory;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.lifecycle.Disposable;
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.api.store.ObjectDoesNotExistException;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.api.store.ObjectStoreNotAvailableException;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.privileged.store.DeserializationPostInitialisable;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+
+/**
+ * A {@link PersistentObjectStorePartition} which, instead of writing one file per entry, appends every store and remove
+ * operation to a log made of fixed size segment files.
+ * <p>
+ * All the keys are kept in an in-memory index that points to the position of the latest record for each key, so lookups
+ * never touch the disk and values are read with a single positional read. Concurrent writers are durably flushed together
+ * (group commit): the first writer which needs to sync forces the segment on behalf of all the records appended until then.
+ * <p>
+ * Sealed segments in which most of the records were superseded or removed are compacted in background: their live records
+ * are appended to the active segment and the segment file is deleted. On startup the segments are replayed in order to
+ * rebuild the index, truncating any torn record left at the tail of the last segment by a crash. Entries found in the
+ * legacy {@code .obj} file format are migrated into the log the first time the partition is loaded.
+ *
+ * @param <T> the serializable entity to be persisted by OS
+ *
+ * @since 4.4.0
+ */
+public class LogStructuredObjectStorePartition<T extends Serializable> extends PersistentObjectStorePartition<T>
+    implements Disposable {
+
+  /**
+   * System property to set the maximum size in bytes of each segment file. A record larger than this will still be written
+   * into a segment of its own.
+   */
+  public static final String MULE_OBJECT_STORE_SEGMENT_SIZE = SYSTEM_PROPERTY_PREFIX + "objectStore.logStructured.segmentSize";
+
+  /**
+   * System property to indicate whether each write must be synced to the storage device before returning. Defaults to
+   * {@code true}. When disabled, flushing to the device is left to the operating system.
+   */
+  public static final String MULE_OBJECT_STORE_SYNC_ON_WRITE = SYSTEM_PROPERTY_PREFIX + "objectStore.logStructured.syncOnWrite";
+
+  static final String SEGMENT_FILE_PREFIX = "segment-";
+  static final String SEGMENT_FILE_EXTENSION = ".log";
+
+  private static final Logger LOGGER = getLogger(LogStructuredObjectStorePartition.class);
+
+  private static final long DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+  private static final double COMPACTION_THRESHOLD = 0.5;
+
+  private static final byte PUT = 1;
+  private static final byte REMOVE = 2;
+
+  // type + timestamp + key length + value length
+  private static final int HEADER_SIZE = 1 + 8 + 4 + 4;
+  // CRC32 of the header, key and value
+  private static final int TRAILER_SIZE = 4;
+
+  private final MuleContext muleContext;
+  private final ObjectSerializer serializer;
+  private final Executor compactionExecutor;
+  private final long segmentSize;
+  private final boolean syncOnWrite;
+
+  private final ConcurrentMap<String, IndexEntry> index = new ConcurrentHashMap<>();
+  private final ConcurrentSkipListSet<IndexEntry> expirationIndex =
+      new ConcurrentSkipListSet<>(comparingLong((IndexEntry entry) -> entry.timestamp).thenComparingLong(entry -> entry.order));
+  private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+
+  private final Lock appendLock = new ReentrantLock();
+  private final ReadWriteLock segmentsLock = new ReentrantReadWriteLock();
+  private final Lock compactionLock = new ReentrantLock();
+  private final Object syncLock = new Object();
+  private final AtomicBoolean compactionScheduled = new AtomicBoolean(false);
+
+  private volatile boolean loaded = false;
+  private volatile Segment activeSegment;
+  private volatile long lastWrite = 0;
+  private long lastSyncedWrite = 0;
+  private long nextOrder = 0;
+
+  /**
+   * Creates a new partition.
+   *
+   * @param muleContext the {@link MuleContext} of the owning artifact
+   * @param partitionName the name of the partition
+   * @param partitionDirectory the directory in which the segments are kept
+   * @param compactionExecutor the {@link Executor} on which compactions are run. May be {@code null}, in which case
+   *        {@link #compact()} has to be invoked explicitly.
+   */
+  public LogStructuredObjectStorePartition(MuleContext muleContext, String partitionName, File partitionDirectory,
+                                           Executor compactionExecutor) {
+    super(muleContext, partitionName, partitionDirectory);
+    this.muleContext = muleContext;
+    this.serializer = muleContext.getObjectSerializer();
+    this.compactionExecutor = compactionExecutor;
+    this.segmentSize = getLong(MULE_OBJECT_STORE_SEGMENT_SIZE, DEFAULT_SEGMENT_SIZE);
+    this.syncOnWrite = valueOf(getProperty(MULE_OBJECT_STORE_SYNC_ON_WRITE, "true"));
+  }
+
+  /**
+   * Restores a partition previously created on the given {@code partitionDirectory}, either by this class or by a
+   * {@link PersistentObjectStorePartition}.
+   *
+   * @param muleContext the {@link MuleContext} of the owning artifact
+   * @param partitionDirectory the directory in which the segments are kept
+   * @param compactionExecutor the {@link Executor} on which compactions are run. May be {@code null}, in which case
+   *        {@link #compact()} has to be invoked explicitly.
+   * @throws ObjectStoreNotAvailableException if the partition descriptor could not be read
+   */
+  public LogStructuredObjectStorePartition(MuleContext muleContext, File partitionDirectory, Executor compactionExecutor)
+      throws ObjectStoreNotAvailableException {
+    super(muleContext, partitionDirectory);
+    this.muleContext = muleContext;
+    this.serializer = muleContext.getObjectSerializer();
+    this.compactionExecutor = compactionExecutor;
+    this.segmentSize = getLong(MULE_OBJECT_STORE_SEGMENT_SIZE, DEFAULT_SEGMENT_SIZE);
+    this.syncOnWrite = valueOf(getProperty(MULE_OBJECT_STORE_SYNC_ON_WRITE, "true"));
+  }
+
+  @Override
+  public void close() throws ObjectStoreException {
+    appendLock.lock();
+    segmentsLock.writeLock().lock();
+    try {
+      closeSegments();
+      cleanDirectory(getPartitionDirectory());
+      getPartitionDirectory().delete();
+    } catch (IOException e) {
+      throw new ObjectStoreException(createStaticMessage("Could not close object store partition"), e);
+    } finally {
+      resetIndex();
+      loaded = false;
+      segmentsLock.writeLock().unlock();
+      appendLock.unlock();
+    }
+  }
+
+  /**
+   * Releases the file handles held by this partition, keeping its contents on disk.
+   */
+  @Override
+  public void dispose() {
+    appendLock.lock();
+    segmentsLock.writeLock().lock();
+    try {
+      if (activeSegment != null) {
+        activeSegment.channel.force(false);
+      }
+      closeSegments();
+    } catch (IOException e) {
+      LOGGER.warn(format("Could not sync object store partition '%s' on dispose", getPartitionName()), e);
+    } finally {
+      resetIndex();
+      loaded = false;
+      segmentsLock.writeLock().unlock();
+      appendLock.unlock();
+    }
+  }
+
+  @Override
+  public List<String> allKeys() throws ObjectStoreException {
+    assureLoaded();
+    return unmodifiableList(new ArrayList<>(index.keySet()));
+  }
+
+  @Override
+  protected boolean doContains(String key) throws ObjectStoreException {
+    assureLoaded();
+    return index.containsKey(key);
+  }
+
+  @Override
+  protected void doStore(String key, T value) throws ObjectStoreException {
+    assureLoaded();
+
+    // serialization happens before taking the lock, so writers only contend for the actual append
+    final long timestamp = currentTimeMillis();
+    final ByteBuffer record = encode(PUT, timestamp, key.getBytes(UTF_8), serialize(value));
+    final long write;
+
+    appendLock.lock();
+    try {
+      if (index.containsKey(key)) {
+        throw new ObjectAlreadyExistsException();
+      }
+      IndexEntry entry = append(key, record, timestamp, nextOrder++);
+      index.put(key, entry);
+      expirationIndex.add(entry);
+      write = lastWrite;
+    } finally {
+      appendLock.unlock();
+    }
+
+    afterWrite(write);
+  }
+
+  @Override
+  public void clear() throws ObjectStoreException {
+    appendLock.lock();
+    segmentsLock.writeLock().lock();
+    try {
+      closeSegments();
+      resetIndex();
+      cleanDirectory(getPartitionDirectory());
+      createOrRetrievePartitionDescriptorFile();
+      activeSegment = createSegment(0);
+      loaded = true;
+    } catch (IOException e) {
+      loaded = false;
+      throw new ObjectStoreException(createStaticMessage("Could not clear ObjectStore"), e);
+    } finally {
+      segmentsLock.writeLock().unlock();
+      appendLock.unlock();
+    }
+  }
+
+  @Override
+  protected T doRetrieve(String key) throws ObjectStoreException {
+    assureLoaded();
+    return deserialize(readValue(key, index.get(key)));
+  }
+
+  @Override
+  public Map<String, T> retrieveAll() throws ObjectStoreException {
+    assureLoaded();
+
+    Map<String, T> values = new LinkedHashMap<>(index.size());
+    for (Map.Entry<String, IndexEntry> entry : index.entrySet()) {
+      try {
+        values.put(entry.getKey(), deserialize(readValue(entry.getKey(), entry.getValue())));
+      } catch (ObjectDoesNotExistException e) {
+        // removed while iterating
+      }
+    }
+    return values;
+  }
+
+  @Override
+  protected T doRemove(String key) throws ObjectStoreException {
+    assureLoaded();
+
+    final IndexEntry entry;
+    final byte[] value;
+    final long write;
+
+    appendLock.lock();
+    try {
+      entry = index.get(key);
+      if (entry == null) {
+        throw new ObjectDoesNotExistException(createStaticMessage("Key does not exist: " + key));
+      }
+      appendRemoval(entry);
+      write = lastWrite;
+
+      // the removed record is read after releasing the append lock, this keeps its segment from being compacted meanwhile
+      segmentsLock.readLock().lock();
+    } finally {
+      appendLock.unlock();
+    }
+
+    try {
+      value = readRecordValue(key, entry);
+    } finally {
+      segmentsLock.readLock().unlock();
+    }
+
+    afterWrite(write);
+    return deserialize(value);
+  }
+
+  @Override
+  public void expire(long entryTTL, int maxEntries) throws ObjectStoreException {
+    assureLoaded();
+
+    final long write;
+    appendLock.lock();
+    try {
+      Iterator<IndexEntry> entries = expirationIndex.iterator();
+      if (maxEntries != UNBOUNDED) {
+        int excess = index.size() - maxEntries;
+        while (excess > 0 && entries.hasNext()) {
+          appendRemoval(entries.next());
+          excess--;
+        }
+      }
+
+      if (entryTTL != UNBOUNDED) {
+        final long now = currentTimeMillis();
+        while (entries.hasNext()) {
+          IndexEntry entry = entries.next();
+          if ((now - entry.timestamp) >= entryTTL) {
+            appendRemoval(entry);
+          } else {
+            break;
+          }
+        }
+      }
+      write = lastWrite;
+    } finally {
+      appendLock.unlock();
+    }
+
+    // all the removals done by this expiration are synced at once
+    afterWrite(write);
+  }
+
+  /**
+   * Rewrites the live records of the sealed segments in which the ratio of superseded records exceeds the compaction
+   * threshold, deleting those segments afterwards.
+   *
+   * @throws ObjectStoreException if a segment could not be compacted
+   */
+  public void compact() throws ObjectStoreException {
+    assureLoaded();
+
+    compactionLock.lock();
+    try {
+      for (Segment segment : getCompactableSegments()) {
+        compactSegment(segment);
+      }
+    } catch (IOException e) {
+      throw new ObjectStoreException(createStaticMessage(format("Could not compact object store partition '%s'",
+                                                                getPartitionName())),
+                                     e);
+    } finally {
+      compactionLock.unlock();
+    }
+  }
+
+  /**
+   * @return the amount of segment files currently in use by this partition
+   */
+  int getSegmentsCount() {
+    return segments.size();
+  }
+
+  private void compactSegment(Segment segment) throws IOException, ObjectStoreException {
+    long position = 0;
+    try (DataInputStream input = openSegmentInput(segment.file)) {
+      Record record;
+      while (position < segment.size && (record = readRecord(input, segment.size - position)) != null) {
+        copyIfLive(segment, position, record);
+        position += record.length();
+      }
+    }
+
+    sync(lastWrite);
+
+    segmentsLock.writeLock().lock();
+    try {
+      if (segments.remove(segment.id, segment)) {
+        segment.close();
+        if (!segment.file.delete()) {
+          LOGGER.warn("Could not delete compacted object store segment {}", segment.file.getAbsolutePath());
+        }
+      }
+    } finally {
+      segmentsLock.writeLock().unlock();
+    }
+  }
+
+  private void copyIfLive(Segment segment, long position, Record record) throws ObjectStoreException {
+    appendLock.lock();
+    try {
+      if (segments.get(segment.id) != segment) {
+        // the partition was cleared
+        return;
+      }
+
+      IndexEntry current = index.get(record.key);
+      if (record.type == PUT) {
+        if (current != null && current.segmentId == segment.id && current.offset == position) {
+          IndexEntry moved = append(record.key, record.encode(), current.timestamp, current.order);
+          expirationIndex.remove(current);
+          index.put(record.key, moved);
+          expirationIndex.add(moved);
+        }
+      } else if (current == null && segments.firstKey() < segment.id) {
+        // an older segment may still hold the removed value, so the tombstone has to survive this segment
+        ByteBuffer tombstone = record.encode();
+        append(record.key, tombstone, record.timestamp, -1);
+        activeSegment.deadBytes.addAndGet(tombstone.capacity());
+      }
+    } finally {
+      appendLock.unlock();
+    }
+  }
+
+  private List<Segment> getCompactableSegments() {
+    List<Segment> compactable = new ArrayList<>();
+    Segment active = activeSegment;
+    for (Segment segment : segments.values()) {
+      if (segment != active && segment.size > 0 && ((double) segment.deadBytes.get() / segment.size) >= COMPACTION_THRESHOLD) {
+        compactable.add(segment);
+      }
+    }
+    return compactable;
+  }
+
+  private void afterWrite(long write) throws ObjectStoreException {
+    if (syncOnWrite) {
+      sync(write);
+    }
+    scheduleCompactionIfNeeded();
+  }
+
+  /**
+   * Makes sure that the given write is durable. Whoever gets to sync first does so on behalf of every write done until
+   * then, so threads waiting on the lock will usually find their write already synced.
+   */
+  private void sync(long write) throws ObjectStoreException {
+    synchronized (syncLock) {
+      if (lastSyncedWrite >= write) {
+        return;
+      }
+
+      // Read the write count before the segment: any write up to it is either on this segment or on a sealed one, which was
+      // already forced when rotated.
+      final long target = lastWrite;
+      final Segment segment = activeSegment;
+      if (segment == null) {
+        return;
+      }
+      try {
+        segment.channel.force(false);
+      } catch (ClosedChannelException e) {
+        // the partition was cleared or disposed, nothing left to sync
+      } catch (IOException e) {
+        throw new ObjectStoreException(createStaticMessage(format("Could not sync object store partition '%s'",
+                                                                  getPartitionName())),
+                                       e);
+      }
+      lastSyncedWrite = target;
+    }
+  }
+
+  private void scheduleCompactionIfNeeded() {
+    if (compactionExecutor == null || getCompactableSegments().isEmpty() || !compactionScheduled.compareAndSet(false, true)) {
+      return;
+    }
+
+    try {
+      compactionExecutor.execute(() -> {
+        try {
+          compact();
+        } catch (Exception e) {
+          LOGGER.warn(format("Could not compact object store partition '%s'", getPartitionName()), e);
+        } finally {
+          compactionScheduled.set(false);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      compactionScheduled.set(false);
+      LOGGER.debug("Compaction of object store partition '{}' was rejected", getPartitionName());
+    }
+  }
+
+  /**
+   * Has to be called holding the {@link #appendLock}.
+   */
+  private IndexEntry append(String key, ByteBuffer record, long timestamp, long order) throws ObjectStoreException {
+    final int length = record.remaining();
+    try {
+      Segment segment = activeSegment;
+      if (segment.size > 0 && segment.size + length > segmentSize) {
+        segment = rotate(segment);
+      }
+
+      final long position = segment.size;
+      while (record.hasRemaining()) {
+        segment.channel.write(record, position + record.position());
+      }
+      segment.size = position + length;
+      lastWrite++;
+
+      int keyLength = record.getInt(1 + 8);
+      int valueLength = record.getInt(1 + 8 + 4);
+      return new IndexEntry(key, segment.id, position, keyLength, valueLength, timestamp, order);
+    } catch (IOException e) {
+      throw new ObjectStoreException(createStaticMessage(format("Could not write to object store partition '%s'",
+                                                                getPartitionName())),
+                                     e);
+    }
+  }
+
+  /**
+   * Has to be called holding the {@link #appendLock}.
+   */
+  private void appendRemoval(IndexEntry entry) throws ObjectStoreException {
+    ByteBuffer tombstone = encode(REMOVE, currentTimeMillis(), entry.key.getBytes(UTF_8), new byte[0]);
+    append(entry.key, tombstone, currentTimeMillis(), -1);
+
+    index.remove(entry.key, entry);
+    expirationIndex.remove(entry);
+    activeSegment.deadBytes.addAndGet(tombstone.capacity());
+    Segment segment = segments.get(entry.segmentId);
+    if (segment != null) {
+      segment.deadBytes.addAndGet(entry.length());
+    }
+  }
+
+  private Segment rotate(Segment sealed) throws IOException {
+    // everything written to the sealed segment has to be durable before moving on, see #sync
+    sealed.channel.force(false);
+    Segment segment = createSegment(sealed.id + 1);
+    activeSegment = segment;
+    return segment;
+  }
+
+  private byte[] readValue(String key, IndexEntry entry) throws ObjectStoreException {
+    segmentsLock.readLock().lock();
+    try {
+      return readRecordValue(key, entry);
+    } finally {
+      segmentsLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Has to be called holding the read lock of {@link #segmentsLock}.
+   */
+  private byte[] readRecordValue(String key, IndexEntry entry) throws ObjectStoreException {
+    Segment segment = entry == null ? null : segments.get(entry.segmentId);
+    while (entry != null && segment == null) {
+      // the segment was compacted after the entry was looked up
+      entry = index.get(key);
+      segment = entry == null ? null : segments.get(entry.segmentId);
+    }
+    if (entry == null) {
+      throw new ObjectDoesNotExistException(createStaticMessage("Key does not exist: " + key));
+    }
+
+    ByteBuffer value = ByteBuffer.allocate(entry.valueLength);
+    try {
+      readFully(segment.channel, value, entry.offset + HEADER_SIZE + entry.keyLength);
+    } catch (IOException e) {
+      throw new ObjectStoreException(createStaticMessage(format("Could not read key '%s' from object store partition '%s'",
+                                                                key, getPartitionName())),
+                                     e);
+    }
+    return value.array();
+  }
+
+  private void assureLoaded() throws ObjectStoreException {
+    if (!loaded) {
+      load();
+    }
+  }
+
+  private void load() throws ObjectStoreException {
+    appendLock.lock();
+    try {
+      /*
+       * by re-checking this condition here we can avoid contention in {@link #assureLoaded}. The amount of times that this
+       * condition should evaluate to {@code true} is really limited, which provides better performance in the long run
+       */
+      if (loaded) {
+        return;
+      }
+
+      File[] segmentFiles = listSegmentFiles();
+      for (int i = 0; i < segmentFiles.length; i++) {
+        Segment segment = openSegment(getSegmentId(segmentFiles[i]), segmentFiles[i]);
+        segments.put(segment.id, segment);
+        recoverSegment(segment, i == segmentFiles.length - 1);
+      }
+      activeSegment = segments.isEmpty() ? createSegment(0) : segments.lastEntry().getValue();
+
+      migrateLegacyEntries();
+      loaded = true;
+    } catch (Exception e) {
+      closeSegments();
+      resetIndex();
+      throw new ObjectStoreException(createStaticMessage(format("Could not restore object store data from %1s",
+                                                                getPartitionDirectory().getAbsolutePath())),
+                                     e);
+    } finally {
+      appendLock.unlock();
+    }
+  }
+
+  private void recoverSegment(Segment segment, boolean last) throws IOException {
+    final long size = segment.channel.size();
+    long position = 0;
+    try (DataInputStream input = openSegmentInput(segment.file)) {
+      Record record;
+      while (position < size && (record = readRecord(input, size - position)) != null) {
+        replay(segment, position, record);
+        position += record.length();
+      }
+    }
+
+    if (position < size) {
+      if (last) {
+        LOGGER.warn("Found an incomplete record at the end of object store segment {}. It will be discarded.",
+                    segment.file.getAbsolutePath());
+        segment.channel.truncate(position);
+        segment.channel.force(false);
+        segment.size = position;
+      } else {
+        LOGGER.warn("Found a corrupted record in object store segment {}. The rest of the segment will be skipped.",
+                    segment.file.getAbsolutePath());
+        segment.size = size;
+        segment.deadBytes.addAndGet(size - position);
+      }
+    } else {
+      segment.size = size;
+    }
+  }
+
+  private void replay(Segment segment, long position, Record record) {
+    IndexEntry previous = index.remove(record.key);
+    if (previous != null) {
+      expirationIndex.remove(previous);
+      segments.get(previous.segmentId).deadBytes.addAndGet(previous.length());
+    }
+
+    if (record.type == PUT) {
+      IndexEntry entry = new IndexEntry(record.key, segment.id, position, record.keyBytes.length, record.value.length,
+                                        record.timestamp, nextOrder++);
+      index.put(record.key, entry);
+      expirationIndex.add(entry);
+    } else {
+      segment.deadBytes.addAndGet(record.length());
+    }
+  }
+
+  /**
+   * Moves the entries stored by {@link PersistentObjectStorePartition} into the log, deleting each {@code .obj} file only
+   * after its entry is durable, so an interrupted migration is simply resumed on the next load.
+   */
+  private void migrateLegacyEntries() throws IOException, ObjectStoreException {
+    File[] files = listValuesFiles();
+    if (files.length == 0) {
+      return;
+    }
+
+    LOGGER.info("Migrating {} entries of object store partition '{}' to the log structured format", files.length,
+                getPartitionName());
+
+    List<File> migrated = new ArrayList<>(files.length);
+    for (File file : files) {
+      StoreValue<T> storeValue;
+      try {
+        storeValue = super.deserialize(file);
+      } catch (ObjectStoreException e) {
+        LOGGER.warn(format("Could not deserialize the ObjectStore file: %s. The file will be skipped and moved to the Garbage folder",
+                           file.getName()));
+        moveToCorruptedFilesFolder(file);
+        continue;
+      }
+
+      String key = (String) storeValue.getKey();
+      if (!index.containsKey(key)) {
+        IndexEntry entry = append(key, encode(PUT, file.lastModified(), key.getBytes(UTF_8), serialize(storeValue.getValue())),
+                                  file.lastModified(), nextOrder++);
+        index.put(key, entry);
+        expirationIndex.add(entry);
+      }
+      migrated.add(file);
+    }
+
+    activeSegment.channel.force(false);
+    for (File file : migrated) {
+      if (!file.delete()) {
+        LOGGER.warn("Could not delete migrated object store file {}", file.getAbsolutePath());
+      }
+    }
+  }
+
+  private File[] listSegmentFiles() {
+    File[] files = getPartitionDirectory()
+        .listFiles(file -> file.isFile() && file.getName().startsWith(SEGMENT_FILE_PREFIX)
+            && file.getName().endsWith(SEGMENT_FILE_EXTENSION));
+    if (files == null) {
+      return new File[0];
+    }
+    // segment names are zero padded, so they sort in the order in which they were created
+    Arrays.sort(files);
+    return files;
+  }
+
+  private long getSegmentId(File file) {
+    String name = file.getName();
+    return Long.parseLong(name.substring(SEGMENT_FILE_PREFIX.length(), name.length() - SEGMENT_FILE_EXTENSION.length()));
+  }
+
+  private Segment createSegment(long id) throws IOException {
+    File file = new File(getPartitionDirectory(), format("%s%020d%s", SEGMENT_FILE_PREFIX, id, SEGMENT_FILE_EXTENSION));
+    Segment segment = openSegment(id, file);
+    segments.put(id, segment);
+    return segment;
+  }
+
+  private Segment openSegment(long id, File file) throws IOException {
+    return new Segment(id, file, FileChannel.open(file.toPath(), CREATE, READ, WRITE));
+  }
+
+  private void closeSegments() {
+    for (Segment segment : segments.values()) {
+      segment.close();
+    }
+    segments.clear();
+    activeSegment = null;
+  }
+
+  private void resetIndex() {
+    index.clear();
+    expirationIndex.clear();
+  }
+
+  private byte[] serialize(T value) throws ObjectStoreException {
+    try {
+      return serializer.getInternalProtocol().serialize(value);
+    } catch (Exception e) {
+      throw new ObjectStoreException(e);
+    }
+  }
+
+  private T deserialize(byte[] bytes) throws ObjectStoreException {
+    try {
+      T value = serializer.getInternalProtocol().deserialize(bytes);
+      if (value instanceof DeserializationPostInitialisable) {
+        DeserializationPostInitialisable.Implementation.init(value, muleContext);
+      }
+      return value;
+    } catch (Exception e) {
+      throw new ObjectStoreException(e);
+    }
+  }
+
+  private static DataInputStream openSegmentInput(File file) throws IOException {
+    InputStream input = Files.newInputStream(file.toPath());
+    return new DataInputStream(new BufferedInputStream(input));
+  }
+
+  private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) < 0) {
+        throw new EOFException();
+      }
+    }
+  }
+
+  private static ByteBuffer encode(byte type, long timestamp, byte[] key, byte[] value) {
+    ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + key.length + value.length + TRAILER_SIZE);
+    buffer.put(type).putLong(timestamp).putInt(key.length).putInt(value.length).put(key).put(value);
+
+    CRC32 crc = new CRC32();
+    crc.update(buffer.array(), 0, buffer.position());
+    buffer.putInt((int) crc.getValue());
+    buffer.flip();
+    return buffer;
+  }
+
+  /**
+   * Reads the next record from the {@code input}.
+   *
+   * @return the read {@link Record} or {@code null} if the remaining bytes don't hold a complete and valid record
+   */
+  private static Record readRecord(DataInputStream input, long available) throws IOException {
+    if (available < HEADER_SIZE + TRAILER_SIZE) {
+      return null;
+    }
+
+    byte[] header = new byte[HEADER_SIZE];
+    try {
+      input.readFully(header);
+      ByteBuffer headerBuffer = ByteBuffer.wrap(header);
+      byte type = headerBuffer.get();
+      long timestamp = headerBuffer.getLong();
+      int keyLength = headerBuffer.getInt();
+      int valueLength = headerBuffer.getInt();
+
+      if ((type != PUT && type != REMOVE) || keyLength <= 0 || valueLength < 0
+          || HEADER_SIZE + (long) keyLength + valueLength + TRAILER_SIZE > available) {
+        return null;
+      }
+
+      byte[] key = new byte[keyLength];
+      byte[] value = new byte[valueLength];
+      input.readFully(key);
+      input.readFully(value);
+      int checksum = input.readInt();
+
+      CRC32 crc = new CRC32();
+      crc.update(header);
+      crc.update(key);
+      crc.update(value);
+      if ((int) crc.getValue() != checksum) {
+        return null;
+      }
+
+      return new Record(type, timestamp, key, value);
+    } catch (EOFException e) {
+      return null;
+    }
+  }
+
+  private static final class Segment {
+
+    private final long id;
+    private final File file;
+    private final FileChannel channel;
+    private final AtomicLong deadBytes = new AtomicLong(0);
+    private volatile long size = 0;
+
+    private Segment(long id, File file, FileChannel channel) {
+      this.id = id;
+      this.file = file;
+      this.channel = channel;
+    }
+
+    private void close() {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        LOGGER.debug("Could not close object store segment {}", file.getAbsolutePath(), e);
+      }
+    }
+  }
+
+  private static final class IndexEntry {
+
+    private final String key;
+    private final long segmentId;
+    private final long offset;
+    private final int keyLength;
+    private final int valueLength;
+    private final long timestamp;
+    private final long order;
+
+    private IndexEntry(String key, long segmentId, long offset, int keyLength, int valueLength, long timestamp, long order) {
+      this.key = key;
+      this.segmentId = segmentId;
+      this.offset = offset;
+      this.keyLength = keyLength;
+      this.valueLength = valueLength;
+      this.timestamp = timestamp;
+      this.order = order;
+    }
+
+    private int length() {
+      return HEADER_SIZE + keyLength + valueLength + TRAILER_SIZE;
+    }
+  }
+
+  private static final class Record {
+
+    private final byte type;
+    private final long timestamp;
+    private final byte[] keyBytes;
+    private final String key;
+    private final byte[] value;
+
+    private Record(byte type, long timestamp, byte[] keyBytes, byte[] value) {
+      this.type = type;
+      this.timestamp = timestamp;
+      this.keyBytes = keyBytes;
+      this.key = new String(keyBytes, UTF_8);
+      this.value = value;
+    }
+
+    private int length() {
+      return HEADER_SIZE + keyBytes.length + value.length + TRAILER_SIZE;
+    }
+
+    private ByteBuffer encode() {
+      return LogStructuredObjectStorePartition.encode(type, timestamp, keyBytes, value);
+    }
+  }
+}
@@ -0,0 +1,338 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.timer;
+
+import static java.lang.Integer.highestOneBit;
+import static java.lang.Math.max;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.atomic.AtomicIntegerFieldUpdater.newUpdater;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+
+/**
+ * A timer that keeps its scheduled tasks in a hashed wheel of buckets, one per tick, instead of a priority queue.
+ * <p>
+ * Scheduling and cancelling a task is {@code O(1)} and does not require any locking: new and cancelled tasks are queued, and
+ * only moved into or out of the wheel when it is advanced by {@link #tick()}. This makes it suitable for a large number of
+ * timeouts which are mostly cancelled before they expire, at the cost of firing the tasks up to one tick later than requested.
+ * <p>
+ * This timer does not have any thread of its own: {@link #tick()} has to be called periodically, with a period close to the tick
+ * duration, while there are pending tasks. Expired tasks are run in the thread calling {@link #tick()}, so they are expected to be
+ * short, just handing off the actual work to another thread.
+ *
+ * @since 4.4.0
+ */
+public final class HashedWheelTimer {
+
+  private static final Logger LOGGER = getLogger(HashedWheelTimer.class);
+
+  private final LongSupplier clock;
+  private final long startTime;
+  private final long tickNanos;
+  private final Bucket[] wheel;
+  private final int mask;
+
+  private final Queue<WheelTimeout> newTimeouts = new ConcurrentLinkedQueue<>();
+  private final Queue<WheelTimeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+  private final LongAdder pendingTimeouts = new LongAdder();
+  private final AtomicBoolean ticking = new AtomicBoolean();
+
+  // Only accessed by the thread that is ticking
+  private long currentTick = 0;
+
+  /**
+   * Creates a new timer.
+   *
+   * @param tickDuration the duration of each tick
+   * @param unit the unit of {@code tickDuration}
+   * @param ticksPerWheel the number of buckets of the wheel. It is rounded up to a power of two.
+   */
+  public HashedWheelTimer(long tickDuration, TimeUnit unit, int ticksPerWheel) {
+    this(tickDuration, unit, ticksPerWheel, System::nanoTime);
+  }
+
+  HashedWheelTimer(long tickDuration, TimeUnit unit, int ticksPerWheel, LongSupplier clock) {
+    checkArgument(tickDuration > 0, "Tick duration must be greater than zero");
+    checkArgument(ticksPerWheel > 0 && ticksPerWheel <= 1 << 30, "Ticks per wheel must be between 1 and 2^30");
+
+    int wheelSize = highestOneBit(ticksPerWheel) == ticksPerWheel ? ticksPerWheel : highestOneBit(ticksPerWheel) << 1;
+    this.wheel = new Bucket[wheelSize];
+    for (int i = 0; i < wheelSize; ++i) {
+      wheel[i] = new Bucket();
+    }
+    this.mask = wheelSize - 1;
+    this.tickNanos = unit.toNanos(tickDuration);
+    this.clock = clock;
+    this.startTime = clock.getAsLong();
+  }
+
+  /**
+   * Schedules {@code task} to be run once {@code delay} has elapsed.
+   *
+   * @param task the task to run
+   * @param delay the time from now to delay the execution
+   * @param unit the unit of {@code delay}
+   * @return a {@link ScheduledFuture} that can be used to cancel the task
+   */
+  public ScheduledFuture<?> newTimeout(Runnable task, long delay, TimeUnit unit) {
+    WheelTimeout timeout = new WheelTimeout(task, now() + max(0, unit.toNanos(delay)));
+    pendingTimeouts.increment();
+    newTimeouts.add(timeout);
+    return timeout;
+  }
+
+  /**
+   * Advances the wheel up to the current time, running the tasks that expired.
+   * <p>
+   * If another thread is already ticking, this method returns right away.
+   */
+  public void tick() {
+    if (!ticking.compareAndSet(false, true)) {
+      return;
+    }
+
+    try {
+      long now = now();
+      while ((currentTick + 1) * tickNanos <= now) {
+        removeCancelledTimeouts();
+        if (pendingTimeouts.sum() == 0) {
+          // No live timeouts in the wheel, so the ticks elapsed while nobody was ticking can be skipped
+          currentTick = now / tickNanos;
+          break;
+        }
+        transferNewTimeouts();
+        wheel[(int) (currentTick & mask)].expireTimeouts();
+        currentTick++;
+      }
+    } finally {
+      ticking.set(false);
+    }
+  }
+
+  /**
+   * @return the number of tasks which were scheduled and have not expired nor been cancelled yet
+   */
+  public long getPendingTimeouts() {
+    return pendingTimeouts.sum();
+  }
+
+  /**
+   * @return the duration of each tick, in nanoseconds
+   */
+  public long getTickNanos() {
+    return tickNanos;
+  }
+
+  private long now() {
+    return clock.getAsLong() - startTime;
+  }
+
+  private void transferNewTimeouts() {
+    WheelTimeout timeout;
+    while ((timeout = newTimeouts.poll()) != null) {
+      if (timeout.state != ST_INIT) {
+        continue;
+      }
+
+      // A timeout which deadline already passed is expired in the current tick
+      long ticks = max(timeout.deadline / tickNanos, currentTick);
+      timeout.remainingRounds = (ticks - currentTick) / wheel.length;
+      wheel[(int) (ticks & mask)].add(timeout);
+    }
+  }
+
+  private void removeCancelledTimeouts() {
+    WheelTimeout timeout;
+    while ((timeout = cancelledTimeouts.poll()) != null) {
+      if (timeout.bucket != null) {
+        timeout.bucket.remove(timeout);
+      }
+    }
+  }
+
+  private static final int ST_INIT = 0;
+  private static final int ST_CANCELLED = 1;
+  private static final int ST_EXPIRED = 2;
+
+  private static final AtomicIntegerFieldUpdater<WheelTimeout> STATE_UPDATER = newUpdater(WheelTimeout.class, "state");
+
+  private final class WheelTimeout implements ScheduledFuture<Object> {
+
+    private final Runnable task;
+    private final long deadline;
+    volatile int state = ST_INIT;
+
+    // Only accessed by the thread that is ticking
+    private long remainingRounds;
+    private Bucket bucket;
+    private WheelTimeout next;
+    private WheelTimeout prev;
+
+    private WheelTimeout(Runnable task, long deadline) {
+      this.task = task;
+      this.deadline = deadline;
+    }
+
+    private void expire() {
+      if (!STATE_UPDATER.compareAndSet(this, ST_INIT, ST_EXPIRED)) {
+        return;
+      }
+      pendingTimeouts.decrement();
+
+      try {
+        task.run();
+      } catch (Throwable t) {
+        LOGGER.warn("Exception running timer task " + task, t);
+      } finally {
+        signalDone();
+      }
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+      if (!STATE_UPDATER.compareAndSet(this, ST_INIT, ST_CANCELLED)) {
+        return false;
+      }
+      pendingTimeouts.decrement();
+      cancelledTimeouts.add(this);
+      signalDone();
+      return true;
+    }
+
+    @Override
+    public boolean isCancelled() {
+      return state == ST_CANCELLED;
+    }
+
+    @Override
+    public boolean isDone() {
+      return state != ST_INIT;
+    }
+
+    @Override
+    public Object get() throws InterruptedException {
+      synchronized (this) {
+        while (!isDone()) {
+          wait();
+        }
+      }
+      return result();
+    }
+
+    @Override
+    public Object get(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+      long waitUntil = System.nanoTime() + unit.toNanos(timeout);
+      synchronized (this) {
+        while (!isDone()) {
+          long remaining = waitUntil - System.nanoTime();
+          if (remaining <= 0) {
+            throw new TimeoutException();
+          }
+          NANOSECONDS.timedWait(this, remaining);
+        }
+      }
+      return result();
+    }
+
+    private Object result() {
+      if (isCancelled()) {
+        throw new CancellationException();
+      }
+      return null;
+    }
+
+    private synchronized void signalDone() {
+      notifyAll();
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+      return unit.convert(deadline - now(), NANOSECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed o) {
+      return Long.compare(getDelay(NANOSECONDS), o.getDelay(NANOSECONDS));
+    }
+
+    @Override
+    public String toString() {
+      return "WheelTimeout{task: " + task + ", deadline: " + deadline + "ns, state: " + state + "}";
+    }
+  }
+
+  /**
+   * A doubly linked list of the timeouts that fall into the same tick of the wheel.
+   */
+  private static final class Bucket {
+
+    private WheelTimeout head;
+    private WheelTimeout tail;
+
+    private void add(WheelTimeout timeout) {
+      timeout.bucket = this;
+      if (head == null) {
+        head = tail = timeout;
+      } else {
+        tail.next = timeout;
+        timeout.prev = tail;
+        tail = timeout;
+      }
+    }
+
+    private void expireTimeouts() {
+      WheelTimeout timeout = head;
+      while (timeout != null) {
+        WheelTimeout next = timeout.next;
+        if (timeout.remainingRounds <= 0) {
+          remove(timeout);
+          timeout.expire();
+        } else if (timeout.isCancelled()) {
+          remove(timeout);
+        } else {
+          timeout.remainingRounds--;
+        }
+        timeout = next;
+      }
+    }
+
+    private void remove(WheelTimeout timeout) {
+      if (timeout.bucket != this) {
+        return;
+      }
+
+      if (timeout.prev != null) {
+        timeout.prev.next = timeout.next;
+      } else {
+        head = timeout.next;
+      }
+      if (timeout.next != null) {
+        timeout.next.prev = timeout.prev;
+      } else {
+        tail = timeout.prev;
+      }
+
+      timeout.prev = null;
+      timeout.next = null;
+      timeout.bucket = null;
+    }
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.timer;
+
+import static java.lang.Long.getLong;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
+
+import org.mule.runtime.api.lifecycle.Disposable;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.scheduler.SchedulerService;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+
+/**
+ * Timer shared by the components of an artifact to schedule timeouts and short delays in a single {@link HashedWheelTimer}.
+ * <p>
+ * The wheel is ticked from a {@link SchedulerService#cpuLightScheduler() cpu-light} thread. Ticking only starts when a task is
+ * scheduled, and stops again once there are no pending tasks in the wheel, so artifacts that don't schedule any timeouts have no
+ * ticking overhead.
+ *
+ * @since 4.4.0
+ */
+public class TimeoutService implements Disposable {
+
+  public static final String REGISTRY_KEY = "_muleTimeoutService";
+
+  /**
+   * The duration of each tick of the wheel, in milliseconds. Timeouts fire up to this much later than requested.
+   */
+  public static final String MULE_TIMEOUT_SERVICE_TICK_MILLIS = SYSTEM_PROPERTY_PREFIX + "timeoutService.tickMillis";
+
+  private static final int TICKS_PER_WHEEL = 512;
+
+  private final HashedWheelTimer timer = new HashedWheelTimer(getLong(MULE_TIMEOUT_SERVICE_TICK_MILLIS, 10L), MILLISECONDS,
+                                                              TICKS_PER_WHEEL);
+
+  @Inject
+  private SchedulerService schedulerService;
+
+  private Scheduler tickScheduler;
+  private volatile ScheduledFuture<?> tickTask;
+  private boolean disposed = false;
+
+  /**
+   * Schedules {@code task} to be run once {@code delay} has elapsed, in the thread that ticks the wheel.
+   * <p>
+   * The task must be short, since it delays the expiration of the other tasks in the wheel. Use {@link #withTimerWheel(Scheduler)}
+   * to run delayed tasks in a scheduler instead.
+   *
+   * @param task the task to run
+   * @param delay the time from now to delay the execution
+   * @param unit the unit of {@code delay}
+   * @return a {@link ScheduledFuture} that can be used to cancel the task
+   */
+  public ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit) {
+    ScheduledFuture<?> timeout = timer.newTimeout(task, delay, unit);
+    // The timeout is counted as pending before checking whether the wheel is ticking, see stopTickingIfIdle()
+    if (tickTask == null) {
+      startTicking();
+    }
+    return timeout;
+  }
+
+  /**
+   * Decorates {@code scheduler} so that its delayed {@link Runnable}s are scheduled in this service, and then run in
+   * {@code scheduler} once expired.
+   *
+   * @param scheduler the scheduler to decorate
+   * @return the decorated scheduler
+   */
+  public Scheduler withTimerWheel(Scheduler scheduler) {
+    return new TimerWheelScheduler(scheduler, this);
+  }
+
+  /**
+   * @return the number of tasks which were scheduled and have not expired nor been cancelled yet
+   */
+  public long getPendingTimeouts() {
+    return timer.getPendingTimeouts();
+  }
+
+  private synchronized void startTicking() {
+    if (tickTask != null || disposed) {
+      return;
+    }
+
+    if (tickScheduler == null) {
+      tickScheduler = schedulerService.cpuLightScheduler();
+    }
+    long tickMillis = MILLISECONDS.convert(timer.getTickNanos(), TimeUnit.NANOSECONDS);
+    tickTask = tickScheduler.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, MILLISECONDS);
+  }
+
+  private void tick() {
+    timer.tick();
+    if (timer.getPendingTimeouts() == 0) {
+      stopTickingIfIdle();
+    }
+  }
+
+  private synchronized void stopTickingIfIdle() {
+    ScheduledFuture<?> task = tickTask;
+    if (task == null) {
+      return;
+    }
+
+    // Clear the task before checking the pending timeouts again. A concurrent schedule(...) either sees the cleared task and
+    // starts ticking again, or its timeout is seen here.
+    tickTask = null;
+    if (timer.getPendingTimeouts() == 0) {
+      task.cancel(false);
+    } else {
+      tickTask = task;
+    }
+  }
+
+  void setSchedulerService(SchedulerService schedulerService) {
+    this.schedulerService = schedulerService;
+  }
+
+  @Override
+  public synchronized void dispose() {
+    disposed = true;
+    if (tickTask != null) {
+      tickTask.cancel(false);
+      tickTask = null;
+    }
+    if (tickScheduler != null) {
+      tickScheduler.stop();
+      tickScheduler = null;
+    }
+  }
+}
@@ -6,6 +6,7 @@
  */
 package org.mule.runtime.core.privileged.processor.chain;
 
+import static java.lang.Boolean.getBoolean;
 import static java.lang.String.format;
 import static java.lang.Thread.currentThread;
 import static java.util.stream.Collectors.toList;
@@ -15,11 +16,13 @@ import static org.mule.runtime.api.functional.Either.right;
 import static org.mule.runtime.api.notification.MessageProcessorNotification.MESSAGE_PROCESSOR_POST_INVOKE;
 import static org.mule.runtime.api.notification.MessageProcessorNotification.MESSAGE_PROCESSOR_PRE_INVOKE;
 import static org.mule.runtime.api.notification.MessageProcessorNotification.createFrom;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
 import static org.mule.runtime.core.api.config.i18n.CoreMessages.isStopped;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.setMuleContextIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.CPU_LITE;
 import static org.mule.runtime.core.api.rx.Exceptions.propagateWrappingFatal;
 import static org.mule.runtime.core.api.rx.Exceptions.unwrap;
 import static org.mule.runtime.core.api.util.StreamingUtils.updateEventForStreaming;
@@ -34,6 +37,7 @@ import static org.mule.runtime.core.privileged.processor.chain.ChainErrorHandlin
 import static org.mule.runtime.core.privileged.processor.chain.ChainErrorHandlingUtils.resolveMessagingException;
 import static org.slf4j.LoggerFactory.getLogger;
 import static reactor.core.Exceptions.propagate;
+import static reactor.core.Exceptions.throwIfFatal;
 import static reactor.core.publisher.Flux.from;
 import static reactor.core.publisher.Mono.subscriberContext;
 import static reactor.core.publisher.Operators.lift;
@@ -51,6 +55,7 @@ import org.mule.runtime.core.api.context.notification.ServerNotificationHandler;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.exception.FlowExceptionHandler;
 import org.mule.runtime.core.api.execution.ExceptionContextProvider;
+import org.mule.runtime.core.api.processor.InterceptingMessageProcessor;
 import org.mule.runtime.core.api.processor.Processor;
 import org.mule.runtime.core.api.processor.ReactiveProcessor;
 import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
@@ -77,6 +82,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -103,6 +109,30 @@ abstract class AbstractMessageProcessorChain extends AbstractExecutableComponent
   private static final String UNEXPECTED_ERROR_HANDLER_STATE_MESSAGE =
       "Unexpected state. Error handler should be invoked with either an Event instance or a MessagingException";
 
+  /**
+   * Disables the fusion of consecutive {@link ProcessingType#CPU_LITE CPU_LITE} processors into a single synchronous stage, making
+   * each processor be assembled in its own stage.
+   */
+  private static final String DISABLE_CPU_LITE_FUSION_PROPERTY = SYSTEM_PROPERTY_PREFIX + "processorChain.disableCpuLiteFusion";
+
+  private static final boolean CPU_LITE_FUSION_ENABLED = !getBoolean(DISABLE_CPU_LITE_FUSION_PROPERTY);
+
+  /*
+   * Processors that override Processor#apply may rely on the reactor context or change the execution thread, so only those that
+   * keep the default implementation (a direct call to Processor#process) can be fused.
+   */
+  private static final ClassValue<Boolean> USES_DEFAULT_APPLY = new ClassValue<Boolean>() {
+
+    @Override
+    protected Boolean computeValue(Class<?> type) {
+      try {
+        return type.getMethod("apply", Publisher.class).getDeclaringClass() == Processor.class;
+      } catch (NoSuchMethodException e) {
+        return false;
+      }
+    }
+  };
+
   private static Class<ClassLoader> appClClass;
 
   private static final Logger LOGGER = getLogger(AbstractMessageProcessorChain.class);
@@ -221,7 +251,7 @@ abstract class AbstractMessageProcessorChain extends AbstractExecutableComponent
                                        List<ReactiveInterceptor> interceptors,
                                        BiConsumer<BaseEventContext, ? super Exception> errorBubbler) {
     Flux<CoreEvent> stream = from(publisher);
-    for (Processor processor : getProcessorsToExecute()) {
+    for (Processor processor : compileProcessors(getProcessorsToExecute(), errorBubbler)) {
       // Perform assembly for processor chain by transforming the existing publisher with a publisher function for each processor
       // along with the interceptors that decorate it.
       stream = stream.transform(applyInterceptors(interceptors, processor))
@@ -249,6 +279,44 @@ abstract class AbstractMessageProcessorChain extends AbstractExecutableComponent
     return stream;
   }
 
+  /**
+   * Groups runs of consecutive processors that can be executed synchronously one after the other into a single
+   * {@link FusedCpuLiteProcessor}, so the per processor stages (thread context switch, processing strategy, error hooks) are
+   * assembled once for the whole run instead of once for each processor in it.
+   * <p>
+   * Nothing is fused if there are processor interceptors registered, since those need to be applied around each processor.
+   */
+  private List<Processor> compileProcessors(List<Processor> processors,
+                                            BiConsumer<BaseEventContext, ? super Exception> errorBubbler) {
+    if (!CPU_LITE_FUSION_ENABLED || !additionalInterceptors.isEmpty() || processors.size() < 2) {
+      return processors;
+    }
+
+    List<Processor> compiled = new ArrayList<>(processors.size());
+    int segmentStart = 0;
+    for (int i = 0; i <= processors.size(); ++i) {
+      if (i == processors.size() || !isFusable(processors.get(i))) {
+        if (i - segmentStart > 1) {
+          compiled.add(new FusedCpuLiteProcessor(processors.subList(segmentStart, i), errorBubbler));
+        } else if (i - segmentStart == 1) {
+          compiled.add(processors.get(segmentStart));
+        }
+        if (i < processors.size()) {
+          compiled.add(processors.get(i));
+        }
+        segmentStart = i + 1;
+      }
+    }
+    return compiled;
+  }
+
+  private boolean isFusable(Processor processor) {
+    return USES_DEFAULT_APPLY.get(processor.getClass())
+        && !(processor instanceof MessageProcessorChain)
+        && !(processor instanceof InterceptingMessageProcessor)
+        && processor.getProcessingType() == CPU_LITE;
+  }
+
   /*
    * Used to process failed events which are dropped from the reactor stream due to error. Errors are processed by invoking the
    * current EventContext error callback.
@@ -564,4 +632,94 @@ abstract class AbstractMessageProcessorChain extends AbstractExecutableComponent
   FlowExceptionHandler getMessagingExceptionHandler() {
     return messagingExceptionHandler;
   }
+
+  /**
+   * Executes a run of {@link ProcessingType#CPU_LITE CPU_LITE} processors synchronously in a single stage.
+   * <p>
+   * Notifications, MDC, current event and streaming handling are done for each of the fused processors the same way the
+   * interceptors do it for non-fused ones. Errors are mapped and notified in the context of the processor that failed, and the
+   * failed event is dropped from the stream just like {@code onErrorContinue} does for each processor stage.
+   */
+  private final class FusedCpuLiteProcessor implements Processor {
+
+    private final List<Processor> processors;
+    private final String[] processorPaths;
+    private final List<BiFunction<Throwable, Object, Throwable>> errorHooks;
+    private final List<BiConsumer<Throwable, Object>> errorHandlers;
+
+    private FusedCpuLiteProcessor(List<Processor> processors, BiConsumer<BaseEventContext, ? super Exception> errorBubbler) {
+      this.processors = new ArrayList<>(processors);
+      this.processorPaths = new String[processors.size()];
+      this.errorHooks = new ArrayList<>(processors.size());
+      this.errorHandlers = new ArrayList<>(processors.size());
+
+      for (int i = 0; i < processors.size(); ++i) {
+        Processor processor = processors.get(i);
+        if (processor instanceof Component && ((Component) processor).getLocation() != null) {
+          processorPaths[i] = ((Component) processor).getLocation().getLocation();
+        }
+        errorHooks.add(getLocalOperatorErrorHook(processor, errorTypeLocator, exceptionContextProviders));
+        errorHandlers.add(getContinueStrategyErrorHandler(processor, errorBubbler));
+      }
+    }
+
+    @Override
+    public CoreEvent process(CoreEvent event) throws MuleException {
+      return processToApply(event, this);
+    }
+
+    @Override
+    public Publisher<CoreEvent> apply(Publisher<CoreEvent> publisher) {
+      return from(publisher).handle((event, sink) -> {
+        final CoreEvent result = processFused(event);
+        if (result != null) {
+          sink.next(result);
+        }
+      });
+    }
+
+    private CoreEvent processFused(CoreEvent event) {
+      CoreEvent current = event;
+      for (int i = 0; i < processors.size(); ++i) {
+        final Processor processor = processors.get(i);
+        final String processorPath = processorPaths[i];
+        if (processorPath != null) {
+          MDC.put("processorPath", processorPath);
+        }
+        try {
+          preNotification(current, processor);
+          setCurrentEvent((PrivilegedEvent) current);
+
+          final CoreEvent result = processor.process(current);
+          if (result == null) {
+            return null;
+          }
+
+          postNotification(processor).accept(result);
+          setCurrentEvent((PrivilegedEvent) result);
+          // If the processor returns a CursorProvider, then have the StreamingManager manage it
+          current = updateEventForStreaming(streamingManager).apply(result);
+        } catch (Throwable t) {
+          throwIfFatal(t);
+          errorHandlers.get(i).accept(errorHooks.get(i).apply(t, current), current);
+          return null;
+        } finally {
+          if (processorPath != null) {
+            MDC.remove("processorPath");
+          }
+        }
+      }
+      return current;
+    }
+
+    @Override
+    public ProcessingType getProcessingType() {
+      return CPU_LITE;
+    }
+
+    @Override
+    public String toString() {
+      return "FusedCpuLiteProcessor" + processors;
+    }
+  }
 }
@@ -7,6 +7,7 @@
 package org.mule.runtime.core.privileged.security.tls;
 
 import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.security.KeyStore.getInstance;
 import static java.util.Collections.list;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
@@ -14,6 +15,7 @@ import static org.mule.runtime.api.util.Preconditions.checkArgument;
 import static org.mule.runtime.core.api.config.i18n.CoreMessages.cannotLoadFromClasspath;
 import static org.mule.runtime.core.api.config.i18n.CoreMessages.failedToLoad;
 import static org.mule.runtime.core.api.util.IOUtils.getResourceAsStream;
+import static org.mule.runtime.core.api.util.IOUtils.toByteArray;
 import static org.mule.runtime.core.api.util.StringUtils.isBlank;
 
 import org.mule.runtime.api.component.AbstractComponent;
@@ -21,6 +23,7 @@ import org.mule.runtime.api.lifecycle.CreateException;
 import org.mule.runtime.core.api.util.FileUtils;
 import org.mule.runtime.core.internal.security.tls.RestrictedSSLServerSocketFactory;
 import org.mule.runtime.core.internal.security.tls.RestrictedSSLSocketFactory;
+import org.mule.runtime.core.internal.security.tls.TlsContextRegistry;
 import org.mule.runtime.core.internal.security.tls.TlsProperties;
 import org.mule.runtime.core.internal.security.tls.TlsPropertiesMapper;
 import org.mule.runtime.core.internal.security.tls.TlsPropertiesSocketFactory;
@@ -32,6 +35,8 @@ import org.mule.runtime.core.privileged.security.TlsDirectTrustStore;
 import org.mule.runtime.core.privileged.security.TlsIndirectKeyStore;
 import org.mule.runtime.core.privileged.security.TlsIndirectTrustStore;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
@@ -39,12 +44,14 @@ import java.security.GeneralSecurityException;
 import java.security.KeyManagementException;
 import java.security.KeyStore;
 import java.security.KeyStoreException;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.cert.Certificate;
 import java.security.cert.TrustAnchor;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.List;
@@ -181,6 +188,21 @@ public final class TlsConfiguration extends AbstractComponent
   // certificate revocation checking
   private RevocationCheck revocationCheck = null;
 
+  private boolean initialised = false;
+  private boolean customTrustManagerFactory = false;
+
+  // hashes of the contents of the stores the current key and trust manager factories were created from
+  private byte[] keyStoreContentHash = null;
+  private byte[] trustStoreContentHash = null;
+
+  // stores loaded from files, which are reloaded when modified
+  private File keyStoreFile = null;
+  private volatile long keyStoreLastModified;
+  private File trustStoreFile = null;
+  private volatile long trustStoreLastModified;
+
+  private volatile SSLContext sslContext = null;
+
   /**
    * Support for TLS connections with a given initial value for the key store
    *
@@ -216,6 +238,9 @@ public final class TlsConfiguration extends AbstractComponent
     if (sslType == null) {
       sslType = resolveSslType();
     }
+
+    sslContext = null;
+    initialised = true;
   }
 
   private String resolveSslType() {
@@ -259,12 +284,16 @@ public final class TlsConfiguration extends AbstractComponent
   private KeyStore loadKeyStore() throws GeneralSecurityException, IOException {
     KeyStore tempKeyStore = getInstance(keystoreType);
 
+    keyStoreFile = getStoreFile(keyStoreName);
+    keyStoreLastModified = keyStoreFile != null ? keyStoreFile.lastModified() : 0;
     try (InputStream is = getResourceAsStream(keyStoreName, getClass())) {
       if (null == is) {
         throw new FileNotFoundException(cannotLoadFromClasspath("Keystore: " + keyStoreName).getMessage());
       }
 
-      tempKeyStore.load(is, keyStorePassword.toCharArray());
+      byte[] content = toByteArray(is);
+      tempKeyStore.load(new ByteArrayInputStream(content), keyStorePassword.toCharArray());
+      keyStoreContentHash = hash(content);
       return tempKeyStore;
     }
   }
@@ -349,12 +378,16 @@ public final class TlsConfiguration extends AbstractComponent
   private KeyStore createTrustStore() throws CreateException {
     trustStorePassword = null == trustStorePassword ? "" : trustStorePassword;
 
+    trustStoreFile = getStoreFile(trustStoreName);
+    trustStoreLastModified = trustStoreFile != null ? trustStoreFile.lastModified() : 0;
     try (InputStream is = getResourceAsStream(trustStoreName, getClass())) {
       KeyStore trustStore = getInstance(trustStoreType);
       if (null == is) {
         throw new FileNotFoundException("Failed to load truststore from classpath or local file: " + trustStoreName);
       }
-      trustStore.load(is, trustStorePassword.toCharArray());
+      byte[] content = toByteArray(is);
+      trustStore.load(new ByteArrayInputStream(content), trustStorePassword.toCharArray());
+      trustStoreContentHash = hash(content);
       return trustStore;
     } catch (Exception e) {
       throw new CreateException(failedToLoad("TrustStore: " + trustStoreName), e, this);
@@ -404,12 +437,142 @@ public final class TlsConfiguration extends AbstractComponent
     return tlsProperties.getEnabledProtocols();
   }
 
+  /**
+   * Provides the {@link SSLContext} for this configuration.
+   * <p>
+   * Once initialised, the context is created just once and shared through {@link TlsContextRegistry} with any other configuration
+   * with the same store contents and protocol settings, so that TLS sessions can be reused among them. If the key or trust store
+   * files are modified, they are reloaded and a new context is provided.
+   *
+   * @return the {@link SSLContext} for this configuration.
+   */
   public SSLContext getSslContext() throws NoSuchAlgorithmException, KeyManagementException {
+    if (!initialised) {
+      return createSslContext();
+    }
+
+    if (storesModified()) {
+      reloadModifiedStores();
+    }
+
+    SSLContext context = sslContext;
+    if (context == null) {
+      synchronized (this) {
+        context = sslContext;
+        if (context == null) {
+          context = resolveSslContext();
+          sslContext = context;
+        }
+      }
+    }
+    return context;
+  }
+
+  private SSLContext resolveSslContext() throws NoSuchAlgorithmException, KeyManagementException {
+    // Contexts with custom trust managers or revocation checks cannot be told apart by the contents of the stores
+    if (customTrustManagerFactory || revocationCheck != null) {
+      return createSslContext();
+    }
+
+    String contentHash = resolveContentHash();
+    SSLContext context = TlsContextRegistry.lookup(contentHash);
+    if (context == null) {
+      context = TlsContextRegistry.register(contentHash, createSslContext());
+    }
+    return context;
+  }
+
+  private SSLContext createSslContext() throws NoSuchAlgorithmException, KeyManagementException {
     TrustManager[] trustManagers = null == getTrustManagerFactory() ? null : getTrustManagerFactory().getTrustManagers();
 
     return getSslContext(trustManagers);
   }
 
+  private String resolveContentHash() throws NoSuchAlgorithmException {
+    MessageDigest digest = MessageDigest.getInstance("SHA-256");
+    updateDigest(digest, getSslType());
+    if (keyManagerFactory != null) {
+      updateDigest(digest, keyStoreContentHash);
+      updateDigest(digest, keystoreType);
+      updateDigest(digest, keyStorePassword);
+      updateDigest(digest, keyPassword);
+      updateDigest(digest, keyAlias);
+      updateDigest(digest, keyManagerAlgorithm);
+    }
+    if (trustManagerFactory != null) {
+      updateDigest(digest, trustStoreContentHash);
+      updateDigest(digest, trustStoreType);
+      updateDigest(digest, trustStorePassword);
+      updateDigest(digest, trustManagerAlgorithm);
+    }
+    return Base64.getEncoder().encodeToString(digest.digest());
+  }
+
+  private static void updateDigest(MessageDigest digest, Object value) {
+    if (value == null) {
+      digest.update((byte) 0);
+    } else {
+      byte[] bytes = value instanceof byte[] ? (byte[]) value : value.toString().getBytes(UTF_8);
+      // Prefix each value with its length so that different sequences of values cannot produce the same digest input
+      digest.update((byte) 1);
+      digest.update(new byte[] {(byte) (bytes.length >>> 24), (byte) (bytes.length >>> 16), (byte) (bytes.length >>> 8),
+          (byte) bytes.length});
+      digest.update(bytes);
+    }
+  }
+
+  private static byte[] hash(byte[] content) throws NoSuchAlgorithmException {
+    return MessageDigest.getInstance("SHA-256").digest(content);
+  }
+
+  private static File getStoreFile(String storeName) {
+    if (storeName == null) {
+      return null;
+    }
+    File file = new File(storeName);
+    return file.isFile() ? file : null;
+  }
+
+  private boolean storesModified() {
+    return (keyStoreFile != null && keyStoreFile.lastModified() != keyStoreLastModified)
+        || (!customTrustManagerFactory && trustStoreFile != null && trustStoreFile.lastModified() != trustStoreLastModified);
+  }
+
+  private synchronized void reloadModifiedStores() {
+    if (!storesModified()) {
+      return;
+    }
+
+    logger.info("Key or trust store modified, reloading them ({}, {})", keyStoreName, trustStoreName);
+    KeyManagerFactory previousKeyManagerFactory = keyManagerFactory;
+    TrustManagerFactory previousTrustManagerFactory = trustManagerFactory;
+    byte[] previousKeyStoreContentHash = keyStoreContentHash;
+    byte[] previousTrustStoreContentHash = trustStoreContentHash;
+    File previousKeyStoreFile = keyStoreFile;
+    File previousTrustStoreFile = trustStoreFile;
+    try {
+      if (keyStoreFile != null) {
+        initKeyManagerFactory();
+      }
+      if (trustStoreFile != null && !customTrustManagerFactory) {
+        initTrustManagerFactory();
+      }
+      sslContext = null;
+    } catch (CreateException e) {
+      // The store may be being replaced, keep on using the previously loaded one until it is modified again
+      keyManagerFactory = previousKeyManagerFactory;
+      trustManagerFactory = previousTrustManagerFactory;
+      keyStoreContentHash = previousKeyStoreContentHash;
+      trustStoreContentHash = previousTrustStoreContentHash;
+      // Keep on watching the same files even if they were missing, and reload them once they are modified (or created) again
+      keyStoreFile = previousKeyStoreFile;
+      trustStoreFile = previousTrustStoreFile;
+      keyStoreLastModified = previousKeyStoreFile != null ? previousKeyStoreFile.lastModified() : 0;
+      trustStoreLastModified = previousTrustStoreFile != null ? previousTrustStoreFile.lastModified() : 0;
+      logger.warn("Could not reload key or trust store, the previously loaded ones will be used", e);
+    }
+  }
+
   public SSLContext getSslContext(TrustManager[] trustManagers) throws NoSuchAlgorithmException, KeyManagementException {
     KeyManager[] keyManagers = null == getKeyManagerFactory() ? null : getKeyManagerFactory().getKeyManagers();
 
@@ -431,6 +594,7 @@ public final class TlsConfiguration extends AbstractComponent
     }
 
     this.sslType = sslType;
+    this.sslContext = null;
   }
 
   // access to the explicit key store variables
@@ -590,6 +754,8 @@ public final class TlsConfiguration extends AbstractComponent
   @Override
   public void setTrustManagerFactory(TrustManagerFactory trustManagerFactory) {
     this.trustManagerFactory = trustManagerFactory;
+    this.customTrustManagerFactory = true;
+    this.sslContext = null;
   }
 
   @Override
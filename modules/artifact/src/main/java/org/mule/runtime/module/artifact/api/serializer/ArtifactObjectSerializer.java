@@ -7,7 +7,9 @@
 
 package org.mule.runtime.module.artifact.api.serializer;
 
+import static java.lang.Boolean.getBoolean;
 import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.mule.runtime.core.internal.serialization.CompactObjectSerializer.MULE_COMPACT_SERIALIZATION;
 
 import org.mule.api.annotation.NoInstantiate;
 import org.mule.runtime.api.exception.MuleException;
@@ -17,6 +19,8 @@ import org.mule.runtime.api.serialization.ObjectSerializer;
 import org.mule.runtime.api.serialization.SerializationProtocol;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.context.MuleContextAware;
+import org.mule.runtime.core.internal.serialization.AbstractSerializationProtocol;
+import org.mule.runtime.core.internal.serialization.CompactSerializationProtocol;
 import org.mule.runtime.core.internal.serialization.JavaExternalSerializerProtocol;
 import org.mule.runtime.module.artifact.api.classloader.ClassLoaderRepository;
 import org.mule.runtime.module.artifact.api.serializer.protocol.CustomJavaSerializationProtocol;
@@ -26,6 +30,7 @@ public final class ArtifactObjectSerializer implements ObjectSerializer, Initial
 
   private volatile JavaExternalSerializerProtocol javaExternalSerializerProtocol;
   private volatile CustomJavaSerializationProtocol javaInternalSerializerProtocol;
+  private volatile AbstractSerializationProtocol internalSerializerProtocol;
   private MuleContext muleContext;
 
   public ArtifactObjectSerializer(ClassLoaderRepository classLoaderRepository) {
@@ -33,11 +38,14 @@ public final class ArtifactObjectSerializer implements ObjectSerializer, Initial
 
     javaExternalSerializerProtocol = new JavaExternalSerializerProtocol();
     javaInternalSerializerProtocol = new CustomJavaSerializationProtocol(classLoaderRepository);
+    internalSerializerProtocol = getBoolean(MULE_COMPACT_SERIALIZATION)
+        ? new CompactSerializationProtocol(javaInternalSerializerProtocol)
+        : javaInternalSerializerProtocol;
   }
 
   @Override
   public SerializationProtocol getInternalProtocol() {
-    return javaInternalSerializerProtocol;
+    return internalSerializerProtocol;
   }
 
   @Override
@@ -50,12 +58,16 @@ public final class ArtifactObjectSerializer implements ObjectSerializer, Initial
     this.muleContext = context;
     javaExternalSerializerProtocol.setMuleContext(context);
     javaInternalSerializerProtocol.setMuleContext(context);
+    internalSerializerProtocol.setMuleContext(context);
   }
 
   @Override
   public void initialise() throws InitialisationException {
     try {
       muleContext.getInjector().inject(javaInternalSerializerProtocol);
+      if (internalSerializerProtocol != javaInternalSerializerProtocol) {
+        muleContext.getInjector().inject(internalSerializerProtocol);
+      }
       muleContext.getInjector().inject(javaExternalSerializerProtocol);
     } catch (MuleException e) {
       throw new InitialisationException(e, this);
@@ -7,28 +7,44 @@
 
 package org.mule.runtime.module.deployment.impl.internal.artifact;
 
+import static java.lang.Boolean.getBoolean;
+import static java.lang.Math.min;
+import static java.lang.Runtime.getRuntime;
 import static java.lang.String.format;
-import static java.util.stream.Collectors.toSet;
+import static java.lang.Thread.currentThread;
+import static java.util.Collections.unmodifiableSet;
+import static java.util.concurrent.CompletableFuture.allOf;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+import static java.util.concurrent.Executors.newFixedThreadPool;
 import static org.mule.runtime.api.dsl.DslResolvingContext.getDefault;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.mule.runtime.core.api.util.ClassUtils.withContextClassLoader;
 import org.mule.runtime.api.deployment.meta.MulePluginModel;
+import org.mule.runtime.api.dsl.DslResolvingContext;
+import org.mule.runtime.api.exception.MuleRuntimeException;
 import org.mule.runtime.api.meta.model.ExtensionModel;
 import org.mule.runtime.api.util.Pair;
 import org.mule.runtime.core.api.extension.MuleExtensionModelProvider;
 import org.mule.runtime.core.api.registry.SpiServiceRegistry;
 import org.mule.runtime.core.api.extension.RuntimeExtensionModelProvider;
+import org.mule.runtime.core.api.util.concurrent.NamedThreadFactory;
 import org.mule.runtime.deployment.model.api.plugin.ArtifactPluginDescriptor;
 import org.mule.runtime.deployment.model.api.plugin.LoaderDescriber;
 import org.mule.runtime.extension.api.loader.ExtensionModelLoader;
 import org.mule.runtime.module.artifact.api.classloader.ArtifactClassLoader;
+import org.mule.runtime.module.artifact.api.descriptor.BundleDependency;
+import org.mule.runtime.module.artifact.api.descriptor.BundleDescriptor;
 import org.mule.runtime.module.extension.internal.loader.ExtensionModelLoaderRepository;
 
-import com.google.common.collect.ImmutableSet;
-
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Discover the {@link ExtensionModel} based on the {@link ExtensionModelLoader} type.
@@ -37,6 +53,24 @@ import java.util.Set;
  */
 public class ExtensionModelDiscoverer {
 
+  /**
+   * Enables loading the {@link ExtensionModel}s of the plugins of an artifact in parallel. A plugin's {@link ExtensionModel} is
+   * still loaded after the ones of the plugins it depends on, which are the ones available in its {@link DslResolvingContext}.
+   */
+  public static final String PARALLEL_DISCOVERY_PROPERTY = SYSTEM_PROPERTY_PREFIX + "extensionModels.parallelDiscovery";
+
+  private static final String DISCOVERY_THREADS_NAME = "extension-model-discovery";
+
+  private final boolean parallelDiscovery;
+
+  public ExtensionModelDiscoverer() {
+    this(getBoolean(PARALLEL_DISCOVERY_PROPERTY));
+  }
+
+  ExtensionModelDiscoverer(boolean parallelDiscovery) {
+    this.parallelDiscovery = parallelDiscovery;
+  }
+
   /**
    * For each artifactPlugin discovers the {@link ExtensionModel}.
    *
@@ -64,26 +98,134 @@ public class ExtensionModelDiscoverer {
   public Set<Pair<ArtifactPluginDescriptor, ExtensionModel>> discoverPluginsExtensionModels(ExtensionModelLoaderRepository loaderRepository,
                                                                                             List<Pair<ArtifactPluginDescriptor, ArtifactClassLoader>> artifactPlugins,
                                                                                             Set<ExtensionModel> parentArtifactExtensions) {
+    if (parallelDiscovery && artifactPlugins.size() > 1) {
+      return discoverPluginsExtensionModelsInParallel(loaderRepository, artifactPlugins, parentArtifactExtensions);
+    }
+
     final Set<Pair<ArtifactPluginDescriptor, ExtensionModel>> descriptorsWithExtensions = new HashSet<>();
+    // Extensions discovered so far are accumulated here instead of being collected again for each plugin
+    final Set<ExtensionModel> extensions = new HashSet<>(parentArtifactExtensions);
+    extensions.add(MuleExtensionModelProvider.getExtensionModel());
     artifactPlugins.forEach(artifactPlugin -> {
-      Set<ExtensionModel> extensions = descriptorsWithExtensions.stream().map(Pair::getSecond).collect(toSet());
-      extensions.addAll(parentArtifactExtensions);
-      final ArtifactPluginDescriptor artifactPluginDescriptor = artifactPlugin.getFirst();
-      Optional<LoaderDescriber> loaderDescriber = artifactPluginDescriptor.getExtensionModelDescriptorProperty();
-      ClassLoader artifactClassloader = artifactPlugin.getSecond().getClassLoader();
-      String artifactName = artifactPluginDescriptor.getName();
-      ExtensionModel extension = loaderDescriber
-          .map(describer -> discoverExtensionThroughJsonDescriber(loaderRepository, describer,
-                                                                  extensions, artifactClassloader,
-                                                                  artifactName))
-          .orElse(null);
+      // the loader may keep the DslResolvingContext, so it must not see the extensions discovered afterwards
+      ExtensionModel extension = discoverExtension(loaderRepository, artifactPlugin, unmodifiableSet(new HashSet<>(extensions)));
       if (extension != null) {
-        descriptorsWithExtensions.add(new Pair<>(artifactPluginDescriptor, extension));
+        descriptorsWithExtensions.add(new Pair<>(artifactPlugin.getFirst(), extension));
+        extensions.add(extension);
       }
     });
     return descriptorsWithExtensions;
   }
 
+  /**
+   * Loads the {@link ExtensionModel} of each plugin as soon as the ones of the plugins it depends on are loaded, so plugins that
+   * do not depend on each other are introspected concurrently.
+   * <p>
+   * {@code artifactPlugins} are expected to be sorted by dependencies, as done when resolving them, so only the preceding plugins
+   * are considered as dependencies of each plugin.
+   */
+  private Set<Pair<ArtifactPluginDescriptor, ExtensionModel>> discoverPluginsExtensionModelsInParallel(ExtensionModelLoaderRepository loaderRepository,
+                                                                                                       List<Pair<ArtifactPluginDescriptor, ArtifactClassLoader>> artifactPlugins,
+                                                                                                       Set<ExtensionModel> parentArtifactExtensions) {
+    final Set<ExtensionModel> baseExtensions = new HashSet<>(parentArtifactExtensions);
+    baseExtensions.add(MuleExtensionModelProvider.getExtensionModel());
+    final ClassLoader contextClassLoader = currentThread().getContextClassLoader();
+    final ExecutorService executor = newFixedThreadPool(min(artifactPlugins.size(), getRuntime().availableProcessors()),
+                                                        new NamedThreadFactory(DISCOVERY_THREADS_NAME) {
+
+                                                          @Override
+                                                          protected void doConfigureThread(Thread t) {
+                                                            super.doConfigureThread(t);
+                                                            // so that a stuck loader doesn't prevent the container from exiting
+                                                            t.setDaemon(true);
+                                                          }
+                                                        });
+
+    try {
+      // Each discovery provides the extension of its plugin along with the ones of its dependencies, transitively
+      final List<CompletableFuture<Set<ExtensionModel>>> discoveries = new ArrayList<>(artifactPlugins.size());
+      final ExtensionModel[] discoveredExtensions = new ExtensionModel[artifactPlugins.size()];
+
+      for (int i = 0; i < artifactPlugins.size(); ++i) {
+        final int index = i;
+        final Pair<ArtifactPluginDescriptor, ArtifactClassLoader> artifactPlugin = artifactPlugins.get(i);
+        final List<CompletableFuture<Set<ExtensionModel>>> dependencies = new ArrayList<>();
+        for (int j = 0; j < i; ++j) {
+          if (dependsOn(artifactPlugin.getFirst(), artifactPlugins.get(j).getFirst())) {
+            dependencies.add(discoveries.get(j));
+          }
+        }
+
+        final CompletableFuture<Set<ExtensionModel>> discovery = allOf(dependencies.toArray(new CompletableFuture[0]))
+            .thenApplyAsync(v -> {
+              final Set<ExtensionModel> dependenciesExtensions = new HashSet<>();
+              dependencies.forEach(dependency -> dependenciesExtensions.addAll(dependency.join()));
+
+              final Set<ExtensionModel> extensions = new HashSet<>(baseExtensions);
+              extensions.addAll(dependenciesExtensions);
+              final ExtensionModel extension = withContextClassLoader(contextClassLoader,
+                                                                      () -> discoverExtension(loaderRepository, artifactPlugin,
+                                                                                              unmodifiableSet(extensions)));
+              if (extension != null) {
+                discoveredExtensions[index] = extension;
+                dependenciesExtensions.add(extension);
+              }
+              return dependenciesExtensions;
+            }, executor);
+        discoveries.add(discovery);
+      }
+
+      try {
+        allOf(discoveries.toArray(new CompletableFuture[0])).join();
+      } catch (CompletionException e) {
+        if (e.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) e.getCause();
+        } else if (e.getCause() instanceof Error) {
+          throw (Error) e.getCause();
+        } else {
+          throw new MuleRuntimeException(e.getCause());
+        }
+      }
+
+      final Set<Pair<ArtifactPluginDescriptor, ExtensionModel>> descriptorsWithExtensions = new HashSet<>();
+      for (int i = 0; i < artifactPlugins.size(); ++i) {
+        if (discoveredExtensions[i] != null) {
+          descriptorsWithExtensions.add(new Pair<>(artifactPlugins.get(i).getFirst(), discoveredExtensions[i]));
+        }
+      }
+      return descriptorsWithExtensions;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private boolean dependsOn(ArtifactPluginDescriptor artifactPluginDescriptor, ArtifactPluginDescriptor dependency) {
+    final BundleDescriptor dependencyBundleDescriptor = dependency.getBundleDescriptor();
+    for (BundleDependency bundleDependency : artifactPluginDescriptor.getClassLoaderModel().getDependencies()) {
+      final BundleDescriptor bundleDescriptor = bundleDependency.getDescriptor();
+      if (bundleDescriptor.isPlugin()
+          && bundleDescriptor.getGroupId().equals(dependencyBundleDescriptor.getGroupId())
+          && bundleDescriptor.getArtifactId().equals(dependencyBundleDescriptor.getArtifactId())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  ExtensionModel discoverExtension(ExtensionModelLoaderRepository loaderRepository,
+                                   Pair<ArtifactPluginDescriptor, ArtifactClassLoader> artifactPlugin,
+                                   Set<ExtensionModel> extensions) {
+    final ArtifactPluginDescriptor artifactPluginDescriptor = artifactPlugin.getFirst();
+    Optional<LoaderDescriber> loaderDescriber = artifactPluginDescriptor.getExtensionModelDescriptorProperty();
+    ClassLoader artifactClassloader = artifactPlugin.getSecond().getClassLoader();
+    String artifactName = artifactPluginDescriptor.getName();
+    return loaderDescriber
+        .map(describer -> discoverExtensionThroughJsonDescriber(loaderRepository, describer,
+                                                                extensions, artifactClassloader,
+                                                                artifactName))
+        .orElse(null);
+  }
+
   /**
    * Discover the extension models provided by the runtime.
    *
@@ -106,8 +248,8 @@ public class ExtensionModelDiscoverer {
    *
    * @param extensionModelLoaderRepository {@link ExtensionModelLoaderRepository} with the available extension loaders.
    * @param loaderDescriber a descriptor that contains parametrization to construct an {@link ExtensionModel}
-   * @param extensions with the previously generated {@link ExtensionModel}s that will be used to generate the current
-   *        {@link ExtensionModel} and store it in {@code extensions} once generated.
+   * @param extensions with the previously generated {@link ExtensionModel}s, including the core one, that will be used to
+   *        generate the current {@link ExtensionModel}.
    * @param artifactClassloader the loaded artifact {@link ClassLoader} to find the required resources.
    * @param artifactName the name of the artifact being loaded.
    * @throws IllegalArgumentException there is no {@link ExtensionModelLoader} for the ID in the {@link MulePluginModel}.
@@ -118,10 +260,6 @@ public class ExtensionModelDiscoverer {
     ExtensionModelLoader loader = extensionModelLoaderRepository.getExtensionModelLoader(loaderDescriber)
         .orElseThrow(() -> new IllegalArgumentException(format("The identifier '%s' does not match with the describers available "
             + "to generate an ExtensionModel (working with the plugin '%s')", loaderDescriber.getId(), artifactName)));
-    ExtensionModel coreModel = MuleExtensionModelProvider.getExtensionModel();
-    if (!extensions.contains(coreModel)) {
-      extensions = ImmutableSet.<ExtensionModel>builder().addAll(extensions).add(coreModel).build();
-    }
     return loader.loadExtensionModel(artifactClassloader, getDefault(extensions), loaderDescriber.getAttributes());
   }
 }
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.runtime.module.deployment.impl.internal.artifact;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptySet;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.Mockito.mock;
+
+import org.mule.runtime.api.meta.model.ExtensionModel;
+import org.mule.runtime.api.util.Pair;
+import org.mule.runtime.deployment.model.api.plugin.ArtifactPluginDescriptor;
+import org.mule.runtime.module.artifact.api.classloader.ArtifactClassLoader;
+import org.mule.runtime.module.artifact.api.descriptor.BundleDependency;
+import org.mule.runtime.module.artifact.api.descriptor.BundleDescriptor;
+import org.mule.runtime.module.artifact.api.descriptor.ClassLoaderModel.ClassLoaderModelBuilder;
+import org.mule.runtime.module.extension.internal.loader.ExtensionModelLoaderRepository;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.Test;
+
+@SmallTest
+public class ExtensionModelDiscovererTestCase extends AbstractMuleTestCase {
+
+  private final Map<String, ExtensionModel> extensionModels = new HashMap<>();
+  private final Map<String, Set<ExtensionModel>> visibleExtensions = new ConcurrentHashMap<>();
+
+  private final ArtifactPluginDescriptor a = plugin("a");
+  private final ArtifactPluginDescriptor b = plugin("b", a);
+  private final ArtifactPluginDescriptor c = plugin("c");
+  private final ArtifactPluginDescriptor d = plugin("d", b);
+  private final ArtifactPluginDescriptor noExtension = plugin("noExtension", a);
+
+  private final List<Pair<ArtifactPluginDescriptor, ArtifactClassLoader>> artifactPlugins =
+      asList(pair(a), pair(b), pair(c), pair(d), pair(noExtension));
+
+  @Test
+  public void parallelAndSequentialDiscoverSameModels() {
+    Map<String, ExtensionModel> sequential = discover(false);
+    Map<String, ExtensionModel> parallel = discover(true);
+
+    assertThat(parallel, equalTo(sequential));
+    assertThat(sequential.keySet(), equalTo(new HashSet<>(asList("a", "b", "c", "d"))));
+  }
+
+  @Test
+  public void parallelDiscoverySeesDependencies() {
+    discover(true);
+
+    assertThat(visibleExtensions.get("b"), hasItem(extensionModels.get("a")));
+    assertThat(visibleExtensions.get("d"), hasItem(extensionModels.get("a")));
+    assertThat(visibleExtensions.get("d"), hasItem(extensionModels.get("b")));
+    assertThat(visibleExtensions.get("c"), not(hasItem(extensionModels.get("a"))));
+  }
+
+  @Test
+  public void sequentialDiscoveryPassesSnapshot() {
+    discover(false);
+
+    assertThat(visibleExtensions.get("b"), hasItem(extensionModels.get("a")));
+    assertThat(visibleExtensions.get("a"), not(hasItem(extensionModels.get("b"))));
+    assertThat(visibleExtensions.get("b"), not(hasItem(extensionModels.get("c"))));
+  }
+
+  private Map<String, ExtensionModel> discover(boolean parallel) {
+    ExtensionModelDiscoverer discoverer = new ExtensionModelDiscoverer(parallel) {
+
+      @Override
+      ExtensionModel discoverExtension(ExtensionModelLoaderRepository loaderRepository,
+                                       Pair<ArtifactPluginDescriptor, ArtifactClassLoader> artifactPlugin,
+                                       Set<ExtensionModel> extensions) {
+        String name = artifactPlugin.getFirst().getName();
+        visibleExtensions.put(name, extensions);
+        return extensionModels.get(name);
+      }
+    };
+
+    Map<String, ExtensionModel> discovered = new HashMap<>();
+    for (Pair<ArtifactPluginDescriptor, ExtensionModel> pair : discoverer
+        .discoverPluginsExtensionModels(mock(ExtensionModelLoaderRepository.class), artifactPlugins, emptySet())) {
+      discovered.put(pair.getFirst().getName(), pair.getSecond());
+    }
+    return discovered;
+  }
+
+  private ArtifactPluginDescriptor plugin(String name, ArtifactPluginDescriptor... dependencies) {
+    ArtifactPluginDescriptor descriptor = new ArtifactPluginDescriptor(name);
+    descriptor.setBundleDescriptor(bundleDescriptor(name));
+
+    Set<BundleDependency> bundleDependencies = new HashSet<>();
+    for (ArtifactPluginDescriptor dependency : dependencies) {
+      bundleDependencies.add(new BundleDependency.Builder().setDescriptor(dependency.getBundleDescriptor()).build());
+    }
+    descriptor.setClassLoaderModel(new ClassLoaderModelBuilder().dependingOn(bundleDependencies).build());
+
+    if (!name.equals("noExtension")) {
+      extensionModels.put(name, mock(ExtensionModel.class));
+    }
+    return descriptor;
+  }
+
+  private BundleDescriptor bundleDescriptor(String artifactId) {
+    return new BundleDescriptor.Builder()
+        .setGroupId("org.mule.test")
+        .setArtifactId(artifactId)
+        .setVersion("1.0.0")
+        .setClassifier("mule-plugin")
+        .build();
+  }
+
+  private Pair<ArtifactPluginDescriptor, ArtifactClassLoader> pair(ArtifactPluginDescriptor descriptor) {
+    return new Pair<>(descriptor, mock(ArtifactClassLoader.class));
+  }
+}
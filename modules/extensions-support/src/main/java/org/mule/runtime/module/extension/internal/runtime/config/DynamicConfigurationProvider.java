@@ -17,6 +17,7 @@ import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.startIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
 import static org.mule.runtime.core.api.util.ClassUtils.withContextClassLoader;
 import static org.mule.runtime.extension.api.values.ValueResolvingException.UNKNOWN;
+import static org.mule.runtime.module.extension.internal.runtime.resolver.ResolverUtils.resolveRecursively;
 import static org.mule.runtime.module.extension.internal.value.ValueProviderUtils.valuesWithClassLoader;
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -30,7 +31,6 @@ import org.mule.runtime.api.lifecycle.Startable;
 import org.mule.runtime.api.meta.model.ExtensionModel;
 import org.mule.runtime.api.meta.model.config.ConfigurationModel;
 import org.mule.runtime.api.meta.model.connection.ConnectionProviderModel;
-import org.mule.runtime.api.util.Pair;
 import org.mule.runtime.api.value.Value;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.el.ExpressionManager;
@@ -50,14 +50,16 @@ import org.mule.runtime.module.extension.internal.runtime.resolver.ValueResolvin
 import org.mule.runtime.module.extension.internal.util.ReflectionCache;
 import org.mule.runtime.module.extension.internal.value.ValueProviderMediator;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
 
 import org.slf4j.Logger;
 
@@ -65,10 +67,13 @@ import org.slf4j.Logger;
  * A {@link ConfigurationProvider} which continuously evaluates the same {@link ResolverSet} and then uses the resulting
  * {@link ResolverSetResult} to build an instance of type {@code T}
  * <p>
- * Although each invocation to {@link #get(Event)} is guaranteed to end up in an invocation to
- * {@link #resolverSet#resolve(Object)}, the resulting {@link ResolverSetResult} might not end up generating a new instance. This
- * is so because {@link ResolverSetResult} instances are put in a cache to guarantee that equivalent evaluations of the
- * {@code resolverSet} return the same instance.
+ * Each invocation to {@link #get(Event)} only evaluates the dynamic {@link ValueResolver}s of the {@code resolverSet} (and of the
+ * connection provider's one), since the values of the static ones cannot change between events. Those values are used as the key
+ * of a cache that guarantees that equivalent evaluations return the same instance, so the whole {@link ResolverSetResult} is only
+ * built when a new instance has to be created.
+ * <p>
+ * The cache is accessed without locking. Each cached instance is guarded by a usage stamp that is bumped on every hit and that
+ * {@link #getExpired()} retires atomically, so an instance is never handed out after it has been expired.
  *
  * @since 4.0.0
  */
@@ -82,10 +87,12 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
   private final ConnectionProviderValueResolver connectionProviderResolver;
   private final ExpirationPolicy expirationPolicy;
 
-  private final Map<Pair<ResolverSetResult, ResolverSetResult>, ConfigurationInstance> cache = new ConcurrentHashMap<>();
-  private final ReadWriteLock cacheLock = new ReentrantReadWriteLock();
-  private final Lock cacheReadLock = cacheLock.readLock();
-  private final Lock cacheWriteLock = cacheLock.writeLock();
+  private final Map<ConfigurationKey, CacheEntry> cache = new ConcurrentHashMap<>();
+  private final LongAdder cacheHits = new LongAdder();
+  private final LongAdder cacheMisses = new LongAdder();
+  private final LongAdder createdConfigurations = new LongAdder();
+  private DynamicParametersPlan parametersPlan;
+  private volatile DynamicParametersPlan providerParametersPlan;
   private final ReflectionCache reflectionCache;
   private final ExpressionManager expressionManager;
 
@@ -122,8 +129,8 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
   }
 
   /**
-   * Evaluates {@link #resolverSet} using the given {@code event} and returns an instance produced with the result. For equivalent
-   * {@link ResolverSetResult}s it will return the same instance.
+   * Evaluates the dynamic parameters of {@link #resolverSet} using the given {@code event} and returns an instance produced with
+   * the result. For equivalent values it will return the same instance.
    *
    * @param event the current {@code event}
    * @return the resolved {@link ConfigurationInstance}
@@ -133,29 +140,53 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
     return withContextClassLoader(getExtensionClassLoader(), () -> {
       try (ValueResolvingContext resolvingContext = ValueResolvingContext.builder(((CoreEvent) event))
           .withExpressionManager(expressionManager).build()) {
-        ResolverSetResult result = resolverSet.resolve(resolvingContext);
-        ResolverSetResult providerResult = null;
-        if (connectionProviderResolver.getResolverSet().isPresent()) {
-          providerResult = ((ResolverSet) connectionProviderResolver.getResolverSet().get()).resolve(resolvingContext);
-        }
-        return getConfiguration(new Pair<>(result, providerResult), (CoreEvent) event);
+        DynamicParametersPlan providerPlan = getProviderParametersPlan();
+        ConfigurationKey key = new ConfigurationKey(parametersPlan.resolveDynamicValues(resolvingContext),
+                                                    providerPlan != null
+                                                        ? providerPlan.resolveDynamicValues(resolvingContext)
+                                                        : null);
+        return getConfiguration(key, providerPlan, resolvingContext, (CoreEvent) event);
       }
     });
   }
 
-  private ConfigurationInstance getConfiguration(Pair<ResolverSetResult, ResolverSetResult> resolverSetResult, CoreEvent event)
+  private DynamicParametersPlan getProviderParametersPlan() {
+    Optional<ResolverSet> providerResolverSet = connectionProviderResolver.getResolverSet();
+    if (!providerResolverSet.isPresent()) {
+      return null;
+    }
+
+    DynamicParametersPlan plan = providerParametersPlan;
+    if (plan == null || plan.resolverSet != providerResolverSet.get()) {
+      plan = new DynamicParametersPlan(providerResolverSet.get());
+      providerParametersPlan = plan;
+    }
+    return plan;
+  }
+
+  private ConfigurationInstance getConfiguration(ConfigurationKey key, DynamicParametersPlan providerPlan,
+                                                 ValueResolvingContext resolvingContext, CoreEvent event)
       throws Exception {
 
-    ConfigurationInstance configuration;
-    cacheReadLock.lock();
+    CacheEntry entry = cache.get(key);
+    if (entry != null && entry.acquire()) {
+      cacheHits.increment();
+      updateUsageStatistic(entry.configuration);
+      return entry.configuration;
+    }
+
+    cacheMisses.increment();
     try {
-      configuration = cache.computeIfAbsent(resolverSetResult, (r) -> createConfiguration(r, event));
-      updateUsageStatistic(configuration);
-      return configuration;
+      entry = cache.compute(key, (k, current) -> {
+        if (current != null && current.acquire()) {
+          return current;
+        }
+        return new CacheEntry(createConfiguration(k, providerPlan, resolvingContext, event));
+      });
+      updateUsageStatistic(entry.configuration);
+      return entry.configuration;
     } catch (WrappingRuntimeException e) {
       throw e.getWrappedException();
-    } finally {
-      cacheReadLock.unlock();
     }
   }
 
@@ -164,25 +195,28 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
     stats.updateLastUsed();
   }
 
-  private ConfigurationInstance createConfiguration(Pair<ResolverSetResult, ResolverSetResult> values, CoreEvent event) {
+  private ConfigurationInstance createConfiguration(ConfigurationKey key, DynamicParametersPlan providerPlan,
+                                                    ValueResolvingContext resolvingContext, CoreEvent event) {
     assertNotStopping(muleContext, "Mule is shutting down... Cannot create new dynamic configurations");
 
     ConfigurationInstance configuration;
-    ResolverSetResult connectionProviderValues = values.getSecond();
     try {
-      if (connectionProviderValues != null) {
+      ResolverSetResult values = parametersPlan.resolve(key.values, resolvingContext);
+      if (providerPlan != null) {
+        ResolverSetResult connectionProviderValues = providerPlan.resolve(key.providerValues, resolvingContext);
         configuration = configurationInstanceFactory.createConfiguration(getName(),
-                                                                         values.getFirst(),
+                                                                         values,
                                                                          event,
                                                                          connectionProviderResolver,
                                                                          connectionProviderValues);
       } else {
         configuration = configurationInstanceFactory.createConfiguration(getName(),
-                                                                         values.getFirst(),
+                                                                         values,
                                                                          event,
                                                                          ofNullable(connectionProviderResolver));
       }
       registerConfiguration(configuration);
+      createdConfigurations.increment();
       return configuration;
     } catch (MuleException e) {
       throw new WrappingRuntimeException(e);
@@ -228,16 +262,15 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
 
   @Override
   public List<ConfigurationInstance> getExpired() {
-    cacheWriteLock.lock();
-    try {
-      return cache.entrySet().stream().filter(entry -> isExpired(entry.getValue())).map(entry -> {
-        cache.remove(entry.getKey());
-        unRegisterConfiguration(entry.getValue());
-        return entry.getValue();
-      }).collect(toImmutableList());
-    } finally {
-      cacheWriteLock.unlock();
-    }
+    List<ConfigurationInstance> expired = new ArrayList<>();
+    cache.forEach((key, entry) -> {
+      if (entry.retireIf(this::isExpired)) {
+        cache.remove(key, entry);
+        unRegisterConfiguration(entry.configuration);
+        expired.add(entry.configuration);
+      }
+    });
+    return expired.stream().collect(toImmutableList());
   }
 
   private boolean isExpired(ConfigurationInstance configuration) {
@@ -250,6 +283,7 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
     try {
       initialiseIfNeeded(resolverSet, muleContext);
       initialiseIfNeeded(connectionProviderResolver, muleContext);
+      parametersPlan = new DynamicParametersPlan(resolverSet);
     } catch (InitialisationException e) {
       throw new MuleRuntimeException(e);
     }
@@ -261,6 +295,27 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
     startIfNeeded(connectionProviderResolver);
   }
 
+  /**
+   * @return how many times an already existing configuration instance was returned by {@link #get(Event)}
+   */
+  public long getCacheHits() {
+    return cacheHits.sum();
+  }
+
+  /**
+   * @return how many times {@link #get(Event)} found no usable configuration instance for the resolved values
+   */
+  public long getCacheMisses() {
+    return cacheMisses.sum();
+  }
+
+  /**
+   * @return how many configuration instances have been created by this provider
+   */
+  public long getCreatedConfigurations() {
+    return createdConfigurations.sum();
+  }
+
   /**
    * {@inheritDoc}
    *
@@ -318,9 +373,135 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
         .map(ob -> ((ConnectionProviderObjectBuilder) ob).providerModel);
   }
 
+  /**
+   * Knows which resolvers of a {@link ResolverSet} are dynamic, so that only those need to be evaluated to look up a cached
+   * configuration and the values of the static ones are only obtained when a new configuration is created.
+   * <p>
+   * Subclasses of {@link ResolverSet} may customize how it is resolved, so for those the whole {@link ResolverSetResult} is used
+   * as the only dynamic value.
+   */
+  private static final class DynamicParametersPlan {
+
+    private static final Object[] NO_VALUES = new Object[0];
+
+    private final ResolverSet resolverSet;
+    private final boolean plain;
+    private final String[] keys;
+    private final ValueResolver<?>[] resolvers;
+    private final ValueResolver<?>[] dynamicResolvers;
+
+    private DynamicParametersPlan(ResolverSet resolverSet) {
+      this.resolverSet = resolverSet;
+      this.plain = resolverSet.getClass() == ResolverSet.class;
+
+      Map<String, ValueResolver<?>> resolversByKey = resolverSet.getResolvers();
+      keys = resolversByKey.keySet().toArray(new String[resolversByKey.size()]);
+      resolvers = resolversByKey.values().toArray(new ValueResolver<?>[resolversByKey.size()]);
+      dynamicResolvers = resolversByKey.values().stream().filter(ValueResolver::isDynamic).toArray(ValueResolver<?>[]::new);
+    }
+
+    private Object[] resolveDynamicValues(ValueResolvingContext context) throws MuleException {
+      if (!plain) {
+        return new Object[] {resolverSet.resolve(context)};
+      }
+      if (dynamicResolvers.length == 0) {
+        return NO_VALUES;
+      }
+
+      Object[] values = new Object[dynamicResolvers.length];
+      for (int i = 0; i < dynamicResolvers.length; i++) {
+        values[i] = resolveRecursively(dynamicResolvers[i], context);
+      }
+      return values;
+    }
+
+    private ResolverSetResult resolve(Object[] dynamicValues, ValueResolvingContext context) throws MuleException {
+      if (!plain) {
+        return (ResolverSetResult) dynamicValues[0];
+      }
+
+      ResolverSetResult.Builder builder = ResolverSetResult.newBuilder();
+      int dynamicIndex = 0;
+      for (int i = 0; i < resolvers.length; i++) {
+        builder.add(keys[i], resolvers[i].isDynamic()
+            ? dynamicValues[dynamicIndex++]
+            : resolveRecursively(resolvers[i], context));
+      }
+      return builder.build();
+    }
+  }
+
+  /**
+   * Cache key made of the values of the dynamic parameters of the configuration and of its connection provider.
+   */
+  private static final class ConfigurationKey {
+
+    private final Object[] values;
+    private final Object[] providerValues;
+    private final int hashCode;
+
+    private ConfigurationKey(Object[] values, Object[] providerValues) {
+      this.values = values;
+      this.providerValues = providerValues;
+      this.hashCode = 31 * Arrays.hashCode(values) + Arrays.hashCode(providerValues);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof ConfigurationKey)) {
+        return false;
+      }
+
+      ConfigurationKey other = (ConfigurationKey) obj;
+      return hashCode == other.hashCode
+          && Arrays.equals(values, other.values)
+          && Arrays.equals(providerValues, other.providerValues);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+  /**
+   * A cached {@link ConfigurationInstance} along with the stamp used to linearize its usages against its expiration. Every usage
+   * moves the stamp forward, and the instance is only expired if the stamp didn't move while its expiration was being evaluated.
+   */
+  private static final class CacheEntry {
+
+    private static final long RETIRED = -1;
+
+    private final ConfigurationInstance configuration;
+    private final AtomicLong stamp = new AtomicLong();
+
+    private CacheEntry(ConfigurationInstance configuration) {
+      this.configuration = configuration;
+    }
+
+    private boolean acquire() {
+      long current;
+      do {
+        current = stamp.get();
+        if (current == RETIRED) {
+          return false;
+        }
+      } while (!stamp.compareAndSet(current, current + 1));
+      return true;
+    }
+
+    private boolean retireIf(Predicate<ConfigurationInstance> expired) {
+      long current = stamp.get();
+      return current != RETIRED && expired.test(configuration) && stamp.compareAndSet(current, RETIRED);
+    }
+  }
+
   /**
    * Used to preserve exception throwing behaviour in {@link #getConfiguration} as the method {@link #createConfiguration} can no longer throw
-   * checked exception as it is used inside {@link Map#computeIfAbsent}.
+   * checked exception as it is used inside {@link Map#compute}.
    */
   private static class WrappingRuntimeException extends RuntimeException {
 
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.resolver;
+
+import static org.mule.runtime.module.extension.internal.runtime.resolver.ResolverUtils.resolveRecursively;
+
+import org.mule.runtime.api.exception.MuleException;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Compiled form of the {@link ValueResolver}s of a {@link ResolverSet}.
+ * <p>
+ * Resolvers which always return the same value are resolved once when the plan is compiled. Only the remaining ones are
+ * evaluated on each {@link #resolve(ValueResolvingContext)}, all of them with the expression language session of the given
+ * {@link ValueResolvingContext}, and their values are put into an array preallocated with the constant ones, which then backs the
+ * returned {@link ResolverSetResult}.
+ * <p>
+ * Note that a resolver not being {@link ValueResolver#isDynamic() dynamic} doesn't imply that it always returns the same value
+ * (for instance, it may build a new object on each resolution), so only static value resolvers are considered constant.
+ *
+ * @since 4.4
+ */
+final class ResolutionPlan {
+
+  private static final Object NOT_CONSTANT = new Object();
+
+  private final String[] keys;
+  private final Map<String, Integer> indexes;
+  private final ValueResolver<?>[] resolvers;
+  private final Object[] constantValues;
+
+  ResolutionPlan(Map<String, ValueResolver<?>> resolversByKey) throws MuleException {
+    int size = resolversByKey.size();
+    keys = new String[size];
+    indexes = new HashMap<>(size * 2);
+    resolvers = new ValueResolver<?>[size];
+    constantValues = new Object[size];
+
+    int i = 0;
+    for (Map.Entry<String, ValueResolver<?>> entry : resolversByKey.entrySet()) {
+      keys[i] = entry.getKey();
+      indexes.put(entry.getKey(), i);
+      resolvers[i] = entry.getValue();
+      constantValues[i] = resolveConstant(entry.getValue());
+      i++;
+    }
+  }
+
+  private static Object resolveConstant(ValueResolver<?> resolver) throws MuleException {
+    if (resolver.getClass() != StaticValueResolver.class && resolver.getClass() != StaticLiteralValueResolver.class) {
+      return NOT_CONSTANT;
+    }
+
+    // Static resolvers don't use the context
+    Object value = resolver.resolve(null);
+    return value instanceof ValueResolver ? NOT_CONSTANT : value;
+  }
+
+  /**
+   * Evaluates the non constant resolvers of this plan.
+   *
+   * @param context a not {@code null} {@link ValueResolvingContext}
+   * @return a {@link ResolverSetResult} with the values of all the resolvers of this plan
+   * @throws MuleException if an error occurs evaluating any of the resolvers
+   */
+  ResolverSetResult resolve(ValueResolvingContext context) throws MuleException {
+    Object[] values = constantValues.clone();
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] == NOT_CONSTANT) {
+        values[i] = resolveRecursively(resolvers[i], context);
+      }
+    }
+
+    return new ResolverSetResult(new ArrayBackedMap(values));
+  }
+
+  /**
+   * Read only {@link Map} over the resolved values, which shares the keys and their indexes with all the other results of the
+   * plan.
+   */
+  private final class ArrayBackedMap extends AbstractMap<String, Object> {
+
+    private final Object[] values;
+
+    private ArrayBackedMap(Object[] values) {
+      this.values = values;
+    }
+
+    @Override
+    public Object get(Object key) {
+      Integer index = indexes.get(key);
+      return index != null ? values[index] : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return indexes.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+      return values.length;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+      return new AbstractSet<Entry<String, Object>>() {
+
+        @Override
+        public Iterator<Entry<String, Object>> iterator() {
+          return new Iterator<Entry<String, Object>>() {
+
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+              return next < values.length;
+            }
+
+            @Override
+            public Entry<String, Object> next() {
+              if (!hasNext()) {
+                throw new NoSuchElementException();
+              }
+              Entry<String, Object> entry = new SimpleImmutableEntry<>(keys[next], values[next]);
+              next++;
+              return entry;
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return values.length;
+        }
+      };
+    }
+  }
+}
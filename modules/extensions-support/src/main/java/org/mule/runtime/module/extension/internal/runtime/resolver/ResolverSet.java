@@ -9,7 +9,6 @@ package org.mule.runtime.module.extension.internal.runtime.resolver;
 import static org.mule.runtime.api.util.Preconditions.checkArgument;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
 import static org.mule.runtime.core.api.util.StringUtils.isBlank;
-import static org.mule.runtime.module.extension.internal.runtime.resolver.ResolverUtils.resolveRecursively;
 
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.lifecycle.Initialisable;
@@ -31,6 +30,9 @@ import com.google.common.collect.ImmutableMap;
  * {@link ValueResolver}s but evaluated many times. With this goal in mind is that the return value of this resolver will always
  * be a {@link ResolverSetResult} which then can be used by a {@link ObjectBuilder} to generate an actual object.
  * <p>
+ * The resolvers are compiled into a {@link ResolutionPlan} on initialization (or on the first evaluation if this set is never
+ * initialised), so that the ones which always return the same value are not evaluated each time.
+ * <p>
  * Instances of this class are to be considered thread safe and reusable
  *
  * @since 3.7.0
@@ -40,6 +42,7 @@ public class ResolverSet implements ValueResolver<ResolverSetResult>, Initialisa
   private final Map<String, ValueResolver<?>> resolvers = new LinkedHashMap<>();
   private boolean dynamic = false;
   private final MuleContext muleContext;
+  private volatile ResolutionPlan resolutionPlan;
 
   public ResolverSet(MuleContext muleContext) {
     this.muleContext = muleContext;
@@ -65,6 +68,7 @@ public class ResolverSet implements ValueResolver<ResolverSetResult>, Initialisa
     if (!dynamic && resolver.isDynamic()) {
       dynamic = true;
     }
+    resolutionPlan = null;
     return this;
   }
 
@@ -108,13 +112,16 @@ public class ResolverSet implements ValueResolver<ResolverSetResult>, Initialisa
    */
   @Override
   public ResolverSetResult resolve(ValueResolvingContext context) throws MuleException {
-    ResolverSetResult.Builder builder = getResolverSetBuilder();
+    return getResolutionPlan().resolve(context);
+  }
 
-    for (Map.Entry<String, ValueResolver<?>> entry : resolvers.entrySet()) {
-      builder.add(entry.getKey(), resolveRecursively(entry.getValue(), context));
+  private ResolutionPlan getResolutionPlan() throws MuleException {
+    ResolutionPlan plan = resolutionPlan;
+    if (plan == null) {
+      plan = new ResolutionPlan(resolvers);
+      resolutionPlan = plan;
     }
-
-    return builder.build();
+    return plan;
   }
 
   /**
@@ -140,9 +147,10 @@ public class ResolverSet implements ValueResolver<ResolverSetResult>, Initialisa
   @Override
   public void initialise() throws InitialisationException {
     initialiseIfNeeded(resolvers.values(), muleContext);
-  }
-
-  ResolverSetResult.Builder getResolverSetBuilder() {
-    return ResolverSetResult.newBuilder();
+    try {
+      getResolutionPlan();
+    } catch (MuleException e) {
+      throw new InitialisationException(e, this);
+    }
   }
 }
@@ -21,7 +21,8 @@ import com.google.common.base.Objects;
  * This class represents the outcome of the evaluation of a {@link ResolverSet}. This class maps a set of {@link ParameterModel}
  * to a set of result {@link Object}s.
  * <p>
- * Instances of this class can only be created through a {@link Builder} obtained via {@link #newBuilder()}
+ * Instances of this class can only be created through a {@link Builder} obtained via {@link #newBuilder()}, or by a
+ * {@link ResolutionPlan}
  *
  * @since 3.7.0
  */
@@ -51,6 +51,7 @@ import org.mule.runtime.extension.api.runtime.config.ConfigurationInstance;
 import org.mule.runtime.module.extension.internal.runtime.resolver.ConnectionProviderResolver;
 import org.mule.runtime.module.extension.internal.runtime.resolver.ResolverSet;
 import org.mule.runtime.module.extension.internal.runtime.resolver.ResolverSetResult;
+import org.mule.runtime.module.extension.internal.runtime.resolver.ValueResolver;
 import org.mule.runtime.module.extension.internal.runtime.resolver.ValueResolvingContext;
 import org.mule.runtime.module.extension.internal.util.ReflectionCache;
 import org.mule.tck.size.SmallTest;
@@ -58,6 +59,7 @@ import org.mule.test.heisenberg.extension.HeisenbergExtension;
 
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.After;
 import org.junit.Before;
@@ -166,6 +168,24 @@ public class DynamicConfigurationProviderTestCase extends AbstractConfigurationP
 
     ValueResolvingContext ctx = ValueResolvingContext.builder(event).withExpressionManager(expressionManager).build();
     verify(resolverSet, times(count)).resolve(ctx);
+
+    DynamicConfigurationProvider provider = (DynamicConfigurationProvider) this.provider;
+    assertThat(provider.getCacheHits(), is((long) count - 1));
+    assertThat(provider.getCacheMisses(), is(1L));
+    assertThat(provider.getCreatedConfigurations(), is(1L));
+  }
+
+  @Test
+  public void expiredInstanceIsNotReturned() throws Exception {
+    HeisenbergExtension instance = (HeisenbergExtension) provider.get(event).getValue();
+
+    DynamicConfigurationProvider provider = (DynamicConfigurationProvider) this.provider;
+    timeSupplier.move(10, MINUTES);
+    assertThat(provider.getExpired().isEmpty(), is(false));
+
+    mockConfigurationInstance(configurationModel, MODULE_CLASS.newInstance());
+    assertThat(provider.get(event).getValue(), is(not(sameInstance(instance))));
+    assertThat(provider.getCreatedConfigurations(), is(2L));
   }
 
   @Test
@@ -278,6 +298,48 @@ public class DynamicConfigurationProviderTestCase extends AbstractConfigurationP
     assertThat(instance.getDispose(), is(1));
   }
 
+  @Test
+  public void resolveCachedWithStaticAndDynamicResolvers() throws Exception {
+    ValueResolver<Object> staticResolver = mock(ValueResolver.class);
+    when(staticResolver.resolve(any())).thenReturn("static");
+    AtomicReference<Object> dynamicValue = new AtomicReference<>("first");
+    ValueResolver<Object> dynamicResolver = mock(ValueResolver.class);
+    when(dynamicResolver.isDynamic()).thenReturn(true);
+    when(dynamicResolver.resolve(any())).thenAnswer(invocation -> dynamicValue.get());
+
+    ResolverSet plainResolverSet = new ResolverSet(muleContext)
+        .add("staticParameter", staticResolver)
+        .add("dynamicParameter", dynamicResolver);
+    DynamicConfigurationProvider provider =
+        new DynamicConfigurationProvider(CONFIG_NAME, extensionModel, configurationModel, plainResolverSet,
+                                         connectionProviderResolver, expirationPolicy, new ReflectionCache(),
+                                         expressionManager, muleContext);
+    muleContext.getInjector().inject(provider);
+    provider.initialise();
+    provider.start();
+
+    try {
+      Object config = provider.get(event).getValue();
+      assertThat(provider.get(event).getValue(), is(sameInstance(config)));
+      verify(dynamicResolver, times(2)).resolve(any());
+      // static values are only needed to create the configuration
+      verify(staticResolver, times(1)).resolve(any());
+
+      mockConfigurationInstance(configurationModel, MODULE_CLASS.newInstance());
+      dynamicValue.set("second");
+      assertThat(provider.get(event).getValue(), is(not(sameInstance(config))));
+      verify(staticResolver, times(2)).resolve(any());
+
+      dynamicValue.set("first");
+      assertThat(provider.get(event).getValue(), is(sameInstance(config)));
+      assertThat(provider.getCreatedConfigurations(), is(2L));
+      assertThat(provider.getCacheHits(), is(2L));
+    } finally {
+      provider.stop();
+      provider.dispose();
+    }
+  }
+
   private HeisenbergExtension makeAlternateInstance() throws Exception {
     ResolverSetResult alternateResult = mock(ResolverSetResult.class, Mockito.RETURNS_DEEP_STUBS);
     when(alternateResult.asMap()).thenReturn(new HashMap<>());
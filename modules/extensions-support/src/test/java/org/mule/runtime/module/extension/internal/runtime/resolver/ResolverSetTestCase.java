@@ -8,6 +8,7 @@ package org.mule.runtime.module.extension.internal.runtime.resolver;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.Matchers.contains;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.when;
 import static org.mule.test.module.extension.internal.util.ExtensionsTestUtils.getParameter;
@@ -100,6 +101,26 @@ public class ResolverSetTestCase extends AbstractMuleTestCase {
     assertThat(set.isDynamic(), is(true));
   }
 
+  @Test
+  public void resolveWithStaticValues() throws Exception {
+    set.add("static", new StaticValueResolver<>(NAME));
+
+    ResolverSetResult result = set.resolve(resolvingContext);
+    assertResult(result, mapping);
+    assertThat(result.get("static"), is(NAME));
+    assertThat(result.asMap().keySet(), contains("myName", "age", "static"));
+  }
+
+  @Test
+  public void resolveAfterAddingResolver() throws Exception {
+    set.resolve(resolvingContext);
+    set.add("static", new StaticValueResolver<>(AGE));
+
+    ResolverSetResult result = set.resolve(resolvingContext);
+    assertResult(result, mapping);
+    assertThat(result.get("static"), is(AGE));
+  }
+
   private void assertResult(ResolverSetResult result, Map<ParameterModel, ValueResolver> mapping) throws Exception {
     assertThat(result, is(notNullValue()));
     for (Map.Entry<ParameterModel, ValueResolver> entry : mapping.entrySet()) {
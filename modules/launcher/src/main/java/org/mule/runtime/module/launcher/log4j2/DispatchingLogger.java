@@ -16,6 +16,7 @@ import static org.reflections.ReflectionUtils.withParameters;
 
 import org.mule.runtime.api.util.Reference;
 
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.Iterator;
@@ -50,6 +51,11 @@ import com.github.benmanes.caffeine.cache.LoadingCache;
  * Because this class is a fix for issues in static loggers, it must not hold any reference to any {@link ClassLoader}
  * since otherwise that class loader would be GC unreachable. For that reason, it uses {@link #ownerClassLoaderHash} instead of
  * the real reference
+ * <p/>
+ * Since most of the log events of a logger are generated from the same artifact, the first resolved logger is remembered along
+ * with the context class loader it was resolved for, so log events from that artifact don't need to resolve it again. It is only
+ * replaced once its class loader or logger are collected, so that log events alternating between artifacts don't keep replacing
+ * it and miss it every time. Both are held through weak references for the same reason.
  *
  * @since 3.6.0
  */
@@ -63,6 +69,8 @@ abstract class DispatchingLogger extends Logger {
       .weakValues()
       .build(key -> new Reference<>());
 
+  private volatile RememberedLogger rememberedLogger;
+
   private Method updateConfigurationMethod = null;
 
   DispatchingLogger(Logger originalLogger, int ownerClassLoaderHash, LoggerContext loggerContext, ContextSelector contextSelector,
@@ -74,11 +82,28 @@ abstract class DispatchingLogger extends Logger {
   }
 
   private Logger getLogger() {
-    return getLogger(resolveLoggerContextClassLoader(currentThread().getContextClassLoader()));
+    ClassLoader contextClassLoader = currentThread().getContextClassLoader();
+    if (contextClassLoader != null) {
+      RememberedLogger remembered = rememberedLogger;
+      if (remembered != null) {
+        Logger logger = remembered.getLogger(contextClassLoader);
+        if (logger != null) {
+          return logger;
+        }
+      }
+    }
+
+    return getLogger(contextClassLoader, resolveLoggerContextClassLoader(contextClassLoader));
   }
 
-  private Logger getLogger(final ClassLoader resolvedCtxClassLoader) {
+  /**
+   * @param contextClassLoader     the context class loader the logger is being resolved for, or {@code null} if the result must
+   *                               not be remembered as the {@link #rememberedLogger}
+   * @param resolvedCtxClassLoader the class loader of the logger context to use
+   */
+  private Logger getLogger(ClassLoader contextClassLoader, final ClassLoader resolvedCtxClassLoader) {
     if (useThisLoggerContextClassLoader(resolvedCtxClassLoader)) {
+      rememberLogger(contextClassLoader, originalLogger);
       return originalLogger;
     }
 
@@ -111,9 +136,22 @@ abstract class DispatchingLogger extends Logger {
         }
       }
     }
+    rememberLogger(contextClassLoader, logger);
     return logger;
   }
 
+  private void rememberLogger(ClassLoader contextClassLoader, Logger logger) {
+    if (contextClassLoader == null) {
+      return;
+    }
+
+    RememberedLogger remembered = rememberedLogger;
+    // Racing threads may both replace an empty slot, either of them is fine
+    if (remembered == null || remembered.isCleared()) {
+      rememberedLogger = new RememberedLogger(contextClassLoader, logger);
+    }
+  }
+
   private Logger resolveLogger(ClassLoader resolvedCtxClassLoader) {
     Logger logger;
     // trick - this is probably a logger declared in a static field
@@ -127,7 +165,7 @@ abstract class DispatchingLogger extends Logger {
     }
 
     if (logger instanceof DispatchingLogger) {
-      return ((DispatchingLogger) logger).getLogger(resolvedCtxClassLoader);
+      return ((DispatchingLogger) logger).getLogger(null, resolvedCtxClassLoader);
     } else {
       return logger;
     }
@@ -142,6 +180,34 @@ abstract class DispatchingLogger extends Logger {
     return currentClassLoader.hashCode() == ownerClassLoaderHash;
   }
 
+  /**
+   * A logger along with the context class loader it was resolved for.
+   */
+  private static final class RememberedLogger {
+
+    private final WeakReference<ClassLoader> contextClassLoader;
+    private final WeakReference<Logger> logger;
+
+    private RememberedLogger(ClassLoader contextClassLoader, Logger logger) {
+      this.contextClassLoader = new WeakReference<>(contextClassLoader);
+      this.logger = new WeakReference<>(logger);
+    }
+
+    /**
+     * @return the logger if it was resolved for {@code contextClassLoader}, {@code null} otherwise
+     */
+    private Logger getLogger(ClassLoader contextClassLoader) {
+      return this.contextClassLoader.get() == contextClassLoader ? logger.get() : null;
+    }
+
+    /**
+     * @return whether the class loader or the logger were garbage collected
+     */
+    private boolean isCleared() {
+      return contextClassLoader.get() == null || logger.get() == null;
+    }
+  }
+
   /**
    * This is workaround for the low visibility of the {@link Logger#updateConfiguration(Configuration)} method, which invokes it
    * on the {@code originalLogger}.
@@ -6,6 +6,7 @@
  */
 package org.mule.runtime.module.launcher.log4j2;
 
+import static java.lang.Boolean.getBoolean;
 import static java.lang.Boolean.parseBoolean;
 import static java.lang.Integer.getInteger;
 import static java.lang.String.format;
@@ -13,6 +14,7 @@ import static java.lang.System.getProperty;
 import static java.util.zip.Deflater.NO_COMPRESSION;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
 import static org.mule.runtime.api.util.MuleSystemProperties.MULE_FORCE_CONSOLE_LOG;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
 import static org.mule.runtime.core.api.config.MuleDeploymentProperties.MULE_MUTE_APP_LOGS_DEPLOYMENT_PROPERTY;
 import static org.mule.runtime.core.api.config.MuleProperties.MULE_LOG_DEFAULT_POLICY_INTERVAL;
 import static org.mule.runtime.core.api.config.MuleProperties.MULE_LOG_DEFAULT_STRATEGY_MAX;
@@ -42,6 +44,7 @@ import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.core.Appender;
 import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.AsyncAppender;
 import org.apache.logging.log4j.core.appender.ConsoleAppender;
 import org.apache.logging.log4j.core.appender.FileAppender;
 import org.apache.logging.log4j.core.appender.RandomAccessFileAppender;
@@ -49,6 +52,7 @@ import org.apache.logging.log4j.core.appender.RollingFileAppender;
 import org.apache.logging.log4j.core.appender.rolling.DefaultRolloverStrategy;
 import org.apache.logging.log4j.core.appender.rolling.TimeBasedTriggeringPolicy;
 import org.apache.logging.log4j.core.config.AbstractConfiguration;
+import org.apache.logging.log4j.core.config.AppenderRef;
 import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.config.ConfigurationFileWatcher;
 import org.apache.logging.log4j.core.config.ConfigurationListener;
@@ -71,6 +75,8 @@ import org.apache.logging.log4j.core.util.FileWatcher;
  * <li>if the configuration did not include a monitorInterval, then one is set to a default value of 60</li>
  * <li>if the context is standalone, then it adds a rolling file appender associated to the artifact</li>
  * <li>if the context is not standalone, then it just logs to a file named mule-main.log</li>
+ * <li>if {@link #ASYNC_DEFAULT_APPENDER_PROPERTY} is set, the rolling file appender of an artifact is written from a background
+ * thread, which flushes it once per batch of log events instead of once per log event</li>
  * </ul>
  *
  * @since 3.6.0
@@ -89,6 +95,12 @@ final class LoggerContextConfigurer {
 
   static final String FORCED_CONSOLE_APPENDER_NAME = "Forced-Console";
   static final String PER_APP_FILE_APPENDER_NAME = "defaultFileAppender";
+  static final String PER_APP_ASYNC_FILE_APPENDER_DELEGATE_NAME = PER_APP_FILE_APPENDER_NAME + "-delegate";
+
+  static final String ASYNC_DEFAULT_APPENDER_PROPERTY = SYSTEM_PROPERTY_PREFIX + "log.defaultAppender.async";
+  static final String ASYNC_DEFAULT_APPENDER_BUFFER_SIZE_PROPERTY =
+      SYSTEM_PROPERTY_PREFIX + "log.defaultAppender.async.bufferSize";
+  private static final int DEFAULT_ASYNC_APPENDER_BUFFER_SIZE = 1024;
 
   protected void configure(MuleLoggerContext context) {
     disableShutdownHook(context);
@@ -165,11 +177,35 @@ final class LoggerContextConfigurer {
   }
 
   private void addDefaultAppender(MuleLoggerContext context, String logFilePath) {
+    if (context.isArtifactClassloader() && getBoolean(ASYNC_DEFAULT_APPENDER_PROPERTY)) {
+      addAsyncDefaultAppender(context, logFilePath);
+      return;
+    }
+
     RollingFileAppender appender =
-        createRollingFileAppender(logFilePath, ".%d{yyyy-MM-dd}", PER_APP_FILE_APPENDER_NAME, context.getConfiguration());
+        createRollingFileAppender(logFilePath, ".%d{yyyy-MM-dd}", PER_APP_FILE_APPENDER_NAME, true, context.getConfiguration());
     doAddAppender(context, appender);
   }
 
+  private void addAsyncDefaultAppender(MuleLoggerContext context, String logFilePath) {
+    Configuration configuration = context.getConfiguration();
+
+    // Not flushed on each event, the async appender flushes it when its queue is drained
+    RollingFileAppender fileAppender =
+        createRollingFileAppender(logFilePath, ".%d{yyyy-MM-dd}", PER_APP_ASYNC_FILE_APPENDER_DELEGATE_NAME, false,
+                                  configuration);
+    fileAppender.start();
+    configuration.addAppender(fileAppender);
+
+    doAddAppender(context, AsyncAppender.newBuilder()
+        .setName(PER_APP_FILE_APPENDER_NAME)
+        .setAppenderRefs(new AppenderRef[] {AppenderRef.createAppenderRef(fileAppender.getName(), null, null)})
+        .setBufferSize(getInteger(ASYNC_DEFAULT_APPENDER_BUFFER_SIZE_PROPERTY, DEFAULT_ASYNC_APPENDER_BUFFER_SIZE))
+        .setBlocking(true)
+        .setConfiguration(configuration)
+        .build());
+  }
+
   private void forceConsoleAppender(MuleLoggerContext context) {
     doAddAppender(context, ConsoleAppender.newBuilder()
         .withLayout(createLayout(context.getConfiguration()))
@@ -184,12 +220,13 @@ final class LoggerContextConfigurer {
   }
 
   private RollingFileAppender createRollingFileAppender(String logFilePath, String filePattern, String appenderName,
-                                                        Configuration configuration) {
+                                                        boolean immediateFlush, Configuration configuration) {
     return RollingFileAppender.newBuilder()
         .withFileName(logFilePath)
         .withFilePattern(logFilePath + filePattern)
         .withAppend(true)
         .withName(appenderName).withBufferedIo(true)
+        .withImmediateFlush(immediateFlush)
         .withPolicy(TimeBasedTriggeringPolicy.newBuilder()
             .withInterval(getInteger(MULE_LOG_DEFAULT_POLICY_INTERVAL, 1))
             .withModulate(true)
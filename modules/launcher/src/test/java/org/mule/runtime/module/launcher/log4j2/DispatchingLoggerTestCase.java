@@ -110,6 +110,21 @@ public class DispatchingLoggerTestCase extends AbstractMuleTestCase {
     });
   }
 
+  @Test
+  public void alternatingClassLoaders() {
+    Logger regionClassLoaderLogger = mock(Logger.class);
+    when(contextSelector.getContext(LOGGER_NAME, regionClassLoader, true)).thenReturn(regionClassLoaderLoggerContext);
+    when(regionClassLoaderLoggerContext.getLogger(any(), any())).thenReturn(regionClassLoaderLogger);
+
+    withContextClassLoader(regionClassLoader, () -> logger.info(MESSAGE));
+    logger.info(MESSAGE);
+    withContextClassLoader(regionClassLoader, () -> logger.info(MESSAGE));
+    logger.info(MESSAGE);
+
+    verify(regionClassLoaderLogger, times(2)).info(MESSAGE);
+    verify(originalLogger, times(2)).info(MESSAGE);
+  }
+
   @Test
   public void whenRecursiveLoggerContextInstantiationExceptionExpectFallbackUsingContainerClassLoader() {
     // Expected Loggers
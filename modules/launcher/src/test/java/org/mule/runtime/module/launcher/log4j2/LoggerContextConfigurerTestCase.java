@@ -24,7 +24,9 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mule.runtime.api.util.MuleSystemProperties.MULE_FORCE_CONSOLE_LOG;
 import static org.mule.runtime.core.api.config.MuleDeploymentProperties.MULE_MUTE_APP_LOGS_DEPLOYMENT_PROPERTY;
+import static org.mule.runtime.module.launcher.log4j2.LoggerContextConfigurer.ASYNC_DEFAULT_APPENDER_PROPERTY;
 import static org.mule.runtime.module.launcher.log4j2.LoggerContextConfigurer.FORCED_CONSOLE_APPENDER_NAME;
+import static org.mule.runtime.module.launcher.log4j2.LoggerContextConfigurer.PER_APP_ASYNC_FILE_APPENDER_DELEGATE_NAME;
 import static org.mule.runtime.module.launcher.log4j2.LoggerContextConfigurer.PER_APP_FILE_APPENDER_NAME;
 
 import org.mule.runtime.core.api.util.ClassUtils;
@@ -35,6 +37,8 @@ import org.mule.tck.size.SmallTest;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
 
@@ -42,6 +46,7 @@ import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.core.Appender;
 import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.appender.AsyncAppender;
 import org.apache.logging.log4j.core.appender.ConsoleAppender;
 import org.apache.logging.log4j.core.appender.RollingFileAppender;
 import org.apache.logging.log4j.core.config.AbstractConfiguration;
@@ -156,6 +161,40 @@ public class LoggerContextConfigurerTestCase extends AbstractMuleTestCase {
     verify(rootLogger).addAppender(perAppAppender, Level.ALL, null);
   }
 
+  @Test
+  public void perAppAsyncDefaultAppender() throws Exception {
+    Map<String, Appender> appenders = new HashMap<>();
+    doAnswer(invocation -> {
+      Appender appender = invocation.getArgument(0);
+      appenders.put(appender.getName(), appender);
+      return null;
+    }).when(configuration).addAppender(any(Appender.class));
+    when(configuration.getAppenders()).thenReturn(appenders);
+    when(context.isArtifactClassloader()).thenReturn(true);
+    when(context.getArtifactDescriptor().getDeploymentProperties()).thenReturn(empty());
+
+    System.setProperty(ASYNC_DEFAULT_APPENDER_PROPERTY, "true");
+    try {
+      contextConfigurer.update(context);
+    } finally {
+      System.clearProperty(ASYNC_DEFAULT_APPENDER_PROPERTY);
+    }
+
+    Appender perAppAppender = appenders.get(PER_APP_FILE_APPENDER_NAME);
+    try {
+      assertThat(perAppAppender, instanceOf(AsyncAppender.class));
+      assertThat(perAppAppender.isStarted(), is(true));
+      assertThat(appenders.get(PER_APP_ASYNC_FILE_APPENDER_DELEGATE_NAME), instanceOf(RollingFileAppender.class));
+
+      LoggerConfig rootLogger = context.getConfiguration().getRootLogger();
+      verify(rootLogger).addAppender(perAppAppender, Level.ALL, null);
+      verify(rootLogger, never()).addAppender(same(appenders.get(PER_APP_ASYNC_FILE_APPENDER_DELEGATE_NAME)), any(), any());
+    } finally {
+      perAppAppender.stop();
+      appenders.get(PER_APP_ASYNC_FILE_APPENDER_DELEGATE_NAME).stop();
+    }
+  }
+
   @Test
   public void noAppendersForMutedApplication() throws Exception {
     when(context.isArtifactClassloader()).thenReturn(true);
@@ -296,6 +296,15 @@ class MuleExtensionModelDeclarer {
         .withExpressionSupport(NOT_SUPPORTED)
         .describedAs("Defines the prefix of the object store names. This will only be used for the internally built object store.");
 
+    validator.onDefaultParameterGroup()
+        .withOptionalParameter("bloomFilter")
+        .ofType(typeLoader.load(Boolean.class))
+        .defaultingTo(false)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("Whether an in-memory Bloom filter of the processed IDs is kept, so that the object store is only queried "
+            + "for the IDs which might have been processed already.")
+        .withLayout(LayoutModel.builder().tabName(ADVANCED_TAB).build());
+
     validator.onDefaultParameterGroup().withOptionalParameter("objectStore").withDsl(
                                                                                      ParameterDslConfiguration.builder()
                                                                                          .allowsInlineDefinition(true)
@@ -571,6 +580,15 @@ class MuleExtensionModelDeclarer {
         .describedAs("Specifies the minimum time interval between two process retries in milliseconds.\n" +
             " The actual time interval depends on the previous execution but should not exceed twice this number.\n" +
             " Default value is 60000 (one minute)");
+
+    untilSuccessful.onDefaultParameterGroup()
+        .withOptionalParameter("persistent")
+        .ofType(typeLoader.load(Boolean.class))
+        .defaultingTo(false)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("Whether the messages waiting for a retry are kept in a persistent object store instead of in memory, so "
+            + "that they are retried even if the application is restarted in the meantime.")
+        .withLayout(LayoutModel.builder().tabName(ADVANCED_TAB).build());
   }
 
   private void declareChoice(ExtensionDeclarer extensionDeclarer, ClassTypeLoader typeLoader) {
@@ -669,6 +687,21 @@ class MuleExtensionModelDeclarer {
         .defaultingTo(Integer.MAX_VALUE)
         .withExpressionSupport(NOT_SUPPORTED)
         .describedAs("This value determines the maximum level of parallelism that will be used by this router.");
+    scatterGather.onDefaultParameterGroup()
+        .withOptionalParameter("adaptiveConcurrency")
+        .ofType(typeLoader.load(Boolean.class))
+        .defaultingTo(false)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("Whether the level of parallelism is adapted to the latency and errors of the routes, between "
+            + "minConcurrency and maxConcurrency.")
+        .withLayout(LayoutModel.builder().tabName(ADVANCED_TAB).build());
+    scatterGather.onDefaultParameterGroup()
+        .withOptionalParameter("minConcurrency")
+        .ofType(typeLoader.load(Integer.class))
+        .defaultingTo(1)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("The lowest level of parallelism to which this router may go when adaptiveConcurrency is enabled.")
+        .withLayout(LayoutModel.builder().tabName(ADVANCED_TAB).build());
     scatterGather.onDefaultParameterGroup()
         .withOptionalParameter(TARGET_PARAMETER_NAME)
         .ofType(typeLoader.load(String.class))
@@ -719,6 +752,29 @@ class MuleExtensionModelDeclarer {
         .defaultingTo(Integer.MAX_VALUE)
         .withExpressionSupport(NOT_SUPPORTED)
         .describedAs("This value determines the maximum level of parallelism that will be used by this router.");
+    parallelForeach.onDefaultParameterGroup()
+        .withOptionalParameter("adaptiveConcurrency")
+        .ofType(typeLoader.load(Boolean.class))
+        .defaultingTo(false)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("Whether the level of parallelism is adapted to the latency and errors of the routes, between "
+            + "minConcurrency and maxConcurrency.")
+        .withLayout(LayoutModel.builder().tabName(ADVANCED_TAB).build());
+    parallelForeach.onDefaultParameterGroup()
+        .withOptionalParameter("minConcurrency")
+        .ofType(typeLoader.load(Integer.class))
+        .defaultingTo(1)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("The lowest level of parallelism to which this router may go when adaptiveConcurrency is enabled.")
+        .withLayout(LayoutModel.builder().tabName(ADVANCED_TAB).build());
+    parallelForeach.onDefaultParameterGroup()
+        .withOptionalParameter("streamingResults")
+        .ofType(typeLoader.load(Boolean.class))
+        .defaultingTo(false)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("Whether the results of the routes are returned as a repeatable iterator, which offloads them to disk once "
+            + "there are too many to be kept in memory, instead of a list.")
+        .withLayout(LayoutModel.builder().tabName(ADVANCED_TAB).build());
     parallelForeach.onDefaultParameterGroup()
         .withOptionalParameter(TARGET_PARAMETER_NAME)
         .ofType(typeLoader.load(String.class))
@@ -386,7 +386,7 @@ public class CoreExtensionModelTestCase {
 
     assertOutputSameAsInput(filterModel);
 
-    assertThat(filterModel.getAllParameterModels(), hasSize(4));
+    assertThat(filterModel.getAllParameterModels(), hasSize(5));
 
     assertThat(filterModel.getAllParameterModels().get(0).getName(), is("idExpression"));
     assertThat(filterModel.getAllParameterModels().get(0).getExpressionSupport(), is(SUPPORTED));
@@ -403,12 +403,18 @@ public class CoreExtensionModelTestCase {
     assertThat(filterModel.getAllParameterModels().get(2).getType(), instanceOf(DefaultStringType.class));
     assertThat(filterModel.getAllParameterModels().get(2).isRequired(), is(false));
 
-    assertThat(filterModel.getAllParameterModels().get(3).getName(), is("objectStore"));
+    assertThat(filterModel.getAllParameterModels().get(3).getName(), is("bloomFilter"));
     assertThat(filterModel.getAllParameterModels().get(3).getExpressionSupport(), is(NOT_SUPPORTED));
-    assertThat(filterModel.getAllParameterModels().get(3).getType(), instanceOf(DefaultObjectType.class));
+    assertThat(filterModel.getAllParameterModels().get(3).getType(), instanceOf(DefaultBooleanType.class));
+    assertThat(filterModel.getAllParameterModels().get(3).getDefaultValue(), is(false));
     assertThat(filterModel.getAllParameterModels().get(3).isRequired(), is(false));
-    assertThat(filterModel.getAllParameterModels().get(3).getAllowedStereotypes().size(), is(1));
-    assertThat(filterModel.getAllParameterModels().get(3).getAllowedStereotypes().get(0), is(OBJECT_STORE));
+
+    assertThat(filterModel.getAllParameterModels().get(4).getName(), is("objectStore"));
+    assertThat(filterModel.getAllParameterModels().get(4).getExpressionSupport(), is(NOT_SUPPORTED));
+    assertThat(filterModel.getAllParameterModels().get(4).getType(), instanceOf(DefaultObjectType.class));
+    assertThat(filterModel.getAllParameterModels().get(4).isRequired(), is(false));
+    assertThat(filterModel.getAllParameterModels().get(4).getAllowedStereotypes().size(), is(1));
+    assertThat(filterModel.getAllParameterModels().get(4).getAllowedStereotypes().get(0), is(OBJECT_STORE));
   }
 
   @Test
@@ -442,7 +448,7 @@ public class CoreExtensionModelTestCase {
     final ConstructModel scatterGatherModel = coreExtensionModel.getConstructModel("scatterGather").get();
 
 
-    assertThat(scatterGatherModel.getAllParameterModels(), hasSize(4));
+    assertThat(scatterGatherModel.getAllParameterModels(), hasSize(6));
 
     assertThat(scatterGatherModel.getAllParameterModels().get(0).getName(), is("timeout"));
     assertThat(scatterGatherModel.getAllParameterModels().get(0).getExpressionSupport(), is(NOT_SUPPORTED));
@@ -454,16 +460,28 @@ public class CoreExtensionModelTestCase {
     assertThat(scatterGatherModel.getAllParameterModels().get(1).getType(), instanceOf(DefaultNumberType.class));
     assertThat(scatterGatherModel.getAllParameterModels().get(1).isRequired(), is(false));
 
-    assertThat(scatterGatherModel.getAllParameterModels().get(2).getName(), is(TARGET_PARAMETER_NAME));
+    assertThat(scatterGatherModel.getAllParameterModels().get(2).getName(), is("adaptiveConcurrency"));
     assertThat(scatterGatherModel.getAllParameterModels().get(2).getExpressionSupport(), is(NOT_SUPPORTED));
-    assertThat(scatterGatherModel.getAllParameterModels().get(2).getType(), instanceOf(DefaultStringType.class));
+    assertThat(scatterGatherModel.getAllParameterModels().get(2).getType(), instanceOf(DefaultBooleanType.class));
+    assertThat(scatterGatherModel.getAllParameterModels().get(2).getDefaultValue(), is(false));
     assertThat(scatterGatherModel.getAllParameterModels().get(2).isRequired(), is(false));
 
-    assertThat(scatterGatherModel.getAllParameterModels().get(3).getName(), is(TARGET_VALUE_PARAMETER_NAME));
-    assertThat(scatterGatherModel.getAllParameterModels().get(3).getExpressionSupport(), is(REQUIRED));
-    assertThat(scatterGatherModel.getAllParameterModels().get(3).getType(), instanceOf(StringType.class));
+    assertThat(scatterGatherModel.getAllParameterModels().get(3).getName(), is("minConcurrency"));
+    assertThat(scatterGatherModel.getAllParameterModels().get(3).getExpressionSupport(), is(NOT_SUPPORTED));
+    assertThat(scatterGatherModel.getAllParameterModels().get(3).getType(), instanceOf(DefaultNumberType.class));
+    assertThat(scatterGatherModel.getAllParameterModels().get(3).getDefaultValue(), is(1));
     assertThat(scatterGatherModel.getAllParameterModels().get(3).isRequired(), is(false));
 
+    assertThat(scatterGatherModel.getAllParameterModels().get(4).getName(), is(TARGET_PARAMETER_NAME));
+    assertThat(scatterGatherModel.getAllParameterModels().get(4).getExpressionSupport(), is(NOT_SUPPORTED));
+    assertThat(scatterGatherModel.getAllParameterModels().get(4).getType(), instanceOf(DefaultStringType.class));
+    assertThat(scatterGatherModel.getAllParameterModels().get(4).isRequired(), is(false));
+
+    assertThat(scatterGatherModel.getAllParameterModels().get(5).getName(), is(TARGET_VALUE_PARAMETER_NAME));
+    assertThat(scatterGatherModel.getAllParameterModels().get(5).getExpressionSupport(), is(REQUIRED));
+    assertThat(scatterGatherModel.getAllParameterModels().get(5).getType(), instanceOf(StringType.class));
+    assertThat(scatterGatherModel.getAllParameterModels().get(5).isRequired(), is(false));
+
     assertThat(scatterGatherModel.getNestedComponents(), hasSize(1));
 
     final NestedRouteModel routeModel = (NestedRouteModel) scatterGatherModel.getNestedComponents().get(0);
@@ -484,7 +502,7 @@ public class CoreExtensionModelTestCase {
     assertThat(processorsChain, instanceOf(NestedChainModel.class));
     assertThat(processorsChain.isRequired(), is(true));
 
-    assertThat(parallelForeach.getAllParameterModels(), hasSize(5));
+    assertThat(parallelForeach.getAllParameterModels(), hasSize(8));
 
     final ParameterModel collection = parallelForeach.getAllParameterModels().get(0);
     assertThat(collection.getName(), is("collection"));
@@ -507,13 +525,34 @@ public class CoreExtensionModelTestCase {
     assertThat(maxConcurrency.getType(), instanceOf(DefaultNumberType.class));
     assertThat(maxConcurrency.isRequired(), is(false));
 
-    final ParameterModel target = parallelForeach.getAllParameterModels().get(3);
+    final ParameterModel adaptiveConcurrency = parallelForeach.getAllParameterModels().get(3);
+    assertThat(adaptiveConcurrency.getName(), is("adaptiveConcurrency"));
+    assertThat(adaptiveConcurrency.getExpressionSupport(), is(NOT_SUPPORTED));
+    assertThat(adaptiveConcurrency.getType(), instanceOf(DefaultBooleanType.class));
+    assertThat(adaptiveConcurrency.getDefaultValue(), is(false));
+    assertThat(adaptiveConcurrency.isRequired(), is(false));
+
+    final ParameterModel minConcurrency = parallelForeach.getAllParameterModels().get(4);
+    assertThat(minConcurrency.getName(), is("minConcurrency"));
+    assertThat(minConcurrency.getExpressionSupport(), is(NOT_SUPPORTED));
+    assertThat(minConcurrency.getType(), instanceOf(DefaultNumberType.class));
+    assertThat(minConcurrency.getDefaultValue(), is(1));
+    assertThat(minConcurrency.isRequired(), is(false));
+
+    final ParameterModel streamingResults = parallelForeach.getAllParameterModels().get(5);
+    assertThat(streamingResults.getName(), is("streamingResults"));
+    assertThat(streamingResults.getExpressionSupport(), is(NOT_SUPPORTED));
+    assertThat(streamingResults.getType(), instanceOf(DefaultBooleanType.class));
+    assertThat(streamingResults.getDefaultValue(), is(false));
+    assertThat(streamingResults.isRequired(), is(false));
+
+    final ParameterModel target = parallelForeach.getAllParameterModels().get(6);
     assertThat(target.getName(), is(TARGET_PARAMETER_NAME));
     assertThat(target.getExpressionSupport(), is(NOT_SUPPORTED));
     assertThat(target.getType(), instanceOf(DefaultStringType.class));
     assertThat(target.isRequired(), is(false));
 
-    final ParameterModel targetValue = parallelForeach.getAllParameterModels().get(4);
+    final ParameterModel targetValue = parallelForeach.getAllParameterModels().get(7);
     assertThat(targetValue.getName(), is(TARGET_VALUE_PARAMETER_NAME));
     assertThat(targetValue.getExpressionSupport(), is(REQUIRED));
     assertThat(targetValue.getType(), instanceOf(StringType.class));
@@ -565,7 +604,7 @@ public class CoreExtensionModelTestCase {
     final ConstructModel tryModel = coreExtensionModel.getConstructModel("untilSuccessful").get();
 
     List<ParameterModel> allParameterModels = tryModel.getAllParameterModels();
-    assertThat(allParameterModels, hasSize(2));
+    assertThat(allParameterModels, hasSize(3));
 
     ParameterModel action = allParameterModels.get(0);
     assertThat(action.getName(), is("maxRetries"));
@@ -580,6 +619,13 @@ public class CoreExtensionModelTestCase {
     assertThat(type.getExpressionSupport(), is(SUPPORTED));
     assertThat(type.getDefaultValue(), is(60000));
     assertThat(type.isRequired(), is(false));
+
+    ParameterModel persistent = allParameterModels.get(2);
+    assertThat(persistent.getName(), is("persistent"));
+    assertThat(persistent.getType(), is(instanceOf(DefaultBooleanType.class)));
+    assertThat(persistent.getExpressionSupport(), is(NOT_SUPPORTED));
+    assertThat(persistent.getDefaultValue(), is(false));
+    assertThat(persistent.isRequired(), is(false));
   }
 
   @Test
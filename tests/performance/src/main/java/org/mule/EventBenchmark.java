@@ -55,7 +55,7 @@ public class EventBenchmark extends AbstractBenchmark {
     event = eventBuilder.build();
     eventWith10VariablesProperties = createMuleEventWithFlowVarsAndProperties(10);
     eventWith50VariablesProperties = createMuleEventWithFlowVarsAndProperties(50);
-    eventWith100VariablesProperties = createMuleEventWithFlowVarsAndProperties(50);
+    eventWith100VariablesProperties = createMuleEventWithFlowVarsAndProperties(100);
   }
 
   @TearDown
@@ -128,6 +128,32 @@ public class EventBenchmark extends AbstractBenchmark {
     return CoreEvent.builder(eventWith100VariablesProperties).addVariable(KEY, VALUE).build();
   }
 
+  @Benchmark
+  public CoreEvent removeEventVariableEventWith100VariablesProperties() {
+    return CoreEvent.builder(eventWith100VariablesProperties).removeVariable("FlOwVaRiAbLeKeY50").build();
+  }
+
+  /**
+   * Each processor in a chain builds a new event from the previous one and sets a variable, as a set-variable would.
+   */
+  @Benchmark
+  public CoreEvent addEventVariableIn10ChainedEventsWith100VariablesProperties() {
+    CoreEvent result = eventWith100VariablesProperties;
+    for (int i = 0; i < 10; ++i) {
+      result = CoreEvent.builder(result).addVariable(KEY + i, VALUE).build();
+    }
+    return result;
+  }
+
+  @Benchmark
+  public CoreEvent replaceEventVariableIn10ChainedEventsWith100VariablesProperties() {
+    CoreEvent result = eventWith100VariablesProperties;
+    for (int i = 0; i < 10; ++i) {
+      result = CoreEvent.builder(result).addVariable("FlOwVaRiAbLeKeY" + (i + 1), VALUE).build();
+    }
+    return result;
+  }
+
 
   @Benchmark
   public CoreEvent copyWith10FlowVarsAnd10PropertiesWrite1OfEach() throws Exception {
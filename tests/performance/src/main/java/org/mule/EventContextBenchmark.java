@@ -135,6 +135,52 @@ public class EventContextBenchmark extends AbstractBenchmark {
     return new Object[] {result, complete};
   }
 
+  @Benchmark
+  public Object[] createEventContextWith1000ChildrenTerminateAllAtOnceInReverseOrder() {
+    AtomicReference<CoreEvent> result = new AtomicReference<>();
+    AtomicBoolean complete = new AtomicBoolean();
+    BaseEventContext eventContext = (BaseEventContext) create(flow, CONNECTOR_LOCATION);
+
+    List<BaseEventContext> children = new ArrayList<>(1000);
+    for (int i = 0; i < 1000; ++i) {
+      children.add(child(eventContext, empty()));
+    }
+
+    from(from(eventContext.getResponsePublisher())).doOnSuccess(response -> result.set(response)).subscribe();
+    eventContext.onTerminated((response, throwable) -> complete.set(true));
+    eventContext.success(event);
+
+    for (int i = children.size() - 1; i >= 0; --i) {
+      children.get(i).success();
+    }
+
+    return new Object[] {result, complete};
+  }
+
+  /**
+   * Like a chain of 10 nested flow-refs, each one creating a child context of the previous one.
+   */
+  @Benchmark
+  public Object[] createEventContextWith10NestedChildren() {
+    AtomicBoolean complete = new AtomicBoolean();
+    BaseEventContext eventContext = (BaseEventContext) create(flow, CONNECTOR_LOCATION);
+    eventContext.onTerminated((response, throwable) -> complete.set(true));
+
+    List<BaseEventContext> contexts = new ArrayList<>(10);
+    BaseEventContext current = eventContext;
+    for (int i = 0; i < 10; ++i) {
+      current = child(current, empty());
+      contexts.add(current);
+    }
+
+    for (int i = contexts.size() - 1; i >= 0; --i) {
+      contexts.get(i).success(event);
+    }
+    eventContext.success(event);
+
+    return new Object[] {contexts, complete};
+  }
+
   @Benchmark
   public Object[] createEventContextWith10ChildrenForEach() {
     return childEventContextForEach(10);
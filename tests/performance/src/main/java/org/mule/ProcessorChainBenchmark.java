@@ -21,6 +21,7 @@ import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChain;
 import java.util.concurrent.CountDownLatch;
 
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
 import org.openjdk.jmh.annotations.Setup;
@@ -36,6 +37,10 @@ public class ProcessorChainBenchmark extends AbstractBenchmark {
 
   private static final int NUM_PROCESSORS = 20;
   private static final int STREAM_SIZE = 1000;
+
+  // Assembles each processor in its own stage, as done before consecutive CPU_LITE processors were fused.
+  private static final String DISABLE_CPU_LITE_FUSION = "-Dmule.processorChain.disableCpuLiteFusion=true";
+
   private MessageProcessorChain chain;
 
   private CoreEvent event;
@@ -57,6 +62,12 @@ public class ProcessorChainBenchmark extends AbstractBenchmark {
     return chain.process(event);
   }
 
+  @Benchmark
+  @Fork(value = 1, jvmArgsAppend = DISABLE_CPU_LITE_FUSION)
+  public CoreEvent blockingWithoutFusion() throws MuleException {
+    return blocking();
+  }
+
   @Benchmark
   public CountDownLatch stream() throws MuleException, InterruptedException {
     CountDownLatch latch = new CountDownLatch(STREAM_SIZE);
@@ -73,4 +84,10 @@ public class ProcessorChainBenchmark extends AbstractBenchmark {
     return latch;
   }
 
+  @Benchmark
+  @Fork(value = 1, jvmArgsAppend = DISABLE_CPU_LITE_FUSION)
+  public CountDownLatch streamWithoutFusion() throws MuleException, InterruptedException {
+    return stream();
+  }
+
 }
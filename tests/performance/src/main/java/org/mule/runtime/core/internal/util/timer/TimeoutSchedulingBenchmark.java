@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.timer;
+
+import static java.util.concurrent.Executors.newScheduledThreadPool;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static reactor.core.scheduler.Schedulers.fromExecutorService;
+
+import org.mule.AbstractBenchmark;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Compares scheduling and cancelling a timeout, which is what happens for most fork-join routes and until-successful delays,
+ * in a {@link ScheduledExecutorService} through Reactor, as done before, and in a {@link HashedWheelTimer}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+public class TimeoutSchedulingBenchmark extends AbstractBenchmark {
+
+  private static final long TIMEOUT = 30000;
+  private static final Runnable TASK = () -> {
+  };
+
+  private ScheduledExecutorService executor;
+  private Scheduler executorScheduler;
+  private ScheduledExecutorService ticker;
+  private HashedWheelTimer timer;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    executor = newScheduledThreadPool(1);
+    executorScheduler = fromExecutorService(executor);
+
+    timer = new HashedWheelTimer(10, MILLISECONDS, 512);
+    ticker = newScheduledThreadPool(1);
+    ticker.scheduleAtFixedRate(timer::tick, 10, 10, MILLISECONDS);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    executorScheduler.dispose();
+    executor.shutdownNow();
+    ticker.shutdownNow();
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public boolean scheduledExecutor() {
+    Disposable timeout = executorScheduler.schedule(TASK, TIMEOUT, MILLISECONDS);
+    timeout.dispose();
+    return timeout.isDisposed();
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public boolean timerWheel() {
+    ScheduledFuture<?> timeout = timer.newTimeout(TASK, TIMEOUT, MILLISECONDS);
+    return timeout.cancel(false);
+  }
+}
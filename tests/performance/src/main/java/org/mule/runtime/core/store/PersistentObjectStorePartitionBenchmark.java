@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.store;
+
+import static java.nio.file.Files.createTempDirectory;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.apache.commons.io.FileUtils.deleteDirectory;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
+import static org.mule.runtime.core.privileged.registry.LegacyRegistryUtils.lookupObject;
+
+import org.mule.AbstractBenchmark;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.util.UUID;
+import org.mule.runtime.core.internal.util.store.ConcurrentPersistentObjectStorePartition;
+import org.mule.runtime.core.internal.util.store.PersistentObjectStorePartition;
+
+import java.io.File;
+import java.io.Serializable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Compares the throughput of the {@link PersistentObjectStorePartition} and the
+ * {@link ConcurrentPersistentObjectStorePartition} when accessed by many threads, as done by an idempotent message validator.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(MILLISECONDS)
+public class PersistentObjectStorePartitionBenchmark extends AbstractBenchmark {
+
+  private static final int PRELOADED_KEYS = 1000;
+
+  @Param({"false", "true"})
+  public boolean concurrent;
+
+  private MuleContext muleContext;
+  private File partitionDirectory;
+  private PersistentObjectStorePartition<Serializable> partition;
+
+  @Setup
+  public void setup() throws Exception {
+    muleContext = createMuleContextWithServices();
+    muleContext.start();
+    partitionDirectory = createTempDirectory("objectStoreBenchmark").toFile();
+
+    partition = concurrent
+        ? new ConcurrentPersistentObjectStorePartition<>(muleContext, "benchmark", partitionDirectory)
+        : new PersistentObjectStorePartition<>(muleContext, "benchmark", partitionDirectory);
+    partition.open();
+
+    for (int i = 0; i < PRELOADED_KEYS; i++) {
+      partition.store(KEY + i, VALUE + i);
+    }
+  }
+
+  @TearDown
+  public void teardown() throws Exception {
+    partition.close();
+    deleteDirectory(partitionDirectory);
+    stopIfNeeded(lookupObject(muleContext, SchedulerService.class));
+    muleContext.dispose();
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public Serializable storeAndRemove() throws Exception {
+    String key = UUID.getUUID();
+    if (!partition.contains(key)) {
+      partition.store(key, VALUE);
+    }
+    return partition.remove(key);
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public Serializable retrieve() throws Exception {
+    return partition.retrieve(KEY + (Thread.currentThread().getId() % PRELOADED_KEYS));
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public boolean contains() throws Exception {
+    return partition.contains(KEY + (Thread.currentThread().getId() % PRELOADED_KEYS));
+  }
+}
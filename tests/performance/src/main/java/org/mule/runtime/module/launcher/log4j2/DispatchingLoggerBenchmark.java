@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.launcher.log4j2;
+
+import static java.lang.Thread.currentThread;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.mule.runtime.module.launcher.log4j2.ArtifactAwareContextSelector.resolveLoggerContextClassLoader;
+
+import org.mule.AbstractBenchmark;
+
+import java.net.URI;
+import java.util.List;
+
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.selector.ContextSelector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures the overhead of dispatching log events that are discarded because of their level, which is the most common case for
+ * debug logging in the runtime code. The {@code AlternatingContextClassLoaders} benchmarks log from two context class loaders in
+ * turns, as happens with loggers shared by several artifacts.
+ */
+@OutputTimeUnit(NANOSECONDS)
+public class DispatchingLoggerBenchmark extends AbstractBenchmark {
+
+  private static final String LOGGER_NAME = DispatchingLoggerBenchmark.class.getName();
+  private static final String MESSAGE = "Hello Log!";
+
+  private LoggerContext ownerContext;
+  private LoggerContext dispatchedContext;
+
+  private Logger ownerContextLogger;
+  private Logger dispatchedContextLogger;
+
+  private ClassLoader[] contextClassLoaders;
+  private int nextContextClassLoader;
+
+  @Setup
+  public void setup() {
+    ownerContext = new LoggerContext("owner");
+    ownerContext.start();
+    dispatchedContext = new LoggerContext("dispatched");
+    dispatchedContext.start();
+
+    ContextSelector contextSelector = new ContextSelector() {
+
+      @Override
+      public LoggerContext getContext(String fqcn, ClassLoader loader, boolean currentContext) {
+        return dispatchedContext;
+      }
+
+      @Override
+      public LoggerContext getContext(String fqcn, ClassLoader loader, boolean currentContext, URI configLocation) {
+        return dispatchedContext;
+      }
+
+      @Override
+      public List<LoggerContext> getLoggerContexts() {
+        return singletonList(dispatchedContext);
+      }
+
+      @Override
+      public void removeContext(LoggerContext context) {}
+    };
+
+    Logger originalLogger = ownerContext.getLogger(LOGGER_NAME);
+    int currentClassLoaderHash = resolveLoggerContextClassLoader(currentThread().getContextClassLoader()).hashCode();
+
+    ownerContextLogger = new DispatchingLogger(originalLogger, currentClassLoaderHash, ownerContext, contextSelector,
+                                               originalLogger.getMessageFactory()) {};
+    dispatchedContextLogger = new DispatchingLogger(originalLogger, currentClassLoaderHash + 1, ownerContext, contextSelector,
+                                                    originalLogger.getMessageFactory()) {};
+
+    ClassLoader contextClassLoader = currentThread().getContextClassLoader();
+    contextClassLoaders = new ClassLoader[] {contextClassLoader, new ClassLoader(contextClassLoader) {}};
+  }
+
+  @TearDown
+  public void teardown() {
+    currentThread().setContextClassLoader(contextClassLoaders[0]);
+    ownerContext.stop();
+    dispatchedContext.stop();
+  }
+
+  @Benchmark
+  public boolean isDebugEnabledOwnerContext() {
+    return ownerContextLogger.isDebugEnabled();
+  }
+
+  @Benchmark
+  public boolean isDebugEnabledDispatchedContext() {
+    return dispatchedContextLogger.isDebugEnabled();
+  }
+
+  @Benchmark
+  public Logger debugOwnerContext() {
+    ownerContextLogger.debug(MESSAGE);
+    return ownerContextLogger;
+  }
+
+  @Benchmark
+  public Logger debugDispatchedContext() {
+    dispatchedContextLogger.debug(MESSAGE);
+    return dispatchedContextLogger;
+  }
+
+  @Benchmark
+  public Logger debugWithParametersDispatchedContext() {
+    dispatchedContextLogger.debug("{} {}", MESSAGE, LOGGER_NAME);
+    return dispatchedContextLogger;
+  }
+
+  @Benchmark
+  public boolean isDebugEnabledOwnerContextAlternatingContextClassLoaders() {
+    switchContextClassLoader();
+    return ownerContextLogger.isDebugEnabled();
+  }
+
+  @Benchmark
+  public boolean isDebugEnabledDispatchedContextAlternatingContextClassLoaders() {
+    switchContextClassLoader();
+    return dispatchedContextLogger.isDebugEnabled();
+  }
+
+  private void switchContextClassLoader() {
+    nextContextClassLoader ^= 1;
+    currentThread().setContextClassLoader(contextClassLoaders[nextContextClassLoader]);
+  }
+}